@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,14 +11,28 @@
 package org.eclipse.nebula.widgets.nattable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.nebula.widgets.nattable.command.DisposeResourcesCommand;
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.painter.layer.ILayerPainter;
 import org.eclipse.nebula.widgets.nattable.test.fixture.LayerEventFixture;
 import org.eclipse.nebula.widgets.nattable.test.fixture.command.AnyCommandHandlerFixture;
 import org.eclipse.nebula.widgets.nattable.test.fixture.layer.DataLayerFixture;
 import org.eclipse.nebula.widgets.nattable.test.fixture.layer.LayerListenerFixture;
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.Region;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
 import org.junit.Before;
 import org.junit.Test;
@@ -55,4 +69,57 @@ public void shouldFireDisposeCommandOnDisposal() throws Exception {
         assertEquals(1, commandHandler.getNumberOfCommandsHandled());
         assertTrue(commandHandler.getCommadHandled() instanceof DisposeResourcesCommand);
     }
+
+    @Test
+    public void shouldPaintRegionsOnlyIfTheyCoverTheDamagedArea() {
+        final List<Rectangle> painted = new ArrayList<Rectangle>();
+        this.underlyingLayerFixture.setLayerPainter(new ILayerPainter() {
+
+            @Override
+            public void paintLayer(ILayer natLayer, GC gc, int xOffset, int yOffset, Rectangle rectangle, IConfigRegistry configuration) {
+                painted.add(rectangle);
+            }
+
+            @Override
+            public Rectangle adjustCellBounds(int columnPosition, int rowPosition, Rectangle cellBounds) {
+                return cellBounds;
+            }
+        });
+
+        Image image = new Image(Display.getDefault(), 1000, 100);
+        GC gc = new GC(image);
+        Region damaged = new Region(Display.getDefault());
+        try {
+            Rectangle first = new Rectangle(0, 0, 100, 20);
+            Rectangle second = new Rectangle(800, 80, 300, 20);
+            Rectangle eventArea = new Rectangle(0, 0, 900, 100);
+
+            Event event = new Event();
+            event.widget = this.natTable;
+            event.gc = gc;
+            event.x = eventArea.x;
+            event.y = eventArea.y;
+            event.width = eventArea.width;
+            event.height = eventArea.height;
+
+            // the damaged area is covered by the regions, the regions are
+            // painted clipped to the event area
+            damaged.add(first);
+            damaged.add(second.intersection(eventArea));
+            gc.setClipping(damaged);
+            assertTrue(this.natTable.paintRegions(new PaintEvent(event), Arrays.asList(first, second)));
+            assertEquals(Arrays.asList(first, new Rectangle(800, 80, 100, 20)), painted);
+
+            // the damaged area is bigger than the regions, e.g. because the
+            // table was partially covered
+            painted.clear();
+            gc.setClipping(eventArea);
+            assertFalse(this.natTable.paintRegions(new PaintEvent(event), Arrays.asList(first, second)));
+            assertTrue(painted.isEmpty());
+        } finally {
+            damaged.dispose();
+            gc.dispose();
+            image.dispose();
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Test;
+
+public class ScrollBlitTest {
+
+    // a table with a column header of 20 pixels and a row header of 40
+    // pixels
+    private Rectangle clientArea = new Rectangle(0, 0, 500, 300);
+    private Rectangle viewportArea = new Rectangle(40, 20, 460, 280);
+
+    @Test
+    public void shouldMoveRowBandUpOnScrollingDown() {
+        ScrollBlit blit = ScrollBlit.create(this.clientArea, this.viewportArea, 0, 60);
+
+        assertEquals(new Rectangle(0, 80, 500, 220), blit.source);
+        assertEquals(new Rectangle(0, 20, 500, 220), blit.destination);
+        assertEquals(new Rectangle(0, 240, 500, 60), blit.exposed);
+    }
+
+    @Test
+    public void shouldMoveRowBandDownOnScrollingUp() {
+        ScrollBlit blit = ScrollBlit.create(this.clientArea, this.viewportArea, 0, -60);
+
+        assertEquals(new Rectangle(0, 20, 500, 220), blit.source);
+        assertEquals(new Rectangle(0, 80, 500, 220), blit.destination);
+        assertEquals(new Rectangle(0, 20, 500, 60), blit.exposed);
+    }
+
+    @Test
+    public void shouldMoveColumnBandLeftOnScrollingRight() {
+        ScrollBlit blit = ScrollBlit.create(this.clientArea, this.viewportArea, 100, 0);
+
+        assertEquals(new Rectangle(140, 0, 360, 300), blit.source);
+        assertEquals(new Rectangle(40, 0, 360, 300), blit.destination);
+        assertEquals(new Rectangle(400, 0, 100, 300), blit.exposed);
+    }
+
+    @Test
+    public void shouldMoveColumnBandRightOnScrollingLeft() {
+        ScrollBlit blit = ScrollBlit.create(this.clientArea, this.viewportArea, -100, 0);
+
+        assertEquals(new Rectangle(40, 0, 360, 300), blit.source);
+        assertEquals(new Rectangle(140, 0, 360, 300), blit.destination);
+        assertEquals(new Rectangle(40, 0, 100, 300), blit.exposed);
+    }
+
+    @Test
+    public void shouldLimitBandToClientArea() {
+        // the viewport is bigger than the visible client area
+        ScrollBlit blit = ScrollBlit.create(this.clientArea, new Rectangle(40, 20, 460, 1000), 0, 20);
+
+        assertEquals(new Rectangle(0, 40, 500, 260), blit.source);
+        assertEquals(new Rectangle(0, 20, 500, 260), blit.destination);
+        assertEquals(new Rectangle(0, 280, 500, 20), blit.exposed);
+    }
+
+    @Test
+    public void shouldNotBlitInBothOrNoDirection() {
+        assertNull(ScrollBlit.create(this.clientArea, this.viewportArea, 10, 10));
+        assertNull(ScrollBlit.create(this.clientArea, this.viewportArea, 0, 0));
+    }
+
+    @Test
+    public void shouldNotBlitIfNothingRemainsVisible() {
+        assertNull(ScrollBlit.create(this.clientArea, this.viewportArea, 0, 280));
+        assertNull(ScrollBlit.create(this.clientArea, this.viewportArea, -460, 0));
+        assertNull(ScrollBlit.create(this.clientArea, new Rectangle(40, 20, 0, 0), 0, 10));
+    }
+}
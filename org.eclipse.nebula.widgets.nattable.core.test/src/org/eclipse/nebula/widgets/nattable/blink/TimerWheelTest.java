@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.blink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private List<List<String>> batches;
+    private TimerWheel<String> wheel;
+    private long start;
+
+    @Before
+    public void setup() {
+        this.batches = new ArrayList<List<String>>();
+        // no scheduler, the wheel is advanced manually
+        this.wheel = new TimerWheel<String>(null, this.batches::add, 10, 8);
+        this.start = System.nanoTime();
+    }
+
+    @Test
+    public void shouldExpireKeysInBatches() {
+        this.wheel.schedule("a", 50, this.start);
+        this.wheel.schedule("b", 50, this.start);
+        this.wheel.schedule("c", 100, this.start);
+        assertEquals(3, this.wheel.size());
+
+        this.wheel.advance(this.start + 30 * MS);
+        assertTrue(this.batches.isEmpty());
+
+        this.wheel.advance(this.start + 70 * MS);
+        assertEquals(1, this.batches.size());
+        List<String> batch = new ArrayList<String>(this.batches.get(0));
+        Collections.sort(batch);
+        assertEquals(Arrays.asList("a", "b"), batch);
+        assertFalse(this.wheel.isScheduled("a"));
+        assertTrue(this.wheel.isScheduled("c"));
+
+        this.wheel.advance(this.start + 120 * MS);
+        assertEquals(2, this.batches.size());
+        assertEquals(Arrays.asList("c"), this.batches.get(1));
+        assertEquals(0, this.wheel.size());
+    }
+
+    @Test
+    public void shouldHandleDelaysLongerThanARevolution() {
+        // the wheel covers 80ms per revolution
+        this.wheel.schedule("a", 250, this.start);
+
+        this.wheel.advance(this.start + 100 * MS);
+        this.wheel.advance(this.start + 200 * MS);
+        assertTrue(this.batches.isEmpty());
+
+        this.wheel.advance(this.start + 260 * MS);
+        assertEquals(Arrays.asList("a"), this.batches.get(0));
+    }
+
+    @Test
+    public void shouldRescheduleAndCancel() {
+        this.wheel.schedule("a", 20, this.start);
+        this.wheel.schedule("b", 20, this.start);
+        this.wheel.schedule("a", 60, this.start + 10 * MS);
+        assertTrue(this.wheel.cancel("b"));
+        assertFalse(this.wheel.cancel("b"));
+
+        this.wheel.advance(this.start + 40 * MS);
+        assertTrue(this.batches.isEmpty());
+
+        this.wheel.advance(this.start + 80 * MS);
+        assertEquals(Arrays.asList("a"), this.batches.get(0));
+    }
+
+    @Test
+    public void shouldAdvanceWithScheduler() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final CountDownLatch latch = new CountDownLatch(3);
+            TimerWheel<Integer> timerWheel = new TimerWheel<Integer>(scheduler, keys -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    latch.countDown();
+                }
+            });
+            timerWheel.schedule(1, 10);
+            timerWheel.schedule(2, 20);
+            timerWheel.schedule(3, 30);
+
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            assertEquals(0, timerWheel.size());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
 package org.eclipse.nebula.widgets.nattable.blink;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
@@ -107,4 +109,43 @@ public void shouldCleanUpStaleEventsAterTTLExpires() throws Exception {
 
         assertEquals(0, this.cache.getCount());
     }
+
+    @Test
+    public void shouldOnlyRemoveStaleEvents() throws Exception {
+        this.cache.put(this.testEvent1);
+        Thread.sleep(20);
+        long recent = System.currentTimeMillis();
+        Thread.sleep(20);
+        this.cache.put(this.testEvent2);
+
+        this.cache.removeStaleEvents(recent);
+        assertEquals(1, this.cache.getCount());
+        assertFalse(this.cache.isUpdated(this.cache.getKey(this.testEvent1)));
+        assertNull(this.cache.getEvent(this.cache.getKey(this.testEvent1)));
+        assertTrue(this.cache.isUpdated(this.cache.getKey(this.testEvent2)));
+    }
+
+    @Test
+    public void shouldDiscardOldestEventsIfMaxSizeIsExceeded() throws Exception {
+        this.cache = new UpdateEventsCache<RowDataFixture>(
+                rowObject -> rowObject.getSecurity_description(),
+                new CellKeyStrategyImpl(),
+                Executors.newSingleThreadScheduledExecutor(),
+                2);
+
+        RowDataFixture bean3 = RowDataListFixture.getList().get(2);
+        PropertyUpdateEvent<RowDataFixture> testEvent3 = new PropertyUpdateEvent<RowDataFixture>(
+                this.layerFixture, bean3, ASK_PRICE, Integer.valueOf(30), Integer.valueOf(35));
+
+        this.cache.put(this.testEvent1);
+        this.cache.put(this.testEvent2);
+        // updating an event moves it to the end
+        this.cache.put(this.testEvent1);
+        this.cache.put(testEvent3);
+
+        assertEquals(2, this.cache.getCount());
+        assertTrue(this.cache.isUpdated(this.cache.getKey(this.testEvent1)));
+        assertFalse(this.cache.isUpdated(this.cache.getKey(this.testEvent2)));
+        assertTrue(this.cache.isUpdated(this.cache.getKey(testEvent3)));
+    }
 }
@@ -11,6 +11,10 @@
 package org.eclipse.nebula.widgets.nattable.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.nebula.widgets.nattable.style.ConfigAttribute;
 import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
@@ -168,4 +172,58 @@ public void registerWithDisplayModeAndMultipleConfigLabels()
                 DisplayMode.NORMAL, "testLabel_1", "testLabel");
         assertEquals("testValueNormalLabel_1", actual);
     }
+
+    @Test
+    public void shouldUpdateCachedValuesOnRegistrationChanges() {
+        assertNull(this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+
+        this.configRegistry.registerConfigAttribute(this.testAttribute, "testValue");
+        assertEquals("testValue", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+
+        this.configRegistry.registerConfigAttribute(this.testAttribute,
+                "testValueLabel", DisplayMode.NORMAL, "testLabel");
+        assertEquals("testValueLabel", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+
+        this.configRegistry.unregisterConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel");
+        assertEquals("testValue", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+
+        this.configRegistry.unregisterConfigAttribute(this.testAttribute);
+        assertNull(this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByModifiedLabelList() {
+        this.configRegistry.registerConfigAttribute(this.testAttribute,
+                "testValueLabel", DisplayMode.NORMAL, "testLabel");
+        this.configRegistry.registerConfigAttribute(this.testAttribute,
+                "testValueLabel_1", DisplayMode.NORMAL, "testLabel_1");
+
+        List<String> labels = new ArrayList<String>();
+        labels.add("testLabel");
+        assertEquals("testValueLabel", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, labels));
+
+        labels.add(0, "testLabel_1");
+        assertEquals("testValueLabel_1", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, labels));
+
+        assertEquals("testValueLabel", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.NORMAL, "testLabel"));
+    }
+
+    @Test
+    public void shouldResolveWithDisabledCache() {
+        this.configRegistry.setCacheEnabled(false);
+        this.configRegistry.registerConfigAttribute(this.testAttribute,
+                "testValueLabel", DisplayMode.NORMAL, "testLabel");
+
+        assertEquals("testValueLabel", this.configRegistry.getConfigAttribute(this.testAttribute,
+                DisplayMode.SELECT, "testLabel"));
+    }
 }
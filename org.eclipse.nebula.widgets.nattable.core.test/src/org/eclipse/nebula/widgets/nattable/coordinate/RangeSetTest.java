@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.coordinate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class RangeSetTest {
+
+    @Test
+    public void shouldMergeAdjacentAndOverlappingRanges() {
+        RangeSet set = new RangeSet();
+        set.add(5, 10);
+        set.add(20, 30);
+        assertEquals(2, set.getRangeCount());
+
+        set.add(10, 12);
+        assertEquals(2, set.getRangeCount());
+        assertEquals(5, set.getRangeStart(0));
+        assertEquals(12, set.getRangeEnd(0));
+
+        set.add(8, 25);
+        assertEquals(1, set.getRangeCount());
+        assertEquals(5, set.getRangeStart(0));
+        assertEquals(30, set.getRangeEnd(0));
+
+        set.add(0);
+        assertEquals(2, set.getRangeCount());
+        assertEquals(26, set.size());
+    }
+
+    @Test
+    public void shouldSplitRangesOnRemove() {
+        RangeSet set = new RangeSet();
+        set.add(0, 100);
+        set.remove(10, 20);
+        set.remove(50);
+
+        assertEquals(3, set.getRangeCount());
+        assertTrue(set.contains(9));
+        assertFalse(set.contains(10));
+        assertFalse(set.contains(19));
+        assertTrue(set.contains(20));
+        assertFalse(set.contains(50));
+        assertTrue(set.contains(51));
+        assertEquals(89, set.size());
+
+        set.remove(0, 100);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void shouldAddAndRemoveUnsortedValues() {
+        RangeSet set = new RangeSet(7, 3, 4, 5, 9, 8, 3);
+        assertArrayEquals(new int[] { 3, 4, 5, 7, 8, 9 }, set.toArray());
+        assertEquals(2, set.getRangeCount());
+
+        set.removeAll(8, 4);
+        assertArrayEquals(new int[] { 3, 5, 7, 9 }, set.toArray());
+        assertEquals(4, set.getRangeCount());
+    }
+
+    @Test
+    public void shouldBehaveLikeASet() {
+        Random random = new Random(42);
+        TreeSet<Integer> reference = new TreeSet<>();
+        RangeSet set = new RangeSet();
+
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(500);
+            int end = start + random.nextInt(20);
+            switch (random.nextInt(4)) {
+                case 0:
+                    set.add(start, end);
+                    for (int v = start; v < end; v++) {
+                        reference.add(v);
+                    }
+                    break;
+                case 1:
+                    set.remove(start, end);
+                    for (int v = start; v < end; v++) {
+                        reference.remove(v);
+                    }
+                    break;
+                case 2:
+                    int[] values = random.ints(5, 0, 500).toArray();
+                    set.addAll(values);
+                    for (int v : values) {
+                        reference.add(v);
+                    }
+                    break;
+                default:
+                    int[] toRemove = random.ints(20, 0, 500).toArray();
+                    set.removeAll(toRemove);
+                    for (int v : toRemove) {
+                        reference.remove(v);
+                    }
+                    break;
+            }
+
+            assertArrayEquals(reference.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+        }
+
+        // the ranges are never adjacent
+        for (int i = 1; i < set.getRangeCount(); i++) {
+            assertTrue(set.getRangeEnd(i - 1) < set.getRangeStart(i));
+        }
+    }
+
+    @Test
+    public void shouldShiftValuesOnInsert() {
+        RangeSet set = new RangeSet();
+        set.add(2, 5);
+        set.add(10, 12);
+
+        // insert in the middle of a range splits the range
+        set.insert(3, 2);
+        assertArrayEquals(new int[] { 2, 5, 6, 12, 13 }, set.toArray());
+
+        // insert at the start of a range moves the whole range
+        set.insert(2, 1);
+        assertArrayEquals(new int[] { 3, 6, 7, 13, 14 }, set.toArray());
+
+        // insert after all values does not change anything
+        set.insert(100, 1);
+        assertArrayEquals(new int[] { 3, 6, 7, 13, 14 }, set.toArray());
+    }
+
+    @Test
+    public void shouldShiftValuesOnDelete() {
+        RangeSet set = new RangeSet();
+        set.add(2, 5);
+        set.add(10, 12);
+
+        set.delete(4, 6);
+        assertArrayEquals(new int[] { 2, 3, 8, 9 }, set.toArray());
+
+        // deleting the gap merges the ranges
+        set.delete(4, 8);
+        assertArrayEquals(new int[] { 2, 3, 4, 5 }, set.toArray());
+        assertEquals(1, set.getRangeCount());
+
+        set.delete(0, 10);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void shouldCheckIntersectionAndEquality() {
+        RangeSet set = new RangeSet();
+        set.add(2, 5);
+        set.add(10, 12);
+
+        assertTrue(set.intersects(4, 8));
+        assertTrue(set.intersects(0, 20));
+        assertFalse(set.intersects(5, 10));
+        assertFalse(set.intersects(12, 20));
+
+        RangeSet copy = new RangeSet(set);
+        assertEquals(set, copy);
+        assertEquals(set.hashCode(), copy.hashCode());
+
+        copy.add(5);
+        assertFalse(set.equals(copy));
+        assertArrayEquals(new int[] { 2, 3, 4, 10, 11 }, set.toArray());
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.nebula.widgets.nattable.data.ColumnarDataProvider.ColumnType;
+import org.eclipse.nebula.widgets.nattable.summaryrow.ISummaryProvider;
+import org.eclipse.nebula.widgets.nattable.summaryrow.SummationSummaryProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnarDataProviderTest {
+
+    private ColumnarDataProvider dataProvider;
+
+    @Before
+    public void setup() {
+        this.dataProvider = new ColumnarDataProvider(2,
+                ColumnType.DOUBLE, ColumnType.LONG, ColumnType.INT, ColumnType.STRING);
+    }
+
+    @Test
+    public void shouldAddRowsAndGrow() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, this.dataProvider.addRow(i * 1.5, (long) i, i, "row" + (i % 3)));
+        }
+
+        assertEquals(4, this.dataProvider.getColumnCount());
+        assertEquals(100, this.dataProvider.getRowCount());
+        assertEquals(Double.valueOf(15), this.dataProvider.getDataValue(0, 10));
+        assertEquals(Long.valueOf(10), this.dataProvider.getDataValue(1, 10));
+        assertEquals(Integer.valueOf(10), this.dataProvider.getDataValue(2, 10));
+        assertEquals("row1", this.dataProvider.getDataValue(3, 10));
+
+        assertEquals(15d, this.dataProvider.getDoubleValue(0, 10), 0);
+        assertEquals(10L, this.dataProvider.getLongValue(1, 10));
+        assertEquals(10, this.dataProvider.getIntValue(2, 10));
+        assertEquals("10", this.dataProvider.getStringValue(2, 10));
+    }
+
+    @Test
+    public void shouldSetDataValues() {
+        this.dataProvider.addRows(3);
+        assertNull(this.dataProvider.getDataValue(3, 0));
+        assertEquals(Double.valueOf(0), this.dataProvider.getDataValue(0, 0));
+
+        this.dataProvider.setDataValue(0, 1, 42);
+        this.dataProvider.setDataValue(1, 1, 4.7d);
+        this.dataProvider.setDataValue(2, 1, null);
+        this.dataProvider.setDataValue(3, 1, "foo");
+        this.dataProvider.setDataValue(3, 2, 12);
+
+        assertEquals(Double.valueOf(42), this.dataProvider.getDataValue(0, 1));
+        assertEquals(Long.valueOf(4), this.dataProvider.getDataValue(1, 1));
+        assertEquals(Integer.valueOf(0), this.dataProvider.getDataValue(2, 1));
+        assertEquals("foo", this.dataProvider.getDataValue(3, 1));
+        assertEquals("12", this.dataProvider.getDataValue(3, 2));
+
+        this.dataProvider.setDataValue(3, 1, null);
+        assertNull(this.dataProvider.getDataValue(3, 1));
+    }
+
+    @Test
+    public void shouldAppendInBulk() {
+        int first = this.dataProvider.addRows(5);
+        this.dataProvider.setDoubleValues(0, first, new double[] { 0, 1, 2, 3, 4, 5 }, 1, 5);
+        this.dataProvider.setLongValues(1, first, new long[] { 1, 2, 3, 4, 5 }, 0, 5);
+        this.dataProvider.setIntValues(2, first + 2, new int[] { 7, 8 }, 0, 2);
+        this.dataProvider.setStringValues(3, first, new String[] { "a", "b", "a", null, "b" }, 0, 5);
+
+        assertEquals(5, this.dataProvider.getRowCount());
+        assertEquals(5d, this.dataProvider.getDoubleValue(0, 4), 0);
+        assertEquals(3L, this.dataProvider.getLongValue(1, 2));
+        assertEquals(0, this.dataProvider.getIntValue(2, 1));
+        assertEquals(8, this.dataProvider.getIntValue(2, 3));
+        assertEquals("a", this.dataProvider.getDataValue(3, 2));
+        assertNull(this.dataProvider.getDataValue(3, 3));
+
+        this.dataProvider.trimToSize();
+        assertEquals(5, this.dataProvider.addRows(1));
+        assertEquals(0d, this.dataProvider.getDoubleValue(0, 5), 0);
+    }
+
+    @Test
+    public void shouldClear() {
+        this.dataProvider.addRow(1, 2, 3, "four");
+        this.dataProvider.clear();
+        assertEquals(0, this.dataProvider.getRowCount());
+
+        this.dataProvider.addRows(1);
+        assertNull(this.dataProvider.getDataValue(3, 0));
+        assertEquals(0d, this.dataProvider.getDoubleValue(0, 0), 0);
+        assertEquals(0L, this.dataProvider.getLongValue(1, 0));
+        assertEquals(0, this.dataProvider.getIntValue(2, 0));
+
+        this.dataProvider.addRow(5, 6, 7, null);
+        assertEquals(5d, this.dataProvider.getDoubleValue(0, 1), 0);
+        assertNull(this.dataProvider.getDataValue(3, 1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldCheckRowIndex() {
+        this.dataProvider.addRows(1);
+        this.dataProvider.getDataValue(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotSetStringToNumericColumn() {
+        this.dataProvider.addRows(1);
+        this.dataProvider.setDataValue(0, 0, "foo");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotReadStringColumnAsNumber() {
+        this.dataProvider.addRows(1);
+        this.dataProvider.getDoubleValue(3, 0);
+    }
+
+    @Test
+    public void shouldSummarizeWithoutBoxing() {
+        for (int i = 1; i <= 10; i++) {
+            this.dataProvider.addRow(i / 2d, i, i, "row");
+        }
+        assertTrue(this.dataProvider.isNumericColumn(0));
+        assertFalse(this.dataProvider.isNumericColumn(3));
+
+        SummationSummaryProvider summaryProvider = new SummationSummaryProvider(this.dataProvider);
+        assertEquals(27.5d, summaryProvider.summarize(0));
+        assertEquals(55d, summaryProvider.summarize(1));
+        assertEquals(55d, summaryProvider.summarize(2));
+        assertEquals(ISummaryProvider.DEFAULT_SUMMARY_VALUE, summaryProvider.summarize(3));
+    }
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GeneratedColumnPropertyAccessorTest {
+
+    private GeneratedColumnPropertyAccessor<Person> accessor;
+
+    @Before
+    public void setup() {
+        this.accessor = new GeneratedColumnPropertyAccessor<>(
+                "name", "married", "age", "address.street", "address.city.name");
+    }
+
+    @Test
+    public void testGetterInvocations() {
+        Person person = new Person("Homer", true, 39, new Address("Evergreen Terrace", new City("Springfield")));
+
+        assertEquals(5, this.accessor.getColumnCount());
+        assertEquals("Homer", this.accessor.getDataValue(person, 0));
+        assertEquals(Boolean.TRUE, this.accessor.getDataValue(person, 1));
+        assertEquals(Integer.valueOf(39), this.accessor.getDataValue(person, 2));
+        assertEquals("Evergreen Terrace", this.accessor.getDataValue(person, 3));
+        assertEquals("Springfield", this.accessor.getDataValue(person, 4));
+    }
+
+    @Test
+    public void testSetterInvocations() {
+        Person person = new Person("Homer", true, 39, new Address("Evergreen Terrace", new City("Springfield")));
+
+        this.accessor.setDataValue(person, 0, "Marge");
+        this.accessor.setDataValue(person, 1, false);
+        this.accessor.setDataValue(person, 2, 36);
+        this.accessor.setDataValue(person, 3, "Main Street");
+        this.accessor.setDataValue(person, 4, "Shelbyville");
+
+        assertEquals("Marge", person.getName());
+        assertEquals(false, person.isMarried());
+        assertEquals(36, person.getAge());
+        assertEquals("Main Street", person.getAddress().getStreet());
+        assertEquals("Shelbyville", person.getAddress().getCity().getName());
+    }
+
+    @Test
+    public void shouldReturnNullForNullInPath() {
+        Person person = new Person("Bart", false, 10, null);
+
+        assertNull(this.accessor.getDataValue(person, 3));
+        assertNull(this.accessor.getDataValue(person, 4));
+    }
+
+    @Test
+    public void shouldNotSetMismatchingType() {
+        Person person = new Person("Homer", true, 39, null);
+
+        this.accessor.setDataValue(person, 2, "forty");
+        this.accessor.setDataValue(person, 2, null);
+        assertEquals(39, person.getAge());
+
+        this.accessor.setDataValue(person, 0, null);
+        assertNull(person.getName());
+    }
+
+    @Test
+    public void shouldBehaveLikeReflectiveAccessorForSubclasses() {
+        ReflectiveColumnPropertyAccessor<Person> reflective =
+                new ReflectiveColumnPropertyAccessor<>("name", "married", "age");
+        Person person = new Person("Homer", true, 39, null);
+        Person employee = new Employee("Lenny", false, 40, "Plant");
+
+        for (int column = 0; column < 3; column++) {
+            assertEquals(reflective.getDataValue(person, column), this.accessor.getDataValue(person, column));
+            assertEquals(reflective.getDataValue(employee, column), this.accessor.getDataValue(employee, column));
+        }
+
+        GeneratedColumnPropertyAccessor<Person> employeeAccessor =
+                new GeneratedColumnPropertyAccessor<>("name", "company");
+        assertEquals("Plant", employeeAccessor.getDataValue(employee, 1));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailForUnknownProperty() {
+        new GeneratedColumnPropertyAccessor<Person>("unknown").getDataValue(new Person("Homer", true, 39, null), 0);
+    }
+
+    public static class Person {
+        private String name;
+        private boolean married;
+        private int age;
+        private Address address;
+
+        public Person(String name, boolean married, int age, Address address) {
+            this.name = name;
+            this.married = married;
+            this.age = age;
+            this.address = address;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isMarried() {
+            return this.married;
+        }
+
+        public void setMarried(boolean married) {
+            this.married = married;
+        }
+
+        public int getAge() {
+            return this.age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Address getAddress() {
+            return this.address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    public static class Employee extends Person {
+        private String company;
+
+        public Employee(String name, boolean married, int age, String company) {
+            super(name, married, age, null);
+            this.company = company;
+        }
+
+        public String getCompany() {
+            return this.company;
+        }
+    }
+
+    public static class Address {
+        private String street;
+        private City city;
+
+        public Address(String street, City city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return this.street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public City getCity() {
+            return this.city;
+        }
+    }
+
+    static class City {
+        private String name;
+
+        City(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.nebula.widgets.nattable.data.MappedFileDataProvider.Field;
+import org.eclipse.nebula.widgets.nattable.data.MappedFileDataProvider.FieldType;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedFileDataProviderTest {
+
+    private static final int HEADER = 16;
+    private static final int ROWS = 1000;
+
+    private static final Field[] FIELDS = new Field[] {
+            new Field(FieldType.INT),
+            new Field(FieldType.LONG),
+            new Field(FieldType.DOUBLE),
+            new Field(FieldType.SHORT),
+            new Field(FieldType.STRING, 6)
+    };
+
+    private Path file;
+    private MappedFileDataProvider dataProvider;
+
+    @Before
+    public void setup() throws IOException {
+        this.file = Files.createTempFile("nattable", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+        // 4 + 8 + 8 + 2 + 6 bytes per record
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + ROWS * 28).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER);
+        for (int i = 0; i < ROWS; i++) {
+            buffer.putInt(i);
+            buffer.putLong(i * 1000L);
+            buffer.putDouble(i / 4d);
+            buffer.putShort((short) -i);
+            byte[] text = ("r" + i).getBytes(StandardCharsets.ISO_8859_1);
+            buffer.put(text);
+            buffer.put(new byte[6 - text.length]);
+        }
+        Files.write(this.file, buffer.array());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (this.dataProvider != null) {
+            this.dataProvider.close();
+        }
+        Files.deleteIfExists(this.file);
+    }
+
+    private void assertRow(int row) {
+        assertEquals(Integer.valueOf(row), this.dataProvider.getDataValue(0, row));
+        assertEquals(Long.valueOf(row * 1000L), this.dataProvider.getDataValue(1, row));
+        assertEquals(Double.valueOf(row / 4d), this.dataProvider.getDataValue(2, row));
+        assertEquals(Short.valueOf((short) -row), this.dataProvider.getDataValue(3, row));
+        assertEquals("r" + row, this.dataProvider.getDataValue(4, row));
+    }
+
+    @Test
+    public void shouldReadRecords() throws IOException {
+        this.dataProvider = new MappedFileDataProvider(
+                this.file, HEADER, ByteOrder.LITTLE_ENDIAN, StandardCharsets.ISO_8859_1, 10, FIELDS);
+
+        assertEquals(5, this.dataProvider.getColumnCount());
+        assertEquals(ROWS, this.dataProvider.getRowCount());
+        for (int row = 0; row < ROWS; row += 7) {
+            assertRow(row);
+        }
+        assertRow(ROWS - 1);
+    }
+
+    @Test
+    public void shouldReadRecordsFromMultipleChunks() throws IOException {
+        // chunks of 3 records
+        this.dataProvider = new MappedFileDataProvider(
+                this.file, HEADER, ByteOrder.LITTLE_ENDIAN, StandardCharsets.ISO_8859_1, 10, 100, FIELDS);
+
+        for (int row = ROWS - 1; row >= 0; row--) {
+            assertRow(row);
+        }
+    }
+
+    @Test
+    public void shouldCacheDecodedRows() throws IOException {
+        this.dataProvider = new MappedFileDataProvider(
+                this.file, HEADER, ByteOrder.LITTLE_ENDIAN, StandardCharsets.ISO_8859_1, 10, FIELDS);
+
+        Object value = this.dataProvider.getDataValue(4, 5);
+        assertSame(value, this.dataProvider.getDataValue(4, 5));
+
+        this.dataProvider.clearCache();
+        assertEquals(value, this.dataProvider.getDataValue(4, 5));
+    }
+
+    @Test
+    public void shouldWorkWithDataLayer() throws IOException {
+        this.dataProvider = new MappedFileDataProvider(
+                this.file, HEADER, ByteOrder.LITTLE_ENDIAN, StandardCharsets.ISO_8859_1, 10, FIELDS);
+        DataLayer dataLayer = new DataLayer(this.dataProvider);
+
+        assertEquals(ROWS, dataLayer.getRowCount());
+        assertEquals("r500", dataLayer.getDataValueByPosition(4, 500));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldBeReadOnly() throws IOException {
+        this.dataProvider = new MappedFileDataProvider(this.file, FIELDS);
+        this.dataProvider.setDataValue(0, 0, 1);
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PagedDataProviderTest {
+
+    private static final int ROWS = 1000;
+
+    private InMemoryDataSource dataSource;
+    private QueueExecutor executor;
+    private List<int[]> loadedRanges;
+    private PagedDataProvider<Integer> dataProvider;
+
+    @Before
+    public void setup() {
+        this.dataSource = new InMemoryDataSource(ROWS);
+        this.executor = new QueueExecutor();
+        this.loadedRanges = new ArrayList<int[]>();
+        this.dataProvider = new PagedDataProvider<Integer>(this.dataSource, new ColumnAccessor(), 100, 3, this.executor) {
+            @Override
+            protected void pageLoaded(int firstRowIndex, int count) {
+                PagedDataProviderTest.this.loadedRanges.add(new int[] { firstRowIndex, count });
+            }
+        };
+        this.dataProvider.setPrefetchPages(0);
+    }
+
+    @Test
+    public void shouldReturnPlaceholderUntilPageIsLoaded() {
+        assertEquals(ROWS, this.dataProvider.getRowCount());
+        assertEquals(2, this.dataProvider.getColumnCount());
+
+        assertEquals(PagedDataProvider.LOADING_PLACEHOLDER, this.dataProvider.getDataValue(0, 150));
+        assertNull(this.dataProvider.getRowObject(150));
+        assertFalse(this.dataProvider.isRowLoaded(150));
+        // the page is only requested once
+        assertEquals(1, this.executor.tasks.size());
+
+        this.executor.runAll();
+
+        assertTrue(this.dataProvider.isRowLoaded(150));
+        assertEquals(150, this.dataProvider.getDataValue(0, 150));
+        assertEquals(300, this.dataProvider.getDataValue(1, 150));
+        assertEquals(1, this.loadedRanges.size());
+        assertEquals(100, this.loadedRanges.get(0)[0]);
+        assertEquals(100, this.loadedRanges.get(0)[1]);
+        assertEquals(1, this.dataSource.loadCount);
+    }
+
+    @Test
+    public void shouldLoadNeighbourPages() {
+        this.dataProvider.setPrefetchPages(1);
+        this.dataProvider.setPlaceholder(null);
+
+        assertNull(this.dataProvider.getDataValue(0, 0));
+        this.executor.runAll();
+
+        assertTrue(this.dataProvider.isRowLoaded(0));
+        assertTrue(this.dataProvider.isRowLoaded(199));
+        assertFalse(this.dataProvider.isRowLoaded(200));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPages() {
+        this.dataProvider.prefetch(0, 300);
+        this.executor.runAll();
+        assertEquals(3, this.dataSource.loadCount);
+
+        // access page 0 so page 1 is the eldest one
+        assertEquals(0, this.dataProvider.getDataValue(0, 0));
+        this.dataProvider.prefetch(300, 400);
+        this.executor.runAll();
+
+        assertTrue(this.dataProvider.isRowLoaded(0));
+        assertFalse(this.dataProvider.isRowLoaded(100));
+        assertTrue(this.dataProvider.isRowLoaded(200));
+        assertTrue(this.dataProvider.isRowLoaded(300));
+        assertEquals(-1, this.dataProvider.indexOfRowObject(150));
+        assertEquals(350, this.dataProvider.indexOfRowObject(350));
+    }
+
+    @Test
+    public void shouldLimitPrefetchToMaxPages() {
+        this.dataProvider.prefetch(-50, 2000);
+        assertEquals(3, this.executor.tasks.size());
+        this.executor.runAll();
+
+        assertEquals(3, this.loadedRanges.size());
+        assertEquals(200, this.loadedRanges.get(2)[0]);
+    }
+
+    @Test
+    public void shouldLoadShortLastPage() {
+        this.dataSource = new InMemoryDataSource(150);
+        this.dataProvider = new PagedDataProvider<Integer>(this.dataSource, new ColumnAccessor(), 100, 3, this.executor);
+
+        this.dataProvider.getRowObject(149);
+        this.executor.runAll();
+
+        assertEquals(149, this.dataProvider.getDataValue(0, 149));
+        assertNull(this.dataProvider.getRowObject(150));
+        assertEquals(0, this.executor.tasks.size());
+    }
+
+    @Test
+    public void shouldRetryFailedPage() {
+        this.dataSource.fail = true;
+        this.dataProvider.getRowObject(10);
+        this.executor.runAll();
+        assertFalse(this.dataProvider.isRowLoaded(10));
+        assertTrue(this.loadedRanges.isEmpty());
+
+        this.dataSource.fail = false;
+        this.dataProvider.getRowObject(10);
+        this.executor.runAll();
+        assertEquals(10, this.dataProvider.getDataValue(0, 10));
+    }
+
+    @Test
+    public void shouldDiscardOutdatedPagesOnRefresh() {
+        this.dataProvider.getRowObject(10);
+        this.dataSource.rowCount = 50;
+        this.dataProvider.refresh();
+        this.executor.runAll();
+
+        assertEquals(50, this.dataProvider.getRowCount());
+        assertFalse(this.dataProvider.isRowLoaded(10));
+        assertTrue(this.loadedRanges.isEmpty());
+
+        this.dataProvider.getRowObject(10);
+        this.executor.runAll();
+        assertEquals(1, this.loadedRanges.size());
+        assertEquals(50, this.loadedRanges.get(0)[1]);
+    }
+
+    @Test
+    public void shouldSetValueOfLoadedRow() {
+        this.dataProvider.setDataValue(1, 5, 42);
+        this.executor.runAll();
+        assertEquals(10, this.dataProvider.getDataValue(1, 5));
+
+        this.dataProvider.setDataValue(1, 5, 42);
+        assertEquals(42, this.dataProvider.getDataValue(1, 5));
+    }
+
+    @Test
+    public void shouldNotPrefetchNeighboursIfCacheIsFull() {
+        this.dataProvider.setPrefetchPages(1);
+        this.dataProvider.prefetch(0, 300);
+        this.executor.runAll();
+        assertEquals(3, this.dataSource.loadCount);
+
+        // only the accessed page is loaded, the neighbours would evict
+        // possibly visible pages
+        this.dataProvider.getRowObject(550);
+        assertEquals(1, this.executor.tasks.size());
+        this.executor.runAll();
+
+        assertTrue(this.dataProvider.isRowLoaded(550));
+        assertFalse(this.dataProvider.isRowLoaded(450));
+        assertFalse(this.dataProvider.isRowLoaded(650));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowMaxPagesSmallerThanPrefetchedPages() {
+        new PagedDataProvider<Integer>(this.dataSource, new ColumnAccessor(), 100, 2, this.executor);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowPrefetchPagesExceedingMaxPages() {
+        this.dataProvider.setPrefetchPages(2);
+    }
+
+    static class InMemoryDataSource implements IPagedDataSource<Integer> {
+
+        int rowCount;
+        int loadCount;
+        boolean fail;
+
+        InMemoryDataSource(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.rowCount;
+        }
+
+        @Override
+        public List<Integer> loadRows(int startIndex, int count) throws Exception {
+            if (this.fail) {
+                throw new Exception("backend not available");
+            }
+            this.loadCount++;
+            List<Integer> rows = new ArrayList<Integer>();
+            for (int i = startIndex; i < startIndex + count; i++) {
+                rows.add(i);
+            }
+            return rows;
+        }
+    }
+
+    static class ColumnAccessor implements IColumnAccessor<Integer> {
+
+        private final List<Integer> values = new ArrayList<Integer>();
+        private final List<Integer> rows = new ArrayList<Integer>();
+
+        @Override
+        public Object getDataValue(Integer rowObject, int columnIndex) {
+            if (columnIndex == 0) {
+                return rowObject;
+            }
+            int index = this.rows.indexOf(rowObject);
+            return index >= 0 ? this.values.get(index) : rowObject * 2;
+        }
+
+        @Override
+        public void setDataValue(Integer rowObject, int columnIndex, Object newValue) {
+            this.rows.add(rowObject);
+            this.values.add((Integer) newValue);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 2;
+        }
+    }
+
+    static class QueueExecutor implements Executor {
+
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            this.tasks.add(command);
+        }
+
+        void runAll() {
+            while (!this.tasks.isEmpty()) {
+                this.tasks.remove(0).run();
+            }
+        }
+    }
+}
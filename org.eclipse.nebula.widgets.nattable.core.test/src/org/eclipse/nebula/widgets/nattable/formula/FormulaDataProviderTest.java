@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,9 +13,14 @@
 package org.eclipse.nebula.widgets.nattable.formula;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
 import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
 import org.junit.Test;
 
@@ -77,4 +82,84 @@ public void shouldHandleNumberValueTypes() {
         this.dataProvider.setDataValue(1, 0, "3");
         assertEquals(new BigDecimal("15.6"), this.formulaDataProvider.getDataValue(2, 0));
     }
+
+    @Test
+    public void shouldRecalculateDependentsIncrementally() {
+        this.formulaDataProvider.setIncrementalCalculationEnabled(true);
+
+        this.dataProvider.setDataValue(0, 0, "5");
+        this.dataProvider.setDataValue(1, 0, "3");
+        this.dataProvider.setDataValue(2, 0, "=A1*B1");
+        this.dataProvider.setDataValue(3, 0, "=C1+1");
+        this.dataProvider.setDataValue(4, 0, "=B1*2");
+
+        assertEquals(new BigDecimal("16"), this.formulaDataProvider.getDataValue(3, 0));
+        assertEquals(new BigDecimal("6"), this.formulaDataProvider.getDataValue(4, 0));
+
+        FormulaDependencyGraph graph = this.formulaDataProvider.getDependencyGraph();
+        assertEquals(
+                Arrays.asList(new IndexCoordinate(2, 0), new IndexCoordinate(3, 0)),
+                graph.getDependents(new IndexCoordinate(0, 0)));
+
+        this.formulaDataProvider.setDataValue(0, 0, "10");
+
+        // E1 does not depend on A1 and keeps its result
+        assertTrue(graph.hasResult(new IndexCoordinate(4, 0)));
+        assertTrue(graph.hasResult(new IndexCoordinate(3, 0)));
+        assertEquals(new BigDecimal("30"), this.formulaDataProvider.getDataValue(2, 0));
+        assertEquals(new BigDecimal("31"), this.formulaDataProvider.getDataValue(3, 0));
+        assertEquals(new BigDecimal("6"), this.formulaDataProvider.getDataValue(4, 0));
+    }
+
+    @Test
+    public void shouldTrackReferencesToEmptyCells() {
+        this.formulaDataProvider.setIncrementalCalculationEnabled(true);
+
+        this.dataProvider.setDataValue(0, 0, "5");
+        this.dataProvider.setDataValue(2, 0, "=A1+B1");
+
+        assertEquals(new BigDecimal("5"), this.formulaDataProvider.getDataValue(2, 0));
+
+        List<IndexCoordinate> dirty = this.formulaDataProvider.recalculateDependents(1, 0);
+        assertEquals(Arrays.asList(new IndexCoordinate(2, 0)), dirty);
+
+        this.formulaDataProvider.setDataValue(1, 0, "2");
+        assertEquals(new BigDecimal("7"), this.formulaDataProvider.getDataValue(2, 0));
+    }
+
+    @Test
+    public void shouldUpdateReferencesOnFormulaChange() {
+        this.formulaDataProvider.setIncrementalCalculationEnabled(true);
+
+        this.dataProvider.setDataValue(0, 0, "5");
+        this.dataProvider.setDataValue(1, 0, "3");
+        this.dataProvider.setDataValue(2, 0, "=A1");
+        this.dataProvider.setDataValue(3, 0, "=C1*2");
+
+        assertEquals(new BigDecimal("10"), this.formulaDataProvider.getDataValue(3, 0));
+
+        this.formulaDataProvider.setDataValue(2, 0, "=B1");
+        assertEquals(new BigDecimal("6"), this.formulaDataProvider.getDataValue(3, 0));
+
+        FormulaDependencyGraph graph = this.formulaDataProvider.getDependencyGraph();
+        assertTrue(graph.getDependents(new IndexCoordinate(0, 0)).isEmpty());
+
+        this.formulaDataProvider.setDataValue(0, 0, "1");
+        assertTrue(graph.hasResult(new IndexCoordinate(3, 0)));
+        assertEquals(new BigDecimal("6"), this.formulaDataProvider.getDataValue(3, 0));
+    }
+
+    @Test
+    public void shouldNotStoreErrorResults() {
+        this.formulaDataProvider.setIncrementalCalculationEnabled(true);
+
+        this.dataProvider.setDataValue(0, 0, "=B1");
+        this.dataProvider.setDataValue(1, 0, "=A1");
+
+        assertEquals("#REF!", this.formulaDataProvider.getDataValue(0, 0));
+        assertFalse(this.formulaDataProvider.getDependencyGraph().hasResult(new IndexCoordinate(0, 0)));
+
+        this.formulaDataProvider.setDataValue(1, 0, "4");
+        assertEquals(new BigDecimal("4"), this.formulaDataProvider.getDataValue(0, 0));
+    }
 }
@@ -0,0 +1,92 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+import org.junit.Test;
+
+public class FormulaDependencyGraphTest {
+
+    private final FormulaDependencyGraph graph = new FormulaDependencyGraph();
+
+    private final IndexCoordinate a1 = new IndexCoordinate(0, 0);
+    private final IndexCoordinate b1 = new IndexCoordinate(1, 0);
+    private final IndexCoordinate c1 = new IndexCoordinate(2, 0);
+    private final IndexCoordinate d1 = new IndexCoordinate(3, 0);
+    private final IndexCoordinate e1 = new IndexCoordinate(4, 0);
+
+    @Test
+    public void shouldReturnDependentsInTopologicalOrder() {
+        // diamond: B1 = A1, C1 = A1, D1 = B1 + C1, E1 = D1 + A1
+        this.graph.setReferences(this.b1, Arrays.asList(this.a1));
+        this.graph.setReferences(this.c1, Arrays.asList(this.a1));
+        this.graph.setReferences(this.d1, Arrays.asList(this.b1, this.c1));
+        this.graph.setReferences(this.e1, Arrays.asList(this.d1, this.a1));
+
+        List<IndexCoordinate> dependents = this.graph.getDependents(this.a1);
+        assertEquals(4, dependents.size());
+        assertTrue(dependents.indexOf(this.d1) > dependents.indexOf(this.b1));
+        assertTrue(dependents.indexOf(this.d1) > dependents.indexOf(this.c1));
+        assertTrue(dependents.indexOf(this.e1) > dependents.indexOf(this.d1));
+
+        assertEquals(Arrays.asList(this.d1, this.e1), this.graph.getDependents(this.c1));
+        assertTrue(this.graph.getDependents(this.e1).isEmpty());
+    }
+
+    @Test
+    public void shouldReplaceReferences() {
+        this.graph.setReferences(this.c1, Arrays.asList(this.a1));
+        this.graph.setReferences(this.c1, Arrays.asList(this.b1));
+
+        assertTrue(this.graph.getDependents(this.a1).isEmpty());
+        assertEquals(Arrays.asList(this.c1), this.graph.getDependents(this.b1));
+        assertEquals(1, this.graph.getReferences(this.c1).size());
+
+        this.graph.setReferences(this.c1, null);
+        assertTrue(this.graph.getDependents(this.b1).isEmpty());
+    }
+
+    @Test
+    public void shouldInvalidateDependentResults() {
+        this.graph.setReferences(this.b1, Arrays.asList(this.a1));
+        this.graph.setReferences(this.c1, Arrays.asList(this.b1));
+        this.graph.setResult(this.b1, "b");
+        this.graph.setResult(this.c1, "c");
+        this.graph.setResult(this.d1, "d");
+
+        assertEquals(Arrays.asList(this.b1, this.c1), this.graph.invalidate(this.a1));
+
+        assertFalse(this.graph.hasResult(this.b1));
+        assertFalse(this.graph.hasResult(this.c1));
+        assertTrue(this.graph.hasResult(this.d1));
+    }
+
+    @Test
+    public void shouldHandleLongChains() {
+        for (int row = 1; row < 100000; row++) {
+            this.graph.setReferences(new IndexCoordinate(0, row), Arrays.asList(new IndexCoordinate(0, row - 1)));
+        }
+
+        List<IndexCoordinate> dependents = this.graph.getDependents(this.a1);
+        assertEquals(99999, dependents.size());
+        assertEquals(new IndexCoordinate(0, 1), dependents.get(0));
+        assertEquals(new IndexCoordinate(0, 99999), dependents.get(99998));
+    }
+}
@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015, 2018 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -14,7 +14,10 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -652,6 +655,40 @@ public void shouldEvaluateReferences() {
         assertEquals(new BigDecimal(8), result.getValue());
     }
 
+    @Test
+    public void shouldConvertNumericReferences() {
+        this.dataProvider.setDataValue(0, 0, 1234.5678d);
+        this.dataProvider.setDataValue(0, 1, 2.50d);
+        this.dataProvider.setDataValue(0, 2, 100L);
+        this.dataProvider.setDataValue(0, 3, -3);
+        this.dataProvider.setDataValue(0, 4, new BigDecimal("1E+2"));
+
+        // rounded like the DecimalFormat, without grouping separators
+        assertEquals(new BigDecimal("1234.568"), this.parser.parseFunction("A1").getValue());
+        assertEquals(new BigDecimal("2.5"), this.parser.parseFunction("A2").getValue());
+        assertEquals(new BigDecimal("100"), this.parser.parseFunction("A3").getValue());
+        assertEquals(new BigDecimal("-6"), this.parser.parseFunction("A4*2").getValue());
+        assertEquals(new BigDecimal("100"), this.parser.parseFunction("A5").getValue());
+        assertEquals(new BigDecimal("1334.068"), this.parser.parseFunction("SUM(A1:A4)").getValue());
+
+        this.parser.setDecimalFormat((DecimalFormat) DecimalFormat.getInstance(Locale.GERMAN));
+        assertEquals(new BigDecimal("1234.568"), this.parser.parseFunction("A1").getValue());
+    }
+
+    @Test
+    public void shouldConvertNumberWithDecimalFormatRounding() {
+        DecimalFormat format = (DecimalFormat) DecimalFormat.getInstance(Locale.ENGLISH);
+        format.setMaximumFractionDigits(2);
+        format.setMinimumFractionDigits(1);
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        this.parser.setDecimalFormat(format);
+
+        assertEquals(new BigDecimal("1.13"), this.parser.convertToBigDecimal(1.125d));
+        assertEquals(new BigDecimal("1.0"), this.parser.convertToBigDecimal(1));
+        assertEquals(new BigDecimal("2.5"), this.parser.convertToBigDecimal(new BigDecimal("2.500")));
+        assertEquals(null, this.parser.convertToBigDecimal(Double.NaN));
+    }
+
     @Test
     public void shouldEvaluateRowRange() {
         for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
@@ -780,6 +817,30 @@ public void shouldEvaluateSqrt() {
         assertEquals(new BigDecimal("2.5"), result.getValue());
     }
 
+    @Test
+    public void shouldEvaluateSqrtOfReferenceExpression() {
+        this.dataProvider.setDataValue(0, 0, 100);
+        this.dataProvider.setDataValue(0, 1, -9);
+
+        // evaluated twice to also evaluate the cached compiled formula
+        for (int i = 0; i < 2; i++) {
+            FunctionValue result = this.parser.parseFunction("=SQRT(A1-5)");
+            assertTrue(result.getValue().toString().startsWith("9.746"));
+
+            result = this.parser.parseFunction("=SQRT(-A2)");
+            assertEquals(0, new BigDecimal("3").compareTo((BigDecimal) result.getValue()));
+        }
+
+        // the value of the reference is validated on evaluation
+        this.dataProvider.setDataValue(0, 0, 4);
+        try {
+            this.parser.parseFunction("=SQRT(A1-5)");
+            fail("Negative value was not detected");
+        } catch (FunctionException e) {
+            assertEquals("#NUM!", e.getErrorMarkup());
+        }
+    }
+
     @Test(expected = FunctionException.class)
     public void shouldThrowExceptionOnWrongArgumentsMod() {
         this.parser.parseFunction("=MOD(9)").getValue();
@@ -869,4 +930,74 @@ public void shouldNoticeCycleReferenceWithRange() {
         this.parser.parseFunction("=C3");
     }
 
+    @Test
+    public void shouldReuseCompiledFormula() {
+        this.dataProvider.setDataValue(0, 0, 5);
+        this.dataProvider.setDataValue(1, 0, 3);
+
+        CompiledFormula compiled = this.parser.getCompiledFormula("=SUM(A1;B1)*2");
+        assertSame(compiled, this.parser.getCompiledFormula("=SUM(A1;B1)*2"));
+        assertEquals(new BigDecimal(16), this.parser.parseFunction("=SUM(A1;B1)*2").getValue());
+
+        // references are resolved on evaluation
+        this.dataProvider.setDataValue(1, 0, 7);
+        assertEquals(new BigDecimal(24), this.parser.parseFunction("=SUM(A1;B1)*2").getValue());
+        assertSame(compiled, this.parser.getCompiledFormula("=SUM(A1;B1)*2"));
+    }
+
+    @Test
+    public void shouldResolveRangesOnEvaluation() {
+        this.dataProvider.setDataValue(4, 0, 2);
+        assertEquals(new BigDecimal(2), this.parser.parseFunction("=SUM(E:E)").getValue());
+
+        this.dataProvider.setDataValue(4, 9, 3);
+        this.dataProvider.setDataValue(5, 9, 4);
+        assertEquals(new BigDecimal(5), this.parser.parseFunction("=SUM(E:E)").getValue());
+        assertEquals(new BigDecimal(7), this.parser.parseFunction("=SUM(10:10)").getValue());
+        assertEquals(new BigDecimal(9), this.parser.parseFunction("=SUM(E1:F10)").getValue());
+    }
+
+    @Test(expected = FunctionException.class)
+    public void shouldValidateReferencedValuesOnEvaluation() {
+        this.dataProvider.setDataValue(0, 0, 16);
+        assertEquals(new BigDecimal(4), this.parser.parseFunction("=SQRT(A1)").getValue());
+
+        this.dataProvider.setDataValue(0, 0, -16);
+        this.parser.parseFunction("=SQRT(A1)");
+    }
+
+    @Test
+    public void shouldRemoveLeastRecentlyUsedCompiledFormula() {
+        this.parser.setCompiledFormulaCacheSize(2);
+
+        CompiledFormula first = this.parser.getCompiledFormula("=1+1");
+        CompiledFormula second = this.parser.getCompiledFormula("=2+2");
+        assertSame(first, this.parser.getCompiledFormula("=1+1"));
+
+        // the second formula is the least recently used one
+        this.parser.getCompiledFormula("=3+3");
+        assertSame(first, this.parser.getCompiledFormula("=1+1"));
+        assertNotSame(second, this.parser.getCompiledFormula("=2+2"));
+    }
+
+    @Test
+    public void shouldClearCompiledFormulasOnConfigurationChange() {
+        CompiledFormula compiled = this.parser.getCompiledFormula("=SUM(1;2)");
+
+        this.parser.registerFunction("SUM", ProductFunction.class);
+        assertNotSame(compiled, this.parser.getCompiledFormula("=SUM(1;2)"));
+        assertEquals(new BigDecimal(2), this.parser.parseFunction("=SUM(1;2)").getValue());
+
+        compiled = this.parser.getCompiledFormula("=SUM(1;2)");
+        this.parser.setDecimalFormat((DecimalFormat) DecimalFormat.getInstance(Locale.GERMAN));
+        assertNotSame(compiled, this.parser.getCompiledFormula("=SUM(1;2)"));
+    }
+
+    @Test
+    public void shouldNotCacheWithZeroCacheSize() {
+        this.parser.setCompiledFormulaCacheSize(0);
+        assertNotSame(this.parser.getCompiledFormula("=1+1"), this.parser.getCompiledFormula("=1+1"));
+        assertEquals(new BigDecimal(2), this.parser.parseFunction("=1+1").getValue());
+    }
+
 }
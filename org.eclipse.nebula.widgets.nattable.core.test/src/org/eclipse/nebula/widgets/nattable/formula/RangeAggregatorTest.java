@@ -0,0 +1,269 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.edit.event.DataUpdateEvent;
+import org.eclipse.nebula.widgets.nattable.formula.function.FunctionException;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowStructuralRefreshEvent;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RangeAggregatorTest {
+
+    private static Locale defaultLocale;
+
+    @BeforeClass
+    public static void setup() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    IDataProvider dataProvider = new TwoDimensionalArrayDataProvider(new Object[10][10]);
+    FormulaDataProvider formulaDataProvider = new FormulaDataProvider(this.dataProvider);
+    FormulaParser parser = this.formulaDataProvider.getFormulaParser();
+
+    private void fillColumn(int column) {
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            this.dataProvider.setDataValue(column, row, row + 1);
+        }
+    }
+
+    private void assertValue(String expected, String formula) {
+        assertEquals(0, new BigDecimal(expected).compareTo((BigDecimal) this.parser.parseFunction(formula).getValue()));
+    }
+
+    @Test
+    public void shouldAggregateRanges() {
+        fillColumn(0);
+        fillColumn(1);
+
+        for (RangeAggregationMode mode : RangeAggregationMode.values()) {
+            this.parser.setRangeAggregationMode(mode);
+
+            assertValue("55", "=SUM(A1:A10)");
+            assertValue("110", "=SUM(A:B)");
+            assertValue("6", "=SUM(3:3)");
+            assertValue("5.5", "=AVERAGE(A1:A10)");
+            assertValue("5.5", "=AVERAGE(A:B)");
+            assertValue("120", "=PRODUCT(A1:A5)");
+            assertValue("125", "=SUM(A1:A10;B1:B4;60)");
+            assertValue("8.25", "=AVERAGE(A1:A2;B10;20)");
+        }
+    }
+
+    @Test
+    public void shouldIgnoreEmptyCells() {
+        this.dataProvider.setDataValue(0, 0, 4);
+        this.dataProvider.setDataValue(0, 3, 8);
+
+        for (RangeAggregationMode mode : RangeAggregationMode.values()) {
+            this.parser.setRangeAggregationMode(mode);
+
+            assertValue("12", "=SUM(A:A)");
+            assertValue("6", "=AVERAGE(A:A)");
+            assertValue("32", "=PRODUCT(A:A)");
+            assertValue("0", "=SUM(B:B)");
+        }
+    }
+
+    @Test
+    public void shouldEvaluateFormulasInRange() {
+        fillColumn(0);
+        this.dataProvider.setDataValue(0, 9, "=A1*100");
+        this.dataProvider.setDataValue(0, 8, "7");
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        assertValue("143", "=SUM(A:A)");
+        assertValue("14.3", "=AVERAGE(A1:A10)");
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.BIG_DECIMAL);
+        assertValue("143", "=SUM(A:A)");
+    }
+
+    @Test(expected = FunctionException.class)
+    public void shouldThrowExceptionOnStringInRange() {
+        fillColumn(0);
+        this.dataProvider.setDataValue(0, 5, "a");
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        this.parser.parseFunction("=SUM(A:A)");
+    }
+
+    @Test(expected = FunctionException.class)
+    public void shouldDetectCycleInRange() {
+        fillColumn(0);
+        this.dataProvider.setDataValue(0, 9, "=SUM(A1:A10)");
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        this.parser.parseFunction("=A10");
+    }
+
+    @Test
+    public void shouldAggregateBigDecimalPrecisely() {
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            this.dataProvider.setDataValue(0, row, 0.1d);
+        }
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.BIG_DECIMAL);
+        assertEquals(new BigDecimal("1.0"), this.parser.parseFunction("=SUM(A:A)").getValue());
+
+        // the second aggregation of the column uses the prefix sums
+        assertEquals(new BigDecimal("0.3"), this.parser.parseFunction("=SUM(A2:A4)").getValue());
+    }
+
+    @Test
+    public void shouldCalculateRunningTotals() {
+        fillColumn(0);
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            this.dataProvider.setDataValue(1, row, "=SUM(A1:A" + (row + 1) + ")");
+        }
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            assertEquals(0, new BigDecimal((row + 1) * (row + 2) / 2)
+                    .compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, row)));
+        }
+
+        // setting a value via the FormulaDataProvider drops the prefix sums
+        this.formulaDataProvider.setDataValue(0, 0, 11);
+        assertEquals(0, new BigDecimal(65).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 9)));
+        assertEquals(0, new BigDecimal(11).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 0)));
+    }
+
+    @Test
+    public void shouldRecalculateRunningTotalsIncrementally() {
+        fillColumn(0);
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            this.dataProvider.setDataValue(1, row, "=SUM(A1:A" + (row + 1) + ")");
+        }
+
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        this.formulaDataProvider.setIncrementalCalculationEnabled(true);
+        assertEquals(0, new BigDecimal(55).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 9)));
+        assertEquals(0, new BigDecimal(15).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 4)));
+
+        // the references of the aggregated cells are recorded
+        assertEquals(2, this.formulaDataProvider.getDependencyGraph().getDependents(new IndexCoordinate(0, 0)).size());
+        assertEquals(1, this.formulaDataProvider.getDependencyGraph().getDependents(new IndexCoordinate(0, 7)).size());
+
+        this.formulaDataProvider.setDataValue(0, 4, 15);
+        assertEquals(0, new BigDecimal(65).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 9)));
+        assertEquals(0, new BigDecimal(10).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 3)));
+    }
+
+    @Test
+    public void shouldDropPrefixSumsOnLayerEvents() {
+        fillColumn(0);
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            this.dataProvider.setDataValue(1, row, "=SUM(A1:A" + (row + 1) + ")");
+        }
+
+        DataLayer dataLayer = new DataLayer(this.formulaDataProvider);
+        this.formulaDataProvider.setIncrementalCalculationEnabled(false, dataLayer);
+        this.parser.setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        for (int row = 0; row < this.dataProvider.getRowCount(); row++) {
+            assertEquals(0, new BigDecimal((row + 1) * (row + 2) / 2)
+                    .compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, row)));
+        }
+
+        // values changed in the underlying data model keep the row count
+        this.dataProvider.setDataValue(0, 0, 11);
+        dataLayer.fireLayerEvent(new DataUpdateEvent(dataLayer, 0, 0, 1, 11));
+        assertEquals(0, new BigDecimal(65).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 9)));
+
+        this.dataProvider.setDataValue(0, 9, 20);
+        dataLayer.fireLayerEvent(new RowStructuralRefreshEvent(dataLayer));
+        assertEquals(0, new BigDecimal(75).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 9)));
+        assertEquals(0, new BigDecimal(13).compareTo((BigDecimal) this.formulaDataProvider.getDataValue(1, 1)));
+    }
+
+    @Test
+    public void shouldKeepPrefixSumsOnCachedResultEvents() throws InterruptedException {
+        final int rowCount = 500;
+        final IDataProvider data = new TwoDimensionalArrayDataProvider(new Object[2][rowCount]);
+        for (int row = 0; row < rowCount; row++) {
+            data.setDataValue(0, row, row + 1);
+            data.setDataValue(1, row, "=SUM(A1:A" + (row + 1) + ")");
+        }
+
+        final AtomicInteger reads = new AtomicInteger();
+        IDataProvider countingDataProvider = new IDataProvider() {
+
+            @Override
+            public Object getDataValue(int columnIndex, int rowIndex) {
+                if (columnIndex == 0) {
+                    reads.incrementAndGet();
+                }
+                return data.getDataValue(columnIndex, rowIndex);
+            }
+
+            @Override
+            public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+                data.setDataValue(columnIndex, rowIndex, newValue);
+            }
+
+            @Override
+            public int getColumnCount() {
+                return data.getColumnCount();
+            }
+
+            @Override
+            public int getRowCount() {
+                return data.getRowCount();
+            }
+        };
+
+        FormulaDataProvider provider = new FormulaDataProvider(countingDataProvider);
+        provider.getFormulaParser().setRangeAggregationMode(RangeAggregationMode.DOUBLE);
+        DataLayer dataLayer = new DataLayer(provider);
+        provider.configureCaching(dataLayer);
+
+        // the results are calculated in the background, every result fires a
+        // CellVisualChangeEvent on the DataLayer
+        for (int row = 0; row < rowCount; row++) {
+            provider.getDataValue(1, row);
+        }
+        for (int i = 0; i < 100 && provider.getDataValue(1, rowCount - 1) == null; i++) {
+            Thread.sleep(50);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            Object value = null;
+            for (int i = 0; i < 100 && value == null; i++) {
+                value = provider.getDataValue(1, row);
+                if (value == null) {
+                    Thread.sleep(10);
+                }
+            }
+            assertEquals(0, new BigDecimal((row + 1) * (row + 2) / 2).compareTo((BigDecimal) value));
+        }
+
+        // the prefix sums are built once and not dropped per calculated result
+        assertTrue("Too many reads: " + reads.get(), reads.get() < 5 * rowCount);
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.hideshow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.grid.data.DummyBodyDataProvider;
+import org.eclipse.nebula.widgets.nattable.hideshow.indicator.HideIndicatorConstants;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.event.ColumnDeleteEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.ColumnInsertEvent;
+import org.eclipse.nebula.widgets.nattable.reorder.ColumnReorderLayer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeColumnHideShowLayerTest {
+
+    private static final int COLUMN_COUNT = 200;
+
+    private DataLayer dataLayer;
+    private ColumnReorderLayer reorderLayer;
+    private RangeColumnHideShowLayer rangeLayer;
+
+    private ColumnReorderLayer referenceReorderLayer;
+    private ColumnHideShowLayer referenceLayer;
+
+    @Before
+    public void setup() {
+        this.dataLayer = new DataLayer(new DummyBodyDataProvider(COLUMN_COUNT, 5));
+        this.reorderLayer = new ColumnReorderLayer(this.dataLayer);
+        this.rangeLayer = new RangeColumnHideShowLayer(this.reorderLayer);
+
+        DataLayer referenceDataLayer = new DataLayer(new DummyBodyDataProvider(COLUMN_COUNT, 5));
+        this.referenceReorderLayer = new ColumnReorderLayer(referenceDataLayer);
+        this.referenceLayer = new ColumnHideShowLayer(this.referenceReorderLayer);
+
+        // use different column widths so the x calculation is verified
+        for (int i = 0; i < COLUMN_COUNT; i += 3) {
+            this.dataLayer.setColumnWidthByPosition(i, 10 + i % 7);
+            referenceDataLayer.setColumnWidthByPosition(i, 10 + i % 7);
+        }
+    }
+
+    private void reorder(int from, int to) {
+        this.reorderLayer.reorderColumnPosition(from, to);
+        this.referenceReorderLayer.reorderColumnPosition(from, to);
+    }
+
+    private void assertSameAsReference() {
+        assertEquals(this.referenceLayer.hasHiddenColumns(), this.rangeLayer.hasHiddenColumns());
+        assertArrayEquals(this.referenceLayer.getHiddenColumnIndexesArray(), this.rangeLayer.getHiddenColumnIndexesArray());
+        assertEquals(this.referenceLayer.getColumnCount(), this.rangeLayer.getColumnCount());
+        assertEquals(this.referenceLayer.getWidth(), this.rangeLayer.getWidth());
+
+        for (int position = -1; position <= this.referenceLayer.getColumnCount(); position++) {
+            assertEquals("index of position " + position,
+                    this.referenceLayer.getColumnIndexByPosition(position),
+                    this.rangeLayer.getColumnIndexByPosition(position));
+            assertEquals("underlying of position " + position,
+                    this.referenceLayer.localToUnderlyingColumnPosition(position),
+                    this.rangeLayer.localToUnderlyingColumnPosition(position));
+        }
+        for (int position = 0; position < this.referenceLayer.getColumnCount(); position++) {
+            assertEquals("start x of position " + position,
+                    this.referenceLayer.getStartXOfColumnPosition(position),
+                    this.rangeLayer.getStartXOfColumnPosition(position));
+        }
+        for (int index = -1; index <= this.reorderLayer.getColumnCount(); index++) {
+            assertEquals("position of index " + index,
+                    this.referenceLayer.getColumnPositionByIndex(index),
+                    this.rangeLayer.getColumnPositionByIndex(index));
+        }
+        for (int position = -1; position <= this.reorderLayer.getColumnCount(); position++) {
+            assertEquals("local of underlying position " + position,
+                    this.referenceLayer.underlyingToLocalColumnPosition(this.referenceReorderLayer, position),
+                    this.rangeLayer.underlyingToLocalColumnPosition(this.reorderLayer, position));
+        }
+    }
+
+    @Test
+    public void shouldHideAndShowColumns() {
+        this.rangeLayer.hideColumnPositions(2, 3, 4, 10);
+        this.referenceLayer.hideColumnPositions(2, 3, 4, 10);
+        assertSameAsReference();
+        assertEquals(COLUMN_COUNT - 4, this.rangeLayer.getColumnCount());
+        assertEquals(5, this.rangeLayer.getColumnIndexByPosition(2));
+        assertEquals(-1, this.rangeLayer.getColumnPositionByIndex(3));
+        assertTrue(this.rangeLayer.isColumnIndexHidden(10));
+
+        this.rangeLayer.showColumnIndexes(3, 10);
+        this.referenceLayer.showColumnIndexes(3, 10);
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.isColumnIndexHidden(10));
+
+        this.rangeLayer.showAllColumns();
+        this.referenceLayer.showAllColumns();
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.hasHiddenColumns());
+    }
+
+    @Test
+    public void shouldHideBigBlocksOfColumns() {
+        int[] toHide = IntStream.range(10, 150).toArray();
+        this.rangeLayer.hideColumnIndexes(toHide);
+        this.referenceLayer.hideColumnIndexes(toHide);
+
+        assertSameAsReference();
+        assertEquals(1, this.rangeLayer.getHiddenColumnIndexRanges().getRangeCount());
+        assertEquals(150, this.rangeLayer.getColumnIndexByPosition(10));
+    }
+
+    @Test
+    public void shouldHideColumnsOnReorderedLayer() {
+        reorder(0, 20);
+        reorder(50, 5);
+        reorder(199, 100);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            if (random.nextInt(3) == 0 && this.referenceLayer.hasHiddenColumns()) {
+                int[] hidden = this.referenceLayer.getHiddenColumnIndexesArray();
+                int index = hidden[random.nextInt(hidden.length)];
+                this.rangeLayer.showColumnIndexes(index, index + 1);
+                this.referenceLayer.showColumnIndexes(index, index + 1);
+            } else {
+                int start = random.nextInt(this.referenceLayer.getColumnCount() - 5);
+                int[] positions = IntStream.range(start, start + 1 + random.nextInt(5)).toArray();
+                this.rangeLayer.hideColumnPositions(positions);
+                this.referenceLayer.hideColumnPositions(positions);
+            }
+            assertSameAsReference();
+        }
+    }
+
+    @Test
+    public void shouldShowAdjacentColumns() {
+        this.rangeLayer.hideColumnPositions(3, 4, 5);
+        this.referenceLayer.hideColumnPositions(3, 4, 5);
+
+        this.rangeLayer.showColumnPosition(2, false, false);
+        this.referenceLayer.showColumnPosition(2, false, false);
+        assertSameAsReference();
+
+        this.rangeLayer.showColumnPosition(3, false, true);
+        this.referenceLayer.showColumnPosition(3, false, true);
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.hasHiddenColumns());
+    }
+
+    @Test
+    public void shouldAddHideIndicatorLabels() {
+        this.rangeLayer.hideColumnPositions(3, 4);
+
+        LabelStack labels = this.rangeLayer.getConfigLabelsByPosition(2, 0);
+        assertTrue(labels.hasLabel(HideIndicatorConstants.COLUMN_RIGHT_HIDDEN));
+        assertFalse(labels.hasLabel(HideIndicatorConstants.COLUMN_LEFT_HIDDEN));
+
+        labels = this.rangeLayer.getConfigLabelsByPosition(3, 0);
+        assertTrue(labels.hasLabel(HideIndicatorConstants.COLUMN_LEFT_HIDDEN));
+        assertFalse(labels.hasLabel(HideIndicatorConstants.COLUMN_RIGHT_HIDDEN));
+    }
+
+    @Test
+    public void shouldUpdateStartXOnResize() {
+        this.rangeLayer.hideColumnPositions(2, 3);
+        this.referenceLayer.hideColumnPositions(2, 3);
+        assertSameAsReference();
+
+        this.dataLayer.setColumnWidthByPosition(3, 100);
+        ((DataLayer) this.referenceReorderLayer.getUnderlyingLayerByPosition(0, 0)).setColumnWidthByPosition(3, 100);
+        this.dataLayer.setColumnWidthByPosition(1, 50);
+        ((DataLayer) this.referenceReorderLayer.getUnderlyingLayerByPosition(0, 0)).setColumnWidthByPosition(1, 50);
+        assertSameAsReference();
+    }
+
+    @Test
+    public void shouldSaveAndLoadStateLikeColumnHideShowLayer() {
+        this.referenceLayer.hideColumnPositions(3, 5, 6);
+
+        Properties properties = new Properties();
+        this.referenceLayer.saveState("prefix", properties);
+        this.rangeLayer.loadState("prefix", properties);
+        assertSameAsReference();
+
+        Properties rangeProperties = new Properties();
+        this.rangeLayer.saveState("prefix", rangeProperties);
+        assertEquals(
+                properties.getProperty("prefix" + ColumnHideShowLayer.PERSISTENCE_KEY_HIDDEN_COLUMN_INDEXES),
+                rangeProperties.getProperty("prefix" + ColumnHideShowLayer.PERSISTENCE_KEY_HIDDEN_COLUMN_INDEXES));
+    }
+
+    @Test
+    public void shouldHandleStructuralChanges() {
+        this.rangeLayer.hideColumnIndexes(2, 3, 6, 7);
+
+        // delete column index 1 and 3
+        this.dataLayer.fireLayerEvent(new ColumnDeleteEvent(this.dataLayer, new Range(1, 2), new Range(3, 4)));
+        assertArrayEquals(new int[] { 1, 4, 5 }, this.rangeLayer.getHiddenColumnIndexesArray());
+
+        // insert a column at index 4
+        this.dataLayer.fireLayerEvent(new ColumnInsertEvent(this.dataLayer, 4));
+        assertArrayEquals(new int[] { 1, 5, 6 }, this.rangeLayer.getHiddenColumnIndexesArray());
+    }
+}
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.hideshow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.data.IColumnAccessor;
+import org.eclipse.nebula.widgets.nattable.data.ListDataProvider;
+import org.eclipse.nebula.widgets.nattable.grid.data.DummyBodyDataProvider;
+import org.eclipse.nebula.widgets.nattable.hideshow.indicator.HideIndicatorConstants;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowDeleteEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowInsertEvent;
+import org.eclipse.nebula.widgets.nattable.reorder.RowReorderLayer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeRowHideShowLayerTest {
+
+    private static final int ROW_COUNT = 200;
+
+    private DataLayer dataLayer;
+    private RowReorderLayer reorderLayer;
+    private RangeRowHideShowLayer rangeLayer;
+
+    private RowReorderLayer referenceReorderLayer;
+    private RowHideShowLayer referenceLayer;
+
+    @Before
+    public void setup() {
+        this.dataLayer = new DataLayer(new DummyBodyDataProvider(5, ROW_COUNT));
+        this.reorderLayer = new RowReorderLayer(this.dataLayer);
+        this.rangeLayer = new RangeRowHideShowLayer(this.reorderLayer);
+
+        DataLayer referenceDataLayer = new DataLayer(new DummyBodyDataProvider(5, ROW_COUNT));
+        this.referenceReorderLayer = new RowReorderLayer(referenceDataLayer);
+        this.referenceLayer = new RowHideShowLayer(this.referenceReorderLayer);
+
+        // use different row heights so the y calculation is verified
+        for (int i = 0; i < ROW_COUNT; i += 3) {
+            this.dataLayer.setRowHeightByPosition(i, 10 + i % 7);
+            referenceDataLayer.setRowHeightByPosition(i, 10 + i % 7);
+        }
+    }
+
+    private void reorder(int from, int to) {
+        this.reorderLayer.reorderRowPosition(from, to);
+        this.referenceReorderLayer.reorderRowPosition(from, to);
+    }
+
+    private void assertSameAsReference() {
+        assertEquals(this.referenceLayer.hasHiddenRows(), this.rangeLayer.hasHiddenRows());
+        assertArrayEquals(this.referenceLayer.getHiddenRowIndexesArray(), this.rangeLayer.getHiddenRowIndexesArray());
+        assertEquals(this.referenceLayer.getRowCount(), this.rangeLayer.getRowCount());
+        assertEquals(this.referenceLayer.getHeight(), this.rangeLayer.getHeight());
+
+        for (int position = -1; position <= this.referenceLayer.getRowCount(); position++) {
+            assertEquals("index of position " + position,
+                    this.referenceLayer.getRowIndexByPosition(position),
+                    this.rangeLayer.getRowIndexByPosition(position));
+            assertEquals("underlying of position " + position,
+                    this.referenceLayer.localToUnderlyingRowPosition(position),
+                    this.rangeLayer.localToUnderlyingRowPosition(position));
+        }
+        for (int position = 0; position < this.referenceLayer.getRowCount(); position++) {
+            assertEquals("start y of position " + position,
+                    this.referenceLayer.getStartYOfRowPosition(position),
+                    this.rangeLayer.getStartYOfRowPosition(position));
+        }
+        for (int index = -1; index <= this.reorderLayer.getRowCount(); index++) {
+            assertEquals("position of index " + index,
+                    this.referenceLayer.getRowPositionByIndex(index),
+                    this.rangeLayer.getRowPositionByIndex(index));
+        }
+        for (int position = -1; position <= this.reorderLayer.getRowCount(); position++) {
+            assertEquals("local of underlying position " + position,
+                    this.referenceLayer.underlyingToLocalRowPosition(this.referenceReorderLayer, position),
+                    this.rangeLayer.underlyingToLocalRowPosition(this.reorderLayer, position));
+        }
+    }
+
+    @Test
+    public void shouldHideAndShowRows() {
+        this.rangeLayer.hideRowPositions(2, 3, 4, 10);
+        this.referenceLayer.hideRowPositions(2, 3, 4, 10);
+        assertSameAsReference();
+        assertEquals(ROW_COUNT - 4, this.rangeLayer.getRowCount());
+        assertEquals(5, this.rangeLayer.getRowIndexByPosition(2));
+        assertEquals(-1, this.rangeLayer.getRowPositionByIndex(3));
+        assertTrue(this.rangeLayer.isRowIndexHidden(10));
+
+        this.rangeLayer.showRowIndexes(3, 10);
+        this.referenceLayer.showRowIndexes(3, 10);
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.isRowIndexHidden(10));
+
+        this.rangeLayer.showAllRows();
+        this.referenceLayer.showAllRows();
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.hasHiddenRows());
+    }
+
+    @Test
+    public void shouldHideBigBlocksOfRows() {
+        int[] toHide = IntStream.range(10, 150).toArray();
+        this.rangeLayer.hideRowIndexes(toHide);
+        this.referenceLayer.hideRowIndexes(toHide);
+
+        assertSameAsReference();
+        assertEquals(1, this.rangeLayer.getHiddenRowIndexRanges().getRangeCount());
+        assertEquals(150, this.rangeLayer.getRowIndexByPosition(10));
+    }
+
+    @Test
+    public void shouldHideRowsOnReorderedLayer() {
+        reorder(0, 20);
+        reorder(50, 5);
+        reorder(199, 100);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            if (random.nextInt(3) == 0 && this.referenceLayer.hasHiddenRows()) {
+                int[] hidden = this.referenceLayer.getHiddenRowIndexesArray();
+                int index = hidden[random.nextInt(hidden.length)];
+                this.rangeLayer.showRowIndexes(index, index + 1);
+                this.referenceLayer.showRowIndexes(index, index + 1);
+            } else {
+                int start = random.nextInt(this.referenceLayer.getRowCount() - 5);
+                int[] positions = IntStream.range(start, start + 1 + random.nextInt(5)).toArray();
+                this.rangeLayer.hideRowPositions(positions);
+                this.referenceLayer.hideRowPositions(positions);
+            }
+            assertSameAsReference();
+        }
+    }
+
+    @Test
+    public void shouldShowAdjacentRows() {
+        this.rangeLayer.hideRowPositions(3, 4, 5);
+        this.referenceLayer.hideRowPositions(3, 4, 5);
+
+        this.rangeLayer.showRowPosition(2, false, false);
+        this.referenceLayer.showRowPosition(2, false, false);
+        assertSameAsReference();
+
+        this.rangeLayer.showRowPosition(3, false, true);
+        this.referenceLayer.showRowPosition(3, false, true);
+        assertSameAsReference();
+        assertFalse(this.rangeLayer.hasHiddenRows());
+    }
+
+    @Test
+    public void shouldAddHideIndicatorLabels() {
+        this.rangeLayer.hideRowPositions(3, 4);
+
+        LabelStack labels = this.rangeLayer.getConfigLabelsByPosition(0, 2);
+        assertTrue(labels.hasLabel(HideIndicatorConstants.ROW_BOTTOM_HIDDEN));
+        assertFalse(labels.hasLabel(HideIndicatorConstants.ROW_TOP_HIDDEN));
+
+        labels = this.rangeLayer.getConfigLabelsByPosition(0, 3);
+        assertTrue(labels.hasLabel(HideIndicatorConstants.ROW_TOP_HIDDEN));
+        assertFalse(labels.hasLabel(HideIndicatorConstants.ROW_BOTTOM_HIDDEN));
+    }
+
+    @Test
+    public void shouldUpdateStartYOnResize() {
+        this.rangeLayer.hideRowPositions(2, 3);
+        this.referenceLayer.hideRowPositions(2, 3);
+        assertSameAsReference();
+
+        this.dataLayer.setRowHeightByPosition(3, 100);
+        ((DataLayer) this.referenceReorderLayer.getUnderlyingLayerByPosition(0, 0)).setRowHeightByPosition(3, 100);
+        this.dataLayer.setRowHeightByPosition(1, 50);
+        ((DataLayer) this.referenceReorderLayer.getUnderlyingLayerByPosition(0, 0)).setRowHeightByPosition(1, 50);
+        assertSameAsReference();
+    }
+
+    @Test
+    public void shouldSaveAndLoadStateLikeRowHideShowLayer() {
+        this.referenceLayer.hideRowPositions(3, 5, 6);
+
+        Properties properties = new Properties();
+        this.referenceLayer.saveState("prefix", properties);
+        this.rangeLayer.loadState("prefix", properties);
+        assertSameAsReference();
+
+        Properties rangeProperties = new Properties();
+        this.rangeLayer.saveState("prefix", rangeProperties);
+        assertEquals(
+                properties.getProperty("prefix" + RowHideShowLayer.PERSISTENCE_KEY_HIDDEN_ROW_INDEXES),
+                rangeProperties.getProperty("prefix" + RowHideShowLayer.PERSISTENCE_KEY_HIDDEN_ROW_INDEXES));
+    }
+
+    @Test
+    public void shouldHandleStructuralChanges() {
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            contents.add("row" + i);
+        }
+        DataLayer underlyingLayer = new DataLayer(new ListDataProvider<>(contents, new IColumnAccessor<String>() {
+
+            @Override
+            public Object getDataValue(String rowObject, int columnIndex) {
+                return rowObject;
+            }
+
+            @Override
+            public void setDataValue(String rowObject, int columnIndex, Object newValue) {
+                // ignore
+            }
+
+            @Override
+            public int getColumnCount() {
+                return 1;
+            }
+        }));
+        RangeRowHideShowLayer layer = new RangeRowHideShowLayer(underlyingLayer);
+        layer.hideRowIndexes(2, 3, 6, 7);
+
+        // delete row index 1 and 3
+        contents.remove(3);
+        contents.remove(1);
+        underlyingLayer.fireLayerEvent(new RowDeleteEvent(underlyingLayer, new Range(1, 2), new Range(3, 4)));
+
+        assertArrayEquals(new int[] { 1, 4, 5 }, layer.getHiddenRowIndexesArray());
+        assertEquals(5, layer.getRowCount());
+        assertEquals("row0", layer.getDataValueByPosition(0, 0));
+        assertEquals("row4", layer.getDataValueByPosition(0, 1));
+        assertEquals("row5", layer.getDataValueByPosition(0, 2));
+        assertEquals("row8", layer.getDataValueByPosition(0, 3));
+
+        // insert a row at index 4
+        contents.add(4, "new");
+        underlyingLayer.fireLayerEvent(new RowInsertEvent(underlyingLayer, 4));
+
+        assertArrayEquals(new int[] { 1, 5, 6 }, layer.getHiddenRowIndexesArray());
+        assertEquals(6, layer.getRowCount());
+        assertEquals("new", layer.getDataValueByPosition(0, 3));
+        assertEquals("row8", layer.getDataValueByPosition(0, 4));
+    }
+}
@@ -12,9 +12,16 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
@@ -135,4 +142,78 @@ public void shouldRemoveLabel() {
         assertEquals("One", iterator.next());
         assertEquals("Three", iterator.next());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldAccessFirstAndLastLabel() {
+        LabelStack labels = new LabelStack("One", "Two", "Three");
+
+        assertEquals("One", labels.getFirst());
+        assertEquals("Three", labels.getLast());
+
+        labels.addFirst("Zero");
+        labels.addLast("Four");
+        assertEquals("Zero", labels.getFirst());
+        assertEquals("Four", labels.getLast());
+        assertEquals(5, labels.size());
+
+        assertEquals("Zero", labels.removeFirst());
+        assertEquals("Four", labels.removeLast());
+        assertEquals(3, labels.size());
+        assertEquals("One", labels.getFirst());
+        assertEquals("Three", labels.getLast());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void shouldFailOnFirstLabelOfEmptyStack() {
+        new LabelStack().getFirst();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void shouldSupportDequeMethods() {
+        LabelStack labels = new LabelStack("One", "Two", "Three");
+
+        labels.push("Zero");
+        assertEquals("Zero", labels.peek());
+        assertEquals("Zero", labels.pop());
+        assertEquals("One", labels.element());
+
+        assertTrue(labels.offer("Four"));
+        assertTrue(labels.offerFirst("Zero"));
+        assertEquals("Zero", labels.pollFirst());
+        assertEquals("Four", labels.pollLast());
+        assertEquals("Three", labels.peekLast());
+
+        Iterator<String> iterator = labels.descendingIterator();
+        assertEquals("Three", iterator.next());
+        assertEquals("Two", iterator.next());
+        assertEquals("One", iterator.next());
+        assertFalse(iterator.hasNext());
+
+        assertEquals("One", labels.remove());
+        assertEquals("Two", labels.poll());
+        assertEquals("Three", labels.remove());
+        assertNull(labels.peek());
+        assertNull(labels.poll());
+    }
+
+    @Test
+    public void shouldSerializeLabelStack() throws IOException, ClassNotFoundException {
+        LabelStack labels = new LabelStack("One", "Two", "Three");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(labels);
+        }
+
+        LabelStack deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (LabelStack) in.readObject();
+        }
+
+        assertEquals(labels, deserialized);
+        deserialized.addLabelOnTop("Zero");
+        assertEquals("Zero", deserialized.getFirst());
+        assertEquals(4, deserialized.size());
+    }
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.layer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.nebula.widgets.nattable.grid.data.DummyBodyDataProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SizeConfigPrefixSumTest {
+
+    private static final int DEFAULT_SIZE = 100;
+    private SizeConfig sizeConfig;
+    private SizeConfig referenceConfig;
+
+    @Before
+    public void setup() {
+        this.sizeConfig = new SizeConfig(DEFAULT_SIZE);
+        this.sizeConfig.setPrefixSumMode(true);
+        this.referenceConfig = new SizeConfig(DEFAULT_SIZE);
+    }
+
+    private void assertSameAggregateSizes(int positionCount) {
+        for (int i = 0; i <= positionCount; i++) {
+            assertEquals("wrong aggregate size for position " + i,
+                    this.referenceConfig.getAggregateSize(i),
+                    this.sizeConfig.getAggregateSize(i));
+        }
+    }
+
+    @Test
+    public void shouldEnableAndDisablePrefixSumMode() {
+        assertTrue(this.sizeConfig.isPrefixSumMode());
+        assertFalse(this.referenceConfig.isPrefixSumMode());
+
+        this.sizeConfig.setSize(5, 120);
+        this.sizeConfig.setPrefixSumMode(false);
+        assertFalse(this.sizeConfig.isPrefixSumMode());
+        assertEquals(1020, this.sizeConfig.getAggregateSize(10));
+    }
+
+    @Test
+    public void getAggregateSizeWithSizeOverrides() {
+        this.sizeConfig.setSize(5, 120);
+        this.sizeConfig.setSize(0, 10);
+
+        assertEquals(10, this.sizeConfig.getAggregateSize(1));
+        assertEquals(410, this.sizeConfig.getAggregateSize(5));
+        assertEquals(930, this.sizeConfig.getAggregateSize(10));
+    }
+
+    @Test
+    public void getAggregateSizeAfterResizeUpdate() {
+        this.sizeConfig.setSize(5, 120);
+        assertEquals(1020, this.sizeConfig.getAggregateSize(10));
+
+        this.sizeConfig.setSize(5, 50);
+        assertEquals(950, this.sizeConfig.getAggregateSize(10));
+
+        this.sizeConfig.resetConfiguredSize(5);
+        assertEquals(1000, this.sizeConfig.getAggregateSize(10));
+    }
+
+    @Test
+    public void getAggregateSizeWithDefaultSizeOverrides() {
+        this.sizeConfig.setDefaultSize(2, 10);
+        this.sizeConfig.setSize(3, 50);
+        this.referenceConfig.setDefaultSize(2, 10);
+        this.referenceConfig.setSize(3, 50);
+
+        assertSameAggregateSizes(20);
+
+        // a configured size wins over the position default size
+        this.sizeConfig.setSize(2, 30);
+        this.referenceConfig.setSize(2, 30);
+        this.sizeConfig.setDefaultSize(2, 40);
+        this.referenceConfig.setDefaultSize(2, 40);
+
+        assertSameAggregateSizes(20);
+    }
+
+    @Test
+    public void getAggregateSizeAfterDefaultSizeChange() {
+        this.sizeConfig.setSize(3, 50);
+        assertEquals(950, this.sizeConfig.getAggregateSize(10));
+
+        this.sizeConfig.setDefaultSize(20);
+        assertEquals(230, this.sizeConfig.getAggregateSize(10));
+    }
+
+    @Test
+    public void getAggregateSizeWithScaling() {
+        this.sizeConfig.setDpiConverter(new FixedScalingDpiConverter(144));
+        this.referenceConfig.setDpiConverter(new FixedScalingDpiConverter(144));
+
+        this.sizeConfig.setSize(3, 51);
+        this.referenceConfig.setSize(3, 51);
+
+        assertSameAggregateSizes(20);
+    }
+
+    @Test
+    public void getAggregateSizeBeyondInitialCapacity() {
+        this.sizeConfig.setSize(10_000, 10);
+        this.sizeConfig.setSize(100, 10);
+
+        assertEquals(10_000 * DEFAULT_SIZE - 90, this.sizeConfig.getAggregateSize(10_000));
+        assertEquals(20_000 * DEFAULT_SIZE - 180, this.sizeConfig.getAggregateSize(20_000));
+    }
+
+    @Test
+    public void getAggregateSizeRandomResize() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int position = random.nextInt(1000);
+            int size = random.nextInt(200);
+            this.sizeConfig.setSize(position, size);
+            this.referenceConfig.setSize(position, size);
+        }
+
+        assertSameAggregateSizes(1200);
+    }
+
+    @Test
+    public void getPositionByAggregateSize() {
+        this.sizeConfig.setSize(1, 0);
+        this.sizeConfig.setSize(3, 50);
+
+        assertEquals(-1, this.sizeConfig.getPositionByAggregateSize(-1));
+        assertEquals(0, this.sizeConfig.getPositionByAggregateSize(0));
+        assertEquals(0, this.sizeConfig.getPositionByAggregateSize(99));
+        // position 1 has a size of 0 and therefore never contains a pixel
+        assertEquals(2, this.sizeConfig.getPositionByAggregateSize(100));
+        assertEquals(3, this.sizeConfig.getPositionByAggregateSize(200));
+        assertEquals(3, this.sizeConfig.getPositionByAggregateSize(249));
+        assertEquals(4, this.sizeConfig.getPositionByAggregateSize(250));
+        assertEquals(102, this.sizeConfig.getPositionByAggregateSize(10_050));
+    }
+
+    @Test
+    public void getPositionByAggregateSizeRandomResize() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            int position = random.nextInt(300);
+            int size = random.nextInt(40);
+            this.sizeConfig.setSize(position, size);
+            this.referenceConfig.setSize(position, size);
+        }
+
+        for (int pixel = 0; pixel < this.referenceConfig.getAggregateSize(300); pixel += 7) {
+            int expected = this.referenceConfig.getPositionByAggregateSize(pixel);
+            assertEquals("wrong position for pixel " + pixel, expected, this.sizeConfig.getPositionByAggregateSize(pixel));
+            assertTrue(this.sizeConfig.getAggregateSize(expected) <= pixel);
+            assertTrue(this.sizeConfig.getAggregateSize(expected + 1) > pixel);
+        }
+    }
+
+    @Test
+    public void shouldNotUsePrefixSumsOnPercentageSizing() {
+        this.sizeConfig.setPercentageSizing(true);
+        this.sizeConfig.calculatePercentages(1000, 4);
+
+        assertEquals(250, this.sizeConfig.getAggregateSize(1));
+        assertEquals(1000, this.sizeConfig.getAggregateSize(4));
+
+        this.sizeConfig.setPercentageSizing(false);
+        this.sizeConfig.setSize(0, 50);
+        assertEquals(350, this.sizeConfig.getAggregateSize(4));
+    }
+
+    @Test
+    public void dataLayerRowPositionByY() {
+        DataLayer dataLayer = new DataLayer(new DummyBodyDataProvider(10, 1000));
+        dataLayer.setRowHeightPrefixSumMode(true);
+        assertTrue(dataLayer.isRowHeightPrefixSumMode());
+
+        dataLayer.setRowHeightByPosition(2, 100);
+        dataLayer.setRowHeightByPosition(500, 5);
+
+        assertEquals(-1, dataLayer.getRowPositionByY(-1));
+        assertEquals(1, dataLayer.getRowPositionByY(39));
+        assertEquals(2, dataLayer.getRowPositionByY(40));
+        assertEquals(2, dataLayer.getRowPositionByY(139));
+        assertEquals(3, dataLayer.getRowPositionByY(140));
+        assertEquals(500, dataLayer.getRowPositionByY(dataLayer.getStartYOfRowPosition(500) + 4));
+        assertEquals(501, dataLayer.getRowPositionByY(dataLayer.getStartYOfRowPosition(500) + 5));
+        assertEquals(999, dataLayer.getRowPositionByY(dataLayer.getHeight() - 1));
+        assertEquals(-1, dataLayer.getRowPositionByY(dataLayer.getHeight()));
+    }
+
+    @Test
+    public void dataLayerColumnPositionByX() {
+        DataLayer dataLayer = new DataLayer(new DummyBodyDataProvider(10, 10));
+        dataLayer.setColumnWidthPrefixSumMode(true);
+        assertTrue(dataLayer.isColumnWidthPrefixSumMode());
+
+        dataLayer.setColumnWidthByPosition(0, 10);
+
+        assertEquals(0, dataLayer.getColumnPositionByX(9));
+        assertEquals(1, dataLayer.getColumnPositionByX(10));
+        assertEquals(9, dataLayer.getColumnPositionByX(dataLayer.getWidth() - 1));
+        assertEquals(-1, dataLayer.getColumnPositionByX(dataLayer.getWidth()));
+    }
+}
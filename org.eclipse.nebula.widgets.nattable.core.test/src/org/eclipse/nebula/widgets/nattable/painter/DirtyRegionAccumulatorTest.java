@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Test;
+
+public class DirtyRegionAccumulatorTest {
+
+    private DirtyRegionAccumulator accumulator = new DirtyRegionAccumulator(4);
+
+    @Test
+    public void shouldReportFirstAreaOfFrame() {
+        assertTrue(this.accumulator.isEmpty());
+        assertTrue(this.accumulator.add(0, 0, 10, 10));
+        assertFalse(this.accumulator.add(10, 0, 10, 10));
+        assertFalse(this.accumulator.add(10, 0, 0, 10));
+        assertFalse(this.accumulator.isEmpty());
+
+        this.accumulator.drain();
+        assertTrue(this.accumulator.isEmpty());
+        assertTrue(this.accumulator.drain().isEmpty());
+        assertTrue(this.accumulator.add(0, 0, 10, 10));
+    }
+
+    @Test
+    public void shouldRemoveDuplicates() {
+        for (int i = 0; i < 100; i++) {
+            this.accumulator.add(20, 40, 100, 20);
+        }
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(1, regions.size());
+        assertEquals(new Rectangle(20, 40, 100, 20), regions.get(0));
+    }
+
+    @Test
+    public void shouldMergeNeighbourCells() {
+        // three cells in a row and a cell below the first cell
+        this.accumulator.add(200, 20, 100, 20);
+        this.accumulator.add(0, 20, 100, 20);
+        this.accumulator.add(100, 20, 100, 20);
+        this.accumulator.add(500, 200, 100, 20);
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(2, regions.size());
+        assertTrue(regions.contains(new Rectangle(0, 20, 300, 20)));
+        assertTrue(regions.contains(new Rectangle(500, 200, 100, 20)));
+    }
+
+    @Test
+    public void shouldMergeRowsToBlock() {
+        this.accumulator.add(0, 0, 100, 20);
+        this.accumulator.add(100, 0, 100, 20);
+        this.accumulator.add(0, 20, 100, 20);
+        this.accumulator.add(100, 20, 100, 20);
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(1, regions.size());
+        assertEquals(new Rectangle(0, 0, 200, 40), regions.get(0));
+    }
+
+    @Test
+    public void shouldLimitNumberOfRegions() {
+        // a diagonal of cells that can not be merged without additional pixels
+        for (int i = 0; i < 10; i++) {
+            this.accumulator.add(i * 100, i * 20, 100, 20);
+        }
+        // a distant cell
+        this.accumulator.add(5000, 5000, 10, 10);
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(4, regions.size());
+        assertTrue(regions.contains(new Rectangle(5000, 5000, 10, 10)));
+    }
+
+    @Test
+    public void shouldCoverAllAreas() {
+        Random random = new Random(42);
+        Rectangle[] areas = new Rectangle[300];
+        for (int i = 0; i < areas.length; i++) {
+            areas[i] = new Rectangle(random.nextInt(20) * 50, random.nextInt(50) * 20, 50, 20);
+            this.accumulator.add(areas[i].x, areas[i].y, areas[i].width, areas[i].height);
+        }
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertTrue(regions.size() <= 4);
+        for (Rectangle area : areas) {
+            boolean covered = false;
+            for (Rectangle region : regions) {
+                covered |= region.intersection(area).equals(area);
+            }
+            assertTrue(area.toString(), covered);
+        }
+    }
+
+    @Test
+    public void shouldMergeManyNeighbourCells() {
+        // added column by column, so neither the rows nor the columns are
+        // added in order
+        for (int column = 0; column < 200; column++) {
+            for (int row = 0; row < 200; row++) {
+                this.accumulator.add(column * 50, ((row * 7) % 200) * 20, 50, 20);
+            }
+        }
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(1, regions.size());
+        assertEquals(new Rectangle(0, 0, 10000, 4000), regions.get(0));
+    }
+
+    @Test
+    public void shouldReturnBoundingBoxForManyDistantRegions() {
+        for (int i = 0; i < 40; i++) {
+            this.accumulator.add(i * 100, (i % 2) * 100, 10, 10);
+        }
+
+        List<Rectangle> regions = this.accumulator.drain();
+        assertEquals(1, regions.size());
+        assertEquals(new Rectangle(0, 0, 3910, 110), regions.get(0));
+    }
+}
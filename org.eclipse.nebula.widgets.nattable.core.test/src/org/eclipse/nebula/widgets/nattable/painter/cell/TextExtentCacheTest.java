@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter.cell;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+
+public class TextExtentCacheTest {
+
+    private final TextExtentCache cache = new TextExtentCache(3);
+
+    private int measured;
+
+    /** Proportional font: digits 7 pixels, other characters 10 pixels. */
+    private final ToIntFunction<String> proportional = new ToIntFunction<String>() {
+        @Override
+        public int applyAsInt(String text) {
+            TextExtentCacheTest.this.measured++;
+            int width = 0;
+            for (char c : text.toCharArray()) {
+                width += Character.isDigit(c) ? 7 : (c == 'i' || c == '.' ? 3 : 10);
+            }
+            return width;
+        }
+    };
+
+    /** Monospaced font with 8 pixels per character. */
+    private final ToIntFunction<String> monospaced = new ToIntFunction<String>() {
+        @Override
+        public int applyAsInt(String text) {
+            TextExtentCacheTest.this.measured++;
+            return text.length() * 8;
+        }
+    };
+
+    /** Font with kerning, every text is one pixel smaller. */
+    private final ToIntFunction<String> kerning = new ToIntFunction<String>() {
+        @Override
+        public int applyAsInt(String text) {
+            TextExtentCacheTest.this.measured++;
+            return text.length() * 6 - 1;
+        }
+    };
+
+    @Test
+    public void shouldCacheMeasuredText() {
+        assertEquals(60, this.cache.getTextExtent("font", "Nebula", this.proportional));
+        int measuredAfterFirst = this.measured;
+        assertEquals(60, this.cache.getTextExtent("font", "Nebula", this.proportional));
+
+        assertEquals(measuredAfterFirst, this.measured);
+        assertEquals(1, this.cache.getHitCount());
+        assertEquals(1, this.cache.getMissCount());
+        assertEquals(1, this.cache.size());
+    }
+
+    @Test
+    public void shouldCacheTextPerFont() {
+        assertEquals(60, this.cache.getTextExtent("font", "Nebula", this.proportional));
+        assertEquals(35, this.cache.getTextExtent("kerning", "Nebula", this.kerning));
+        assertEquals(60, this.cache.getTextExtent("font", "Nebula", this.proportional));
+        assertEquals(35, this.cache.getTextExtent("kerning", "Nebula", this.kerning));
+
+        assertEquals(2, this.cache.getHitCount());
+        assertEquals(2, this.cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedText() {
+        this.cache.getTextExtent("font", "a", this.proportional);
+        this.cache.getTextExtent("font", "b", this.proportional);
+        this.cache.getTextExtent("font", "c", this.proportional);
+        this.cache.getTextExtent("font", "a", this.proportional);
+        this.cache.getTextExtent("font", "d", this.proportional);
+        assertEquals(3, this.cache.size());
+
+        int measuredBefore = this.measured;
+        this.cache.getTextExtent("font", "a", this.proportional);
+        assertEquals(measuredBefore, this.measured);
+        this.cache.getTextExtent("font", "b", this.proportional);
+        assertEquals(measuredBefore + 1, this.measured);
+    }
+
+    @Test
+    public void shouldCalculateNumericText() {
+        this.cache.getTextExtent("font", "x", this.proportional);
+        int measuredBefore = this.measured;
+
+        assertEquals(7 * 6 + 3, this.cache.getTextExtent("font", "1234.56", this.proportional));
+        assertEquals(70 + 10, this.cache.getTextExtent("font", "-9876543210", this.proportional));
+
+        assertEquals(measuredBefore, this.measured);
+        assertEquals(2, this.cache.getCalculatedCount());
+        assertEquals(1, this.cache.size());
+    }
+
+    @Test
+    public void shouldCalculateMonospacedText() {
+        assertEquals(8 * 13, this.cache.getTextExtent("mono", "Hello, World!", this.monospaced));
+        int measuredBefore = this.measured;
+        assertEquals(8 * 3, this.cache.getTextExtent("mono", "abc", this.monospaced));
+
+        assertEquals(measuredBefore, this.measured);
+        assertEquals(0, this.cache.size());
+
+        // non ASCII characters are measured
+        assertEquals(8 * 3, this.cache.getTextExtent("mono", "äbc", this.monospaced));
+        assertEquals(1, this.cache.size());
+    }
+
+    @Test
+    public void shouldNotCalculateWithKerning() {
+        this.cache.getTextExtent("kerning", "x", this.kerning);
+        int measuredBefore = this.measured;
+
+        assertEquals(35, this.cache.getTextExtent("kerning", "123456", this.kerning));
+        assertEquals(measuredBefore + 1, this.measured);
+        assertEquals(0, this.cache.getCalculatedCount());
+    }
+
+    @Test
+    public void shouldNotCalculateWithKerningPairs() {
+        // digits are additive except for the pair "11"
+        ToIntFunction<String> kerningPair = new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String text) {
+                TextExtentCacheTest.this.measured++;
+                int width = TextExtentCacheTest.this.proportional.applyAsInt(text);
+                for (int i = text.indexOf("11"); i >= 0; i = text.indexOf("11", i + 1)) {
+                    width--;
+                }
+                return width;
+            }
+        };
+
+        assertEquals(7 * 4 - 1, this.cache.getTextExtent("pair", "2011", kerningPair));
+        assertEquals(0, this.cache.getCalculatedCount());
+    }
+
+    @Test
+    public void shouldNotCalculateMonospacedWithKerningPairs() {
+        // same width for all characters except for the pair "AV"
+        ToIntFunction<String> kerningPair = new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String text) {
+                TextExtentCacheTest.this.measured++;
+                return text.length() * 8 - (text.contains("AV") ? 2 : 0);
+            }
+        };
+
+        assertEquals(8 * 3 - 2, this.cache.getTextExtent("pair", "AVE", kerningPair));
+        assertEquals(0, this.cache.getCalculatedCount());
+    }
+
+    @Test
+    public void shouldShareCacheForEqualFontKeys() {
+        assertEquals(60, this.cache.getTextExtent("font", "Nebula", this.proportional));
+        int measuredBefore = this.measured;
+        assertEquals(60, this.cache.getTextExtent(new String("font"), "Nebula", this.proportional));
+
+        assertEquals(measuredBefore, this.measured);
+        assertEquals(1, this.cache.getHitCount());
+        assertEquals(1, this.cache.size());
+    }
+
+    @Test
+    public void shouldClear() {
+        this.cache.getTextExtent("font", "Nebula", this.proportional);
+        this.cache.getTextExtent("font", "Nebula", this.proportional);
+        this.cache.clear();
+
+        assertEquals(0, this.cache.size());
+        assertEquals(0, this.cache.getHitCount());
+        assertEquals(0, this.cache.getMissCount());
+    }
+}
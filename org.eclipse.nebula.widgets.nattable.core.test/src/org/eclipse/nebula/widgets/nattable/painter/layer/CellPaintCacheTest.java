@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter.layer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.nebula.widgets.nattable.config.CellConfigAttributes;
+import org.eclipse.nebula.widgets.nattable.config.ConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.data.convert.DisplayConverter;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.cell.CellDisplayConversionUtils;
+import org.eclipse.nebula.widgets.nattable.layer.cell.IConfigLabelAccumulator;
+import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.eclipse.nebula.widgets.nattable.style.CellStyleAttributes;
+import org.eclipse.nebula.widgets.nattable.style.CellStyleUtil;
+import org.eclipse.nebula.widgets.nattable.style.ConfigAttribute;
+import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
+import org.eclipse.nebula.widgets.nattable.style.HorizontalAlignmentEnum;
+import org.eclipse.nebula.widgets.nattable.style.IStyle;
+import org.eclipse.nebula.widgets.nattable.style.Style;
+import org.eclipse.nebula.widgets.nattable.test.fixture.data.DataProviderFixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CellPaintCacheTest {
+
+    private DataLayer dataLayer;
+    private IConfigRegistry configRegistry;
+    private int styleLookups;
+    private int conversions;
+    private String label = "LABEL"; //$NON-NLS-1$
+
+    @Before
+    public void setup() {
+        this.dataLayer = new DataLayer(new DataProviderFixture(5, 5));
+        this.dataLayer.setConfigLabelAccumulator(new IConfigLabelAccumulator() {
+            @Override
+            public void accumulateConfigLabels(LabelStack configLabels, int columnPosition, int rowPosition) {
+                configLabels.addLabel(CellPaintCacheTest.this.label);
+            }
+        });
+
+        this.configRegistry = new ConfigRegistry() {
+            @Override
+            public <T> T getSpecificConfigAttribute(ConfigAttribute<T> configAttribute, String displayMode, String configLabel) {
+                if (configAttribute == CellConfigAttributes.CELL_STYLE) {
+                    CellPaintCacheTest.this.styleLookups++;
+                }
+                return super.getSpecificConfigAttribute(configAttribute, displayMode, configLabel);
+            }
+        };
+        Style style = new Style();
+        style.setAttributeValue(CellStyleAttributes.HORIZONTAL_ALIGNMENT, HorizontalAlignmentEnum.LEFT);
+        this.configRegistry.registerConfigAttribute(CellConfigAttributes.CELL_STYLE, style, DisplayMode.NORMAL, "LABEL"); //$NON-NLS-1$
+        this.configRegistry.registerConfigAttribute(CellConfigAttributes.DISPLAY_CONVERTER, new DisplayConverter() {
+            @Override
+            public Object canonicalToDisplayValue(Object canonicalValue) {
+                CellPaintCacheTest.this.conversions++;
+                return "[" + canonicalValue + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            @Override
+            public Object displayToCanonicalValue(Object displayValue) {
+                return displayValue;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        while (CellPaintCache.getCurrent() != null) {
+            CellPaintCache.endFrame();
+        }
+    }
+
+    @Test
+    public void shouldOnlyBeActiveWithinFrame() {
+        assertNull(CellPaintCache.getCurrent());
+        ILayerCell cell = this.dataLayer.getCellByPosition(1, 1);
+        assertNotSame(CellStyleUtil.getCellStyle(cell, this.configRegistry), CellStyleUtil.getCellStyle(cell, this.configRegistry));
+
+        CellPaintCache.beginFrame();
+        assertNotNull(CellPaintCache.getCurrent());
+        CellPaintCache.beginFrame();
+        CellPaintCache.endFrame();
+        assertNotNull(CellPaintCache.getCurrent());
+        CellPaintCache.endFrame();
+        assertNull(CellPaintCache.getCurrent());
+    }
+
+    @Test
+    public void shouldResolveStyleOncePerFrame() {
+        CellPaintCache.beginFrame();
+        ILayerCell cell = this.dataLayer.getCellByPosition(1, 1);
+
+        IStyle style = CellStyleUtil.getCellStyle(cell, this.configRegistry);
+        assertEquals(HorizontalAlignmentEnum.LEFT, style.getAttributeValue(CellStyleAttributes.HORIZONTAL_ALIGNMENT));
+        assertNull(style.getAttributeValue(CellStyleAttributes.IMAGE));
+        int lookups = this.styleLookups;
+
+        IStyle other = CellStyleUtil.getCellStyle(cell, this.configRegistry);
+        assertSame(style, other);
+        assertEquals(HorizontalAlignmentEnum.LEFT, other.getAttributeValue(CellStyleAttributes.HORIZONTAL_ALIGNMENT));
+        assertNull(other.getAttributeValue(CellStyleAttributes.IMAGE));
+        assertEquals(lookups, this.styleLookups);
+
+        // another instance of the same cell shares the information
+        assertSame(style, CellStyleUtil.getCellStyle(this.dataLayer.getCellByPosition(1, 1), this.configRegistry));
+        // another cell has its own information
+        assertNotSame(style, CellStyleUtil.getCellStyle(this.dataLayer.getCellByPosition(2, 1), this.configRegistry));
+    }
+
+    @Test
+    public void shouldConvertOncePerFrame() {
+        ILayerCell cell = this.dataLayer.getCellByPosition(1, 1);
+        String expected = "[" + cell.getDataValue() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        CellPaintCache.beginFrame();
+        assertEquals(expected, CellDisplayConversionUtils.convertDataType(cell, this.configRegistry));
+        assertEquals(expected, CellDisplayConversionUtils.convertDataType(cell, this.configRegistry));
+        assertEquals(1, this.conversions);
+        CellPaintCache.endFrame();
+
+        // a new frame resolves again
+        CellPaintCache.beginFrame();
+        assertEquals(expected, CellDisplayConversionUtils.convertDataType(cell, this.configRegistry));
+        assertEquals(2, this.conversions);
+    }
+
+    @Test
+    public void shouldNotShareInformationOfChangedCell() {
+        CellPaintCache.beginFrame();
+        IStyle style = CellStyleUtil.getCellStyle(this.dataLayer.getCellByPosition(1, 1), this.configRegistry);
+        assertEquals(1, CellPaintCache.getCurrent().size());
+
+        this.label = "OTHER"; //$NON-NLS-1$
+        ILayerCell cell = this.dataLayer.getCellByPosition(1, 1);
+        IStyle other = CellStyleUtil.getCellStyle(cell, this.configRegistry);
+        assertNotSame(style, other);
+        assertNull(other.getAttributeValue(CellStyleAttributes.HORIZONTAL_ALIGNMENT));
+        assertEquals(cell.getConfigLabels(), CellPaintCache.getCurrent().getConfigLabels(cell));
+    }
+}
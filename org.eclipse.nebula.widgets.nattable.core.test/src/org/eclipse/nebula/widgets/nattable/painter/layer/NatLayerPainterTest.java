@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter.layer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.nebula.widgets.nattable.NatTable;
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.painter.IOverlayPainter2;
+import org.eclipse.nebula.widgets.nattable.test.fixture.layer.DataLayerFixture;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NatLayerPainterTest {
+
+    private NatTable natTable;
+    private Image image;
+    private GC gc;
+
+    private List<Rectangle> paintedRegions = new ArrayList<Rectangle>();
+    private List<Rectangle> paintedClippings = new ArrayList<Rectangle>();
+    private List<Rectangle> paintedOverlays = new ArrayList<Rectangle>();
+
+    @Before
+    public void setup() {
+        DataLayerFixture layer = new DataLayerFixture(10, 5, 100, 20);
+        layer.setLayerPainter(new ILayerPainter() {
+
+            @Override
+            public void paintLayer(ILayer natLayer, GC gc, int xOffset, int yOffset, Rectangle rectangle, IConfigRegistry configuration) {
+                NatLayerPainterTest.this.paintedRegions.add(rectangle);
+                NatLayerPainterTest.this.paintedClippings.add(gc.getClipping());
+            }
+
+            @Override
+            public Rectangle adjustCellBounds(int columnPosition, int rowPosition, Rectangle cellBounds) {
+                return cellBounds;
+            }
+        });
+
+        this.natTable = new NatTable(new Shell(Display.getDefault()), layer);
+        this.natTable.addOverlayPainter(new IOverlayPainter2() {
+
+            @Override
+            public void paintOverlay(GC gc, ILayer layer) {
+                paintOverlay(layer, gc, 0, 0, null);
+            }
+
+            @Override
+            public void paintOverlay(ILayer layer, GC gc, int xOffset, int yOffset, Rectangle rectangle) {
+                NatLayerPainterTest.this.paintedOverlays.add(rectangle);
+            }
+        });
+
+        this.image = new Image(Display.getDefault(), 1000, 100);
+        this.gc = new GC(this.image);
+    }
+
+    @After
+    public void tearDown() {
+        this.gc.dispose();
+        this.image.dispose();
+        this.natTable.getShell().dispose();
+    }
+
+    @Test
+    public void shouldPaintEachRegionClippedAndOverlaysOnce() {
+        Rectangle first = new Rectangle(0, 0, 100, 20);
+        Rectangle second = new Rectangle(800, 80, 100, 20);
+        Rectangle bounds = first.union(second);
+        Rectangle clipping = this.gc.getClipping();
+
+        ((NatLayerPainter) this.natTable.getLayerPainter()).paintRegions(
+                this.natTable, this.gc, 0, 0, Arrays.asList(first, second), bounds, this.natTable.getConfigRegistry());
+
+        assertEquals(Arrays.asList(first, second), this.paintedRegions);
+        assertEquals(Arrays.asList(first, second), this.paintedClippings);
+        assertEquals(Arrays.asList(bounds), this.paintedOverlays);
+        // the clipping of the GC is restored
+        assertEquals(clipping, this.gc.getClipping());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Dirk Fauth and others.
+ * Copyright (c) 2013, 2020 Dirk Fauth and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -238,4 +238,61 @@ public void testHandleColumnAddEvent() {
         assertEquals("two", this.columnReorderLayer.getDataValueByPosition(3, 0));
         assertEquals("one", this.columnReorderLayer.getDataValueByPosition(4, 0));
     }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testHandleMultipleColumnAddEvent() {
+        // reorder to inverse order: 3 2 1 0
+        this.columnReorderLayer.reorderColumnPosition(3, 0);
+        this.columnReorderLayer.reorderColumnPosition(3, 1);
+        this.columnReorderLayer.reorderColumnPosition(3, 2);
+
+        // add two columns at index 2, all inserted columns are added in the
+        // order of their indexes at the position of the first inserted index
+        this.contents.get(0).add(2, "test1");
+        this.contents.get(0).add(3, "test2");
+        this.underlyingLayer
+                .fireLayerEvent(new ColumnInsertEvent(this.underlyingLayer, new Range(2, 4)));
+
+        assertEquals(6, this.columnReorderLayer.getColumnCount());
+        assertEquals(5, this.columnReorderLayer.getColumnIndexByPosition(0));
+        assertEquals(4, this.columnReorderLayer.getColumnIndexByPosition(1));
+        assertEquals(2, this.columnReorderLayer.getColumnIndexByPosition(2));
+        assertEquals(3, this.columnReorderLayer.getColumnIndexByPosition(3));
+        assertEquals(1, this.columnReorderLayer.getColumnIndexByPosition(4));
+        assertEquals(0, this.columnReorderLayer.getColumnIndexByPosition(5));
+
+        assertEquals("four", this.columnReorderLayer.getDataValueByPosition(0, 0));
+        assertEquals("three", this.columnReorderLayer.getDataValueByPosition(1, 0));
+        assertEquals("test1", this.columnReorderLayer.getDataValueByPosition(2, 0));
+        assertEquals("test2", this.columnReorderLayer.getDataValueByPosition(3, 0));
+        assertEquals("two", this.columnReorderLayer.getDataValueByPosition(4, 0));
+        assertEquals("one", this.columnReorderLayer.getDataValueByPosition(5, 0));
+
+        assertEquals(3, this.columnReorderLayer.getColumnPositionByIndex(3));
+        assertEquals(500, this.columnReorderLayer.getStartXOfColumnPosition(5));
+
+        // the deprecated protected fields are kept in sync
+        assertEquals(6, this.columnReorderLayer.columnIndexOrder.size());
+        assertEquals(3, this.columnReorderLayer.columnIndexOrder.get(3));
+        assertEquals(0, this.columnReorderLayer.indexPositionMapping.get(5));
+        assertEquals(5, this.columnReorderLayer.indexPositionMapping.get(0));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testModifyDeprecatedColumnIndexOrder() {
+        ((DataLayer) this.underlyingLayer).setColumnWidthByPosition(0, 50);
+
+        // subclasses could modify the index order directly
+        this.columnReorderLayer.columnIndexOrder.clear();
+        this.columnReorderLayer.columnIndexOrder.addAll(3, 0, 1, 2);
+        this.columnReorderLayer.refreshIndexPositionMapping();
+
+        assertEquals(3, this.columnReorderLayer.getColumnIndexByPosition(0));
+        assertEquals(1, this.columnReorderLayer.getColumnPositionByIndex(0));
+        assertEquals("four", this.columnReorderLayer.getDataValueByPosition(0, 0));
+        assertEquals(100, this.columnReorderLayer.getStartXOfColumnPosition(1));
+        assertEquals(150, this.columnReorderLayer.getStartXOfColumnPosition(2));
+    }
 }
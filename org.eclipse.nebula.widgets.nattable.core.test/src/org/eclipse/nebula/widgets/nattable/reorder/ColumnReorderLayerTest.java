@@ -325,4 +325,21 @@ private void registerCellStyleAccumulators(DataLayer bodyDataLayer, ColumnOverri
         bodyDataLayer.setConfigLabelAccumulator(aggregrateConfigLabelAccumulator);
     }
 
+    @SuppressWarnings("deprecation")
+    @Test
+    public void shouldUpdateDeprecatedColumnIndexOrderViewsOnReorder() {
+        // materialize the views before reordering
+        assertEquals(4, this.columnReorderLayer.columnIndexOrder.size());
+        assertEquals(3, this.columnReorderLayer.indexPositionMapping.get(3));
+
+        // 3 0 1 2
+        this.columnReorderLayer.reorderColumnPosition(3, 0);
+
+        assertEquals(3, this.columnReorderLayer.columnIndexOrder.get(0));
+        assertEquals(2, this.columnReorderLayer.columnIndexOrder.get(3));
+        assertEquals(0, this.columnReorderLayer.indexPositionMapping.get(3));
+        assertEquals(1, this.columnReorderLayer.indexPositionMapping.get(0));
+        assertEquals(Arrays.asList(3, 0, 1, 2), this.columnReorderLayer.getColumnIndexOrder());
+    }
+
 }
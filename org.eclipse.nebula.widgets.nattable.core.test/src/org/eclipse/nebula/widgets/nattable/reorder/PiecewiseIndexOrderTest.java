@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.reorder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.junit.Test;
+
+public class PiecewiseIndexOrderTest {
+
+    @Test
+    public void shouldStoreIdentityOrderInOneRun() {
+        PiecewiseIndexOrder order = new PiecewiseIndexOrder();
+        order.reset(1000000);
+
+        assertEquals(1000000, order.size());
+        assertEquals(1, order.getRunCount());
+        assertEquals(4711, order.getIndex(4711));
+        assertEquals(4711, order.getPosition(4711));
+        assertEquals(-1, order.getIndex(1000000));
+        assertEquals(-1, order.getPosition(1000000));
+        assertEquals(-1, order.getIndex(-1));
+    }
+
+    @Test
+    public void shouldSplitAndMergeRunsOnMove() {
+        PiecewiseIndexOrder order = new PiecewiseIndexOrder();
+        order.reset(10);
+
+        order.move(2, 8);
+        assertArrayEquals(new int[] { 0, 1, 3, 4, 5, 6, 7, 2, 8, 9 }, order.toArray());
+        assertEquals(4, order.getRunCount());
+        assertEquals(7, order.getPosition(2));
+        assertEquals(2, order.getPosition(3));
+
+        // moving back restores the single run
+        order.move(7, 2);
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, order.toArray());
+        assertEquals(1, order.getRunCount());
+
+        // moving to the end
+        order.move(0, 10);
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 0 }, order.toArray());
+        assertEquals(2, order.getRunCount());
+    }
+
+    @Test
+    public void shouldShiftIndexesOnInsertAndDelete() {
+        PiecewiseIndexOrder order = new PiecewiseIndexOrder();
+        order.setAll(new int[] { 4, 5, 6, 0, 1, 2, 3 });
+        assertEquals(2, order.getRunCount());
+
+        order.insertIndexes(5, 2, 3);
+        assertArrayEquals(new int[] { 7, 8, 9, 0, 1, 2, 3, 4, 5, 6 }, order.toArray());
+
+        order.deleteIndexes(1, 5);
+        assertArrayEquals(new int[] { 2, 3, 4, 0, 1 }, order.toArray());
+        assertEquals(2, order.getRunCount());
+
+        order.deleteIndexes(0, 2);
+        assertArrayEquals(new int[] { 0, 1, 2 }, order.toArray());
+        assertEquals(1, order.getRunCount());
+    }
+
+    @Test
+    public void shouldBehaveLikeAList() {
+        Random random = new Random(42);
+        PiecewiseIndexOrder order = new PiecewiseIndexOrder();
+        order.reset(200);
+        MutableIntList reference = IntLists.mutable.empty();
+        for (int i = 0; i < 200; i++) {
+            reference.add(i);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int size = reference.size();
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    if (size > 0) {
+                        int from = random.nextInt(size);
+                        int to = random.nextInt(size + 1);
+                        order.move(from, to);
+                        int index = reference.removeAtIndex(from);
+                        reference.addAtIndex(to > from ? to - 1 : to, index);
+                    }
+                    break;
+                case 2:
+                    int first = random.nextInt(size + 1);
+                    int count = 1 + random.nextInt(3);
+                    int position = random.nextInt(size + 1);
+                    order.insertIndexes(position, first, count);
+                    for (int p = 0; p < size; p++) {
+                        if (reference.get(p) >= first) {
+                            reference.set(p, reference.get(p) + count);
+                        }
+                    }
+                    for (int c = count - 1; c >= 0; c--) {
+                        reference.addAtIndex(position, first + c);
+                    }
+                    break;
+                default:
+                    if (size > 10) {
+                        int firstDeleted = random.nextInt(size - 3);
+                        int deleteCount = 1 + random.nextInt(3);
+                        order.deleteIndexes(firstDeleted, deleteCount);
+                        reference.removeIf(v -> v >= firstDeleted && v < firstDeleted + deleteCount);
+                        for (int p = 0; p < reference.size(); p++) {
+                            if (reference.get(p) >= firstDeleted + deleteCount) {
+                                reference.set(p, reference.get(p) - deleteCount);
+                            }
+                        }
+                    }
+                    break;
+            }
+
+            assertArrayEquals(reference.toArray(), order.toArray());
+            for (int p = 0; p < reference.size(); p++) {
+                assertEquals(reference.get(p), order.getIndex(p));
+                assertEquals(p, order.getPosition(reference.get(p)));
+            }
+        }
+
+        // consecutive runs are always merged
+        for (int run = 1; run < order.getRunCount(); run++) {
+            assertTrue(order.getRunIndex(run - 1) + order.getRunLength(run - 1) != order.getRunIndex(run));
+        }
+    }
+}
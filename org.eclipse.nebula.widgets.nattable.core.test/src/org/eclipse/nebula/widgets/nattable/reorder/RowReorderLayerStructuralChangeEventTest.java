@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Dirk Fauth and others.
+ * Copyright (c) 2013, 2020 Dirk Fauth and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -233,4 +233,60 @@ public void testHandleRowAddEvent() {
         assertEquals("two", this.rowReorderLayer.getDataValueByPosition(0, 3));
         assertEquals("one", this.rowReorderLayer.getDataValueByPosition(0, 4));
     }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testHandleMultipleRowAddEvent() {
+        // reorder to inverse order: 3 2 1 0
+        this.rowReorderLayer.reorderRowPosition(3, 0);
+        this.rowReorderLayer.reorderRowPosition(3, 1);
+        this.rowReorderLayer.reorderRowPosition(3, 2);
+
+        // add two rows at index 2, all inserted rows are added in the order
+        // of their indexes at the position of the first inserted index
+        this.contents.add(2, "test1");
+        this.contents.add(3, "test2");
+        this.underlyingLayer.fireLayerEvent(new RowInsertEvent(this.underlyingLayer, new Range(2, 4)));
+
+        assertEquals(6, this.rowReorderLayer.getRowCount());
+        assertEquals(5, this.rowReorderLayer.getRowIndexByPosition(0));
+        assertEquals(4, this.rowReorderLayer.getRowIndexByPosition(1));
+        assertEquals(2, this.rowReorderLayer.getRowIndexByPosition(2));
+        assertEquals(3, this.rowReorderLayer.getRowIndexByPosition(3));
+        assertEquals(1, this.rowReorderLayer.getRowIndexByPosition(4));
+        assertEquals(0, this.rowReorderLayer.getRowIndexByPosition(5));
+
+        assertEquals("four", this.rowReorderLayer.getDataValueByPosition(0, 0));
+        assertEquals("three", this.rowReorderLayer.getDataValueByPosition(0, 1));
+        assertEquals("test1", this.rowReorderLayer.getDataValueByPosition(0, 2));
+        assertEquals("test2", this.rowReorderLayer.getDataValueByPosition(0, 3));
+        assertEquals("two", this.rowReorderLayer.getDataValueByPosition(0, 4));
+        assertEquals("one", this.rowReorderLayer.getDataValueByPosition(0, 5));
+
+        assertEquals(3, this.rowReorderLayer.getRowPositionByIndex(3));
+        assertEquals(100, this.rowReorderLayer.getStartYOfRowPosition(5));
+
+        // the deprecated protected fields are kept in sync
+        assertEquals(6, this.rowReorderLayer.rowIndexOrder.size());
+        assertEquals(3, this.rowReorderLayer.rowIndexOrder.get(3));
+        assertEquals(0, this.rowReorderLayer.indexPositionMapping.get(5));
+        assertEquals(5, this.rowReorderLayer.indexPositionMapping.get(0));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testModifyDeprecatedRowIndexOrder() {
+        ((DataLayer) this.underlyingLayer).setRowHeightByPosition(0, 50);
+
+        // subclasses could modify the index order directly
+        this.rowReorderLayer.rowIndexOrder.clear();
+        this.rowReorderLayer.rowIndexOrder.addAll(3, 0, 1, 2);
+        this.rowReorderLayer.refreshIndexPositionMapping();
+
+        assertEquals(3, this.rowReorderLayer.getRowIndexByPosition(0));
+        assertEquals(1, this.rowReorderLayer.getRowPositionByIndex(0));
+        assertEquals("four", this.rowReorderLayer.getDataValueByPosition(0, 0));
+        assertEquals(20, this.rowReorderLayer.getStartYOfRowPosition(1));
+        assertEquals(70, this.rowReorderLayer.getStartYOfRowPosition(2));
+    }
 }
@@ -295,4 +295,21 @@ public void shouldResetReorderingViaCommand() {
         assertEquals(0, this.rowReorderLayer.getRowIndexByPosition(0));
     }
 
+    @SuppressWarnings("deprecation")
+    @Test
+    public void shouldUpdateDeprecatedRowIndexOrderViewsOnReorder() {
+        // materialize the views before reordering
+        assertEquals(4, this.rowReorderLayer.rowIndexOrder.size());
+        assertEquals(3, this.rowReorderLayer.indexPositionMapping.get(3));
+
+        // 3 0 1 2
+        this.rowReorderLayer.reorderRowPosition(3, 0);
+
+        assertEquals(3, this.rowReorderLayer.rowIndexOrder.get(0));
+        assertEquals(2, this.rowReorderLayer.rowIndexOrder.get(3));
+        assertEquals(0, this.rowReorderLayer.indexPositionMapping.get(3));
+        assertEquals(1, this.rowReorderLayer.indexPositionMapping.get(0));
+        assertEquals(Arrays.asList(3, 0, 1, 2), this.rowReorderLayer.getRowIndexOrder());
+    }
+
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.selection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
+import org.eclipse.nebula.widgets.nattable.test.fixture.layer.DataLayerFixture;
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeSelectionModelTest {
+
+    private SelectionLayer selectionLayer;
+    private RangeSelectionModel model;
+    private SelectionModel reference;
+
+    @Before
+    public void setup() {
+        this.selectionLayer = new SelectionLayer(new DataLayerFixture(50, 60, 100, 40), false);
+        this.model = new RangeSelectionModel(this.selectionLayer);
+        this.reference = new SelectionModel(this.selectionLayer);
+    }
+
+    @Test
+    public void shouldMergeAdjacentRowSelections() {
+        for (int row = 0; row < 20; row++) {
+            this.model.addSelection(new Rectangle(0, row, 50, 1));
+        }
+
+        assertEquals(1, this.model.getSelections().size());
+        assertEquals(new Rectangle(0, 0, 50, 20), this.model.getSelections().get(0));
+        assertEquals(20, this.model.getSelectedRowCount());
+        assertTrue(this.model.isRowPositionFullySelected(5, 50));
+    }
+
+    @Test
+    public void shouldStoreSelectAllAsSingleRectangle() {
+        this.model.addSelection(3, 4);
+        this.model.addSelection(new Rectangle(10, 20, 5, 5));
+        this.model.addSelection(new Rectangle(0, 0, 50, 60));
+
+        assertEquals(1, this.model.getSelections().size());
+        assertTrue(this.model.isColumnPositionFullySelected(49, 60));
+        assertEquals(50, this.model.getFullySelectedColumnPositions(60).length);
+    }
+
+    @Test
+    public void shouldSplitSelectionOnClear() {
+        this.model.addSelection(new Rectangle(0, 0, 10, 10));
+        this.model.clearSelection(new Rectangle(2, 2, 3, 3));
+
+        assertFalse(this.model.isCellPositionSelected(3, 3));
+        assertTrue(this.model.isCellPositionSelected(5, 3));
+        assertTrue(this.model.isCellPositionSelected(3, 5));
+        assertFalse(this.model.isRowPositionFullySelected(3, 10));
+        assertTrue(this.model.isRowPositionFullySelected(5, 10));
+        assertEquals(4, this.model.getSelections().size());
+
+        this.model.clearSelection(new Rectangle(0, 0, 10, 10));
+        assertTrue(this.model.isEmpty());
+    }
+
+    @Test
+    public void shouldOnlySelectOneCellWithoutMultipleSelection() {
+        this.model.setMultipleSelectionAllowed(false);
+        this.model.addSelection(new Rectangle(0, 0, 10, 10));
+        this.model.addSelection(new Rectangle(3, 4, 10, 10));
+
+        assertEquals(1, this.model.getSelections().size());
+        assertEquals(new Rectangle(3, 4, 1, 1), this.model.getSelections().get(0));
+    }
+
+    /**
+     * The fully selected checks are compared against the selected cells, as
+     * {@link SelectionModel} only compares neighbouring rectangles when
+     * checking whether the selection is contiguous.
+     */
+    private static boolean isFullySelected(boolean[] cells, int size) {
+        int start = -1;
+        int end = -1;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i]) {
+                if (start < 0) {
+                    start = i;
+                } else if (end != i) {
+                    return false;
+                }
+                end = i + 1;
+            }
+        }
+        return start >= 0 && end - start >= size;
+    }
+
+    @Test
+    public void shouldBehaveLikeSelectionModel() {
+        Random random = new Random(42);
+        boolean[][] cells = new boolean[80][80];
+        for (int i = 0; i < 300; i++) {
+            Rectangle rectangle = new Rectangle(
+                    random.nextInt(55),
+                    random.nextInt(65),
+                    1 + random.nextInt(12),
+                    1 + random.nextInt(12));
+            boolean add = random.nextInt(3) != 0;
+            if (add) {
+                this.model.addSelection(rectangle);
+                this.reference.addSelection(rectangle);
+            } else {
+                this.model.clearSelection(rectangle);
+                this.reference.clearSelection(rectangle);
+            }
+            for (int column = rectangle.x; column < rectangle.x + rectangle.width; column++) {
+                for (int row = rectangle.y; row < rectangle.y + rectangle.height; row++) {
+                    cells[column][row] = add;
+                }
+            }
+            if (random.nextInt(50) == 0) {
+                this.model.clearSelection();
+                this.reference.clearSelection();
+                cells = new boolean[80][80];
+            }
+
+            assertEquals(this.reference.isEmpty(), this.model.isEmpty());
+            for (int column = 0; column < 50; column++) {
+                for (int row = 0; row < 60; row++) {
+                    assertEquals("cell " + column + "/" + row,
+                            this.reference.isCellPositionSelected(column, row),
+                            this.model.isCellPositionSelected(column, row));
+                }
+            }
+            assertArrayEquals(this.reference.getSelectedColumnPositions(), this.model.getSelectedColumnPositions());
+            assertEquals(this.reference.getSelectedRowPositions(), this.model.getSelectedRowPositions());
+            assertEquals(this.reference.getSelectedRowCount(), this.model.getSelectedRowCount());
+            RangeSet fullySelectedColumns = new RangeSet();
+            for (int column = 0; column < 50; column++) {
+                assertEquals(this.reference.isColumnPositionSelected(column), this.model.isColumnPositionSelected(column));
+                boolean fullySelected = isFullySelected(cells[column], 8);
+                assertEquals(fullySelected, this.model.isColumnPositionFullySelected(column, 8));
+                if (fullySelected) {
+                    fullySelectedColumns.add(column);
+                }
+            }
+            RangeSet fullySelectedRows = new RangeSet();
+            for (int row = 0; row < 60; row++) {
+                assertEquals(this.reference.isRowPositionSelected(row), this.model.isRowPositionSelected(row));
+                boolean[] rowCells = new boolean[80];
+                for (int column = 0; column < 80; column++) {
+                    rowCells[column] = cells[column][row];
+                }
+                boolean fullySelected = isFullySelected(rowCells, 8);
+                assertEquals(fullySelected, this.model.isRowPositionFullySelected(row, 8));
+                if (fullySelected) {
+                    fullySelectedRows.add(row);
+                }
+            }
+
+            assertArrayEquals(fullySelectedRows.toArray(), this.model.getFullySelectedRowPositions(8));
+            assertArrayEquals(fullySelectedColumns.toArray(), this.model.getFullySelectedColumnPositions(8));
+        }
+    }
+}
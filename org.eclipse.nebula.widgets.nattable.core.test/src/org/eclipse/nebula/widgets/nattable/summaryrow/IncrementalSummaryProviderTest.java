@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.nebula.widgets.nattable.config.ConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.data.IColumnAccessor;
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.ListDataProvider;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.event.CellVisualChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowDeleteEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowInsertEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralRefreshEvent;
+import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
+import org.eclipse.nebula.widgets.nattable.summaryrow.IncrementalSummaryProvider.SummaryType;
+import org.eclipse.nebula.widgets.nattable.summaryrow.command.CalculateSummaryRowValuesCommand;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalSummaryProviderTest {
+
+    private CountingDataProvider dataProvider;
+    private IncrementalSummaryProvider provider;
+
+    @Before
+    public void setup() {
+        this.dataProvider = new CountingDataProvider(5, 3, 8, 1);
+        this.provider = new IncrementalSummaryProvider(this.dataProvider, SummaryType.SUM);
+    }
+
+    @Test
+    public void shouldSummarizeAllTypes() {
+        assertEquals(17d, this.provider.summarize(0));
+        assertEquals(17d, this.provider.summarize(0, SummaryType.SUM));
+        assertEquals(4, this.provider.summarize(0, SummaryType.COUNT));
+        assertEquals(1d, this.provider.summarize(0, SummaryType.MIN));
+        assertEquals(8d, this.provider.summarize(0, SummaryType.MAX));
+        assertEquals(4.25d, this.provider.summarize(0, SummaryType.AVERAGE));
+        assertEquals(4, this.dataProvider.reads);
+    }
+
+    @Test
+    public void shouldApplyUpdateWithoutFullRecalculation() {
+        this.provider.summarize(0);
+        this.dataProvider.reads = 0;
+
+        this.dataProvider.values.set(2, 2);
+        this.provider.cellUpdated(0, 2);
+
+        assertEquals(11d, this.provider.summarize(0));
+        assertEquals(5d, this.provider.summarize(0, SummaryType.MAX));
+        assertEquals(1, this.dataProvider.reads);
+    }
+
+    @Test
+    public void shouldApplyInsertAndDelete() {
+        this.provider.summarize(0);
+        this.dataProvider.reads = 0;
+
+        this.dataProvider.values.add(1, 10);
+        this.dataProvider.values.add(2, -4);
+        this.provider.rowsInserted(Collections.singleton(new Range(1, 3)));
+
+        assertEquals(23d, this.provider.summarize(0));
+        assertEquals(-4d, this.provider.summarize(0, SummaryType.MIN));
+        assertEquals(10d, this.provider.summarize(0, SummaryType.MAX));
+        assertEquals(2, this.dataProvider.reads);
+
+        // delete 5 and 8 which are at index 0 and 4 now
+        this.dataProvider.values.remove(4);
+        this.dataProvider.values.remove(0);
+        this.provider.rowsDeleted(Arrays.asList(new Range(0, 1), new Range(4, 5)));
+
+        assertEquals(10d, this.provider.summarize(0));
+        assertEquals(10d, this.provider.summarize(0, SummaryType.MAX));
+        assertEquals(4, this.provider.summarize(0, SummaryType.COUNT));
+        assertEquals(2, this.dataProvider.reads);
+    }
+
+    @Test
+    public void shouldRemoveDuplicateExtremaOnlyOnce() {
+        this.dataProvider.values.set(1, 8);
+        this.provider.summarize(0);
+
+        this.dataProvider.values.set(2, 0);
+        this.provider.cellUpdated(0, 2);
+        assertEquals(8d, this.provider.summarize(0, SummaryType.MAX));
+
+        this.dataProvider.values.set(1, 0);
+        this.provider.cellUpdated(0, 1);
+        assertEquals(5d, this.provider.summarize(0, SummaryType.MAX));
+    }
+
+    @Test
+    public void shouldHandleNonNumberValues() {
+        this.dataProvider.values.set(1, null);
+
+        assertEquals(ISummaryProvider.DEFAULT_SUMMARY_VALUE, this.provider.summarize(0));
+
+        IncrementalSummaryProvider lenient = new IncrementalSummaryProvider(this.dataProvider, SummaryType.AVERAGE, false);
+        assertEquals(14d / 3, lenient.summarize(0));
+
+        this.dataProvider.values.set(1, 3);
+        this.provider.cellUpdated(0, 1);
+        lenient.cellUpdated(0, 1);
+        assertEquals(17d, this.provider.summarize(0));
+        assertEquals(4.25d, lenient.summarize(0));
+    }
+
+    @Test
+    public void shouldHandleNaNValues() {
+        // NaN is a Number value and not treated like a non Number value
+        this.dataProvider.values.set(1, Double.NaN);
+
+        assertEquals(Double.NaN, this.provider.summarize(0));
+        assertEquals(4, this.provider.summarize(0, SummaryType.COUNT));
+
+        this.dataProvider.values.set(1, 3);
+        this.provider.cellUpdated(0, 1);
+        assertEquals(17d, this.provider.summarize(0));
+
+        this.dataProvider.values.set(2, Double.POSITIVE_INFINITY);
+        this.provider.cellUpdated(0, 2);
+        assertEquals(Double.POSITIVE_INFINITY, this.provider.summarize(0));
+
+        this.dataProvider.values.set(2, 8);
+        this.provider.cellUpdated(0, 2);
+        assertEquals(17d, this.provider.summarize(0));
+    }
+
+    @Test
+    public void shouldNotAccumulateRoundingErrors() {
+        this.dataProvider = new CountingDataProvider(0.1, 0.2, 0.3);
+        this.provider = new IncrementalSummaryProvider(this.dataProvider, SummaryType.SUM);
+        Object expected = this.provider.summarize(0);
+
+        for (int i = 0; i < 5000; i++) {
+            this.dataProvider.values.set(0, (i % 2 == 0) ? 1e20 : 0.1);
+            this.provider.cellUpdated(0, 0);
+        }
+
+        assertEquals(expected, this.provider.summarize(0));
+    }
+
+    @Test
+    public void shouldMaintainExtremaForMinMaxProvider() {
+        IncrementalSummaryProvider maxProvider = new IncrementalSummaryProvider(this.dataProvider, SummaryType.MAX);
+        assertEquals(8d, maxProvider.summarize(0));
+        this.dataProvider.reads = 0;
+
+        this.dataProvider.values.set(2, 0);
+        maxProvider.cellUpdated(0, 2);
+        assertEquals(5d, maxProvider.summarize(0));
+        assertEquals(0d, maxProvider.summarize(0, SummaryType.MIN));
+        assertEquals(1, this.dataProvider.reads);
+    }
+
+    @Test
+    public void shouldRecalculateAfterReset() {
+        this.provider.summarize(0);
+        this.dataProvider.values.set(0, 0);
+
+        // change not reported
+        assertEquals(17d, this.provider.summarize(0));
+
+        this.provider.reset();
+        assertEquals(12d, this.provider.summarize(0));
+    }
+
+    @Test
+    public void shouldRecalculateOnRowCountMismatch() {
+        this.provider.summarize(0);
+        this.dataProvider.values.add(100);
+
+        assertEquals(117d, this.provider.summarize(0));
+    }
+
+    @Test
+    public void shouldReturnNullForEmptyColumn() {
+        this.dataProvider.values.clear();
+
+        assertEquals(0d, this.provider.summarize(0));
+        assertNull(this.provider.summarize(0, SummaryType.MIN));
+        assertNull(this.provider.summarize(0, SummaryType.AVERAGE));
+    }
+
+    @Test
+    public void shouldBeUpdatedBySummaryRowLayerEvents() {
+        DataLayer dataLayer = new DataLayer(this.dataProvider);
+        ConfigRegistry configRegistry = new ConfigRegistry();
+        configRegistry.registerConfigAttribute(
+                SummaryRowConfigAttributes.SUMMARY_PROVIDER,
+                this.provider,
+                DisplayMode.NORMAL,
+                SummaryRowLayer.DEFAULT_SUMMARY_COLUMN_CONFIG_LABEL_PREFIX + 0);
+        SummaryRowLayer summaryRowLayer = new SummaryRowLayer(dataLayer, configRegistry, false, false);
+
+        summaryRowLayer.doCommand(new CalculateSummaryRowValuesCommand());
+        assertEquals(17d, summaryRowLayer.getDataValueByPosition(0, 4));
+        this.dataProvider.reads = 0;
+
+        this.dataProvider.values.set(3, 11);
+        dataLayer.fireLayerEvent(new CellVisualChangeEvent(dataLayer, 0, 3));
+        summaryRowLayer.doCommand(new CalculateSummaryRowValuesCommand());
+        assertEquals(27d, summaryRowLayer.getDataValueByPosition(0, 4));
+
+        this.dataProvider.values.add(0, 3);
+        dataLayer.fireLayerEvent(new RowInsertEvent(dataLayer, 0));
+        summaryRowLayer.doCommand(new CalculateSummaryRowValuesCommand());
+        assertEquals(30d, summaryRowLayer.getDataValueByPosition(0, 5));
+
+        this.dataProvider.values.remove(1);
+        dataLayer.fireLayerEvent(new RowDeleteEvent(dataLayer, 1));
+        summaryRowLayer.doCommand(new CalculateSummaryRowValuesCommand());
+        assertEquals(25d, summaryRowLayer.getDataValueByPosition(0, 4));
+
+        assertEquals(2, this.dataProvider.reads);
+
+        dataLayer.fireLayerEvent(new StructuralRefreshEvent(dataLayer));
+        summaryRowLayer.doCommand(new CalculateSummaryRowValuesCommand());
+        assertEquals(25d, summaryRowLayer.getDataValueByPosition(0, 4));
+        assertEquals(6, this.dataProvider.reads);
+    }
+
+    @Test
+    public void shouldUpdateRowObjectByIdentity() {
+        // the first two row objects are equal
+        final Row first = new Row(1, 1);
+        final Row second = new Row(1, 1);
+        final Row third = new Row(2, 5);
+        final int[] rowObjectReads = new int[1];
+        ListDataProvider<Row> rowDataProvider = new ListDataProvider<Row>(
+                new ArrayList<Row>(Arrays.asList(first, second, third)),
+                new IColumnAccessor<Row>() {
+
+                    @Override
+                    public Object getDataValue(Row rowObject, int columnIndex) {
+                        return rowObject.value;
+                    }
+
+                    @Override
+                    public void setDataValue(Row rowObject, int columnIndex, Object newValue) {
+                        rowObject.value = (Integer) newValue;
+                    }
+
+                    @Override
+                    public int getColumnCount() {
+                        return 1;
+                    }
+                }) {
+
+            @Override
+            public Row getRowObject(int rowIndex) {
+                rowObjectReads[0]++;
+                return super.getRowObject(rowIndex);
+            }
+        };
+        IncrementalSummaryProvider rowProvider = new IncrementalSummaryProvider(rowDataProvider, SummaryType.SUM);
+        assertEquals(7d, rowProvider.summarize(0));
+
+        second.value = 10;
+        rowProvider.rowObjectUpdated(second);
+        assertEquals(16d, rowProvider.summarize(0));
+
+        // the index of the row objects is only built once
+        rowObjectReads[0] = 0;
+        third.value = 2;
+        rowProvider.rowObjectUpdated(third);
+        first.value = 3;
+        rowProvider.rowObjectUpdated(first);
+        assertEquals(15d, rowProvider.summarize(0));
+        assertEquals(2, rowObjectReads[0]);
+
+        // the index is rebuilt after rows were deleted
+        rowDataProvider.getList().remove(0);
+        rowProvider.rowsDeleted(Collections.singleton(new Range(0, 1)));
+        third.value = 4;
+        rowProvider.rowObjectUpdated(third);
+        assertEquals(14d, rowProvider.summarize(0));
+    }
+
+    /**
+     * Row object whose equality is only based on its id.
+     */
+    private static class Row {
+
+        final int id;
+        int value;
+
+        Row(int id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Row && ((Row) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id;
+        }
+    }
+
+    /**
+     * Single column data provider that counts the read values.
+     */
+    private static class CountingDataProvider implements IDataProvider {
+
+        final List<Number> values;
+        int reads;
+
+        CountingDataProvider(Number... values) {
+            this.values = new ArrayList<Number>(Arrays.asList(values));
+        }
+
+        @Override
+        public Object getDataValue(int columnIndex, int rowIndex) {
+            this.reads++;
+            return this.values.get(rowIndex);
+        }
+
+        @Override
+        public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+            this.values.set(rowIndex, (Number) newValue);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 1;
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.values.size();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.nebula.widgets.nattable.config.ConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowStructuralRefreshEvent;
+import org.eclipse.nebula.widgets.nattable.selection.SelectionLayer;
+import org.eclipse.nebula.widgets.nattable.selection.event.CellSelectionEvent;
+import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelSummationSummaryProviderTest {
+
+    private static final int ROW_COUNT = 100000;
+
+    private ForkJoinPool pool;
+    private TestDataProvider dataProvider;
+
+    @Before
+    public void setup() {
+        this.pool = new ForkJoinPool(4);
+        this.dataProvider = new TestDataProvider();
+    }
+
+    @After
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void shouldSumInParallel() {
+        ParallelSummationSummaryProvider provider =
+                new ParallelSummationSummaryProvider(this.dataProvider, true, this.pool, 1000);
+
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2, provider.summarize(0));
+        assertEquals(new SummationSummaryProvider(this.dataProvider).summarize(0), provider.summarize(0));
+    }
+
+    @Test
+    public void shouldSumSmallColumnsSequentially() {
+        ParallelSummationSummaryProvider provider =
+                new ParallelSummationSummaryProvider(this.dataProvider, true, this.pool, ROW_COUNT);
+
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2, provider.summarize(0));
+    }
+
+    @Test
+    public void shouldReturnDefaultValueForNonNumbersInStrictMode() {
+        this.dataProvider.invalidRow = 54321;
+
+        ParallelSummationSummaryProvider strict =
+                new ParallelSummationSummaryProvider(this.dataProvider, true, this.pool, 1000);
+        assertEquals(ISummaryProvider.DEFAULT_SUMMARY_VALUE, strict.summarize(0));
+
+        ParallelSummationSummaryProvider lenient =
+                new ParallelSummationSummaryProvider(this.dataProvider, false, this.pool, 1000);
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2 - 54321, lenient.summarize(0));
+    }
+
+    @Test
+    public void shouldCancelRunningCalculation() {
+        final ParallelSummationSummaryProvider provider =
+                new ParallelSummationSummaryProvider(this.dataProvider, true, this.pool, 1000);
+        this.dataProvider.onRowAccess = 500;
+        this.dataProvider.onAccess = new Runnable() {
+            @Override
+            public void run() {
+                provider.cancel();
+            }
+        };
+
+        try {
+            provider.summarize(0);
+            fail("CancellationException expected");
+        } catch (CancellationException e) {
+            // expected
+        }
+
+        // calculations started after the cancellation are not affected
+        this.dataProvider.onAccess = null;
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2, provider.summarize(0));
+    }
+
+    @Test
+    public void shouldNotCancelCalculationOnSelection() throws Exception {
+        final SummaryRowLayer summaryRowLayer = createSummaryRowLayer();
+        final SelectionLayer selectionLayer = new SelectionLayer(new DataLayer(this.dataProvider));
+        this.dataProvider.onRowAccess = 500;
+        this.dataProvider.onAccess = new Runnable() {
+            @Override
+            public void run() {
+                // a selection event arrives while the calculation is running
+                summaryRowLayer.handleLayerEvent(new CellSelectionEvent(selectionLayer, 0, 0, false, false));
+            }
+        };
+
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2, waitForSummary(summaryRowLayer));
+    }
+
+    @Test
+    public void shouldCancelCalculationOnStructuralChange() throws Exception {
+        final SummaryRowLayer summaryRowLayer = createSummaryRowLayer();
+        final AtomicInteger calls = new AtomicInteger();
+        this.dataProvider.onRowAccess = 500;
+        this.dataProvider.onAccess = new Runnable() {
+            @Override
+            public void run() {
+                if (calls.incrementAndGet() == 1) {
+                    summaryRowLayer.handleLayerEvent(new RowStructuralRefreshEvent(summaryRowLayer));
+                }
+            }
+        };
+
+        // the first calculation is cancelled, the next request calculates
+        // the value on the current data
+        assertEquals((double) ROW_COUNT * (ROW_COUNT - 1) / 2, waitForSummary(summaryRowLayer));
+        assertTrue(calls.get() > 1);
+    }
+
+    private SummaryRowLayer createSummaryRowLayer() {
+        ConfigRegistry configRegistry = new ConfigRegistry();
+        configRegistry.registerConfigAttribute(
+                SummaryRowConfigAttributes.SUMMARY_PROVIDER,
+                new ParallelSummationSummaryProvider(this.dataProvider, true, this.pool, 1000),
+                DisplayMode.NORMAL,
+                SummaryRowLayer.DEFAULT_SUMMARY_COLUMN_CONFIG_LABEL_PREFIX + 0);
+        return new SummaryRowLayer(new DataLayer(this.dataProvider), configRegistry, false);
+    }
+
+    private Object waitForSummary(SummaryRowLayer summaryRowLayer) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Object summary = summaryRowLayer.getDataValueByPosition(0, ROW_COUNT);
+            if (summary != null) {
+                return summary;
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    /**
+     * Single column data provider that returns the row index as value.
+     */
+    private static class TestDataProvider implements IDataProvider {
+
+        volatile int invalidRow = -1;
+        volatile int onRowAccess = -1;
+        volatile Runnable onAccess;
+
+        @Override
+        public Object getDataValue(int columnIndex, int rowIndex) {
+            Runnable action = this.onAccess;
+            if (action != null && rowIndex == this.onRowAccess) {
+                action.run();
+            }
+            return rowIndex == this.invalidRow ? "invalid" : Integer.valueOf(rowIndex); //$NON-NLS-1$
+        }
+
+        @Override
+        public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 1;
+        }
+
+        @Override
+        public int getRowCount() {
+            return ROW_COUNT;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PrefixSumTreeTest {
+
+    @Test
+    public void shouldCalculateSums() {
+        PrefixSumTree tree = new PrefixSumTree();
+        tree.add(0, 1);
+        tree.add(3, 5);
+        tree.add(10, -2);
+
+        assertEquals(0, tree.sum(0));
+        assertEquals(1, tree.sum(1));
+        assertEquals(1, tree.sum(3));
+        assertEquals(6, tree.sum(4));
+        assertEquals(6, tree.sum(10));
+        assertEquals(4, tree.sum(11));
+        assertEquals(4, tree.sum(Integer.MAX_VALUE));
+
+        assertEquals(5, tree.get(3));
+        assertEquals(0, tree.get(4));
+    }
+
+    @Test
+    public void shouldGrowWithoutLosingValues() {
+        PrefixSumTree tree = new PrefixSumTree();
+        int[] values = new int[5000];
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(values.length);
+            int delta = random.nextInt(100) - 50;
+            values[index] += delta;
+            tree.add(index, delta);
+        }
+
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(sum, tree.sum(i));
+            sum += values[i];
+        }
+        assertEquals(8192, tree.getCapacity());
+    }
+
+    @Test
+    public void shouldFindIndex() {
+        PrefixSumTree tree = new PrefixSumTree();
+        // sizes: 10, 0, 10, 25, 10, ...
+        tree.add(1, -10);
+        tree.add(3, 15);
+
+        assertEquals(0, tree.findIndex(0, 10));
+        assertEquals(0, tree.findIndex(9, 10));
+        assertEquals(2, tree.findIndex(10, 10));
+        assertEquals(3, tree.findIndex(20, 10));
+        assertEquals(3, tree.findIndex(44, 10));
+        assertEquals(4, tree.findIndex(45, 10));
+        // beyond the capacity only the base value is added
+        assertEquals(1000, tree.findIndex(10005, 10));
+    }
+
+    @Test
+    public void shouldClear() {
+        PrefixSumTree tree = new PrefixSumTree();
+        tree.add(1000, 5);
+        tree.clear();
+
+        assertEquals(0, tree.sum(2000));
+        assertEquals(64, tree.getCapacity());
+    }
+}
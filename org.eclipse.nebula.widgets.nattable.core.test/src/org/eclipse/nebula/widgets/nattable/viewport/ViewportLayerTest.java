@@ -23,6 +23,7 @@
 import org.eclipse.nebula.widgets.nattable.test.fixture.layer.LayerListenerFixture;
 import org.eclipse.nebula.widgets.nattable.test.fixture.layer.ViewportLayerFixture;
 import org.eclipse.nebula.widgets.nattable.util.IClientAreaProvider;
+import org.eclipse.nebula.widgets.nattable.viewport.event.ScrollEvent;
 import org.eclipse.swt.graphics.Rectangle;
 import org.junit.After;
 import org.junit.Before;
@@ -275,6 +276,25 @@ public void settingViewportColumnOriginFiresEvent() throws Exception {
         assertTrue(event instanceof IVisualChangeEvent);
     }
 
+    @Test
+    public void settingViewportOriginFiresScrollEventWithDelta() throws Exception {
+        this.viewportLayer.addLayerListener(this.layerListener);
+        this.viewportLayer.setOriginX(this.viewportLayer.getStartXOfColumnPosition(2));
+
+        ScrollEvent event = (ScrollEvent) this.layerListener.getReceivedEvent(ScrollEvent.class);
+        assertEquals(this.viewportLayer, event.getViewportLayer());
+        assertEquals(this.viewportLayer.getOrigin().getX(), event.getDeltaX());
+        assertEquals(0, event.getDeltaY());
+
+        this.layerListener.clearReceivedEvents();
+        int originY = this.viewportLayer.getOrigin().getY();
+        this.viewportLayer.setOriginY(this.viewportLayer.getStartYOfRowPosition(1) + originY);
+
+        event = (ScrollEvent) this.layerListener.getReceivedEvent(ScrollEvent.class);
+        assertEquals(0, event.getDeltaX());
+        assertEquals(this.viewportLayer.getOrigin().getY() - originY, event.getDeltaY());
+    }
+
     @Test
     public void setViewportMinOriginColumnPosition() throws Exception {
         this.viewportLayer = new ViewportLayerFixture(10, 20, 50, 20);
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.viewport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.data.IColumnAccessor;
+import org.eclipse.nebula.widgets.nattable.data.IPagedDataSource;
+import org.eclipse.nebula.widgets.nattable.data.PagedDataProvider;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.selection.SelectionLayer.MoveDirectionEnum;
+import org.eclipse.nebula.widgets.nattable.test.fixture.layer.DataLayerFixture;
+import org.eclipse.nebula.widgets.nattable.util.IClientAreaProvider;
+import org.eclipse.swt.graphics.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ViewportPrefetchHintTest {
+
+    private ViewportLayer viewportLayer;
+    private List<ViewportPrefetchHint> hints;
+    private IViewportPrefetchListener listener;
+
+    @Before
+    public void setup() {
+        // 10 columns with 50 pixels and 100 rows with 20 pixels
+        this.viewportLayer = createViewport(new DataLayerFixture(10, 100, 50, 20));
+        this.hints = new ArrayList<ViewportPrefetchHint>();
+        this.listener = new IViewportPrefetchListener() {
+            @Override
+            public void handlePrefetchHint(ViewportPrefetchHint hint) {
+                ViewportPrefetchHintTest.this.hints.add(hint);
+            }
+        };
+    }
+
+    private static ViewportLayer createViewport(DataLayer dataLayer) {
+        ViewportLayer viewport = new ViewportLayer(dataLayer);
+        viewport.setClientAreaProvider(new IClientAreaProvider() {
+            @Override
+            public Rectangle getClientArea() {
+                return new Rectangle(0, 0, 200, 100);
+            }
+        });
+        return viewport;
+    }
+
+    @Test
+    public void shouldOnlyWrapPainterWithListeners() {
+        assertSame(this.viewportLayer.getScrollableLayer().getLayerPainter(), this.viewportLayer.getLayerPainter());
+
+        this.viewportLayer.addPrefetchListener(this.listener);
+        assertNotSame(this.viewportLayer.getScrollableLayer().getLayerPainter(), this.viewportLayer.getLayerPainter());
+
+        this.viewportLayer.removePrefetchListener(this.listener);
+        assertSame(this.viewportLayer.getScrollableLayer().getLayerPainter(), this.viewportLayer.getLayerPainter());
+    }
+
+    @Test
+    public void shouldPublishVisibleAreaAndNextScreen() {
+        this.viewportLayer.addPrefetchListener(this.listener);
+        this.viewportLayer.firePrefetchHint();
+
+        assertEquals(1, this.hints.size());
+        ViewportPrefetchHint hint = this.hints.get(0);
+        assertEquals(new Range(0, 4), hint.getVisibleColumnPositions());
+        assertEquals(new Range(0, 5), hint.getVisibleRowPositions());
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, hint.getVisibleRowIndexes());
+        assertEquals(MoveDirectionEnum.NONE, hint.getVerticalDirection());
+        assertEquals(0, hint.getVerticalVelocity(), 0);
+        assertEquals(new Range(5, 10), hint.getNextRowPositions());
+        assertEquals(new Range(4, 8), hint.getNextColumnPositions());
+    }
+
+    @Test
+    public void shouldOnlyPublishChanges() {
+        this.viewportLayer.addPrefetchListener(this.listener);
+        this.viewportLayer.firePrefetchHint();
+        this.viewportLayer.firePrefetchHint();
+        assertEquals(1, this.hints.size());
+
+        this.viewportLayer.setOriginY(100);
+        this.viewportLayer.firePrefetchHint();
+        assertEquals(2, this.hints.size());
+    }
+
+    @Test
+    public void shouldPublishScrollDirection() {
+        this.viewportLayer.addPrefetchListener(this.listener);
+        this.viewportLayer.firePrefetchHint();
+
+        this.viewportLayer.setOriginY(100);
+        this.viewportLayer.firePrefetchHint();
+        ViewportPrefetchHint hint = this.hints.get(1);
+        assertEquals(100, hint.getDeltaY());
+        assertEquals(MoveDirectionEnum.DOWN, hint.getVerticalDirection());
+        assertTrue(hint.getVerticalVelocity() > 0);
+        assertEquals(new Range(5, 10), hint.getVisibleRowPositions());
+        assertEquals(new Range(10, 15), hint.getNextRowPositions());
+
+        this.viewportLayer.setOriginY(40);
+        this.viewportLayer.firePrefetchHint();
+        hint = this.hints.get(2);
+        assertEquals(MoveDirectionEnum.UP, hint.getVerticalDirection());
+        assertEquals(new Range(2, 7), hint.getVisibleRowPositions());
+        assertEquals(new Range(0, 2), hint.getNextRowPositions());
+
+        this.viewportLayer.setOriginX(300);
+        this.viewportLayer.firePrefetchHint();
+        hint = this.hints.get(3);
+        assertEquals(MoveDirectionEnum.RIGHT, hint.getHorizontalDirection());
+        assertEquals(MoveDirectionEnum.NONE, hint.getVerticalDirection());
+        assertEquals(new Range(6, 10), hint.getVisibleColumnPositions());
+        assertEquals(new Range(10, 10), hint.getNextColumnPositions());
+    }
+
+    @Test
+    public void shouldPrefetchPagesOfPagedDataProvider() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        PagedDataProvider<Integer> dataProvider = new PagedDataProvider<Integer>(
+                new IPagedDataSource<Integer>() {
+                    @Override
+                    public int getRowCount() {
+                        return 1000;
+                    }
+
+                    @Override
+                    public List<Integer> loadRows(int startIndex, int count) {
+                        return Collections.nCopies(count, startIndex);
+                    }
+                },
+                new IColumnAccessor<Integer>() {
+                    @Override
+                    public Object getDataValue(Integer rowObject, int columnIndex) {
+                        return rowObject;
+                    }
+
+                    @Override
+                    public void setDataValue(Integer rowObject, int columnIndex, Object newValue) {}
+
+                    @Override
+                    public int getColumnCount() {
+                        return 3;
+                    }
+                },
+                10, 5, new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        tasks.add(command);
+                    }
+                });
+        this.viewportLayer = createViewport(new DataLayer(dataProvider, 50, 20));
+        this.viewportLayer.addPrefetchListener(dataProvider);
+
+        // rows 0-4 are visible, rows 5-9 are next
+        this.viewportLayer.firePrefetchHint();
+        assertEquals(1, tasks.size());
+
+        // rows 10-14 are visible, rows 15-19 are next
+        this.viewportLayer.setOriginY(200);
+        this.viewportLayer.firePrefetchHint();
+        assertEquals(2, tasks.size());
+
+        // rows 15-19 are visible, rows 20-24 are next
+        this.viewportLayer.setOriginY(300);
+        this.viewportLayer.firePrefetchHint();
+        assertEquals(3, tasks.size());
+
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        assertTrue(dataProvider.isRowLoaded(0));
+        assertTrue(dataProvider.isRowLoaded(15));
+        assertTrue(dataProvider.isRowLoaded(24));
+        assertEquals(20, dataProvider.getDataValue(0, 24));
+    }
+}
@@ -56,6 +56,7 @@
 import org.eclipse.nebula.widgets.nattable.layer.event.IVisualChangeEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.RowVisualUpdateEvent;
 import org.eclipse.nebula.widgets.nattable.layer.stack.DummyGridLayerStack;
+import org.eclipse.nebula.widgets.nattable.painter.DirtyRegionAccumulator;
 import org.eclipse.nebula.widgets.nattable.painter.IOverlayPainter;
 import org.eclipse.nebula.widgets.nattable.painter.cell.ICellPainter;
 import org.eclipse.nebula.widgets.nattable.painter.layer.ILayerPainter;
@@ -74,6 +75,7 @@
 import org.eclipse.nebula.widgets.nattable.util.GUIHelper;
 import org.eclipse.nebula.widgets.nattable.util.IClientAreaProvider;
 import org.eclipse.nebula.widgets.nattable.viewport.command.RecalculateScrollBarsCommand;
+import org.eclipse.nebula.widgets.nattable.viewport.event.ScrollEvent;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.dnd.DragSource;
@@ -89,6 +91,7 @@
 import org.eclipse.swt.events.PaintEvent;
 import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.Region;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
@@ -183,6 +186,47 @@ public void handleEvent(Event event) {
      */
     private ICellEditor activeCellEditor;
 
+    /**
+     * Flag to configure whether scrolling should reuse the already painted
+     * pixels by copying them to the new location, so only the newly exposed
+     * area needs to be painted.
+     */
+    private boolean scrollBlittingEnabled = false;
+
+    /**
+     * The recommended interval in milliseconds in which collected cell, row
+     * and column repaints are performed if collecting repaints is enabled via
+     * {@link #setRepaintFrameInterval(int)}. Corresponds to 60 frames per
+     * second.
+     *
+     * @since 2.0
+     */
+    public static final int RECOMMENDED_REPAINT_FRAME_INTERVAL = 16;
+
+    /**
+     * The interval in which collected repaints are performed. A value &lt;= 0
+     * disables collecting repaints, which is the default.
+     */
+    private int repaintFrameInterval = 0;
+
+    /**
+     * Collects the areas of cell, row and column repaints within a frame.
+     */
+    private final DirtyRegionAccumulator dirtyRegions = new DirtyRegionAccumulator();
+
+    /**
+     * The coalesced regions of the last frame that are about to be painted, or
+     * <code>null</code> if the next paint is not caused by collected repaints.
+     */
+    private List<Rectangle> pendingPaintRegions;
+
+    private final Runnable repaintFrameTask = new Runnable() {
+        @Override
+        public void run() {
+            flushRepaints();
+        }
+    };
+
     public NatTable(Composite parent) {
         this(parent, DEFAULT_STYLE_OPTIONS);
     }
@@ -540,11 +584,65 @@ public void paintControl(final PaintEvent event) {
     }
 
     private void paintNatTable(final PaintEvent event) {
+        List<Rectangle> regions = this.pendingPaintRegions;
+        this.pendingPaintRegions = null;
+        if (regions != null && regions.size() > 1 && paintRegions(event, regions)) {
+            return;
+        }
+
         getLayerPainter().paintLayer(this, event.gc, 0, 0,
                 new Rectangle(event.x, event.y, event.width, event.height),
                 getConfigRegistry());
     }
 
+    /**
+     * Paints only the given regions instead of the bounding box of the paint
+     * event, which avoids painting all cells between two distant updated
+     * cells. Only performed if the area that needs to be painted is completely
+     * covered by the regions and the {@link NatLayerPainter} is used, which
+     * paints the overlays only once for all regions.
+     *
+     * @param event
+     *            The paint event.
+     * @param regions
+     *            The coalesced regions of the collected repaints.
+     * @return <code>true</code> if the regions were painted,
+     *         <code>false</code> if the whole paint event area needs to be
+     *         painted.
+     */
+    boolean paintRegions(PaintEvent event, List<Rectangle> regions) {
+        if (!(getLayerPainter() instanceof NatLayerPainter)) {
+            return false;
+        }
+
+        Region damaged = new Region(getDisplay());
+        Region dirty = new Region(getDisplay());
+        try {
+            event.gc.getClipping(damaged);
+            for (Rectangle region : regions) {
+                dirty.add(region);
+            }
+            damaged.subtract(dirty);
+            if (!damaged.isEmpty()) {
+                return false;
+            }
+        } finally {
+            damaged.dispose();
+            dirty.dispose();
+        }
+
+        Rectangle eventArea = new Rectangle(event.x, event.y, event.width, event.height);
+        List<Rectangle> areas = new ArrayList<Rectangle>(regions.size());
+        for (Rectangle region : regions) {
+            Rectangle area = region.intersection(eventArea);
+            if (!area.isEmpty()) {
+                areas.add(area);
+            }
+        }
+        ((NatLayerPainter) getLayerPainter()).paintRegions(this, event.gc, 0, 0, areas, eventArea, getConfigRegistry());
+        return true;
+    }
+
     @Override
     public ILayerPainter getLayerPainter() {
         return this.layerPainter;
@@ -566,7 +664,7 @@ public void repaintColumn(int columnPosition) {
         if (xOffset < 0) {
             return;
         }
-        redraw(xOffset, 0, getColumnWidthByPosition(columnPosition), getHeight(), true);
+        scheduleRepaint(xOffset, 0, getColumnWidthByPosition(columnPosition), getHeight());
     }
 
     /**
@@ -581,7 +679,7 @@ public void repaintRow(int rowPosition) {
         if (yOffset < 0) {
             return;
         }
-        redraw(0, yOffset, getWidth(), getRowHeightByPosition(rowPosition), true);
+        scheduleRepaint(0, yOffset, getWidth(), getRowHeightByPosition(rowPosition));
     }
 
     /**
@@ -597,20 +695,92 @@ public void repaintCell(int columnPosition, int rowPosition) {
         ILayerCell cell = getCellByPosition(columnPosition, rowPosition);
         if (cell != null) {
             Rectangle bounds = cell.getBounds();
-            redraw(bounds.x,
+            scheduleRepaint(bounds.x,
                     bounds.y,
                     bounds.width,
-                    bounds.height,
-                    true);
+                    bounds.height);
         } else {
-            redraw(getStartXOfColumnPosition(columnPosition),
+            scheduleRepaint(getStartXOfColumnPosition(columnPosition),
                     getStartYOfRowPosition(rowPosition),
                     getColumnWidthByPosition(columnPosition),
-                    getRowHeightByPosition(rowPosition),
-                    true);
+                    getRowHeightByPosition(rowPosition));
         }
     }
 
+    /**
+     * Collects the given area to be repainted with the next frame. All areas
+     * collected within a frame are coalesced into a few regions, so many
+     * updates in a short period do not cause a redraw and a painting pass for
+     * every single update.
+     */
+    private void scheduleRepaint(int x, int y, int width, int height) {
+        if (this.repaintFrameInterval <= 0) {
+            redraw(x, y, width, height, true);
+        } else if (this.dirtyRegions.add(x, y, width, height)) {
+            getDisplay().timerExec(this.repaintFrameInterval, this.repaintFrameTask);
+        }
+    }
+
+    /**
+     * Triggers the redraw of the repaints collected in the current frame.
+     */
+    private void flushRepaints() {
+        if (isDisposed()) {
+            this.dirtyRegions.clear();
+            return;
+        }
+        List<Rectangle> regions = this.dirtyRegions.drain();
+        if (regions.isEmpty()) {
+            return;
+        }
+
+        // if the regions cover a big part of the table, paint it completely
+        Rectangle clientArea = getClientArea();
+        long dirtyArea = 0;
+        for (Rectangle region : regions) {
+            dirtyArea += (long) region.width * region.height;
+        }
+        if (dirtyArea * 2 > (long) clientArea.width * clientArea.height) {
+            redraw();
+            return;
+        }
+
+        this.pendingPaintRegions = regions;
+        for (Rectangle region : regions) {
+            redraw(region.x, region.y, region.width, region.height, true);
+        }
+    }
+
+    /**
+     * Configure the interval in which repaints of single cells, rows and
+     * columns, e.g. triggered by data updates, are performed. All repaints
+     * within an interval are collected and coalesced, which reduces the
+     * painting effort in case of frequent updates.
+     *
+     * <p>
+     * Collecting repaints is disabled by default, so every repaint triggers an
+     * immediate redraw.
+     * </p>
+     *
+     * @param interval
+     *            The interval in milliseconds, e.g.
+     *            {@link #RECOMMENDED_REPAINT_FRAME_INTERVAL}. A value &lt;= 0
+     *            disables collecting repaints.
+     * @since 2.0
+     */
+    public void setRepaintFrameInterval(int interval) {
+        this.repaintFrameInterval = interval;
+    }
+
+    /**
+     * @return The interval in milliseconds in which repaints of single cells,
+     *         rows and columns are performed.
+     * @since 2.0
+     */
+    public int getRepaintFrameInterval() {
+        return this.repaintFrameInterval;
+    }
+
     /**
      * Repaint the area to the right of the last column in case there is more
      * space available than columns to paint.
@@ -631,6 +801,83 @@ public void repaintVerticalLeftOver() {
             redraw(0, getHeight(), getClientArea().width, leftOverSpace, true);
     }
 
+    /**
+     * Moves the already painted pixels of a scrolled viewport instead of
+     * repainting the whole table, so only the newly exposed area is painted.
+     * The areas are calculated via {@link ScrollBlit}. Not performed while a
+     * cell editor is open, as the editor control would not be moved with the
+     * pixels.
+     *
+     * @param event
+     *            The {@link ScrollEvent} to handle.
+     * @return <code>true</code> if the scrolling was handled by copying the
+     *         pixels, <code>false</code> if a full repaint is needed.
+     */
+    private boolean blitScroll(ScrollEvent event) {
+        if (event.getViewportLayer() == null
+                || event.getViewportLayer().getClientAreaProvider() == null
+                || getActiveCellEditor() != null
+                || isDisposed()
+                || getDisplay().getThread() != Thread.currentThread()) {
+            return false;
+        }
+
+        ScrollBlit blit = ScrollBlit.create(
+                getClientArea(),
+                event.getViewportLayer().getClientAreaProvider().getClientArea(),
+                event.getDeltaX(),
+                event.getDeltaY());
+        if (blit == null) {
+            return false;
+        }
+
+        // the scroll bars need to reflect the new origin
+        doCommand(new RecalculateScrollBarsCommand());
+
+        // collected repaints refer to the pixels before scrolling and need to
+        // be painted before the pixels are copied
+        if (!this.dirtyRegions.isEmpty()) {
+            flushRepaints();
+            update();
+        }
+
+        // the source area not covered by the destination is repainted by SWT
+        scroll(blit.destination.x, blit.destination.y,
+                blit.source.x, blit.source.y, blit.source.width, blit.source.height,
+                false);
+        return true;
+    }
+
+    /**
+     * Configure whether scrolling a viewport should copy the already painted
+     * pixels to their new location, so only the newly exposed rows or columns
+     * need to be painted. Disabled by default.
+     * <p>
+     * Copying is only performed for scrolling in one direction and while no
+     * cell editor is open. The band of the scrolled viewport is copied over
+     * the whole width or height of the table, which matches grid compositions
+     * with headers and frozen areas. It should not be enabled for compositions
+     * with multiple independently scrolling viewports.
+     * </p>
+     *
+     * @param enabled
+     *            <code>true</code> to reuse already painted pixels on
+     *            scrolling, <code>false</code> to repaint the whole table.
+     * @since 2.0
+     */
+    public void setScrollBlittingEnabled(boolean enabled) {
+        this.scrollBlittingEnabled = enabled;
+    }
+
+    /**
+     * @return <code>true</code> if scrolling reuses the already painted pixels,
+     *         <code>false</code> if the whole table is repainted on scrolling.
+     * @since 2.0
+     */
+    public boolean isScrollBlittingEnabled() {
+        return this.scrollBlittingEnabled;
+    }
+
     public void updateResize() {
         updateResize(true);
     }
@@ -758,6 +1005,12 @@ public void handleLayerEvent(ILayerEvent event) {
             }
         }
 
+        if (event instanceof ScrollEvent
+                && this.scrollBlittingEnabled
+                && blitScroll((ScrollEvent) event)) {
+            return;
+        }
+
         if (event instanceof ISelectionEvent) {
             if (event instanceof CellSelectionEvent || event instanceof RowSelectionEvent) {
                 Event e = new Event();
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable;
+
+import org.eclipse.swt.graphics.Rectangle;
+
+/**
+ * The areas of a viewport scroll that is handled by copying the already
+ * painted pixels. On vertical scrolling the whole horizontal band of the
+ * viewport is moved, which includes the row header and frozen columns. On
+ * horizontal scrolling the whole vertical band of the viewport is moved, which
+ * includes the column header and frozen rows.
+ */
+final class ScrollBlit {
+
+    /** The area whose pixels are copied. */
+    final Rectangle source;
+
+    /** The area the pixels are copied to. */
+    final Rectangle destination;
+
+    /** The area that is not covered by the copied pixels anymore. */
+    final Rectangle exposed;
+
+    private ScrollBlit(Rectangle source, Rectangle destination, Rectangle exposed) {
+        this.source = source;
+        this.destination = destination;
+        this.exposed = exposed;
+    }
+
+    /**
+     * Calculates the areas of a scroll by the given delta. A positive delta
+     * means the content moves up or left.
+     *
+     * @param clientArea
+     *            The client area of the NatTable.
+     * @param viewportArea
+     *            The client area of the scrolled viewport.
+     * @param deltaX
+     *            The horizontal scroll distance in pixels.
+     * @param deltaY
+     *            The vertical scroll distance in pixels.
+     * @return The areas of the scroll or <code>null</code> if the scroll can
+     *         not be handled by copying pixels, because it is performed in
+     *         both directions at once, without a known distance or for a
+     *         distance that is not smaller than the band.
+     */
+    static ScrollBlit create(Rectangle clientArea, Rectangle viewportArea, int deltaX, int deltaY) {
+        if ((deltaX == 0) == (deltaY == 0)) {
+            return null;
+        }
+
+        Rectangle band = (deltaY != 0)
+                ? new Rectangle(clientArea.x, viewportArea.y, clientArea.width, viewportArea.height)
+                : new Rectangle(viewportArea.x, clientArea.y, viewportArea.width, clientArea.height);
+        band = band.intersection(clientArea);
+
+        int delta = Math.abs(deltaX + deltaY);
+        int bandSize = (deltaY != 0) ? band.height : band.width;
+        if (band.isEmpty() || delta >= bandSize) {
+            return null;
+        }
+
+        if (deltaY > 0) {
+            return new ScrollBlit(
+                    new Rectangle(band.x, band.y + delta, band.width, band.height - delta),
+                    new Rectangle(band.x, band.y, band.width, band.height - delta),
+                    new Rectangle(band.x, band.y + band.height - delta, band.width, delta));
+        } else if (deltaY < 0) {
+            return new ScrollBlit(
+                    new Rectangle(band.x, band.y, band.width, band.height - delta),
+                    new Rectangle(band.x, band.y + delta, band.width, band.height - delta),
+                    new Rectangle(band.x, band.y, band.width, delta));
+        } else if (deltaX > 0) {
+            return new ScrollBlit(
+                    new Rectangle(band.x + delta, band.y, band.width - delta, band.height),
+                    new Rectangle(band.x, band.y, band.width - delta, band.height),
+                    new Rectangle(band.x + band.width - delta, band.y, delta, band.height));
+        } else {
+            return new ScrollBlit(
+                    new Rectangle(band.x, band.y, band.width - delta, band.height),
+                    new Rectangle(band.x + delta, band.y, band.width - delta, band.height),
+                    new Rectangle(band.x, band.y, delta, band.height));
+        }
+    }
+}
@@ -11,11 +11,10 @@
 package org.eclipse.nebula.widgets.nattable.blink;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.nebula.widgets.nattable.blink.command.BlinkTimerEnableCommandHandler;
 import org.eclipse.nebula.widgets.nattable.blink.event.BlinkEvent;
@@ -26,7 +25,6 @@
 import org.eclipse.nebula.widgets.nattable.data.IRowDataProvider;
 import org.eclipse.nebula.widgets.nattable.data.IRowIdAccessor;
 import org.eclipse.nebula.widgets.nattable.layer.AbstractLayerTransform;
-import org.eclipse.nebula.widgets.nattable.layer.ILayer;
 import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
 import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
 import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
@@ -41,8 +39,10 @@
  *
  * Every time its asked for config labels: Checks the UpdateEventsCache for
  * changes to the cell If a cell is updated The cell is tracked as 'blinking'
- * and blinking config labels are returned A TimerTask is started which will
- * stop the blinking after the blink period is over
+ * and blinking config labels are returned The cell is scheduled in a
+ * {@link TimerWheel} which will stop the blinking after the blink period is
+ * over. All cells that stop blinking in the same tick are refreshed with a
+ * single {@link BlinkEvent}.
  *
  * @param <T>
  *            Type of the Bean in the backing {@linkplain IDataProvider}
@@ -70,8 +70,8 @@
     /** Track the updates which are currently blinking */
     Map<String, PropertyUpdateEvent<T>> blinkingUpdates = new HashMap<String, PropertyUpdateEvent<T>>();
 
-    /** Track the blinking tasks which are currently running */
-    Map<String, ScheduledFuture<?>> blinkingTasks = new HashMap<String, ScheduledFuture<?>>();
+    /** Track the expiry of the blinks which are currently running */
+    final TimerWheel<String> blinkExpiry;
 
     public BlinkLayer(IUniqueIndexLayer dataLayer,
             IRowDataProvider<T> listDataProvider,
@@ -106,6 +106,7 @@ public BlinkLayer(IUniqueIndexLayer dataLayer,
         this.columnPropertyResolver = columnPropertyResolver;
         this.configRegistry = configRegistry;
         this.scheduler = scheduler;
+        this.blinkExpiry = new TimerWheel<String>(scheduler, this::stopBlinking);
         this.updateEventsCache = new UpdateEventsCache<T>(rowIdAccessor,
                 triggerBlinkOnRowUpdate ? new RowKeyStrategyImpl()
                         : new CellKeyStrategyImpl(),
@@ -118,6 +119,7 @@ public BlinkLayer(IUniqueIndexLayer dataLayer,
     public void dispose() {
         super.dispose();
 
+        this.blinkExpiry.clear();
         this.scheduler.shutdown();
     }
 
@@ -147,26 +149,20 @@ public LabelStack getConfigLabelsByPosition(int columnPosition,
                 .getConfigLabelsByPosition(columnPosition, rowPosition);
 
         // Cell has been updated
-        if (this.updateEventsCache.isUpdated(key)) {
-            PropertyUpdateEvent<T> event = this.updateEventsCache.getEvent(key);
-
+        PropertyUpdateEvent<T> event = this.updateEventsCache.getEvent(key);
+        if (event != null) {
             // Old update in middle of a blink - cancel it
-            ScheduledFuture<?> scheduledFuture = this.blinkingTasks.remove(key);
+            this.blinkExpiry.cancel(key);
             this.blinkingUpdates.remove(key);
-            if (scheduledFuture != null) {
-                scheduledFuture.cancel(true);
-            }
 
             LabelStack blinkingConfigTypes = resolveConfigTypes(cell,
                     event.getOldValue(), event.getNewValue());
 
             // start blinking cell
             if (blinkingConfigTypes != null) {
-                Runnable stopBlinkTask = getStopBlinkTask(key, this);
                 this.blinkingUpdates.put(key, event);
                 this.updateEventsCache.remove(key);
-                this.blinkingTasks.put(key, this.scheduler.schedule(stopBlinkTask,
-                        this.blinkDurationInMilis, TimeUnit.MILLISECONDS));
+                this.blinkExpiry.schedule(key, this.blinkDurationInMilis);
                 return blinkingConfigTypes;
             } else {
                 return underlyingLabelStack;
@@ -174,10 +170,10 @@ public LabelStack getConfigLabelsByPosition(int columnPosition,
         }
 
         // Previous blink timer is still running
-        if (this.blinkingUpdates.containsKey(key)) {
-            PropertyUpdateEvent<T> event = this.blinkingUpdates.get(key);
-            return resolveConfigTypes(cell, event.getOldValue(),
-                    event.getNewValue());
+        PropertyUpdateEvent<T> blinkingEvent = this.blinkingUpdates.get(key);
+        if (blinkingEvent != null) {
+            return resolveConfigTypes(cell, blinkingEvent.getOldValue(),
+                    blinkingEvent.getNewValue());
         }
 
         return underlyingLabelStack;
@@ -225,26 +221,30 @@ public LabelStack resolveConfigTypes(ILayerCell cell, Object oldValue,
     }
 
     /**
-     * Stops the cell from blinking at the end of the blinking period.
+     * Stops the cells from blinking at the end of the blinking period. Called
+     * by the {@link TimerWheel} with all keys that expired in the same tick,
+     * so only one {@link BlinkEvent} is fired per batch.
+     *
+     * @param keys
+     *            The keys of the cells that stop blinking.
      */
-    private Runnable getStopBlinkTask(final String key, final ILayer layer) {
-
-        return new Runnable() {
+    private void stopBlinking(final List<String> keys) {
+        Display.getDefault().asyncExec(new Runnable() {
             @Override
             public void run() {
-
-                Display.getDefault().asyncExec(new Runnable() {
-                    @Override
-                    public void run() {
-
-                        BlinkLayer.this.blinkingUpdates.remove(key);
-                        BlinkLayer.this.blinkingTasks.remove(key);
-                        fireLayerEvent(new BlinkEvent(layer));
+                boolean changed = false;
+                for (String key : keys) {
+                    // the cell might have started a new blink in the meantime
+                    if (!BlinkLayer.this.blinkExpiry.isScheduled(key)
+                            && BlinkLayer.this.blinkingUpdates.remove(key) != null) {
+                        changed = true;
                     }
-                });
+                }
+                if (changed) {
+                    fireLayerEvent(new BlinkEvent(BlinkLayer.this));
+                }
             }
-        };
-
+        });
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.blink;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel that is used to expire keys after a delay. Instead of
+ * scheduling a task per key, the keys are stored in the slots of a wheel that
+ * is advanced by a single periodic task. All keys that expire within the same
+ * tick are handed over to the expiry handler as one batch.
+ * <p>
+ * Scheduling, rescheduling and cancelling a key are constant time operations.
+ * The expiry is not exact, a key expires at the first tick after its deadline.
+ * The periodic task is only running while keys are scheduled.
+ * </p>
+ *
+ * @param <K>
+ *            The type of the keys that are scheduled.
+ *
+ * @since 2.0
+ */
+public class TimerWheel<K> {
+
+    /** Default duration of a single tick in milliseconds. */
+    public static final int DEFAULT_TICK_DURATION = 20;
+
+    /** Default number of slots in the wheel. */
+    public static final int DEFAULT_WHEEL_SIZE = 128;
+
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<List<K>> expiryHandler;
+    private final long tickDuration;
+    private final Entry<K>[] wheel;
+    private final int mask;
+    private final long startTime;
+
+    private final Map<K, Entry<K>> entries = new HashMap<K, Entry<K>>();
+
+    /** The next tick that needs to be processed. */
+    private long currentTick;
+
+    private ScheduledFuture<?> tickTask;
+
+    /**
+     * Creates a {@link TimerWheel} with the default tick duration and wheel
+     * size.
+     *
+     * @param scheduler
+     *            The scheduler that is used to advance the wheel.
+     * @param expiryHandler
+     *            The handler that is called with the keys that expired in a
+     *            tick. Called on the scheduler thread.
+     */
+    public TimerWheel(ScheduledExecutorService scheduler, Consumer<List<K>> expiryHandler) {
+        this(scheduler, expiryHandler, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     *
+     * @param scheduler
+     *            The scheduler that is used to advance the wheel.
+     * @param expiryHandler
+     *            The handler that is called with the keys that expired in a
+     *            tick. Called on the scheduler thread.
+     * @param tickDuration
+     *            The duration of a single tick in milliseconds.
+     * @param wheelSize
+     *            The number of slots in the wheel. Rounded up to the next
+     *            power of two.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimerWheel(ScheduledExecutorService scheduler, Consumer<List<K>> expiryHandler, int tickDuration, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0"); //$NON-NLS-1$
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30"); //$NON-NLS-1$
+        }
+        this.scheduler = scheduler;
+        this.expiryHandler = expiryHandler;
+        this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Entry[size];
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Schedules the given key to expire after the given delay. If the key is
+     * already scheduled, its deadline is replaced.
+     *
+     * @param key
+     *            The key to schedule.
+     * @param delay
+     *            The delay in milliseconds.
+     */
+    public void schedule(K key, long delay) {
+        schedule(key, delay, System.nanoTime());
+        synchronized (this) {
+            if (this.tickTask == null && this.scheduler != null) {
+                this.tickTask = this.scheduler.scheduleAtFixedRate(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                advance(System.nanoTime());
+                            }
+                        },
+                        this.tickDuration,
+                        this.tickDuration,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    synchronized void schedule(K key, long delay, long now) {
+        long deadline = now - this.startTime + TimeUnit.MILLISECONDS.toNanos(delay);
+        // round up so a key never expires before its deadline
+        long deadlineTick = Math.max((deadline + this.tickDuration - 1) / this.tickDuration, this.currentTick);
+
+        Entry<K> entry = this.entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            entry = new Entry<K>(key);
+            this.entries.put(key, entry);
+        }
+        entry.deadlineTick = deadlineTick;
+        link(entry);
+    }
+
+    /**
+     * Cancels the expiry of the given key.
+     *
+     * @param key
+     *            The key to cancel.
+     * @return <code>true</code> if the key was scheduled.
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = this.entries.remove(key);
+        if (entry != null) {
+            unlink(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param key
+     *            The key to check.
+     * @return <code>true</code> if the given key is scheduled and not yet
+     *         expired.
+     */
+    public synchronized boolean isScheduled(K key) {
+        return this.entries.containsKey(key);
+    }
+
+    /**
+     *
+     * @return The number of keys that are currently scheduled.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Cancels all scheduled keys and stops the periodic task.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        for (int i = 0; i < this.wheel.length; i++) {
+            this.wheel[i] = null;
+        }
+        stopTicking();
+    }
+
+    /**
+     * Processes all ticks up to the given time and passes the expired keys to
+     * the expiry handler.
+     *
+     * @param now
+     *            The current time as returned by {@link System#nanoTime()}.
+     */
+    void advance(long now) {
+        List<K> expired = null;
+        synchronized (this) {
+            long targetTick = (now - this.startTime) / this.tickDuration;
+            // if the processing lagged behind for more than a revolution,
+            // every slot needs to be processed only once
+            long firstTick = Math.max(this.currentTick, targetTick - this.wheel.length + 1);
+            for (long tick = firstTick; tick <= targetTick; tick++) {
+                Entry<K> entry = this.wheel[(int) (tick & this.mask)];
+                while (entry != null) {
+                    Entry<K> next = entry.next;
+                    if (entry.deadlineTick <= targetTick) {
+                        unlink(entry);
+                        this.entries.remove(entry.key);
+                        if (expired == null) {
+                            expired = new ArrayList<K>();
+                        }
+                        expired.add(entry.key);
+                    }
+                    entry = next;
+                }
+            }
+            this.currentTick = Math.max(this.currentTick, targetTick + 1);
+
+            if (this.entries.isEmpty()) {
+                stopTicking();
+            }
+        }
+
+        if (expired != null && this.expiryHandler != null) {
+            this.expiryHandler.accept(expired);
+        }
+    }
+
+    private void stopTicking() {
+        if (this.tickTask != null) {
+            this.tickTask.cancel(false);
+            this.tickTask = null;
+        }
+    }
+
+    private void link(Entry<K> entry) {
+        int slot = (int) (entry.deadlineTick & this.mask);
+        entry.prev = null;
+        entry.next = this.wheel[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        this.wheel[slot] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            int slot = (int) (entry.deadlineTick & this.mask);
+            if (this.wheel[slot] == entry) {
+                this.wheel[slot] = entry.next;
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * Entry of a key in the doubly linked list of a wheel slot.
+     */
+    private static final class Entry<K> {
+        final K key;
+        long deadlineTick;
+        Entry<K> prev;
+        Entry<K> next;
+
+        Entry(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,8 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.blink;
 
-import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -25,6 +25,12 @@
  *
  * This cache is used by the {@link BlinkLayer} to check if updates are
  * available for a cell (hence, does it need to blink).
+ * <p>
+ * The events are kept in the order they were received, so the cleanup of
+ * stale events only needs to look at the oldest entries. The number of cached
+ * events is bounded, if the maximum is exceeded the oldest events are
+ * discarded.
+ * </p>
  *
  * @param <T>
  *            Type of the Bean in the backing list.
@@ -37,19 +43,55 @@
     /** TTL for an event in the cache. The event is deleted when this expires */
     public static final int TIME_TO_LIVE = 500;
 
+    /**
+     * Default maximum number of events in the cache.
+     *
+     * @since 2.0
+     */
+    public static final int DEFAULT_MAX_SIZE = 100000;
+
     private final IRowIdAccessor<T> rowIdAccessor;
     private final KeyStrategy keyStrategy;
     private final ScheduledExecutorService cleanupScheduler;
 
-    private Map<String, TimeStampedEvent> updateEvents;
+    private final Map<String, TimeStampedEvent> updateEvents;
     private ScheduledFuture<?> scheduledFutureCleanup;
 
     public UpdateEventsCache(IRowIdAccessor<T> rowIdAccessor,
             KeyStrategy keyStrategy, ScheduledExecutorService cleanupScheduler) {
+        this(rowIdAccessor, keyStrategy, cleanupScheduler, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     *
+     * @param rowIdAccessor
+     *            The accessor to retrieve the row id of an updated row object.
+     * @param keyStrategy
+     *            The strategy to build the key of an update event.
+     * @param cleanupScheduler
+     *            The scheduler that is used to run the stale events cleanup.
+     * @param maxSize
+     *            The maximum number of events in the cache. If exceeded the
+     *            oldest events are discarded.
+     * @since 2.0
+     */
+    public UpdateEventsCache(IRowIdAccessor<T> rowIdAccessor,
+            KeyStrategy keyStrategy, ScheduledExecutorService cleanupScheduler,
+            final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0"); //$NON-NLS-1$
+        }
         this.rowIdAccessor = rowIdAccessor;
         this.keyStrategy = keyStrategy;
         this.cleanupScheduler = cleanupScheduler;
-        this.updateEvents = new HashMap<String, TimeStampedEvent>();
+        this.updateEvents = new LinkedHashMap<String, TimeStampedEvent>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TimeStampedEvent> eldest) {
+                return size() > maxSize;
+            }
+        };
     }
 
     /**
@@ -61,25 +103,34 @@ private Runnable getStaleUpdatesCleanupTask() {
 
             @Override
             public void run() {
-                Map<String, TimeStampedEvent> recentEvents = new HashMap<String, TimeStampedEvent>();
-                Date recent = new Date(System.currentTimeMillis()
-                        - TIME_TO_LIVE);
-
-                for (Map.Entry<String, TimeStampedEvent> entry : UpdateEventsCache.this.updateEvents
-                        .entrySet()) {
-                    if (entry.getValue().timeRecieved.after(recent)) {
-                        recentEvents.put(entry.getKey(), entry.getValue());
-                    }
-                }
-                synchronized (UpdateEventsCache.this.updateEvents) {
-                    UpdateEventsCache.this.updateEvents = recentEvents;
-                    checkUpdateEvents();
-                }
+                removeStaleEvents(System.currentTimeMillis() - TIME_TO_LIVE);
             }
 
         };
     }
 
+    /**
+     * Removes the events that were received before the given time. As the
+     * events are ordered by the time they were received, only the stale events
+     * and the first recent event are visited.
+     *
+     * @param recent
+     *            The time in milliseconds, events received at or before this
+     *            time are removed.
+     */
+    void removeStaleEvents(long recent) {
+        synchronized (this.updateEvents) {
+            Iterator<TimeStampedEvent> it = this.updateEvents.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().timeReceived > recent) {
+                    break;
+                }
+                it.remove();
+            }
+            checkUpdateEvents();
+        }
+    }
+
     private void checkUpdateEvents() {
         if (this.updateEvents.isEmpty()) {
             if (this.scheduledFutureCleanup != null) {
@@ -97,8 +148,12 @@ private void checkUpdateEvents() {
 
     public void put(PropertyUpdateEvent<T> event) {
         String key = getKey(event);
-        this.updateEvents.put(key, new TimeStampedEvent(event));
-        checkUpdateEvents();
+        synchronized (this.updateEvents) {
+            // remove first so the event is moved to the end of the order
+            this.updateEvents.remove(key);
+            this.updateEvents.put(key, new TimeStampedEvent(event));
+            checkUpdateEvents();
+        }
     }
 
     protected String getKey(PropertyUpdateEvent<T> event) {
@@ -110,42 +165,60 @@ public String getKey(String columnProperty, String rowId) {
         return this.keyStrategy.getKey(columnProperty, rowId);
     }
 
+    /**
+     *
+     * @param key
+     *            The key of the update event.
+     * @return The cached update event for the given key or <code>null</code>
+     *         if there is no update event for the key.
+     */
     public PropertyUpdateEvent<T> getEvent(String key) {
-        return this.updateEvents.get(key).event;
+        synchronized (this.updateEvents) {
+            TimeStampedEvent event = this.updateEvents.get(key);
+            return (event != null) ? event.event : null;
+        }
     }
 
     public int getCount() {
-        return this.updateEvents.size();
+        synchronized (this.updateEvents) {
+            return this.updateEvents.size();
+        }
     }
 
     public boolean contains(String columnProperty, String rowId) {
-        return this.updateEvents.containsKey(getKey(columnProperty, rowId));
+        return isUpdated(getKey(columnProperty, rowId));
     }
 
     public boolean isUpdated(String key) {
-        return this.updateEvents.containsKey(key);
+        synchronized (this.updateEvents) {
+            return this.updateEvents.containsKey(key);
+        }
     }
 
     public void clear() {
-        this.updateEvents.clear();
-        checkUpdateEvents();
+        synchronized (this.updateEvents) {
+            this.updateEvents.clear();
+            checkUpdateEvents();
+        }
     }
 
     public void remove(String key) {
-        this.updateEvents.remove(key);
-        checkUpdateEvents();
+        synchronized (this.updateEvents) {
+            this.updateEvents.remove(key);
+            checkUpdateEvents();
+        }
     }
 
     /**
      * Class to keep track of the time when an event was received
      */
     private class TimeStampedEvent {
-        Date timeRecieved;
-        PropertyUpdateEvent<T> event;
+        final long timeReceived;
+        final PropertyUpdateEvent<T> event;
 
         public TimeStampedEvent(PropertyUpdateEvent<T> event) {
             this.event = event;
-            this.timeRecieved = new Date();
+            this.timeReceived = System.currentTimeMillis();
         }
     }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,13 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.nebula.widgets.nattable.style.ConfigAttribute;
 import org.eclipse.nebula.widgets.nattable.style.DefaultDisplayModeOrdering;
@@ -25,6 +28,33 @@ public class ConfigRegistry implements IConfigRegistry {
     // Map<configAttributeType, Map<displayMode, Map<configLabel, value>>>
     Map<ConfigAttribute<?>, Map<String, Map<String, ?>>> configRegistry = new HashMap<ConfigAttribute<?>, Map<String, Map<String, ?>>>();
 
+    /**
+     * The maximum number of resolved values that are kept in the
+     * {@link #resolutionCache}. If the limit is reached the cache is cleared,
+     * which avoids unbounded growth in case labels are used that contain
+     * dynamic parts like row indexes.
+     */
+    private static final int MAX_CACHE_SIZE = 10000;
+
+    /**
+     * Marker for cached lookups that did not resolve to a value, as the
+     * {@link ConcurrentHashMap} does not support <code>null</code> values.
+     */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * Cache of resolved attribute values, keyed by the attribute, the target
+     * display mode and the config labels. Cleared on every registration
+     * change, as resolving a value involves the display mode ordering and the
+     * label order, which makes a fine grained invalidation more expensive than
+     * the lookup itself. Uses a {@link ConcurrentHashMap} as the cache is
+     * modified on read access, which also happens in background processes
+     * like exports.
+     */
+    private final Map<ResolutionKey, Object> resolutionCache = new ConcurrentHashMap<ResolutionKey, Object>();
+
+    private boolean resolutionCacheEnabled = true;
+
     @Override
     public <T> T getConfigAttribute(ConfigAttribute<T> configAttribute,
             String targetDisplayMode, String... configLabels) {
@@ -36,6 +66,43 @@ public <T> T getConfigAttribute(ConfigAttribute<T> configAttribute,
     @SuppressWarnings("unchecked")
     public <T> T getConfigAttribute(ConfigAttribute<T> configAttribute,
             String targetDisplayMode, List<String> configLabels) {
+        if (!this.resolutionCacheEnabled) {
+            return resolveConfigAttribute(configAttribute, targetDisplayMode, configLabels);
+        }
+
+        ResolutionKey key = new ResolutionKey(configAttribute, targetDisplayMode, configLabels);
+        Object cached = this.resolutionCache.get(key);
+        if (cached == null) {
+            T attributeValue = resolveConfigAttribute(configAttribute, targetDisplayMode, configLabels);
+            if (this.resolutionCache.size() >= MAX_CACHE_SIZE) {
+                this.resolutionCache.clear();
+            }
+            // copy the labels as the passed list might be modified afterwards
+            this.resolutionCache.put(
+                    new ResolutionKey(configAttribute, targetDisplayMode, new ArrayList<String>(configLabels)),
+                    attributeValue != null ? attributeValue : NO_VALUE);
+            return attributeValue;
+        }
+        return cached != NO_VALUE ? (T) cached : null;
+    }
+
+    /**
+     * Resolves the value for the given attribute by inspecting the registered
+     * values for the display modes in the order of the display mode ordering
+     * and the given config labels in the given order.
+     *
+     * @param configAttribute
+     *            The attribute to resolve.
+     * @param targetDisplayMode
+     *            The display mode for which the value is requested.
+     * @param configLabels
+     *            The config labels for which the value is requested.
+     * @return The resolved value or <code>null</code> if no value is
+     *         registered.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T resolveConfigAttribute(ConfigAttribute<T> configAttribute,
+            String targetDisplayMode, List<String> configLabels) {
         T attributeValue = null;
 
         Map<String, Map<String, ?>> displayModeConfigAttributeMap = this.configRegistry
@@ -120,6 +187,7 @@ public <T> void registerConfigAttribute(ConfigAttribute<T> configAttribute,
         }
 
         configAttributeMap.put(configLabel, attributeValue);
+        clearCache();
     };
 
     @Override
@@ -148,6 +216,41 @@ public <T> void unregisterConfigAttribute(
                 configAttributeMap.remove(configLabel);
             }
         }
+        clearCache();
+    }
+
+    /**
+     * Clears the cache of resolved attribute values. Called automatically on
+     * registering and unregistering attribute values. Needs to be called
+     * manually if a registered value is changed in place in a way that affects
+     * the resolution, e.g. if the {@link IDisplayModeOrdering} is modified.
+     *
+     * @since 2.0
+     */
+    public void clearCache() {
+        this.resolutionCache.clear();
+    }
+
+    /**
+     * Enable or disable the caching of resolved attribute values. The cache is
+     * enabled by default.
+     *
+     * @param enabled
+     *            <code>true</code> to cache the resolved attribute values,
+     *            <code>false</code> to resolve the values on every request.
+     * @since 2.0
+     */
+    public void setCacheEnabled(boolean enabled) {
+        this.resolutionCacheEnabled = enabled;
+        clearCache();
+    }
+
+    /**
+     * @return <code>true</code> if resolved attribute values are cached.
+     * @since 2.0
+     */
+    public boolean isCacheEnabled() {
+        return this.resolutionCacheEnabled;
     }
 
     // Display mode ordering //////////////////////////////////////////////////
@@ -161,6 +264,46 @@ public IDisplayModeOrdering getDisplayModeOrdering() {
 
     public void setDisplayModeOrdering(IDisplayModeOrdering displayModeOrdering) {
         this.displayModeOrdering = displayModeOrdering;
+        clearCache();
+    }
+
+    /**
+     * Key of the resolution cache. The hash code is calculated once, as the
+     * key is created for every lookup.
+     */
+    private static final class ResolutionKey {
+
+        private final ConfigAttribute<?> configAttribute;
+        private final String displayMode;
+        private final List<String> configLabels;
+        private final int hash;
+
+        ResolutionKey(ConfigAttribute<?> configAttribute, String displayMode, List<String> configLabels) {
+            this.configAttribute = configAttribute;
+            this.displayMode = displayMode;
+            this.configLabels = configLabels;
+            this.hash = 31 * (31 * configAttribute.hashCode() + Objects.hashCode(displayMode)) + configLabels.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey other = (ResolutionKey) obj;
+            return this.hash == other.hash
+                    && this.configAttribute == other.configAttribute
+                    && Objects.equals(this.displayMode, other.displayMode)
+                    && this.configLabels.equals(other.configLabels);
+        }
     }
 
 }
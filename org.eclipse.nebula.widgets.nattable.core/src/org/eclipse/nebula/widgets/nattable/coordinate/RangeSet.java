@@ -0,0 +1,561 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of non-negative int values that is stored as sorted, disjoint and
+ * non-adjacent ranges. Like {@link Range} the stored ranges are inclusive of
+ * their start value and exclusive of their end value.
+ * <p>
+ * The memory consumption only depends on the number of ranges and not on the
+ * number of values, which makes it a good fit for big consecutive blocks of
+ * values, e.g. a huge number of hidden rows. Lookups are performed via binary
+ * search over the ranges.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class RangeSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] starts;
+    private int[] ends;
+    private int rangeCount;
+
+    /**
+     * Creates an empty {@link RangeSet}.
+     */
+    public RangeSet() {
+        this.starts = new int[INITIAL_CAPACITY];
+        this.ends = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a {@link RangeSet} that contains the given values.
+     *
+     * @param values
+     *            The values to add.
+     */
+    public RangeSet(int... values) {
+        this();
+        addAll(values);
+    }
+
+    /**
+     * Creates a copy of the given {@link RangeSet}.
+     *
+     * @param other
+     *            The {@link RangeSet} to copy.
+     */
+    public RangeSet(RangeSet other) {
+        this.starts = Arrays.copyOf(other.starts, Math.max(other.rangeCount, 1));
+        this.ends = Arrays.copyOf(other.ends, this.starts.length);
+        this.rangeCount = other.rangeCount;
+    }
+
+    /**
+     * @return <code>true</code> if this set does not contain any value.
+     */
+    public boolean isEmpty() {
+        return this.rangeCount == 0;
+    }
+
+    /**
+     * @return The number of ranges that are needed to represent the values in
+     *         this set.
+     */
+    public int getRangeCount() {
+        return this.rangeCount;
+    }
+
+    /**
+     * @param rangeIndex
+     *            The index of the range.
+     * @return The inclusive start value of the range at the given index.
+     */
+    public int getRangeStart(int rangeIndex) {
+        return this.starts[rangeIndex];
+    }
+
+    /**
+     * @param rangeIndex
+     *            The index of the range.
+     * @return The exclusive end value of the range at the given index.
+     */
+    public int getRangeEnd(int rangeIndex) {
+        return this.ends[rangeIndex];
+    }
+
+    /**
+     * @return The ranges that represent the values in this set in ascending
+     *         order.
+     */
+    public List<Range> getRanges() {
+        List<Range> result = new ArrayList<>(this.rangeCount);
+        for (int i = 0; i < this.rangeCount; i++) {
+            result.add(new Range(this.starts[i], this.ends[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of values contained in this set.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < this.rangeCount; i++) {
+            size += this.ends[i] - this.starts[i];
+        }
+        return size;
+    }
+
+    /**
+     * @return All values contained in this set in ascending order.
+     */
+    public int[] toArray() {
+        int[] result = new int[size()];
+        int pos = 0;
+        for (int i = 0; i < this.rangeCount; i++) {
+            for (int value = this.starts[i]; value < this.ends[i]; value++) {
+                result[pos++] = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if the given value is contained in this set.
+     *
+     * @param value
+     *            The value to check.
+     * @return <code>true</code> if the value is contained in this set.
+     */
+    public boolean contains(int value) {
+        int rangeIndex = findRange(value);
+        return rangeIndex >= 0 && value < this.ends[rangeIndex];
+    }
+
+    /**
+     * Check if at least one value of the given range is contained in this set.
+     *
+     * @param start
+     *            The start of the range, inclusive.
+     * @param end
+     *            The end of the range, exclusive.
+     * @return <code>true</code> if this set contains a value of the given
+     *         range.
+     */
+    public boolean intersects(int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        int rangeIndex = findRange(end - 1);
+        return rangeIndex >= 0 && start < this.ends[rangeIndex];
+    }
+
+    /**
+     * Searches for the last range whose start is lower or equal to the given
+     * value.
+     *
+     * @param value
+     *            The value to search for.
+     * @return The index of the last range that starts at or before the given
+     *         value, or -1 if all ranges start after the given value.
+     */
+    public int findRange(int value) {
+        int low = 0;
+        int high = this.rangeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.starts[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Adds the given value to this set.
+     *
+     * @param value
+     *            The value to add.
+     */
+    public void add(int value) {
+        add(value, value + 1);
+    }
+
+    /**
+     * Adds all values of the given range to this set.
+     *
+     * @param start
+     *            The start value inclusive.
+     * @param end
+     *            The end value exclusive.
+     */
+    public void add(int start, int end) {
+        if (start < 0) {
+            throw new IllegalArgumentException("start < 0"); //$NON-NLS-1$
+        }
+        if (start >= end) {
+            return;
+        }
+
+        // first range that ends at or after the start, which means it touches
+        // or overlaps the range to add
+        int first = findRange(start);
+        if (first < 0 || this.ends[first] < start) {
+            first++;
+        }
+        // last range that starts at or before the end
+        int last = findRange(end);
+
+        if (first > last) {
+            insertRange(first, start, end);
+        } else {
+            int newStart = Math.min(start, this.starts[first]);
+            int newEnd = Math.max(end, this.ends[last]);
+            removeRanges(first + 1, last + 1);
+            this.starts[first] = newStart;
+            this.ends[first] = newEnd;
+        }
+    }
+
+    /**
+     * Adds all values of the given {@link Range} to this set.
+     *
+     * @param range
+     *            The range to add.
+     */
+    public void add(Range range) {
+        add(range.start, range.end);
+    }
+
+    /**
+     * Adds all given values to this set. The values do not need to be sorted.
+     *
+     * @param values
+     *            The values to add.
+     */
+    public void addAll(int... values) {
+        if (values == null || values.length == 0) {
+            return;
+        }
+        RangeSet other = fromValues(values);
+        if (isEmpty()) {
+            this.starts = other.starts;
+            this.ends = other.ends;
+            this.rangeCount = other.rangeCount;
+        } else {
+            addAll(other);
+        }
+    }
+
+    /**
+     * Adds all values of the given {@link RangeSet} to this set.
+     *
+     * @param other
+     *            The set whose values should be added.
+     */
+    public void addAll(RangeSet other) {
+        int[] newStarts = new int[this.rangeCount + other.rangeCount];
+        int[] newEnds = new int[newStarts.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.rangeCount || j < other.rangeCount) {
+            int start;
+            int end;
+            if (j >= other.rangeCount
+                    || (i < this.rangeCount && this.starts[i] <= other.starts[j])) {
+                start = this.starts[i];
+                end = this.ends[i++];
+            } else {
+                start = other.starts[j];
+                end = other.ends[j++];
+            }
+
+            if (count > 0 && start <= newEnds[count - 1]) {
+                newEnds[count - 1] = Math.max(newEnds[count - 1], end);
+            } else {
+                newStarts[count] = start;
+                newEnds[count] = end;
+                count++;
+            }
+        }
+        setRanges(newStarts, newEnds, count);
+    }
+
+    /**
+     * Removes the given value from this set.
+     *
+     * @param value
+     *            The value to remove.
+     */
+    public void remove(int value) {
+        remove(value, value + 1);
+    }
+
+    /**
+     * Removes all values of the given range from this set.
+     *
+     * @param start
+     *            The start value inclusive.
+     * @param end
+     *            The end value exclusive.
+     */
+    public void remove(int start, int end) {
+        if (start >= end || isEmpty()) {
+            return;
+        }
+
+        int first = findRange(start);
+        if (first < 0 || this.ends[first] <= start) {
+            first++;
+        }
+        int last = findRange(end - 1);
+        if (first > last) {
+            return;
+        }
+
+        int firstStart = this.starts[first];
+        int lastEnd = this.ends[last];
+        removeRanges(first, last + 1);
+        int insertAt = first;
+        if (firstStart < start) {
+            insertRange(insertAt++, firstStart, start);
+        }
+        if (lastEnd > end) {
+            insertRange(insertAt, end, lastEnd);
+        }
+    }
+
+    /**
+     * Removes all given values from this set. The values do not need to be
+     * sorted.
+     *
+     * @param values
+     *            The values to remove.
+     */
+    public void removeAll(int... values) {
+        if (values == null || values.length == 0 || isEmpty()) {
+            return;
+        }
+        removeAll(fromValues(values));
+    }
+
+    /**
+     * Removes all values of the given {@link RangeSet} from this set.
+     *
+     * @param other
+     *            The set whose values should be removed.
+     */
+    public void removeAll(RangeSet other) {
+        int[] newStarts = new int[this.rangeCount + other.rangeCount];
+        int[] newEnds = new int[newStarts.length];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < this.rangeCount; i++) {
+            int start = this.starts[i];
+            int end = this.ends[i];
+            // skip the ranges to remove that end before the current range
+            while (j < other.rangeCount && other.ends[j] <= start) {
+                j++;
+            }
+            int k = j;
+            while (start < end) {
+                if (k >= other.rangeCount || other.starts[k] >= end) {
+                    newStarts[count] = start;
+                    newEnds[count++] = end;
+                    break;
+                }
+                if (other.starts[k] > start) {
+                    newStarts[count] = start;
+                    newEnds[count++] = other.starts[k];
+                }
+                start = Math.max(start, other.ends[k]);
+                k++;
+            }
+        }
+        setRanges(newStarts, newEnds, count);
+    }
+
+    /**
+     * Removes all values from this set.
+     */
+    public void clear() {
+        this.starts = new int[INITIAL_CAPACITY];
+        this.ends = new int[INITIAL_CAPACITY];
+        this.rangeCount = 0;
+    }
+
+    /**
+     * Increases all values that are greater or equal to the given value by the
+     * given count. Used to update the values in case new elements are inserted,
+     * e.g. if rows are added to the data model.
+     *
+     * @param value
+     *            The value at which the elements are inserted.
+     * @param count
+     *            The number of inserted elements.
+     */
+    public void insert(int value, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int rangeIndex = findRange(value);
+        if (rangeIndex >= 0 && this.starts[rangeIndex] < value && value < this.ends[rangeIndex]) {
+            // the insert splits a range
+            int end = this.ends[rangeIndex];
+            this.ends[rangeIndex] = value;
+            insertRange(rangeIndex + 1, value, end);
+        } else if (rangeIndex >= 0 && this.starts[rangeIndex] == value) {
+            rangeIndex--;
+        }
+        for (int i = rangeIndex + 1; i < this.rangeCount; i++) {
+            this.starts[i] += count;
+            this.ends[i] += count;
+        }
+    }
+
+    /**
+     * Removes all values of the given range from this set and decreases all
+     * values that are greater or equal to the given end by the size of the
+     * range. Used to update the values in case elements are deleted, e.g. if
+     * rows are removed from the data model.
+     *
+     * @param start
+     *            The start value inclusive.
+     * @param end
+     *            The end value exclusive.
+     */
+    public void delete(int start, int end) {
+        if (start >= end) {
+            return;
+        }
+        remove(start, end);
+        int count = end - start;
+        int first = findRange(start) + 1;
+        for (int i = first; i < this.rangeCount; i++) {
+            this.starts[i] -= count;
+            this.ends[i] -= count;
+        }
+        // the ranges around the deleted range might be adjacent now
+        if (first > 0 && first < this.rangeCount && this.ends[first - 1] == this.starts[first]) {
+            this.ends[first - 1] = this.ends[first];
+            removeRanges(first, first + 1);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < this.rangeCount; i++) {
+            result = 31 * (31 * result + this.starts[i]) + this.ends[i];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RangeSet)) {
+            return false;
+        }
+        RangeSet other = (RangeSet) obj;
+        if (this.rangeCount != other.rangeCount) {
+            return false;
+        }
+        for (int i = 0; i < this.rangeCount; i++) {
+            if (this.starts[i] != other.starts[i] || this.ends[i] != other.ends[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RangeSet ["); //$NON-NLS-1$
+        for (int i = 0; i < this.rangeCount; i++) {
+            if (i > 0) {
+                builder.append(", "); //$NON-NLS-1$
+            }
+            builder.append(this.starts[i]).append('-').append(this.ends[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private static RangeSet fromValues(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] < 0) {
+            throw new IllegalArgumentException("negative value"); //$NON-NLS-1$
+        }
+
+        RangeSet result = new RangeSet();
+        int[] newStarts = new int[INITIAL_CAPACITY];
+        int[] newEnds = new int[newStarts.length];
+        int count = 0;
+        for (int value : sorted) {
+            if (count > 0 && value <= newEnds[count - 1]) {
+                if (value == newEnds[count - 1]) {
+                    newEnds[count - 1]++;
+                }
+            } else {
+                if (count == newStarts.length) {
+                    newStarts = Arrays.copyOf(newStarts, count << 1);
+                    newEnds = Arrays.copyOf(newEnds, count << 1);
+                }
+                newStarts[count] = value;
+                newEnds[count++] = value + 1;
+            }
+        }
+        result.setRanges(newStarts, newEnds, count);
+        return result;
+    }
+
+    private void setRanges(int[] newStarts, int[] newEnds, int count) {
+        this.starts = newStarts;
+        this.ends = newEnds;
+        this.rangeCount = count;
+    }
+
+    private void insertRange(int rangeIndex, int start, int end) {
+        if (this.rangeCount == this.starts.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, this.rangeCount << 1);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        System.arraycopy(this.starts, rangeIndex, this.starts, rangeIndex + 1, this.rangeCount - rangeIndex);
+        System.arraycopy(this.ends, rangeIndex, this.ends, rangeIndex + 1, this.rangeCount - rangeIndex);
+        this.starts[rangeIndex] = start;
+        this.ends[rangeIndex] = end;
+        this.rangeCount++;
+    }
+
+    private void removeRanges(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        System.arraycopy(this.starts, to, this.starts, from, this.rangeCount - to);
+        System.arraycopy(this.ends, to, this.ends, from, this.rangeCount - to);
+        this.rangeCount -= to - from;
+    }
+}
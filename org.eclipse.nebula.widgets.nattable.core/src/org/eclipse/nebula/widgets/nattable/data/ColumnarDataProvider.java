@@ -0,0 +1,566 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link IDataProvider} that stores the values column wise in primitive arrays
+ * instead of one object per row. Numeric columns are backed by
+ * <code>double[]</code>, <code>long[]</code> or <code>int[]</code>, string
+ * columns are dictionary encoded so every distinct string is only stored once.
+ * The capacity of the columns grows as rows are added.
+ * <p>
+ * Values can be accessed via {@link #getDataValue(int, int)}, which boxes
+ * numeric values, or via the typed accessors like
+ * {@link #getDoubleValue(int, int)} that avoid boxing.
+ * </p>
+ * <p>
+ * Note that this data provider is not thread safe.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class ColumnarDataProvider implements IPrimitiveDataProvider {
+
+    /**
+     * The supported column types.
+     */
+    public enum ColumnType {
+        /** Column backed by a <code>double[]</code>. */
+        DOUBLE,
+        /** Column backed by a <code>long[]</code>. */
+        LONG,
+        /** Column backed by an <code>int[]</code>. */
+        INT,
+        /** Dictionary encoded string column. */
+        STRING
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final ColumnType[] columnTypes;
+    private final Object[] columns;
+    private final StringDictionary[] dictionaries;
+
+    private int rowCount;
+    private int capacity;
+
+    /**
+     * Creates an empty {@link ColumnarDataProvider} with the given column
+     * types.
+     *
+     * @param columnTypes
+     *            The types of the columns.
+     */
+    public ColumnarDataProvider(ColumnType... columnTypes) {
+        this(DEFAULT_CAPACITY, columnTypes);
+    }
+
+    /**
+     * Creates an empty {@link ColumnarDataProvider} with the given column
+     * types.
+     *
+     * @param initialCapacity
+     *            The number of rows that can be added before the columns need
+     *            to grow.
+     * @param columnTypes
+     *            The types of the columns.
+     */
+    public ColumnarDataProvider(int initialCapacity, ColumnType... columnTypes) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative"); //$NON-NLS-1$
+        }
+        this.columnTypes = columnTypes.clone();
+        this.columns = new Object[columnTypes.length];
+        this.dictionaries = new StringDictionary[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (columnTypes[i] == null) {
+                throw new IllegalArgumentException("column type must not be null"); //$NON-NLS-1$
+            }
+            this.columns[i] = createColumn(columnTypes[i], initialCapacity);
+            if (columnTypes[i] == ColumnType.STRING) {
+                this.dictionaries[i] = new StringDictionary();
+            }
+        }
+        this.capacity = initialCapacity;
+    }
+
+    private static Object createColumn(ColumnType type, int capacity) {
+        switch (type) {
+            case DOUBLE:
+                return new double[capacity];
+            case LONG:
+                return new long[capacity];
+            case INT:
+                return new int[capacity];
+            default:
+                // dictionary codes, 0 is reserved for null
+                return new int[capacity];
+        }
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.columnTypes.length;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     *
+     * @param columnIndex
+     *            The column index.
+     * @return The type of the column with the given index.
+     */
+    public ColumnType getColumnType(int columnIndex) {
+        return this.columnTypes[columnIndex];
+    }
+
+    @Override
+    public boolean isNumericColumn(int columnIndex) {
+        return this.columnTypes[columnIndex] != ColumnType.STRING;
+    }
+
+    @Override
+    public Object getDataValue(int columnIndex, int rowIndex) {
+        checkRowIndex(rowIndex);
+        Object column = this.columns[columnIndex];
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                return ((double[]) column)[rowIndex];
+            case LONG:
+                return ((long[]) column)[rowIndex];
+            case INT:
+                return ((int[]) column)[rowIndex];
+            default:
+                return this.dictionaries[columnIndex].decode(((int[]) column)[rowIndex]);
+        }
+    }
+
+    /**
+     * Sets the value at the given coordinates. Numeric columns accept
+     * {@link Number} values, <code>null</code> is stored as 0. String columns
+     * store the {@link Object#toString()} representation of the value.
+     *
+     * @throws IllegalArgumentException
+     *             if a non numeric value is set to a numeric column.
+     */
+    @Override
+    public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+        if (this.columnTypes[columnIndex] == ColumnType.STRING) {
+            setStringValue(columnIndex, rowIndex, newValue != null ? newValue.toString() : null);
+            return;
+        }
+
+        if (newValue != null && !(newValue instanceof Number)) {
+            throw new IllegalArgumentException("Column " + columnIndex //$NON-NLS-1$
+                    + " only supports numeric values: " + newValue); //$NON-NLS-1$
+        }
+        Number number = (Number) newValue;
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                setDoubleValue(columnIndex, rowIndex, number != null ? number.doubleValue() : 0);
+                break;
+            case LONG:
+                setLongValue(columnIndex, rowIndex, number != null ? number.longValue() : 0);
+                break;
+            default:
+                setIntValue(columnIndex, rowIndex, number != null ? number.intValue() : 0);
+                break;
+        }
+    }
+
+    @Override
+    public double getDoubleValue(int columnIndex, int rowIndex) {
+        checkRowIndex(rowIndex);
+        Object column = this.columns[columnIndex];
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                return ((double[]) column)[rowIndex];
+            case LONG:
+                return ((long[]) column)[rowIndex];
+            case INT:
+                return ((int[]) column)[rowIndex];
+            default:
+                throw notNumeric(columnIndex);
+        }
+    }
+
+    @Override
+    public long getLongValue(int columnIndex, int rowIndex) {
+        checkRowIndex(rowIndex);
+        Object column = this.columns[columnIndex];
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                return (long) ((double[]) column)[rowIndex];
+            case LONG:
+                return ((long[]) column)[rowIndex];
+            case INT:
+                return ((int[]) column)[rowIndex];
+            default:
+                throw notNumeric(columnIndex);
+        }
+    }
+
+    /**
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @return The value at the given coordinates as int.
+     * @throws IllegalArgumentException
+     *             if the column is not numeric.
+     */
+    public int getIntValue(int columnIndex, int rowIndex) {
+        if (this.columnTypes[columnIndex] == ColumnType.INT) {
+            checkRowIndex(rowIndex);
+            return ((int[]) this.columns[columnIndex])[rowIndex];
+        }
+        return (int) getLongValue(columnIndex, rowIndex);
+    }
+
+    /**
+     *
+     * @param columnIndex
+     *            The column index.
+     * @param rowIndex
+     *            The row index.
+     * @return The value at the given coordinates as String. For numeric
+     *         columns the string representation of the value is returned.
+     */
+    public String getStringValue(int columnIndex, int rowIndex) {
+        Object value = getDataValue(columnIndex, rowIndex);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Sets a value to a numeric column. For {@link ColumnType#LONG} and
+     * {@link ColumnType#INT} columns the value is narrowed.
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @param value
+     *            The value to set.
+     */
+    public void setDoubleValue(int columnIndex, int rowIndex, double value) {
+        checkRowIndex(rowIndex);
+        Object column = this.columns[columnIndex];
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                ((double[]) column)[rowIndex] = value;
+                break;
+            case LONG:
+                ((long[]) column)[rowIndex] = (long) value;
+                break;
+            case INT:
+                ((int[]) column)[rowIndex] = (int) value;
+                break;
+            default:
+                throw notNumeric(columnIndex);
+        }
+    }
+
+    /**
+     * Sets a value to a numeric column. For {@link ColumnType#INT} columns the
+     * value is narrowed.
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @param value
+     *            The value to set.
+     */
+    public void setLongValue(int columnIndex, int rowIndex, long value) {
+        checkRowIndex(rowIndex);
+        Object column = this.columns[columnIndex];
+        switch (this.columnTypes[columnIndex]) {
+            case DOUBLE:
+                ((double[]) column)[rowIndex] = value;
+                break;
+            case LONG:
+                ((long[]) column)[rowIndex] = value;
+                break;
+            case INT:
+                ((int[]) column)[rowIndex] = (int) value;
+                break;
+            default:
+                throw notNumeric(columnIndex);
+        }
+    }
+
+    /**
+     * Sets a value to a numeric column.
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @param value
+     *            The value to set.
+     */
+    public void setIntValue(int columnIndex, int rowIndex, int value) {
+        setLongValue(columnIndex, rowIndex, value);
+    }
+
+    /**
+     * Sets a value to a string column.
+     *
+     * @param columnIndex
+     *            The index of a {@link ColumnType#STRING} column.
+     * @param rowIndex
+     *            The row index.
+     * @param value
+     *            The value to set, can be <code>null</code>.
+     */
+    public void setStringValue(int columnIndex, int rowIndex, String value) {
+        checkRowIndex(rowIndex);
+        if (this.columnTypes[columnIndex] != ColumnType.STRING) {
+            throw new IllegalArgumentException("Column " + columnIndex + " is not a string column"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        ((int[]) this.columns[columnIndex])[rowIndex] = this.dictionaries[columnIndex].encode(value);
+    }
+
+    /**
+     * Adds a row with the given values at the end.
+     *
+     * @param values
+     *            The values of the new row, one per column.
+     * @return The index of the added row.
+     * @see #setDataValue(int, int, Object)
+     */
+    public int addRow(Object... values) {
+        if (values.length != this.columnTypes.length) {
+            throw new IllegalArgumentException("Expected " + this.columnTypes.length //$NON-NLS-1$
+                    + " values but got " + values.length); //$NON-NLS-1$
+        }
+        int rowIndex = addRows(1);
+        for (int column = 0; column < values.length; column++) {
+            setDataValue(column, rowIndex, values[column]);
+        }
+        return rowIndex;
+    }
+
+    /**
+     * Adds the given number of rows at the end. Numeric values of the new rows
+     * are 0, string values are <code>null</code>. Use this method together
+     * with the bulk setters like
+     * {@link #setDoubleValues(int, int, double[], int, int)} to append a lot
+     * of rows at once.
+     *
+     * @param count
+     *            The number of rows to add.
+     * @return The index of the first added row.
+     */
+    public int addRows(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative"); //$NON-NLS-1$
+        }
+        int first = this.rowCount;
+        ensureCapacity(first + count);
+        this.rowCount += count;
+        return first;
+    }
+
+    /**
+     * Copies the given values into a {@link ColumnType#DOUBLE} column.
+     *
+     * @param columnIndex
+     *            The index of the column.
+     * @param rowIndex
+     *            The index of the first row to set.
+     * @param values
+     *            The values to copy.
+     * @param offset
+     *            The offset in the values array.
+     * @param length
+     *            The number of values to copy.
+     */
+    public void setDoubleValues(int columnIndex, int rowIndex, double[] values, int offset, int length) {
+        checkBulkRange(columnIndex, ColumnType.DOUBLE, rowIndex, length);
+        System.arraycopy(values, offset, this.columns[columnIndex], rowIndex, length);
+    }
+
+    /**
+     * Copies the given values into a {@link ColumnType#LONG} column.
+     *
+     * @param columnIndex
+     *            The index of the column.
+     * @param rowIndex
+     *            The index of the first row to set.
+     * @param values
+     *            The values to copy.
+     * @param offset
+     *            The offset in the values array.
+     * @param length
+     *            The number of values to copy.
+     */
+    public void setLongValues(int columnIndex, int rowIndex, long[] values, int offset, int length) {
+        checkBulkRange(columnIndex, ColumnType.LONG, rowIndex, length);
+        System.arraycopy(values, offset, this.columns[columnIndex], rowIndex, length);
+    }
+
+    /**
+     * Copies the given values into a {@link ColumnType#INT} column.
+     *
+     * @param columnIndex
+     *            The index of the column.
+     * @param rowIndex
+     *            The index of the first row to set.
+     * @param values
+     *            The values to copy.
+     * @param offset
+     *            The offset in the values array.
+     * @param length
+     *            The number of values to copy.
+     */
+    public void setIntValues(int columnIndex, int rowIndex, int[] values, int offset, int length) {
+        checkBulkRange(columnIndex, ColumnType.INT, rowIndex, length);
+        System.arraycopy(values, offset, this.columns[columnIndex], rowIndex, length);
+    }
+
+    /**
+     * Sets the given values into a {@link ColumnType#STRING} column.
+     *
+     * @param columnIndex
+     *            The index of the column.
+     * @param rowIndex
+     *            The index of the first row to set.
+     * @param values
+     *            The values to set.
+     * @param offset
+     *            The offset in the values array.
+     * @param length
+     *            The number of values to set.
+     */
+    public void setStringValues(int columnIndex, int rowIndex, String[] values, int offset, int length) {
+        checkBulkRange(columnIndex, ColumnType.STRING, rowIndex, length);
+        int[] codes = (int[]) this.columns[columnIndex];
+        StringDictionary dictionary = this.dictionaries[columnIndex];
+        for (int i = 0; i < length; i++) {
+            codes[rowIndex + i] = dictionary.encode(values[offset + i]);
+        }
+    }
+
+    /**
+     * Removes all rows. The string dictionaries are cleared, the capacity is
+     * kept. The values of the removed rows are reset, so rows that are added
+     * afterwards start with 0 and <code>null</code> values.
+     */
+    public void clear() {
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            Object column = this.columns[i];
+            if (column instanceof double[]) {
+                Arrays.fill((double[]) column, 0, this.rowCount, 0d);
+            } else if (column instanceof long[]) {
+                Arrays.fill((long[]) column, 0, this.rowCount, 0L);
+            } else {
+                Arrays.fill((int[]) column, 0, this.rowCount, 0);
+            }
+            if (this.columnTypes[i] == ColumnType.STRING) {
+                this.dictionaries[i] = new StringDictionary();
+            }
+        }
+        this.rowCount = 0;
+    }
+
+    /**
+     * Reduces the capacity of the columns to the current number of rows.
+     */
+    public void trimToSize() {
+        if (this.capacity > this.rowCount) {
+            resize(this.rowCount);
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.capacity) {
+            long newCapacity = Math.max(minCapacity, this.capacity + (this.capacity >> 1) + 1L);
+            resize((int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private void resize(int newCapacity) {
+        for (int i = 0; i < this.columns.length; i++) {
+            Object column = this.columns[i];
+            if (column instanceof double[]) {
+                this.columns[i] = Arrays.copyOf((double[]) column, newCapacity);
+            } else if (column instanceof long[]) {
+                this.columns[i] = Arrays.copyOf((long[]) column, newCapacity);
+            } else {
+                this.columns[i] = Arrays.copyOf((int[]) column, newCapacity);
+            }
+        }
+        this.capacity = newCapacity;
+    }
+
+    private void checkRowIndex(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index: " + rowIndex + ", row count: " + this.rowCount); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private void checkBulkRange(int columnIndex, ColumnType type, int rowIndex, int length) {
+        if (this.columnTypes[columnIndex] != type) {
+            throw new IllegalArgumentException("Column " + columnIndex + " is not of type " + type); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (rowIndex < 0 || length < 0 || rowIndex + length > this.rowCount) {
+            throw new IndexOutOfBoundsException("Rows: " + rowIndex + " - " + (rowIndex + length) //$NON-NLS-1$ //$NON-NLS-2$
+                    + ", row count: " + this.rowCount); //$NON-NLS-1$
+        }
+    }
+
+    private static IllegalArgumentException notNumeric(int columnIndex) {
+        return new IllegalArgumentException("Column " + columnIndex + " is not numeric"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Dictionary that maps the distinct strings of a column to int codes. The
+     * code 0 is used for <code>null</code>.
+     */
+    private static final class StringDictionary {
+
+        private final List<String> values = new ArrayList<String>();
+        private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+        StringDictionary() {
+            this.values.add(null);
+        }
+
+        int encode(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = this.codes.get(value);
+            if (code == null) {
+                code = this.values.size();
+                this.values.add(value);
+                this.codes.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return this.values.get(code);
+        }
+    }
+}
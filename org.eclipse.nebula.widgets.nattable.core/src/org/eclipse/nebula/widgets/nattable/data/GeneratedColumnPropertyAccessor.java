@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link IColumnPropertyAccessor} that accesses the properties of the row
+ * beans via getter and setter functions that are generated once per bean class
+ * and property. Compared to the {@link ReflectiveColumnPropertyAccessor} this
+ * avoids the reflective {@link Method#invoke(Object, Object...)} call on every
+ * data access, which makes a difference on hot paths like sorting and
+ * filtering large lists.
+ * <p>
+ * The functions are created via {@link LambdaMetafactory} if the bean class is
+ * accessible from this class. Otherwise, for example if the bean class is not
+ * visible to the class loader of this bundle, the accessor falls back to the
+ * corresponding {@link MethodHandle}. The generated accessors are cached per
+ * bean class in a {@link ClassValue} and shared by all instances of this
+ * class.
+ * </p>
+ * <p>
+ * Like the {@link ExtendedReflectiveColumnPropertyAccessor} dot separated
+ * property names are supported to access properties anywhere within the object
+ * graph, e.g. <i>address.street</i>. If a value in the path is
+ * <code>null</code>, <code>null</code> is returned.
+ * </p>
+ *
+ * @param <R>
+ *            type of the row object/bean
+ *
+ * @since 2.0
+ */
+public class GeneratedColumnPropertyAccessor<R> implements IColumnPropertyAccessor<R> {
+
+    private static final Log LOG = LogFactory.getLog(GeneratedColumnPropertyAccessor.class);
+
+    private static final ClassValue<BeanAccessors> ACCESSORS = new ClassValue<BeanAccessors>() {
+        @Override
+        protected BeanAccessors computeValue(Class<?> type) {
+            return new BeanAccessors(type);
+        }
+    };
+
+    private final List<String> propertyNames;
+
+    /**
+     * The property names split into their path segments, indexed by column
+     * index.
+     */
+    private final String[][] propertyPaths;
+
+    /**
+     * @param propertyNames
+     *            of the members of the row bean
+     */
+    public GeneratedColumnPropertyAccessor(String... propertyNames) {
+        this(Arrays.asList(propertyNames));
+    }
+
+    /**
+     * @param propertyNames
+     *            of the members of the row bean
+     */
+    public GeneratedColumnPropertyAccessor(List<String> propertyNames) {
+        this.propertyNames = propertyNames;
+        this.propertyPaths = new String[propertyNames.size()][];
+        for (int i = 0; i < this.propertyPaths.length; i++) {
+            this.propertyPaths[i] = propertyNames.get(i).split("\\."); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.propertyNames.size();
+    }
+
+    @Override
+    public Object getDataValue(R rowObj, int columnIndex) {
+        String[] path = this.propertyPaths[columnIndex];
+        Object value = rowObj;
+        for (int i = 0; i < path.length && value != null; i++) {
+            value = getPropertyAccessor(value, path[i]).getter.apply(value);
+        }
+        return value;
+    }
+
+    @Override
+    public void setDataValue(R rowObj, int columnIndex, Object newValue) {
+        String[] path = this.propertyPaths[columnIndex];
+        Object target = rowObj;
+        for (int i = 0; i < path.length - 1 && target != null; i++) {
+            target = getPropertyAccessor(target, path[i]).getter.apply(target);
+        }
+        if (target == null) {
+            throw new RuntimeException(
+                    "Error while setting data value, the property path contains a null value at column index: " + columnIndex); //$NON-NLS-1$
+        }
+
+        PropertyAccessor accessor = getPropertyAccessor(target, path[path.length - 1]);
+        if (accessor.setter == null) {
+            throw new RuntimeException(
+                    "Setter method not found in backing bean for value at column index: " + columnIndex); //$NON-NLS-1$
+        }
+        // perform the argument checks of Method#invoke()
+        if (newValue == null ? accessor.valueType.isPrimitive() : !accessor.boxedValueType.isInstance(newValue)) {
+            LOG.error("Data type being set does not match the data type of the setter method in the backing bean", //$NON-NLS-1$
+                    new IllegalArgumentException("argument type mismatch")); //$NON-NLS-1$
+            return;
+        }
+        accessor.setter.accept(target, newValue);
+    }
+
+    @Override
+    public String getColumnProperty(int columnIndex) {
+        return this.propertyNames.get(columnIndex);
+    }
+
+    @Override
+    public int getColumnIndex(String propertyName) {
+        return this.propertyNames.indexOf(propertyName);
+    }
+
+    private static PropertyAccessor getPropertyAccessor(Object bean, String propertyName) {
+        PropertyAccessor accessor = ACCESSORS.get(bean.getClass()).getAccessor(propertyName);
+        if (accessor == null) {
+            throw new RuntimeException("No readable property " //$NON-NLS-1$
+                    + propertyName + " found in " + bean.getClass().getName()); //$NON-NLS-1$
+        }
+        return accessor;
+    }
+
+    /**
+     * The generated accessors of a bean class. The accessors of a property are
+     * created on first access.
+     */
+    private static final class BeanAccessors {
+
+        private final Map<String, PropertyDescriptor> descriptors;
+        private final Map<String, PropertyAccessor> accessors = new ConcurrentHashMap<String, PropertyAccessor>();
+
+        BeanAccessors(Class<?> type) {
+            Map<String, PropertyDescriptor> result = new HashMap<String, PropertyDescriptor>();
+            try {
+                for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                    result.put(descriptor.getName(), descriptor);
+                }
+            } catch (IntrospectionException e) {
+                LOG.warn("Error on introspecting " + type.getName(), e); //$NON-NLS-1$
+            }
+            this.descriptors = Collections.unmodifiableMap(result);
+        }
+
+        PropertyAccessor getAccessor(String propertyName) {
+            PropertyAccessor accessor = this.accessors.get(propertyName);
+            if (accessor == null) {
+                PropertyDescriptor descriptor = this.descriptors.get(propertyName);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    return null;
+                }
+                accessor = new PropertyAccessor(descriptor);
+                PropertyAccessor existing = this.accessors.putIfAbsent(propertyName, accessor);
+                if (existing != null) {
+                    accessor = existing;
+                }
+            }
+            return accessor;
+        }
+    }
+
+    /**
+     * The generated getter and setter of a single property.
+     */
+    private static final class PropertyAccessor {
+
+        final Function<Object, Object> getter;
+        final BiConsumer<Object, Object> setter;
+        final Class<?> valueType;
+        final Class<?> boxedValueType;
+
+        PropertyAccessor(PropertyDescriptor descriptor) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Method readMethod = descriptor.getReadMethod();
+            Method writeMethod = descriptor.getWriteMethod();
+            try {
+                this.getter = createGetter(lookup, readMethod);
+                if (writeMethod != null) {
+                    this.valueType = writeMethod.getParameterTypes()[0];
+                    this.setter = createSetter(lookup, writeMethod);
+                } else {
+                    this.valueType = readMethod.getReturnType();
+                    this.setter = null;
+                }
+                this.boxedValueType = MethodType.methodType(this.valueType).wrap().returnType();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Error on creating the accessor for property " + descriptor.getName(), e); //$NON-NLS-1$
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> createGetter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+            MethodHandle handle = lookup.unreflect(method);
+            if (isAccessible(handle.type())) {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply", //$NON-NLS-1$
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            }
+
+            final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return new Function<Object, Object>() {
+                @Override
+                public Object apply(Object bean) {
+                    try {
+                        return generic.invokeExact(bean);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, Object> createSetter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+            MethodHandle handle = lookup.unreflect(method);
+            if (isAccessible(handle.type())) {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept", //$NON-NLS-1$
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        handle.type().wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            }
+
+            final MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return new BiConsumer<Object, Object>() {
+                @Override
+                public void accept(Object bean, Object value) {
+                    try {
+                        generic.invokeExact(bean, value);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Checks if the types of the given method type can be accessed by the
+         * classes generated via {@link LambdaMetafactory}, which are defined
+         * in the context of this class.
+         */
+        private static boolean isAccessible(MethodType type) {
+            if (!isAccessible(type.returnType())) {
+                return false;
+            }
+            for (Class<?> parameter : type.parameterArray()) {
+                if (!isAccessible(parameter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isAccessible(Class<?> type) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+
+            Class<?> host = GeneratedColumnPropertyAccessor.class;
+            // non public types are only accessible in the same runtime package
+            if (!Modifier.isPublic(type.getModifiers())
+                    && !(type.getClassLoader() == host.getClassLoader()
+                            && getPackageName(type).equals(getPackageName(host)))) {
+                return false;
+            }
+
+            try {
+                return Class.forName(type.getName(), false, host.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        private static String getPackageName(Class<?> type) {
+            String name = type.getName();
+            int index = name.lastIndexOf('.');
+            return (index < 0) ? "" : name.substring(0, index); //$NON-NLS-1$
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import java.util.List;
+
+/**
+ * Backend of a {@link PagedDataProvider} that knows the total number of rows
+ * and is able to load a range of rows, e.g. from a remote service or a
+ * database.
+ *
+ * @param <T>
+ *            type of the row objects
+ *
+ * @since 2.0
+ */
+public interface IPagedDataSource<T> {
+
+    /**
+     *
+     * @return The total number of rows.
+     */
+    int getRowCount();
+
+    /**
+     * Loads a range of rows. This method is called from a background thread.
+     *
+     * @param startIndex
+     *            The index of the first row to load.
+     * @param count
+     *            The number of rows to load.
+     * @return The loaded rows, at most <code>count</code>.
+     * @throws Exception
+     *             if loading the rows fails. The rows are requested again on
+     *             the next access.
+     */
+    List<T> loadRows(int startIndex, int count) throws Exception;
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+/**
+ * Extension of {@link IDataProvider} for data providers that store numeric
+ * values as primitives. Consumers like summary providers can check for this
+ * interface to read numeric values without boxing them via
+ * {@link #getDataValue(int, int)}.
+ *
+ * @since 2.0
+ */
+public interface IPrimitiveDataProvider extends IDataProvider {
+
+    /**
+     *
+     * @param columnIndex
+     *            The column index.
+     * @return <code>true</code> if the column with the given index only
+     *         contains numeric values that can be read via
+     *         {@link #getDoubleValue(int, int)} and
+     *         {@link #getLongValue(int, int)}.
+     */
+    boolean isNumericColumn(int columnIndex);
+
+    /**
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @return The value at the given coordinates as double.
+     * @throws IllegalArgumentException
+     *             if the column is not numeric.
+     */
+    double getDoubleValue(int columnIndex, int rowIndex);
+
+    /**
+     *
+     * @param columnIndex
+     *            The index of a numeric column.
+     * @param rowIndex
+     *            The row index.
+     * @return The value at the given coordinates as long.
+     * @throws IllegalArgumentException
+     *             if the column is not numeric.
+     */
+    long getLongValue(int columnIndex, int rowIndex);
+}
@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read only {@link IDataProvider} that reads fixed width records from a memory
+ * mapped file. The data is not loaded into the Java heap, only the rows that
+ * are requested, e.g. by painting the visible part of the table, are decoded.
+ * The most recently decoded rows are kept in a small LRU cache.
+ * <p>
+ * Every record in the file has the same length, which is the sum of the
+ * lengths of the configured {@link Field}s. Every field is a column in the
+ * table. The file may start with a header of fixed length that is skipped.
+ * Files larger than 2GB are mapped in multiple chunks, a record never spans
+ * two chunks.
+ * </p>
+ * <p>
+ * Note that the mapped memory is released by the garbage collector, calling
+ * {@link #close()} only closes the underlying file channel and releases the
+ * references to the mapped buffers.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class MappedFileDataProvider implements IDataProvider, Closeable {
+
+    /**
+     * The supported types of the fields in a record.
+     */
+    public enum FieldType {
+        /** 1 byte signed integer. */
+        BYTE(1),
+        /** 2 byte signed integer. */
+        SHORT(2),
+        /** 4 byte signed integer. */
+        INT(4),
+        /** 8 byte signed integer. */
+        LONG(8),
+        /** 4 byte floating point number. */
+        FLOAT(4),
+        /** 8 byte floating point number. */
+        DOUBLE(8),
+        /**
+         * Fixed length string. Trailing zero bytes and whitespace are
+         * removed.
+         */
+        STRING(-1);
+
+        private final int length;
+
+        private FieldType(int length) {
+            this.length = length;
+        }
+    }
+
+    /**
+     * Description of a field in a record.
+     */
+    public static final class Field {
+
+        private final FieldType type;
+        private final int length;
+
+        /**
+         *
+         * @param type
+         *            The type of a numeric field.
+         */
+        public Field(FieldType type) {
+            this(type, type.length);
+        }
+
+        /**
+         *
+         * @param type
+         *            The type of the field.
+         * @param length
+         *            The length of the field in bytes. Only used for
+         *            {@link FieldType#STRING} fields, numeric fields always
+         *            use the length of their type.
+         */
+        public Field(FieldType type, int length) {
+            if (type == null) {
+                throw new IllegalArgumentException("type must not be null"); //$NON-NLS-1$
+            }
+            this.type = type;
+            this.length = type == FieldType.STRING ? length : type.length;
+            if (this.length <= 0) {
+                throw new IllegalArgumentException("length must be greater than 0"); //$NON-NLS-1$
+            }
+        }
+
+        /**
+         *
+         * @return The type of the field.
+         */
+        public FieldType getType() {
+            return this.type;
+        }
+
+        /**
+         *
+         * @return The length of the field in bytes.
+         */
+        public int getLength() {
+            return this.length;
+        }
+    }
+
+    /** Default number of decoded rows that are cached. */
+    public static final int DEFAULT_ROW_CACHE_SIZE = 256;
+
+    /** Marker for cells of a cached row that are not decoded yet. */
+    private static final Object NOT_DECODED = new Object();
+
+    private final FileChannel channel;
+    private final Field[] fields;
+    private final int[] fieldOffsets;
+    private final int recordLength;
+    private final long headerLength;
+    private final ByteOrder byteOrder;
+    private final Charset charset;
+
+    private final int rowCount;
+    private final int rowsPerChunk;
+    private final MappedByteBuffer[] chunks;
+
+    private final Map<Integer, Object[]> rowCache;
+
+    /**
+     * Creates a {@link MappedFileDataProvider} for a file without header with
+     * big endian numbers and ISO-8859-1 encoded strings.
+     *
+     * @param file
+     *            The file to read.
+     * @param fields
+     *            The fields of a record.
+     * @throws IOException
+     *             if the file can not be opened.
+     */
+    public MappedFileDataProvider(Path file, Field... fields) throws IOException {
+        this(file, 0, ByteOrder.BIG_ENDIAN, StandardCharsets.ISO_8859_1, DEFAULT_ROW_CACHE_SIZE, fields);
+    }
+
+    /**
+     *
+     * @param file
+     *            The file to read.
+     * @param headerLength
+     *            The number of bytes at the beginning of the file that should
+     *            be skipped.
+     * @param byteOrder
+     *            The byte order of the numeric fields.
+     * @param charset
+     *            The charset of the string fields.
+     * @param rowCacheSize
+     *            The number of decoded rows that should be cached.
+     * @param fields
+     *            The fields of a record.
+     * @throws IOException
+     *             if the file can not be opened.
+     */
+    public MappedFileDataProvider(Path file, long headerLength, ByteOrder byteOrder, Charset charset,
+            int rowCacheSize, Field... fields) throws IOException {
+        this(file, headerLength, byteOrder, charset, rowCacheSize, Integer.MAX_VALUE, fields);
+    }
+
+    MappedFileDataProvider(Path file, long headerLength, ByteOrder byteOrder, Charset charset,
+            final int rowCacheSize, int maxChunkSize, Field... fields) throws IOException {
+        if (fields.length == 0) {
+            throw new IllegalArgumentException("At least one field is required"); //$NON-NLS-1$
+        }
+        if (headerLength < 0) {
+            throw new IllegalArgumentException("headerLength must not be negative"); //$NON-NLS-1$
+        }
+
+        this.fields = fields.clone();
+        this.fieldOffsets = new int[fields.length];
+        int length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            this.fieldOffsets[i] = length;
+            length += fields[i].length;
+        }
+        this.recordLength = length;
+        this.headerLength = headerLength;
+        this.byteOrder = byteOrder;
+        this.charset = charset;
+
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long records = Math.max(0, this.channel.size() - headerLength) / this.recordLength;
+            if (records > Integer.MAX_VALUE) {
+                throw new IOException("The file contains more than " + Integer.MAX_VALUE + " records"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            this.rowCount = (int) records;
+            this.rowsPerChunk = Math.max(1, maxChunkSize / this.recordLength);
+            this.chunks = new MappedByteBuffer[(int) ((records + this.rowsPerChunk - 1) / this.rowsPerChunk)];
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+
+        this.rowCache = new LinkedHashMap<Integer, Object[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+                return size() > rowCacheSize;
+            }
+        };
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.fields.length;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     *
+     * @param columnIndex
+     *            The column index.
+     * @return The {@link Field} that is shown in the column with the given
+     *         index.
+     */
+    public Field getField(int columnIndex) {
+        return this.fields[columnIndex];
+    }
+
+    @Override
+    public Object getDataValue(int columnIndex, int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index: " + rowIndex + ", row count: " + this.rowCount); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        synchronized (this.rowCache) {
+            Object[] row = this.rowCache.get(rowIndex);
+            if (row == null) {
+                row = new Object[this.fields.length];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = NOT_DECODED;
+                }
+                this.rowCache.put(rowIndex, row);
+            }
+
+            Object value = row[columnIndex];
+            if (value == NOT_DECODED) {
+                int chunk = rowIndex / this.rowsPerChunk;
+                int offset = (rowIndex - chunk * this.rowsPerChunk) * this.recordLength + this.fieldOffsets[columnIndex];
+                value = decode(getChunk(chunk), offset, this.fields[columnIndex]);
+                row[columnIndex] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Not supported as the data provider is read only.
+     *
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+        throw new UnsupportedOperationException("MappedFileDataProvider is read only"); //$NON-NLS-1$
+    }
+
+    /**
+     * Decodes the value of a field.
+     *
+     * @param buffer
+     *            The buffer of the chunk that contains the record.
+     * @param offset
+     *            The offset of the field in the buffer.
+     * @param field
+     *            The field to decode.
+     * @return The decoded value.
+     */
+    protected Object decode(ByteBuffer buffer, int offset, Field field) {
+        switch (field.type) {
+            case BYTE:
+                return buffer.get(offset);
+            case SHORT:
+                return buffer.getShort(offset);
+            case INT:
+                return buffer.getInt(offset);
+            case LONG:
+                return buffer.getLong(offset);
+            case FLOAT:
+                return buffer.getFloat(offset);
+            case DOUBLE:
+                return buffer.getDouble(offset);
+            default:
+                byte[] bytes = new byte[field.length];
+                int length = 0;
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(offset + i);
+                    if (bytes[i] != 0 && bytes[i] != ' ') {
+                        length = i + 1;
+                    }
+                }
+                return new String(bytes, 0, length, this.charset);
+        }
+    }
+
+    private ByteBuffer getChunk(int chunk) {
+        MappedByteBuffer buffer = this.chunks[chunk];
+        if (buffer == null) {
+            long first = (long) chunk * this.rowsPerChunk;
+            long rows = Math.min(this.rowsPerChunk, this.rowCount - first);
+            try {
+                buffer = this.channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        this.headerLength + first * this.recordLength,
+                        rows * this.recordLength);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error on mapping the data file", e); //$NON-NLS-1$
+            }
+            buffer.order(this.byteOrder);
+            this.chunks[chunk] = buffer;
+        }
+        return buffer;
+    }
+
+    /**
+     * Clears the cache of decoded rows.
+     */
+    public void clearCache() {
+        synchronized (this.rowCache) {
+            this.rowCache.clear();
+        }
+    }
+
+    /**
+     * Closes the underlying file channel and releases the mapped buffers.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.rowCache) {
+            this.rowCache.clear();
+            for (int i = 0; i < this.chunks.length; i++) {
+                this.chunks[i] = null;
+            }
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.data;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowUpdateEvent;
+import org.eclipse.nebula.widgets.nattable.viewport.IViewportPrefetchListener;
+import org.eclipse.nebula.widgets.nattable.viewport.ViewportLayer;
+import org.eclipse.nebula.widgets.nattable.viewport.ViewportPrefetchHint;
+
+/**
+ * {@link IRowDataProvider} that loads the rows page wise in the background
+ * from an {@link IPagedDataSource}. The total row count is known upfront, so
+ * the table can be scrolled over all rows, but only the pages that are
+ * accessed are loaded.
+ * <p>
+ * If a row is requested that is not loaded yet, the page containing the row
+ * and the configured number of neighbour pages are requested and a placeholder
+ * is returned. Once a page is loaded, a {@link RowUpdateEvent} is fired on the
+ * configured layer so the rows are repainted. The loaded pages are kept in an
+ * LRU cache with a maximum number of pages. The maximum number of pages needs
+ * to cover the rows of the viewport, otherwise visible pages are evicted by
+ * other visible pages and loading never settles. It also needs to cover an
+ * accessed page together with its neighbour pages, so
+ * <code>maxPages &gt;= 2 * prefetchPages + 1</code> is required.
+ * </p>
+ * <p>
+ * Typically the layer that fires the update events is the DataLayer that uses
+ * this data provider, which needs to be set via {@link #setLayer(ILayer)}.
+ * Registered as {@link IViewportPrefetchListener} on the {@link ViewportLayer}
+ * the pages of the visible rows and the rows that are expected to become
+ * visible next are requested before they are painted.
+ * </p>
+ *
+ * @param <T>
+ *            type of the row objects
+ *
+ * @since 2.0
+ */
+public class PagedDataProvider<T> implements IRowDataProvider<T>, IViewportPrefetchListener {
+
+    private static final Log LOG = LogFactory.getLog(PagedDataProvider.class);
+
+    /** The default value that is returned for rows that are not loaded yet. */
+    public static final String LOADING_PLACEHOLDER = "..."; //$NON-NLS-1$
+
+    private final IPagedDataSource<T> dataSource;
+    private final IColumnAccessor<T> columnAccessor;
+    private final int pageSize;
+    private final int maxPages;
+    private final Executor executor;
+    private final boolean ownExecutor;
+
+    /** The loaded pages in access order, guarded by this. */
+    private final Map<Integer, List<T>> pages;
+    /** The pages that are currently loaded, guarded by this. */
+    private final Set<Integer> pendingPages = new HashSet<Integer>();
+    /** Incremented on refresh to discard pages of outdated requests. */
+    private int generation;
+
+    private volatile int rowCount;
+    private volatile ILayer layer;
+    private volatile Object placeholder = LOADING_PLACEHOLDER;
+    private volatile int prefetchPages = 1;
+
+    /**
+     * Creates a {@link PagedDataProvider} that loads the pages in a single
+     * background thread.
+     *
+     * @param dataSource
+     *            The backend to load the rows from.
+     * @param columnAccessor
+     *            The accessor to get the column values of a row object.
+     * @param pageSize
+     *            The number of rows in a page.
+     * @param maxPages
+     *            The maximum number of pages that are kept in memory. Needs to
+     *            cover the rows of the viewport and at least 3 pages for the
+     *            default of one neighbour page to prefetch.
+     * @throws IllegalArgumentException
+     *             if maxPages is less than <code>2 * prefetchPages + 1</code>.
+     */
+    public PagedDataProvider(IPagedDataSource<T> dataSource, IColumnAccessor<T> columnAccessor,
+            int pageSize, int maxPages) {
+        this(dataSource, columnAccessor, pageSize, maxPages, Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "PagedDataProvider"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), true);
+    }
+
+    /**
+     *
+     * @param dataSource
+     *            The backend to load the rows from.
+     * @param columnAccessor
+     *            The accessor to get the column values of a row object.
+     * @param pageSize
+     *            The number of rows in a page.
+     * @param maxPages
+     *            The maximum number of pages that are kept in memory. Needs to
+     *            cover the rows of the viewport and at least 3 pages for the
+     *            default of one neighbour page to prefetch.
+     * @param executor
+     *            The executor that is used to load the pages.
+     * @throws IllegalArgumentException
+     *             if maxPages is less than <code>2 * prefetchPages + 1</code>.
+     */
+    public PagedDataProvider(IPagedDataSource<T> dataSource, IColumnAccessor<T> columnAccessor,
+            int pageSize, int maxPages, Executor executor) {
+        this(dataSource, columnAccessor, pageSize, maxPages, executor, false);
+    }
+
+    private PagedDataProvider(IPagedDataSource<T> dataSource, IColumnAccessor<T> columnAccessor,
+            int pageSize, final int maxPages, Executor executor, boolean ownExecutor) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("pageSize and maxPages must be greater than 0"); //$NON-NLS-1$
+        }
+        checkPrefetchPages(maxPages, this.prefetchPages);
+        this.dataSource = dataSource;
+        this.columnAccessor = columnAccessor;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.rowCount = dataSource.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.columnAccessor.getColumnCount();
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the value of the given cell, or the placeholder if the row is
+     * not loaded yet. Accessing a row that is not loaded triggers loading the
+     * corresponding page.
+     */
+    @Override
+    public Object getDataValue(int columnIndex, int rowIndex) {
+        T rowObject = getRowObject(rowIndex);
+        if (rowObject == null) {
+            return isRowLoaded(rowIndex) ? null : this.placeholder;
+        }
+        return this.columnAccessor.getDataValue(rowObject, columnIndex);
+    }
+
+    /**
+     * Sets the value of the given cell. Values of rows that are not loaded are
+     * ignored.
+     */
+    @Override
+    public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
+        T rowObject = getRowObject(rowIndex);
+        if (rowObject != null) {
+            this.columnAccessor.setDataValue(rowObject, columnIndex, newValue);
+        }
+    }
+
+    /**
+     * Returns the row object at the given index, or <code>null</code> if the
+     * row is not loaded yet. Accessing a row that is not loaded triggers
+     * loading the corresponding page.
+     */
+    @Override
+    public T getRowObject(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= this.rowCount) {
+            return null;
+        }
+        int page = rowIndex / this.pageSize;
+        synchronized (this) {
+            List<T> rows = this.pages.get(page);
+            if (rows != null) {
+                int index = rowIndex - page * this.pageSize;
+                return index < rows.size() ? rows.get(index) : null;
+            }
+        }
+
+        int neighbours = this.prefetchPages;
+        int first = Math.max(0, page - neighbours);
+        int last = page + neighbours;
+        requestPage(page, false);
+        for (int p = first; p <= last; p++) {
+            if (p != page) {
+                requestPage(p, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches the row object in the loaded pages.
+     *
+     * @return The index of the row object or -1 if the row object is not
+     *         contained in a loaded page.
+     */
+    @Override
+    public synchronized int indexOfRowObject(T rowObject) {
+        for (Map.Entry<Integer, List<T>> entry : this.pages.entrySet()) {
+            int index = entry.getValue().indexOf(rowObject);
+            if (index >= 0) {
+                return entry.getKey() * this.pageSize + index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * @param rowIndex
+     *            The row index to check.
+     * @return <code>true</code> if the page containing the given row is
+     *         loaded.
+     */
+    public synchronized boolean isRowLoaded(int rowIndex) {
+        return this.pages.containsKey(rowIndex / this.pageSize);
+    }
+
+    /**
+     * Requests the pages that contain the rows in the given range, e.g. the
+     * rows that are about to become visible. The number of requested pages is
+     * limited to the maximum number of cached pages.
+     *
+     * @param fromRowIndex
+     *            The first row index, inclusive.
+     * @param toRowIndex
+     *            The last row index, exclusive.
+     */
+    public void prefetch(int fromRowIndex, int toRowIndex) {
+        int from = Math.max(0, fromRowIndex);
+        int to = Math.min(this.rowCount, toRowIndex);
+        if (from >= to) {
+            return;
+        }
+        int firstPage = from / this.pageSize;
+        int lastPage = Math.min((to - 1) / this.pageSize, firstPage + this.maxPages - 1);
+        for (int page = firstPage; page <= lastPage; page++) {
+            requestPage(page, false);
+        }
+    }
+
+    /**
+     * Requests the pages of the visible rows and the rows that are expected to
+     * become visible next. The number of requested pages is limited to the
+     * maximum number of cached pages.
+     */
+    @Override
+    public void handlePrefetchHint(ViewportPrefetchHint hint) {
+        Set<Integer> requested = new HashSet<Integer>();
+        requestPages(hint.getVisibleRowIndexes(), requested);
+        requestPages(hint.getNextRowIndexes(), requested);
+    }
+
+    private void requestPages(int[] rowIndexes, Set<Integer> requested) {
+        for (int rowIndex : rowIndexes) {
+            if (requested.size() >= this.maxPages) {
+                return;
+            }
+            if (rowIndex >= 0 && rowIndex < this.rowCount) {
+                int page = rowIndex / this.pageSize;
+                if (requested.add(page)) {
+                    requestPage(page, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Requests the given page if it is not loaded or loading yet.
+     *
+     * @param page
+     *            The page to request.
+     * @param neighbour
+     *            <code>true</code> if the page is only requested as neighbour
+     *            of an accessed page. Neighbour pages are not requested once
+     *            the cache is full, as they would evict pages that are
+     *            possibly visible.
+     */
+    private void requestPage(final int page, boolean neighbour) {
+        final int first = page * this.pageSize;
+        if (first >= this.rowCount) {
+            return;
+        }
+        final int count = Math.min(this.pageSize, this.rowCount - first);
+        final int requestGeneration;
+        synchronized (this) {
+            if (this.pages.containsKey(page)
+                    || (neighbour && this.pages.size() + this.pendingPages.size() >= this.maxPages)
+                    || !this.pendingPages.add(page)) {
+                return;
+            }
+            requestGeneration = this.generation;
+        }
+
+        this.executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<T> rows = null;
+                try {
+                    rows = PagedDataProvider.this.dataSource.loadRows(first, count);
+                } catch (Exception e) {
+                    LOG.error("Error on loading rows " + first + " - " + (first + count), e); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+
+                synchronized (PagedDataProvider.this) {
+                    if (requestGeneration != PagedDataProvider.this.generation) {
+                        return;
+                    }
+                    PagedDataProvider.this.pendingPages.remove(page);
+                    if (rows == null) {
+                        return;
+                    }
+                    PagedDataProvider.this.pages.put(page, rows);
+                }
+                pageLoaded(first, count);
+            }
+        });
+    }
+
+    /**
+     * Called from the loading thread after a page was loaded. Fires a
+     * {@link RowUpdateEvent} for the loaded rows on the configured layer. The
+     * event is fired in the loading thread, like other events that are
+     * triggered by background calculations. The NatTable collects such visual
+     * change events and repaints in the UI thread.
+     *
+     * @param firstRowIndex
+     *            The index of the first loaded row.
+     * @param count
+     *            The number of loaded rows.
+     */
+    protected void pageLoaded(int firstRowIndex, int count) {
+        ILayer eventLayer = this.layer;
+        if (eventLayer != null) {
+            eventLayer.fireLayerEvent(new RowUpdateEvent(eventLayer, new Range(firstRowIndex, firstRowIndex + count)));
+        }
+    }
+
+    /**
+     * Discards all loaded pages and reads the row count from the data source
+     * again. Pages that are currently loading are discarded once they arrive.
+     */
+    public void refresh() {
+        synchronized (this) {
+            this.generation++;
+            this.pages.clear();
+            this.pendingPages.clear();
+        }
+        this.rowCount = this.dataSource.getRowCount();
+    }
+
+    /**
+     *
+     * @param layer
+     *            The layer on which {@link RowUpdateEvent}s are fired when
+     *            pages are loaded. Typically the DataLayer that uses this data
+     *            provider.
+     */
+    public void setLayer(ILayer layer) {
+        this.layer = layer;
+    }
+
+    /**
+     *
+     * @param placeholder
+     *            The value that is returned by
+     *            {@link #getDataValue(int, int)} for rows that are not loaded
+     *            yet.
+     */
+    public void setPlaceholder(Object placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    /**
+     *
+     * @param prefetchPages
+     *            The number of pages before and after an accessed page that
+     *            are requested together with the page. Default is 1.
+     * @throws IllegalArgumentException
+     *             if the maximum number of pages is less than
+     *             <code>2 * prefetchPages + 1</code>.
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        int pages = Math.max(0, prefetchPages);
+        checkPrefetchPages(this.maxPages, pages);
+        this.prefetchPages = pages;
+    }
+
+    private static void checkPrefetchPages(int maxPages, int prefetchPages) {
+        if (maxPages < 2L * prefetchPages + 1) {
+            throw new IllegalArgumentException("maxPages " + maxPages //$NON-NLS-1$
+                    + " can not hold an accessed page and " + prefetchPages //$NON-NLS-1$
+                    + " neighbour pages on each side"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     *
+     * @return The number of rows in a page.
+     */
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Shuts down the loading thread if it was created by this data provider.
+     */
+    public void dispose() {
+        if (this.ownExecutor) {
+            ((ExecutorService) this.executor).shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.nebula.widgets.nattable.Messages;
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+import org.eclipse.nebula.widgets.nattable.formula.function.AbstractFunction;
+import org.eclipse.nebula.widgets.nattable.formula.function.FunctionValue;
+import org.eclipse.nebula.widgets.nattable.formula.function.MultipleValueFunctionValue;
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction;
+
+/**
+ * Immutable compiled representation of a formula string. The formula string
+ * is tokenized and the operator precedence is resolved only once on
+ * compilation. Cell and range references are kept as index coordinates and
+ * are resolved against the current data on every evaluation, so a
+ * {@link CompiledFormula} can be evaluated multiple times without parsing the
+ * formula string again.
+ * <p>
+ * Instances are created and cached by the {@link FormulaParser}.
+ * </p>
+ *
+ * @see FormulaParser#getCompiledFormula(String)
+ *
+ * @since 2.0
+ */
+public final class CompiledFormula {
+
+    private final String formula;
+    private final Node root;
+
+    /**
+     *
+     * @param formula
+     *            The formula string that was compiled.
+     * @param parsed
+     *            The result of parsing the formula string in compile mode,
+     *            containing unresolved reference nodes. Can be
+     *            <code>null</code> for an empty formula.
+     */
+    CompiledFormula(String formula, FunctionValue parsed) {
+        this.formula = formula;
+        this.root = toNode(parsed);
+    }
+
+    /**
+     *
+     * @return The formula string that was compiled.
+     */
+    public String getFormula() {
+        return this.formula;
+    }
+
+    /**
+     * Evaluates the compiled formula against the current data of the given
+     * {@link FormulaParser}.
+     *
+     * @param parser
+     *            The {@link FormulaParser} that is used to resolve references.
+     * @param parsedReferences
+     *            The references that where parsed already together with their
+     *            references if any. Needed for cycle detection.
+     * @param referer
+     *            The coordinate of the cell that contains the formula. Needed
+     *            for cycle detection.
+     * @return The {@link FunctionValue} that represents the calculation result
+     *         of the formula.
+     */
+    FunctionValue evaluate(FormulaParser parser,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+        return this.root != null ? this.root.evaluate(parser, parsedReferences, referer) : null;
+    }
+
+    @Override
+    public String toString() {
+        return this.formula;
+    }
+
+    private static Node toNode(FunctionValue value) {
+        if (value == null || value instanceof Node) {
+            return (Node) value;
+        } else if (value instanceof AbstractFunction) {
+            List<FunctionValue> values = ((AbstractFunction) value).getFunctionValues();
+            Node[] children = new Node[values.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = toNode(values.get(i));
+            }
+            return new FunctionNode(getConstructor(((AbstractFunction) value).getClass()), children);
+        }
+        // constant values are immutable and can be shared between evaluations
+        return new ConstantNode(value);
+    }
+
+    private static Constructor<? extends AbstractFunction> getConstructor(Class<? extends AbstractFunction> type) {
+        try {
+            return type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Node of the compiled expression tree.
+     */
+    abstract static class Node {
+
+        abstract FunctionValue evaluate(FormulaParser parser,
+                Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer);
+    }
+
+    /**
+     * Node for a constant number or string value.
+     */
+    static final class ConstantNode extends Node {
+
+        private final FunctionValue value;
+
+        ConstantNode(FunctionValue value) {
+            this.value = value;
+        }
+
+        @Override
+        FunctionValue evaluate(FormulaParser parser,
+                Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+            return this.value;
+        }
+    }
+
+    /**
+     * Node for a function or an operator. A new function instance is created
+     * on every evaluation, as functions collect the values to process. The
+     * constructor is looked up once on compilation.
+     */
+    static final class FunctionNode extends Node {
+
+        private final Constructor<? extends AbstractFunction> constructor;
+        private final Node[] children;
+
+        FunctionNode(Constructor<? extends AbstractFunction> constructor, Node[] children) {
+            this.constructor = constructor;
+            this.children = children;
+        }
+
+        @Override
+        FunctionValue evaluate(FormulaParser parser,
+                Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+            AbstractFunction function = newFunction();
+            for (Node child : this.children) {
+                if (child instanceof RangeNode
+                        && function instanceof RangeAggregationFunction
+                        && parser.getRangeAggregationMode() != RangeAggregationMode.DISABLED) {
+                    function.addFunctionValue(parser.aggregateRange(
+                            (RangeNode) child,
+                            ((RangeAggregationFunction) function).getRangeAggregation(),
+                            parsedReferences,
+                            referer));
+                } else {
+                    function.addFunctionValue(child.evaluate(parser, parsedReferences, referer));
+                }
+            }
+            return function;
+        }
+
+        private AbstractFunction newFunction() {
+            try {
+                return this.constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+            } catch (InstantiationException e) {
+                throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Node for a single cell reference. Implements {@link FunctionValue} as it
+     * is used as an unresolved placeholder while the formula is compiled.
+     */
+    static final class ReferenceNode extends Node implements FunctionValue {
+
+        final int column;
+        final int row;
+
+        ReferenceNode(int column, int row) {
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        FunctionValue evaluate(FormulaParser parser,
+                Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+            return parser.getDataProviderValue(this.column, this.row, parsedReferences, referer);
+        }
+
+        /**
+         * The reference is only resolved on evaluation, therefore functions
+         * do not validate unresolved references while the formula is
+         * compiled.
+         */
+        @Override
+        public Object getValue() {
+            throw new IllegalStateException("Reference is not resolved"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Node for a cell range reference. Implements {@link FunctionValue} as it
+     * is used as an unresolved placeholder while the formula is compiled.
+     */
+    static final class RangeNode extends Node implements FunctionValue {
+
+        /**
+         * Marker for the end of a range that spans all rows or all columns
+         * that exist at evaluation time.
+         */
+        static final int ALL = -1;
+
+        final int fromColumn;
+        final int toColumn;
+        final int fromRow;
+        final int toRow;
+
+        RangeNode(int fromColumn, int toColumn, int fromRow, int toRow) {
+            this.fromColumn = fromColumn;
+            this.toColumn = toColumn;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        FunctionValue evaluate(FormulaParser parser,
+                Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+            MultipleValueFunctionValue multi = new MultipleValueFunctionValue();
+            parser.addRangeValues(this, multi.getValue(), parsedReferences, referer);
+            return multi;
+        }
+
+        /**
+         * The reference is only resolved on evaluation, therefore functions
+         * do not validate unresolved references while the formula is
+         * compiled.
+         */
+        @Override
+        public Object getValue() {
+            throw new IllegalStateException("Reference is not resolved"); //$NON-NLS-1$
+        }
+    }
+}
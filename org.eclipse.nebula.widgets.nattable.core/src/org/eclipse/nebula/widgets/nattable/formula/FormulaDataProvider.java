@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,10 +13,15 @@
 package org.eclipse.nebula.widgets.nattable.formula;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.nebula.widgets.nattable.command.DisposeCalculatedValueCacheCommandHandler;
 import org.eclipse.nebula.widgets.nattable.command.DisposeResourcesCommand;
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
 import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.edit.event.DataUpdateEvent;
 import org.eclipse.nebula.widgets.nattable.formula.command.DisableFormulaCachingCommand;
 import org.eclipse.nebula.widgets.nattable.formula.command.DisableFormulaCachingCommandHandler;
 import org.eclipse.nebula.widgets.nattable.formula.command.EnableFormulaCachingCommand;
@@ -25,6 +30,14 @@
 import org.eclipse.nebula.widgets.nattable.formula.function.FunctionException;
 import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
 import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.layer.ILayerListener;
+import org.eclipse.nebula.widgets.nattable.layer.event.CellVisualChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.PropertyUpdateEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowUpdateEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
 import org.eclipse.nebula.widgets.nattable.util.CalculatedValueCache;
 import org.eclipse.nebula.widgets.nattable.util.ICalculator;
 
@@ -40,6 +53,13 @@
  */
 public class FormulaDataProvider implements IDataProvider {
 
+    /**
+     * Number of recalculated formula cells up to which a
+     * {@link CellVisualChangeEvent} is fired per cell. For more cells a
+     * single {@link RowUpdateEvent} for the affected rows is fired.
+     */
+    private static final int MAX_CELL_UPDATE_EVENTS = 32;
+
     protected IDataProvider underlyingDataProvider;
     protected FormulaParser formulaParser;
 
@@ -51,6 +71,27 @@ public class FormulaDataProvider implements IDataProvider {
     private ILayer cacheLayer;
     private boolean cacheEnabled = false;
 
+    private FormulaDependencyGraph dependencyGraph;
+    private ILayer updateLayer;
+
+    /**
+     * {@link ILayerListener} that is registered on the layers set via
+     * {@link #configureCaching(ILayer)} and
+     * {@link #setIncrementalCalculationEnabled(boolean, ILayer)}. Clears the
+     * range aggregation cache of the {@link FormulaParser} on data and
+     * structural changes, as the prefix sums would be stale otherwise if the
+     * row count does not change.
+     */
+    private final ILayerListener rangeAggregationListener = new ILayerListener() {
+
+        @Override
+        public void handleLayerEvent(ILayerEvent event) {
+            if (isDataChange(event)) {
+                FormulaDataProvider.this.formulaParser.clearRangeAggregationCache();
+            }
+        }
+    };
+
     /**
      *
      * @param underlyingDataProvider
@@ -79,7 +120,14 @@ public FormulaDataProvider(IDataProvider underlyingDataProvider, FormulaParser p
     public Object getDataValue(final int columnIndex, final int rowIndex) {
         final Object underlying = this.underlyingDataProvider.getDataValue(columnIndex, rowIndex);
         if (this.formulaEvaluationEnabled && underlying != null && this.formulaParser.isFunction(underlying.toString())) {
-            if (this.cacheEnabled && this.valueCache != null) {
+            FormulaDependencyGraph graph = this.dependencyGraph;
+            if (graph != null) {
+                IndexCoordinate cell = new IndexCoordinate(columnIndex, rowIndex);
+                if (graph.hasResult(cell)) {
+                    return graph.getResult(cell);
+                }
+                return processFormula(underlying.toString(), columnIndex, rowIndex);
+            } else if (this.cacheEnabled && this.valueCache != null) {
                 return this.valueCache.getCalculatedValue(columnIndex, rowIndex, true, new ICalculator() {
 
                     @Override
@@ -114,6 +162,12 @@ protected Object processFormula(String formula, int columnIndex, int rowIndex) {
             if (this.errorReporter != null) {
                 this.errorReporter.clearFormulaError(columnIndex, rowIndex);
             }
+            FormulaDependencyGraph graph = this.dependencyGraph;
+            if (graph != null) {
+                Object result = this.formulaParser.parseFunction(formula, columnIndex, rowIndex).getValue();
+                graph.setResult(new IndexCoordinate(columnIndex, rowIndex), result);
+                return result;
+            }
             return this.formulaParser.parseFunction(formula).getValue();
         } catch (FunctionException e) {
             if (this.errorReporter != null) {
@@ -137,7 +191,9 @@ protected Object processFormula(String formula, int columnIndex, int rowIndex) {
      *            {@link DataLayer} to which this {@link FormulaDataProvider} is
      *            set. If this value is <code>null</code> formula result caching
      *            can not be enabled because the {@link CalculatedValueCache}
-     *            needs to operate on an {@link ILayer}.
+     *            needs to operate on an {@link ILayer}. Data and structural
+     *            change events fired on that layer also clear the range
+     *            aggregation cache of the {@link FormulaParser}.
      */
     public void configureCaching(ILayer layer) {
         if (this.cacheLayer != null) {
@@ -146,6 +202,7 @@ public void configureCaching(ILayer layer) {
             this.cacheLayer.unregisterCommandHandler(EnableFormulaCachingCommand.class);
         }
 
+        updateRangeAggregationListener(this.cacheLayer, layer, this.updateLayer);
         this.cacheLayer = layer;
 
         if (layer != null) {
@@ -187,6 +244,146 @@ public void setDataValue(int columnIndex, int rowIndex, Object newValue) {
             this.valueCache.clearCache();
         }
         this.underlyingDataProvider.setDataValue(columnIndex, rowIndex, newValue);
+        this.formulaParser.clearRangeAggregationCache();
+
+        if (this.dependencyGraph != null) {
+            fireFormulaUpdates(recalculateDependents(columnIndex, rowIndex));
+        }
+    }
+
+    /**
+     * Recalculates the formula cells that depend directly or transitively on
+     * the given cell, in topological order. Only has an effect if incremental
+     * calculation is enabled. Is called on
+     * {@link #setDataValue(int, int, Object)}, but needs to be called manually
+     * if the value of a cell is changed in the underlying data model directly.
+     *
+     * @param columnIndex
+     *            The column index of the changed cell.
+     * @param rowIndex
+     *            The row index of the changed cell.
+     * @return The dirty formula cells that were recalculated, not containing
+     *         the changed cell.
+     *
+     * @see #setIncrementalCalculationEnabled(boolean)
+     * @since 2.0
+     */
+    public List<IndexCoordinate> recalculateDependents(int columnIndex, int rowIndex) {
+        FormulaDependencyGraph graph = this.dependencyGraph;
+        if (graph == null) {
+            return Collections.emptyList();
+        }
+
+        IndexCoordinate cell = new IndexCoordinate(columnIndex, rowIndex);
+        List<IndexCoordinate> dirty = graph.invalidate(cell);
+        // the references of the changed cell are recorded again if it
+        // contains a formula
+        graph.setReferences(cell, null);
+
+        getDataValue(columnIndex, rowIndex);
+        for (IndexCoordinate dependent : dirty) {
+            getDataValue(dependent.columnIndex, dependent.rowIndex);
+        }
+        return dirty;
+    }
+
+    /**
+     * Fires events for the recalculated formula cells on the layer that was
+     * set via {@link #setIncrementalCalculationEnabled(boolean, ILayer)}, so
+     * only the affected cells are repainted.
+     *
+     * @param dirty
+     *            The recalculated formula cells.
+     */
+    private void fireFormulaUpdates(List<IndexCoordinate> dirty) {
+        ILayer layer = this.updateLayer;
+        if (layer == null || dirty.isEmpty()) {
+            return;
+        }
+
+        if (dirty.size() <= MAX_CELL_UPDATE_EVENTS) {
+            for (IndexCoordinate cell : dirty) {
+                layer.fireLayerEvent(new CellVisualChangeEvent(layer, cell.columnIndex, cell.rowIndex));
+            }
+        } else {
+            int first = Integer.MAX_VALUE;
+            int last = -1;
+            for (IndexCoordinate cell : dirty) {
+                first = Math.min(first, cell.rowIndex);
+                last = Math.max(last, cell.rowIndex);
+            }
+            layer.fireLayerEvent(new RowUpdateEvent(layer, new Range(first, last + 1)));
+        }
+    }
+
+    /**
+     * Moves the listener that clears the range aggregation cache from the
+     * previously configured layer to the new one. The listener is kept on a
+     * layer as long as it is still used for the other configuration.
+     *
+     * @param oldLayer
+     *            The previously configured layer, can be <code>null</code>.
+     * @param newLayer
+     *            The new layer, can be <code>null</code>.
+     * @param otherLayer
+     *            The layer of the other configuration, can be
+     *            <code>null</code>.
+     */
+    private void updateRangeAggregationListener(ILayer oldLayer, ILayer newLayer, ILayer otherLayer) {
+        if (oldLayer == newLayer) {
+            return;
+        }
+        if (oldLayer != null && oldLayer != otherLayer) {
+            oldLayer.removeLayerListener(this.rangeAggregationListener);
+        }
+        if (newLayer != null) {
+            newLayer.addLayerListener(this.rangeAggregationListener);
+        }
+    }
+
+    /**
+     * Checks if the given event indicates a change of the data or the
+     * structure. Only data update events and structural changes that are not
+     * caused by resizing are treated as data change. Plain
+     * {@link CellVisualChangeEvent}s that are fired by the
+     * {@link CalculatedValueCache} for calculated formula results and for
+     * incrementally recalculated formula cells, as well as selection events,
+     * are ignored. The {@link RowUpdateEvent} that is fired for many
+     * recalculated formula cells follows a
+     * {@link #setDataValue(int, int, Object)} which clears the range
+     * aggregation cache anyway.
+     *
+     * @param event
+     *            The event to check.
+     * @return <code>true</code> if the values of the data model might have
+     *         changed.
+     */
+    private static boolean isDataChange(ILayerEvent event) {
+        if (event instanceof IStructuralChangeEvent) {
+            IStructuralChangeEvent structuralEvent = (IStructuralChangeEvent) event;
+            Collection<StructuralDiff> rowDiffs = structuralEvent.getRowDiffs();
+            Collection<StructuralDiff> columnDiffs = structuralEvent.getColumnDiffs();
+            if (rowDiffs == null && columnDiffs == null) {
+                // refresh events without diffs
+                return true;
+            }
+            return hasStructuralChange(rowDiffs) || hasStructuralChange(columnDiffs);
+        }
+        return event instanceof DataUpdateEvent
+                || event instanceof PropertyUpdateEvent
+                || event instanceof RowUpdateEvent;
+    }
+
+    private static boolean hasStructuralChange(Collection<StructuralDiff> diffs) {
+        if (diffs != null) {
+            for (StructuralDiff diff : diffs) {
+                // CHANGE diffs are fired for resizing
+                if (diff.getDiffType() != DiffTypeEnum.CHANGE) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     @Override
@@ -236,6 +433,71 @@ public void setFormulaCachingEnabled(boolean enabled) {
         this.cacheEnabled = enabled;
     }
 
+    /**
+     * Enable/Disable incremental formula calculation. If enabled, the results
+     * of formulas are stored in a {@link FormulaDependencyGraph} together with
+     * the cells they reference. A formula is only calculated again if a cell
+     * it depends on directly or transitively is changed via
+     * {@link #setDataValue(int, int, Object)}, and referenced formula cells
+     * are not parsed again but their stored result is used.
+     * <p>
+     * If values are changed in the underlying data model directly,
+     * {@link #recalculateDependents(int, int)} needs to be called. On
+     * structural changes the {@link FormulaDependencyGraph} needs to be
+     * cleared.
+     * </p>
+     *
+     * @param enabled
+     *            <code>true</code> to enable incremental formula calculation,
+     *            <code>false</code> to disable it.
+     *
+     * @since 2.0
+     */
+    public void setIncrementalCalculationEnabled(boolean enabled) {
+        setIncrementalCalculationEnabled(enabled, this.updateLayer);
+    }
+
+    /**
+     * Enable/Disable incremental formula calculation.
+     *
+     * @param enabled
+     *            <code>true</code> to enable incremental formula calculation,
+     *            <code>false</code> to disable it.
+     * @param layer
+     *            The {@link ILayer} on which events for the recalculated
+     *            formula cells are fired, so only those cells are repainted.
+     *            Typically the {@link DataLayer} to which this
+     *            {@link FormulaDataProvider} is set. Can be <code>null</code>.
+     *            Data and structural change events fired on that layer also
+     *            clear the range aggregation cache of the
+     *            {@link FormulaParser}.
+     *
+     * @see #setIncrementalCalculationEnabled(boolean)
+     * @since 2.0
+     */
+    public void setIncrementalCalculationEnabled(boolean enabled, ILayer layer) {
+        updateRangeAggregationListener(this.updateLayer, layer, this.cacheLayer);
+        this.updateLayer = layer;
+        if (enabled && this.dependencyGraph == null) {
+            this.dependencyGraph = new FormulaDependencyGraph();
+        } else if (!enabled) {
+            this.dependencyGraph = null;
+        }
+        this.formulaParser.setDependencyGraph(this.dependencyGraph);
+    }
+
+    /**
+     *
+     * @return The {@link FormulaDependencyGraph} that is used for incremental
+     *         formula calculation or <code>null</code> if incremental
+     *         calculation is disabled.
+     *
+     * @since 2.0
+     */
+    public FormulaDependencyGraph getDependencyGraph() {
+        return this.dependencyGraph;
+    }
+
     /**
      * Register a new function that can be evaluated.
      *
@@ -283,4 +545,5 @@ public FormulaErrorReporter getErrorReporter() {
     public void setErrorReporter(FormulaErrorReporter errorReporter) {
         this.errorReporter = errorReporter;
     }
+
 }
@@ -0,0 +1,229 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+
+/**
+ * Dependency graph of formula cells together with the evaluated formula
+ * results. For every evaluated formula cell the cells it references directly
+ * are recorded, so on a change of a cell only the formulas that depend on it
+ * directly or transitively need to be recalculated, in topological order so a
+ * formula is calculated after all formulas it references.
+ * <p>
+ * The {@link FormulaParser} records the references while parsing and uses the
+ * stored results of referenced formula cells instead of parsing them again.
+ * </p>
+ * <p>
+ * The graph is based on cell indexes. On structural changes, e.g. inserting
+ * or deleting rows, the graph needs to be cleared via {@link #clear()}.
+ * </p>
+ *
+ * @see FormulaDataProvider#setIncrementalCalculationEnabled(boolean)
+ *
+ * @since 2.0
+ */
+public class FormulaDependencyGraph {
+
+    /** The cells that are referenced directly by a formula cell. */
+    private final Map<IndexCoordinate, Set<IndexCoordinate>> references = new HashMap<IndexCoordinate, Set<IndexCoordinate>>();
+
+    /** The formula cells that reference a cell directly. */
+    private final Map<IndexCoordinate, Set<IndexCoordinate>> dependents = new HashMap<IndexCoordinate, Set<IndexCoordinate>>();
+
+    /** The evaluated results of formula cells. */
+    private final Map<IndexCoordinate, Object> results = new HashMap<IndexCoordinate, Object>();
+
+    /**
+     * Records the cells that are referenced directly by the given cell and
+     * replaces the previously recorded references.
+     *
+     * @param cell
+     *            The coordinate of the formula cell.
+     * @param cellReferences
+     *            The coordinates of the cells that are referenced by the
+     *            formula. An empty collection removes the cell from the graph.
+     */
+    public synchronized void setReferences(IndexCoordinate cell, Collection<IndexCoordinate> cellReferences) {
+        Set<IndexCoordinate> old = this.references.remove(cell);
+        if (old != null) {
+            for (IndexCoordinate reference : old) {
+                Set<IndexCoordinate> referenceDependents = this.dependents.get(reference);
+                if (referenceDependents != null) {
+                    referenceDependents.remove(cell);
+                    if (referenceDependents.isEmpty()) {
+                        this.dependents.remove(reference);
+                    }
+                }
+            }
+        }
+
+        if (cellReferences != null && !cellReferences.isEmpty()) {
+            this.references.put(cell, new HashSet<IndexCoordinate>(cellReferences));
+            for (IndexCoordinate reference : cellReferences) {
+                Set<IndexCoordinate> referenceDependents = this.dependents.get(reference);
+                if (referenceDependents == null) {
+                    referenceDependents = new HashSet<IndexCoordinate>();
+                    this.dependents.put(reference, referenceDependents);
+                }
+                referenceDependents.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Records the references that were collected by the {@link FormulaParser}
+     * while parsing a formula. Cells whose result is stored were not parsed,
+     * so their previously recorded references are kept.
+     *
+     * @param parsedReferences
+     *            The parsed cells together with the cells they reference
+     *            directly.
+     */
+    synchronized void recordReferences(Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences) {
+        for (Map.Entry<IndexCoordinate, Set<IndexCoordinate>> entry : parsedReferences.entrySet()) {
+            if (!this.results.containsKey(entry.getKey())) {
+                setReferences(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     *
+     * @param cell
+     *            The coordinate of a formula cell.
+     * @return The cells that are referenced directly by the formula cell.
+     */
+    public synchronized Set<IndexCoordinate> getReferences(IndexCoordinate cell) {
+        Set<IndexCoordinate> result = this.references.get(cell);
+        return result != null ? new HashSet<IndexCoordinate>(result) : Collections.<IndexCoordinate> emptySet();
+    }
+
+    /**
+     * Returns the formula cells that depend directly or transitively on the
+     * given cell in topological order, so every cell in the list is after all
+     * cells it references.
+     *
+     * @param cell
+     *            The coordinate of the changed cell.
+     * @return The dependent formula cells in calculation order, not
+     *         containing the given cell.
+     */
+    public synchronized List<IndexCoordinate> getDependents(IndexCoordinate cell) {
+        // iterative depth first search, the reversed post order is the
+        // topological order
+        List<IndexCoordinate> postOrder = new ArrayList<IndexCoordinate>();
+        Set<IndexCoordinate> visited = new HashSet<IndexCoordinate>();
+        Deque<IndexCoordinate> path = new ArrayDeque<IndexCoordinate>();
+        Deque<Iterator<IndexCoordinate>> iterators = new ArrayDeque<Iterator<IndexCoordinate>>();
+
+        visited.add(cell);
+        path.push(cell);
+        iterators.push(getDirectDependents(cell).iterator());
+        while (!path.isEmpty()) {
+            Iterator<IndexCoordinate> it = iterators.peek();
+            if (it.hasNext()) {
+                IndexCoordinate next = it.next();
+                if (visited.add(next)) {
+                    path.push(next);
+                    iterators.push(getDirectDependents(next).iterator());
+                }
+            } else {
+                postOrder.add(path.pop());
+                iterators.pop();
+            }
+        }
+
+        // remove the start cell which is the last in post order
+        postOrder.remove(postOrder.size() - 1);
+        Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    private Set<IndexCoordinate> getDirectDependents(IndexCoordinate cell) {
+        Set<IndexCoordinate> result = this.dependents.get(cell);
+        return result != null ? result : Collections.<IndexCoordinate> emptySet();
+    }
+
+    /**
+     * Removes the stored results of the given cell and of all formula cells
+     * that depend on it.
+     *
+     * @param cell
+     *            The coordinate of the changed cell.
+     * @return The dependent formula cells in calculation order, not
+     *         containing the given cell.
+     */
+    public synchronized List<IndexCoordinate> invalidate(IndexCoordinate cell) {
+        List<IndexCoordinate> dirty = getDependents(cell);
+        this.results.remove(cell);
+        for (IndexCoordinate dependent : dirty) {
+            this.results.remove(dependent);
+        }
+        return dirty;
+    }
+
+    /**
+     *
+     * @param cell
+     *            The coordinate of a formula cell.
+     * @return <code>true</code> if a result is stored for the given cell.
+     */
+    public synchronized boolean hasResult(IndexCoordinate cell) {
+        return this.results.containsKey(cell);
+    }
+
+    /**
+     *
+     * @param cell
+     *            The coordinate of a formula cell.
+     * @return The stored result of the formula cell or <code>null</code> if
+     *         no result is stored.
+     */
+    public synchronized Object getResult(IndexCoordinate cell) {
+        return this.results.get(cell);
+    }
+
+    /**
+     * Stores the evaluated result of a formula cell.
+     *
+     * @param cell
+     *            The coordinate of the formula cell.
+     * @param result
+     *            The evaluated result.
+     */
+    public synchronized void setResult(IndexCoordinate cell, Object result) {
+        this.results.put(cell, result);
+    }
+
+    /**
+     * Removes all references and results.
+     */
+    public synchronized void clear() {
+        this.references.clear();
+        this.dependents.clear();
+        this.results.clear();
+    }
+}
@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015, 2018 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,6 +13,7 @@
 package org.eclipse.nebula.widgets.nattable.formula;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,12 +45,19 @@
 import org.eclipse.nebula.widgets.nattable.formula.function.PowerFunction;
 import org.eclipse.nebula.widgets.nattable.formula.function.ProductFunction;
 import org.eclipse.nebula.widgets.nattable.formula.function.QuotientFunction;
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction;
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction.Aggregation;
 import org.eclipse.nebula.widgets.nattable.formula.function.SquareRootFunction;
 import org.eclipse.nebula.widgets.nattable.formula.function.StringFunctionValue;
 import org.eclipse.nebula.widgets.nattable.formula.function.SumFunction;
 
 /**
  * Parser that is able to parse a formula string and calculate the result.
+ * <p>
+ * Formula strings are compiled once to a {@link CompiledFormula} whose
+ * references are resolved on every evaluation. The compiled formulas are kept
+ * in a least recently used cache keyed by the formula string.
+ * </p>
  *
  * @since 1.4
  */
@@ -67,6 +75,13 @@ public class FormulaParser {
     public static final String rowRangeRegex = digitRegex + ":" + digitRegex; //$NON-NLS-1$
     public static final String rangeRegex = "(" + referenceRangeRegex + "|" + columnRangeRegex + "|" + rowRangeRegex + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 
+    /**
+     * The default maximum number of compiled formulas that are cached.
+     *
+     * @since 2.0
+     */
+    public static final int DEFAULT_COMPILED_FORMULA_CACHE_SIZE = 1000;
+
     protected DecimalFormat decimalFormat = (DecimalFormat) DecimalFormat.getInstance();
     protected String localizedDigitRegex;
 
@@ -79,6 +94,47 @@ public class FormulaParser {
 
     protected IDataProvider dataProvider;
 
+    /**
+     * The graph to record the references of parsed formulas and to retrieve
+     * the results of referenced formula cells. <code>null</code> if formula
+     * results are not tracked.
+     *
+     * @since 2.0
+     */
+    protected FormulaDependencyGraph dependencyGraph;
+
+    /**
+     * The maximum number of compiled formulas that are cached. The least
+     * recently used formulas are removed if the cache exceeds this size.
+     *
+     * @since 2.0
+     */
+    protected int compiledFormulaCacheSize = DEFAULT_COMPILED_FORMULA_CACHE_SIZE;
+
+    /**
+     * Cache of compiled formulas keyed by the formula string, ordered by
+     * access to support the removal of the least recently used formulas.
+     */
+    private final LinkedHashMap<String, CompiledFormula> compiledFormulas = new LinkedHashMap<String, CompiledFormula>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledFormula> eldest) {
+            return size() > FormulaParser.this.compiledFormulaCacheSize;
+        }
+    };
+
+    /**
+     * The mode for aggregating cell ranges that are passed to a
+     * {@link RangeAggregationFunction}.
+     *
+     * @since 2.0
+     */
+    protected RangeAggregationMode rangeAggregationMode = RangeAggregationMode.DISABLED;
+
+    private final RangeAggregator rangeAggregator = new RangeAggregator(this);
+
     /**
      * Creates and initializes a new {@link FormulaParser}.
      *
@@ -104,6 +160,7 @@ public FormulaParser(IDataProvider dataProvider) {
     public void registerFunction(String functionName, Class<? extends AbstractFunction> value) {
         this.functionMapping.put(functionName, value);
         updateFunctionRegex();
+        clearCompiledFormulaCache();
     }
 
     /**
@@ -161,7 +218,39 @@ protected void updateFunctionRegex() {
      *         of the parsed function string.
      */
     public FunctionValue parseFunction(String function) {
-        return parseFunction(function, new HashMap<Integer, FunctionValue>(), new LinkedHashMap<IndexCoordinate, Set<IndexCoordinate>>(), null);
+        return getCompiledFormula(function).evaluate(this, new LinkedHashMap<IndexCoordinate, Set<IndexCoordinate>>(), null);
+    }
+
+    /**
+     * Parses the given function string of a cell to a {@link FunctionValue}
+     * to perform calculation. If a {@link FormulaDependencyGraph} is set, the
+     * references of the parsed formulas are recorded in the graph and the
+     * stored results of referenced formula cells are used instead of parsing
+     * them again.
+     *
+     * @param function
+     *            The function string to parse.
+     * @param columnIndex
+     *            The column index of the cell that contains the function.
+     * @param rowIndex
+     *            The row index of the cell that contains the function.
+     * @return The {@link FunctionValue} that represents the calculation result
+     *         of the parsed function string.
+     *
+     * @since 2.0
+     */
+    public FunctionValue parseFunction(String function, int columnIndex, int rowIndex) {
+        IndexCoordinate cell = new IndexCoordinate(columnIndex, rowIndex);
+        Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences = new LinkedHashMap<IndexCoordinate, Set<IndexCoordinate>>();
+        parsedReferences.put(cell, new HashSet<IndexCoordinate>());
+
+        FunctionValue result = getCompiledFormula(function).evaluate(this, parsedReferences, cell);
+
+        FormulaDependencyGraph graph = this.dependencyGraph;
+        if (graph != null) {
+            graph.recordReferences(parsedReferences);
+        }
+        return result;
     }
 
     /**
@@ -187,7 +276,9 @@ protected FunctionValue parseFunction(String function,
 
     /**
      * Parses the given function string to a {@link FunctionValue} to perform
-     * calculation.
+     * calculation. If <code>parsedReferences</code> is <code>null</code>, the
+     * function string is parsed in compile mode, which means references are
+     * not resolved but added as placeholders for a {@link CompiledFormula}.
      *
      * @param function
      *            The function string to parse.
@@ -197,6 +288,7 @@ protected FunctionValue parseFunction(String function,
      * @param parsedReferences
      *            The references that where parsed already together with their
      *            references if any. Needed for cycle detection.
+     *            <code>null</code> to parse in compile mode.
      * @param referer
      *            The coordinate of the cell that refers to the value to add.
      *            Needed for cycle detection.
@@ -232,57 +324,21 @@ protected FunctionValue parseFunction(String function, Map<Integer, FunctionValu
                     values.add(new PowerFunction());
                 }
             } else if (part.matches(rangeRegex)) {
-                MultipleValueFunctionValue multi = new MultipleValueFunctionValue();
-                String[] parts = part.split(":"); //$NON-NLS-1$
-                if (part.matches(referenceRangeRegex)) {
-                    int[] from = evaluateReference(parts[0]);
-                    int[] to = evaluateReference(parts[1]);
-
-                    int fromColumn = Math.min(from[0], to[0]);
-                    int toColumn = Math.max(from[0], to[0]);
-                    int fromRow = Math.min(from[1], to[1]);
-                    int toRow = Math.max(from[1], to[1]);
-
-                    for (int row = fromRow; row <= toRow; row++) {
-                        for (int column = fromColumn; column <= toColumn; column++) {
-                            addDataProviderValue(column, row, multi.getValue(), parsedReferences, referer);
-                        }
-                    }
-                } else if (part.matches(rowRangeRegex)) {
-                    int from = Integer.valueOf(parts[0]) - 1;
-                    int to = Integer.valueOf(parts[1]) - 1;
-
-                    if (from > to) {
-                        int tmp = to;
-                        to = from;
-                        from = tmp;
-                    }
-
-                    for (int row = from; row <= to; row++) {
-                        for (int column = 0; column < getUnderlyingColumnCount(); column++) {
-                            addDataProviderValue(column, row, multi.getValue(), parsedReferences, referer);
-                        }
-                    }
-                } else if (part.matches(columnRangeRegex)) {
-                    int from = getColumnIndex(parts[0]);
-                    int to = getColumnIndex(parts[1]);
-
-                    if (from > to) {
-                        int tmp = to;
-                        to = from;
-                        from = tmp;
-                    }
-
-                    for (int column = from; column <= to; column++) {
-                        for (int row = 0; row < getUnderlyingRowCount(); row++) {
-                            addDataProviderValue(column, row, multi.getValue(), parsedReferences, referer);
-                        }
-                    }
+                CompiledFormula.RangeNode range = parseRange(part);
+                if (parsedReferences == null) {
+                    values.add(range);
+                } else {
+                    MultipleValueFunctionValue multi = new MultipleValueFunctionValue();
+                    addRangeValues(range, multi.getValue(), parsedReferences, referer);
+                    values.add(multi);
                 }
-                values.add(multi);
             } else if (part.matches(referenceRegex)) {
                 int[] coords = evaluateReference(part);
-                addDataProviderValue(coords[0], coords[1], values, parsedReferences, referer);
+                if (parsedReferences == null) {
+                    values.add(new CompiledFormula.ReferenceNode(coords[0], coords[1]));
+                } else {
+                    addDataProviderValue(coords[0], coords[1], values, parsedReferences, referer);
+                }
             } else if (part.matches(placeholderRegex)) {
                 String number = part.substring(1, part.length() - 1);
                 try {
@@ -319,6 +375,174 @@ protected FunctionValue parseFunction(String function, Map<Integer, FunctionValu
         return combineFunctions(values);
     }
 
+    /**
+     * Returns the {@link CompiledFormula} for the given function string. The
+     * compiled formulas are cached, so a function string is only parsed once
+     * as long as it is not removed from the cache.
+     *
+     * @param function
+     *            The function string to compile.
+     * @return The {@link CompiledFormula} for the given function string.
+     *
+     * @since 2.0
+     */
+    protected CompiledFormula getCompiledFormula(String function) {
+        synchronized (this.compiledFormulas) {
+            CompiledFormula compiled = this.compiledFormulas.get(function);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        CompiledFormula compiled = new CompiledFormula(
+                function,
+                parseFunction(function, new HashMap<Integer, FunctionValue>(), null, null));
+
+        synchronized (this.compiledFormulas) {
+            if (this.compiledFormulaCacheSize > 0) {
+                this.compiledFormulas.put(function, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Removes all compiled formulas from the cache. Needs to be called if the
+     * parsing configuration is changed, e.g. by a subclass. Registering a
+     * function or setting the {@link DecimalFormat} clears the cache
+     * automatically.
+     *
+     * @since 2.0
+     */
+    public void clearCompiledFormulaCache() {
+        synchronized (this.compiledFormulas) {
+            this.compiledFormulas.clear();
+        }
+    }
+
+    /**
+     * Set the maximum number of compiled formulas that are cached. The least
+     * recently used formulas are removed if the cache exceeds this size.
+     *
+     * @param size
+     *            The maximum number of cached compiled formulas. 0 disables
+     *            the caching.
+     *
+     * @see #DEFAULT_COMPILED_FORMULA_CACHE_SIZE
+     *
+     * @since 2.0
+     */
+    public void setCompiledFormulaCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative"); //$NON-NLS-1$
+        }
+        synchronized (this.compiledFormulas) {
+            this.compiledFormulaCacheSize = size;
+            Iterator<String> it = this.compiledFormulas.keySet().iterator();
+            while (this.compiledFormulas.size() > size && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return The mode for aggregating cell ranges that are passed to a
+     *         {@link RangeAggregationFunction}.
+     *
+     * @since 2.0
+     */
+    public RangeAggregationMode getRangeAggregationMode() {
+        return this.rangeAggregationMode;
+    }
+
+    /**
+     * Set the mode for aggregating cell ranges that are passed to a
+     * {@link RangeAggregationFunction} like <code>SUM</code>,
+     * <code>AVERAGE</code> or <code>PRODUCT</code>. By default range
+     * aggregation is disabled and every cell of a range is added as single
+     * value to the function.
+     * <p>
+     * If enabled, the Number values of a range are accumulated directly out of
+     * the underlying data model. Note that in this case the values are not
+     * converted via the {@link DecimalFormat} of this parser. If the sum of a
+     * column is requested repeatedly, e.g. by running totals, prefix sums are
+     * built for that column. They are dropped if the row count changes or
+     * {@link #clearRangeAggregationCache()} is called. This is done by the
+     * {@link FormulaDataProvider} on
+     * {@link FormulaDataProvider#setDataValue(int, int, Object)} and on data
+     * and structural change events of the layer it is connected to via
+     * {@link FormulaDataProvider#configureCaching(org.eclipse.nebula.widgets.nattable.layer.ILayer)}.
+     * On any other data change it needs to be called manually.
+     * </p>
+     *
+     * @param mode
+     *            The {@link RangeAggregationMode} to use.
+     *
+     * @since 2.0
+     */
+    public void setRangeAggregationMode(RangeAggregationMode mode) {
+        this.rangeAggregationMode = (mode != null) ? mode : RangeAggregationMode.DISABLED;
+        clearRangeAggregationCache();
+    }
+
+    /**
+     * Removes the prefix sums that are cached for the range aggregation.
+     *
+     * @see #setRangeAggregationMode(RangeAggregationMode)
+     *
+     * @since 2.0
+     */
+    public void clearRangeAggregationCache() {
+        this.rangeAggregator.clear();
+    }
+
+    /**
+     * Aggregates the values of the given range for a
+     * {@link RangeAggregationFunction}.
+     *
+     * @param range
+     *            The range to aggregate.
+     * @param aggregation
+     *            The aggregation to apply.
+     * @param parsedReferences
+     *            The references that where parsed already together with their
+     *            references if any. Needed for cycle detection.
+     * @param referer
+     *            The coordinate of the cell that refers to the range. Needed
+     *            for cycle detection.
+     * @return The aggregated values of the range.
+     */
+    FunctionValue aggregateRange(CompiledFormula.RangeNode range, Aggregation aggregation,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+        return this.rangeAggregator.aggregate(
+                range,
+                aggregation,
+                this.rangeAggregationMode == RangeAggregationMode.BIG_DECIMAL,
+                parsedReferences,
+                referer);
+    }
+
+    /**
+     * Creates a new instance of the given function type.
+     *
+     * @param functionClass
+     *            The type of {@link AbstractFunction} to create.
+     * @return A new instance of the given function type.
+     *
+     * @since 2.0
+     */
+    protected AbstractFunction createFunction(Class<? extends AbstractFunction> functionClass) {
+        try {
+            return functionClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
+        }
+    }
+
     /**
      * Process parts of a function that represent a function by name. Replaces
      * the function result with placeholders whose representations are put in
@@ -387,14 +611,7 @@ protected String processFunctions(String function, Map<Integer, FunctionValue> r
                 throw new IllegalArgumentException("No function '" + functionName + "' registered"); //$NON-NLS-1$ //$NON-NLS-2$
             }
 
-            AbstractFunction fv = null;
-            try {
-                fv = functionClass.newInstance();
-            } catch (InstantiationException e) {
-                throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
-            } catch (IllegalAccessException e) {
-                throw new IllegalArgumentException(Messages.getString("FormulaParser.error.instantiation", e.getLocalizedMessage()), e); //$NON-NLS-1$
-            }
+            AbstractFunction fv = createFunction(functionClass);
 
             // process parameter
             Map<Integer, FunctionValue> nestedReplacements = new HashMap<Integer, FunctionValue>();
@@ -402,7 +619,7 @@ protected String processFunctions(String function, Map<Integer, FunctionValue> r
             String[] parameter = parameterString.split(";"); //$NON-NLS-1$
 
             for (String param : parameter) {
-                fv.addFunctionValue(parseFunction(param, nestedReplacements, parsedReferences, referer));
+                addFunctionValue(fv, parseFunction(param, nestedReplacements, parsedReferences, referer));
             }
 
             // replace function with placeholder
@@ -419,6 +636,46 @@ protected String processFunctions(String function, Map<Integer, FunctionValue> r
         return result.toString();
     }
 
+    /**
+     * Adds the given value to the given function. If the value contains
+     * references of a formula that is compiled, it is added without the
+     * validation of the function, as the references are not resolved yet. The
+     * value is validated on evaluation, where it is added to a new instance of
+     * the function.
+     *
+     * @param function
+     *            The function to add the value to.
+     * @param value
+     *            The value to add.
+     */
+    private static void addFunctionValue(OperatorFunctionValue function, FunctionValue value) {
+        if (function instanceof AbstractFunction && isUnresolved(value)) {
+            ((AbstractFunction) function).addUnresolvedFunctionValue(value);
+        } else {
+            function.addFunctionValue(value);
+        }
+    }
+
+    /**
+     *
+     * @param value
+     *            The value to check.
+     * @return <code>true</code> if the given value is or contains a reference
+     *         that is not resolved yet.
+     */
+    private static boolean isUnresolved(FunctionValue value) {
+        if (value instanceof CompiledFormula.Node) {
+            return true;
+        } else if (value instanceof AbstractFunction) {
+            for (FunctionValue v : ((AbstractFunction) value).getFunctionValues()) {
+                if (isUnresolved(v)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Process parts of a function that are combined in parenthesis. Replaces
      * the parenthesis with placeholders whose representations are put in the
@@ -506,13 +763,13 @@ protected List<FunctionValue> processPower(List<FunctionValue> values) {
 
                 // remove the last value that was added
                 FunctionValue previous = result.remove(result.size() - 1);
-                ((OperatorFunctionValue) v).addFunctionValue(previous);
+                addFunctionValue((OperatorFunctionValue) v, previous);
 
                 FunctionValue next = it.next();
                 if (next instanceof NegateFunction) {
-                    ((NegateFunction) next).addFunctionValue(it.next());
+                    addFunctionValue((NegateFunction) next, it.next());
                 }
-                ((OperatorFunctionValue) v).addFunctionValue(next);
+                addFunctionValue((OperatorFunctionValue) v, next);
 
                 operatorFound = true;
                 result.add(v);
@@ -548,13 +805,13 @@ protected List<FunctionValue> processMultiplicationAndDivision(List<FunctionValu
 
                 // remove the last value that was added
                 FunctionValue previous = result.remove(result.size() - 1);
-                ((OperatorFunctionValue) v).addFunctionValue(previous);
+                addFunctionValue((OperatorFunctionValue) v, previous);
 
                 FunctionValue next = it.next();
                 if (next instanceof NegateFunction) {
-                    ((NegateFunction) next).addFunctionValue(it.next());
+                    addFunctionValue((NegateFunction) next, it.next());
                 }
-                ((OperatorFunctionValue) v).addFunctionValue(next);
+                addFunctionValue((OperatorFunctionValue) v, next);
 
                 operatorFound = true;
                 result.add(v);
@@ -585,26 +842,26 @@ protected FunctionValue combineFunctions(List<FunctionValue> values) {
                 if (v instanceof AbstractSingleValueFunction
                         || v instanceof AbstractMathSingleValueFunction) {
                     i++;
-                    ((AbstractFunction) v).addFunctionValue(values.get(i));
+                    addFunctionValue((AbstractFunction) v, values.get(i));
                     if (result != null && v instanceof NegateFunction) {
                         SumFunction sum = new SumFunction();
-                        sum.addFunctionValue(result);
-                        sum.addFunctionValue(v);
+                        addFunctionValue(sum, result);
+                        addFunctionValue(sum, v);
                         result = sum;
                     } else {
                         result = v;
                     }
                 } else if (v instanceof OperatorFunctionValue) {
                     if (i > 0 && result == null) {
-                        ((OperatorFunctionValue) v).addFunctionValue(values.get(i - 1));
+                        addFunctionValue((OperatorFunctionValue) v, values.get(i - 1));
                     } else if (result != null) {
-                        ((OperatorFunctionValue) v).addFunctionValue(result);
+                        addFunctionValue((OperatorFunctionValue) v, result);
                     }
 
                     if (i > 0) {
                         i++;
                         if (i < values.size()) {
-                            ((OperatorFunctionValue) v).addFunctionValue(values.get(i));
+                            addFunctionValue((OperatorFunctionValue) v, values.get(i));
                         }
                     }
                     result = v;
@@ -617,6 +874,82 @@ protected FunctionValue combineFunctions(List<FunctionValue> values) {
         return result;
     }
 
+    /**
+     * Evaluates a range string to the index coordinates of the range.
+     *
+     * @param range
+     *            The range string to evaluate, e.g. A1:B3, 2:5 or C:E.
+     * @return The range node with the sorted index coordinates of the range.
+     */
+    CompiledFormula.RangeNode parseRange(String range) {
+        String[] parts = range.split(":"); //$NON-NLS-1$
+        if (range.matches(referenceRangeRegex)) {
+            int[] from = evaluateReference(parts[0]);
+            int[] to = evaluateReference(parts[1]);
+
+            return new CompiledFormula.RangeNode(
+                    Math.min(from[0], to[0]),
+                    Math.max(from[0], to[0]),
+                    Math.min(from[1], to[1]),
+                    Math.max(from[1], to[1]));
+        } else if (range.matches(rowRangeRegex)) {
+            int from = Integer.valueOf(parts[0]) - 1;
+            int to = Integer.valueOf(parts[1]) - 1;
+
+            return new CompiledFormula.RangeNode(
+                    0,
+                    CompiledFormula.RangeNode.ALL,
+                    Math.min(from, to),
+                    Math.max(from, to));
+        } else {
+            int from = getColumnIndex(parts[0]);
+            int to = getColumnIndex(parts[1]);
+
+            return new CompiledFormula.RangeNode(
+                    Math.min(from, to),
+                    Math.max(from, to),
+                    0,
+                    CompiledFormula.RangeNode.ALL);
+        }
+    }
+
+    /**
+     * Retrieves the values of the given range from the {@link IDataProvider}
+     * and adds them to the given list of {@link FunctionValue}s. Column ranges
+     * are added column by column, all other ranges row by row.
+     *
+     * @param range
+     *            The range whose values should be added.
+     * @param values
+     *            The list of {@link FunctionValue} to add the data provider
+     *            values to.
+     * @param parsedReferences
+     *            The references that where parsed already together with their
+     *            references if any. Needed for cycle detection.
+     * @param referer
+     *            The coordinate of the cell that refers to the values to add.
+     *            Needed for cycle detection.
+     */
+    void addRangeValues(CompiledFormula.RangeNode range, List<FunctionValue> values,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+
+        if (range.toRow == CompiledFormula.RangeNode.ALL) {
+            int rowCount = getUnderlyingRowCount();
+            for (int column = range.fromColumn; column <= range.toColumn; column++) {
+                for (int row = 0; row < rowCount; row++) {
+                    addDataProviderValue(column, row, values, parsedReferences, referer);
+                }
+            }
+        } else {
+            int toColumn = range.toColumn == CompiledFormula.RangeNode.ALL ? getUnderlyingColumnCount() - 1 : range.toColumn;
+            for (int row = range.fromRow; row <= range.toRow; row++) {
+                for (int column = range.fromColumn; column <= toColumn; column++) {
+                    addDataProviderValue(column, row, values, parsedReferences, referer);
+                }
+            }
+        }
+    }
+
     /**
      * Evaluates a reference string to cell coordinates.
      *
@@ -706,13 +1039,43 @@ protected String convertIndexToColumnString(int index) {
     protected void addDataProviderValue(int column, int row, List<FunctionValue> values,
             Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
 
-        Object value = getUnderlyingDataValue(column, row);
+        FunctionValue value = getDataProviderValue(column, row, parsedReferences, referer);
         if (value != null) {
-            String toParse = value.toString();
-            if (value instanceof Number) {
-                toParse = this.decimalFormat.format(value);
-            }
+            values.add(value);
+        }
+    }
+
+    /**
+     * Retrieves a value from the {@link IDataProvider} for the given
+     * coordinates and converts it to a {@link FunctionValue}. {@link Number}
+     * values are converted directly to a {@link BigDecimalFunctionValue}
+     * without parsing their String representation.
+     *
+     * @param column
+     *            The column index of the value.
+     * @param row
+     *            The row index of the value.
+     * @param parsedReferences
+     *            The references that where parsed already together with their
+     *            references if any. Needed for cycle detection.
+     * @param referer
+     *            The coordinate of the cell that refers to the value. Needed
+     *            for cycle detection.
+     * @return The {@link FunctionValue} for the data provider value, or
+     *         <code>null</code> if there is no value.
+     * @since 2.0
+     */
+    protected FunctionValue getDataProviderValue(int column, int row,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
 
+        Object value = getUnderlyingDataValue(column, row);
+        FormulaDependencyGraph graph = this.dependencyGraph;
+        if (value == null && graph != null && referer != null) {
+            // remember the reference to an empty cell, so the formula gets
+            // recalculated if a value is set to the cell
+            parsedReferences.get(referer).add(new IndexCoordinate(column, row));
+        }
+        if (value != null) {
             // avoid circular references
             IndexCoordinate ref = new IndexCoordinate(column, row);
             if (!parsedReferences.containsKey(ref)) {
@@ -726,11 +1089,36 @@ protected void addDataProviderValue(int column, int row, List<FunctionValue> val
                 throw new FunctionException("#REF!", Messages.getString("FormulaParser.error.circular")); //$NON-NLS-1$//$NON-NLS-2$
             }
 
-            FunctionValue parseResult = parseFunction(toParse, parsedReferences, ref);
-            if (parseResult != null) {
-                values.add(parseResult);
+            // use the stored result of a referenced formula cell
+            if (graph != null && graph.hasResult(ref)) {
+                value = graph.getResult(ref);
+                if (value instanceof BigDecimal) {
+                    return new BigDecimalFunctionValue((BigDecimal) value);
+                }
+                if (value == null) {
+                    return null;
+                }
+            }
+
+            if (value instanceof Number) {
+                BigDecimal converted = convertToBigDecimal((Number) value);
+                if (converted != null) {
+                    return new BigDecimalFunctionValue(converted);
+                }
             }
+
+            String toParse = value instanceof Number
+                    ? this.decimalFormat.format(value)
+                    : value.toString();
+
+            // referenced formulas are evaluated via the compiled formula
+            // cache, plain values are parsed directly to keep the cache for
+            // formulas
+            return isFunction(toParse)
+                    ? getCompiledFormula(toParse).evaluate(this, parsedReferences, ref)
+                    : parseFunction(toParse, parsedReferences, ref);
         }
+        return null;
     }
 
     /**
@@ -755,6 +1143,37 @@ protected void updateLocalizedDigitRegex() {
     public void setDecimalFormat(DecimalFormat format) {
         this.decimalFormat = format;
         updateLocalizedDigitRegex();
+        clearCompiledFormulaCache();
+    }
+
+    /**
+     *
+     * @return The {@link FormulaDependencyGraph} that is used to record the
+     *         references of parsed formulas and to retrieve the results of
+     *         referenced formula cells, or <code>null</code> if formula
+     *         results are not tracked.
+     *
+     * @since 2.0
+     */
+    public FormulaDependencyGraph getDependencyGraph() {
+        return this.dependencyGraph;
+    }
+
+    /**
+     * Set the {@link FormulaDependencyGraph} that should be used to record the
+     * references of parsed formulas and to retrieve the results of referenced
+     * formula cells.
+     *
+     * @param dependencyGraph
+     *            The {@link FormulaDependencyGraph} to use or
+     *            <code>null</code> to disable tracking.
+     *
+     * @see FormulaDataProvider#setIncrementalCalculationEnabled(boolean)
+     *
+     * @since 2.0
+     */
+    public void setDependencyGraph(FormulaDependencyGraph dependencyGraph) {
+        this.dependencyGraph = dependencyGraph;
     }
 
     /**
@@ -822,6 +1241,52 @@ public BigDecimal convertToBigDecimal(String value) {
         return new BigDecimal(value);
     }
 
+    /**
+     * Converts a given {@link Number} into a {@link BigDecimal}. The fraction
+     * digits are rounded the same way as the current set {@link DecimalFormat}
+     * would format the value, so the result is the same as parsing the
+     * formatted value, without the String conversion.
+     *
+     * @param value
+     *            The value to convert.
+     * @return The {@link BigDecimal} for the given value, or <code>null</code>
+     *         if the value is NaN or infinite.
+     * @since 2.0
+     */
+    public BigDecimal convertToBigDecimal(Number value) {
+        BigDecimal result;
+        if (value instanceof BigDecimal) {
+            result = (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            result = new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long
+                || value instanceof Integer
+                || value instanceof Short
+                || value instanceof Byte) {
+            result = BigDecimal.valueOf(value.longValue());
+        } else {
+            double doubleValue = value.doubleValue();
+            if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                return null;
+            }
+            result = BigDecimal.valueOf(doubleValue);
+        }
+
+        int maxFractionDigits = this.decimalFormat.getMaximumFractionDigits();
+        if (result.scale() > maxFractionDigits) {
+            result = result.setScale(maxFractionDigits, this.decimalFormat.getRoundingMode());
+        }
+        // trailing zeros are only formatted up to the minimum fraction digits
+        int minScale = Math.max(0, this.decimalFormat.getMinimumFractionDigits());
+        if (result.scale() > minScale) {
+            result = result.stripTrailingZeros();
+        }
+        if (result.scale() < minScale) {
+            result = result.setScale(minScale);
+        }
+        return result;
+    }
+
     /**
      * @return The column count of the underlying data model. The base
      *         implementation uses the underlying {@link IDataProvider}.
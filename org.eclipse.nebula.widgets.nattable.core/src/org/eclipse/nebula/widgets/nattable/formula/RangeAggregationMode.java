@@ -0,0 +1,44 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction;
+
+/**
+ * The modes for aggregating cell ranges that are passed to a
+ * {@link RangeAggregationFunction}, e.g. <code>SUM(A1:A1000)</code>.
+ *
+ * @see FormulaParser#setRangeAggregationMode(RangeAggregationMode)
+ *
+ * @since 2.0
+ */
+public enum RangeAggregationMode {
+
+    /**
+     * Every cell of a range is added as single value to the function.
+     */
+    DISABLED,
+
+    /**
+     * The Number values of a range are aggregated directly out of the data
+     * model using double arithmetic. Fastest mode, but the result is affected
+     * by floating point rounding.
+     */
+    DOUBLE,
+
+    /**
+     * The Number values of a range are aggregated directly out of the data
+     * model using {@link java.math.BigDecimal} arithmetic.
+     */
+    BIG_DECIMAL
+}
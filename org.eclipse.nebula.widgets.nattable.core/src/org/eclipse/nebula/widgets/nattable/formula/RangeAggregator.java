@@ -0,0 +1,346 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.IndexCoordinate;
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.IPrimitiveDataProvider;
+import org.eclipse.nebula.widgets.nattable.formula.function.AggregatedFunctionValue;
+import org.eclipse.nebula.widgets.nattable.formula.function.FunctionValue;
+import org.eclipse.nebula.widgets.nattable.formula.function.MultipleValueFunctionValue;
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction;
+import org.eclipse.nebula.widgets.nattable.formula.function.RangeAggregationFunction.Aggregation;
+
+/**
+ * Aggregates the values of cell ranges for {@link RangeAggregationFunction}s
+ * directly out of the data model. Number values are accumulated without
+ * creating a {@link FunctionValue} per cell, all other values are evaluated
+ * like single cell references.
+ * <p>
+ * If the sum of a column is requested repeatedly, e.g. by running totals,
+ * prefix sums are built for that column, so the sum of any row range of the
+ * column is calculated in constant time. The prefix sums are only used for
+ * columns that contain Number values only, and are dropped via
+ * {@link #clear()} or if the row count changes. As changed values do not
+ * change the row count, {@link #clear()} needs to be called on every data
+ * change, which is done by the {@link FormulaDataProvider} on data and
+ * structural change events.
+ * </p>
+ */
+final class RangeAggregator {
+
+    /** Number of sum aggregations of a column after which prefix sums are built. */
+    private static final int PREFIX_SUM_THRESHOLD = 2;
+
+    private final FormulaParser parser;
+
+    /** The prefix sums per column index. */
+    private final Map<Integer, PrefixSums> prefixSums = new HashMap<Integer, PrefixSums>();
+
+    /** The number of sum aggregations per column without prefix sums. */
+    private final Map<Integer, Integer> sumRequests = new HashMap<Integer, Integer>();
+
+    RangeAggregator(FormulaParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Aggregates the values of the given range.
+     *
+     * @param range
+     *            The range to aggregate.
+     * @param aggregation
+     *            The aggregation to apply.
+     * @param precise
+     *            <code>true</code> to aggregate via {@link BigDecimal},
+     *            <code>false</code> to aggregate via double.
+     * @param parsedReferences
+     *            The references that where parsed already together with their
+     *            references if any. Needed for cycle detection.
+     * @param referer
+     *            The coordinate of the cell that refers to the range. Needed
+     *            for cycle detection.
+     * @return A {@link MultipleValueFunctionValue} that contains the
+     *         {@link AggregatedFunctionValue} of the Number values and the
+     *         evaluated other values of the range.
+     */
+    FunctionValue aggregate(CompiledFormula.RangeNode range, Aggregation aggregation, boolean precise,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer) {
+
+        // the references of every cell need to be recorded for incremental
+        // calculation, so the prefix sums can not be used in that case
+        Set<IndexCoordinate> references = null;
+        if (this.parser.getDependencyGraph() != null && referer != null) {
+            references = parsedReferences.get(referer);
+        }
+
+        int toColumn = range.toColumn == CompiledFormula.RangeNode.ALL ? this.parser.getUnderlyingColumnCount() - 1 : range.toColumn;
+        int toRow = range.toRow == CompiledFormula.RangeNode.ALL ? this.parser.getUnderlyingRowCount() - 1 : range.toRow;
+
+        Accumulator accumulator = new Accumulator(aggregation, precise);
+        MultipleValueFunctionValue result = new MultipleValueFunctionValue();
+        for (int column = range.fromColumn; column <= toColumn; column++) {
+            PrefixSums sums = null;
+            if (aggregation == Aggregation.SUM && references == null) {
+                sums = getPrefixSums(column, precise);
+            }
+
+            if (sums != null && toRow < sums.rowCount) {
+                sums.addTo(accumulator, range.fromRow, toRow);
+            } else {
+                aggregateColumn(column, range.fromRow, toRow, accumulator, result.getValue(), parsedReferences, referer, references);
+            }
+        }
+
+        if (accumulator.count > 0) {
+            result.getValue().add(0, accumulator.toFunctionValue());
+        }
+        return result;
+    }
+
+    private void aggregateColumn(int column, int fromRow, int toRow, Accumulator accumulator, List<FunctionValue> values,
+            Map<IndexCoordinate, Set<IndexCoordinate>> parsedReferences, IndexCoordinate referer, Set<IndexCoordinate> references) {
+
+        IDataProvider dataProvider = this.parser.dataProvider;
+        boolean primitive = !accumulator.precise
+                && dataProvider instanceof IPrimitiveDataProvider
+                && ((IPrimitiveDataProvider) dataProvider).isNumericColumn(column);
+
+        for (int row = fromRow; row <= toRow; row++) {
+            if (primitive) {
+                accumulator.add(((IPrimitiveDataProvider) dataProvider).getDoubleValue(column, row));
+            } else {
+                Object value = this.parser.getUnderlyingDataValue(column, row);
+                if (isAggregatable(value)) {
+                    accumulator.add((Number) value);
+                } else {
+                    // empty cells, formulas and strings are handled like
+                    // single references
+                    this.parser.addDataProviderValue(column, row, values, parsedReferences, referer);
+                    continue;
+                }
+            }
+
+            if (references != null) {
+                references.add(new IndexCoordinate(column, row));
+            }
+        }
+    }
+
+    /**
+     *
+     * @param column
+     *            The column index.
+     * @param precise
+     *            <code>true</code> for {@link BigDecimal} prefix sums.
+     * @return The prefix sums of the column or <code>null</code> if no prefix
+     *         sums are available for the column.
+     */
+    private synchronized PrefixSums getPrefixSums(int column, boolean precise) {
+        int rowCount = this.parser.getUnderlyingRowCount();
+        PrefixSums sums = this.prefixSums.get(column);
+        if (sums != null && sums.rowCount == rowCount && sums.precise == precise) {
+            return sums.cacheable ? sums : null;
+        }
+
+        // only build prefix sums for columns that are aggregated repeatedly
+        Integer requests = this.sumRequests.get(column);
+        int count = (requests != null) ? requests + 1 : 1;
+        if (count < PREFIX_SUM_THRESHOLD) {
+            this.sumRequests.put(column, count);
+            return null;
+        }
+        this.sumRequests.remove(column);
+
+        sums = buildPrefixSums(column, rowCount, precise);
+        this.prefixSums.put(column, sums);
+        return sums.cacheable ? sums : null;
+    }
+
+    private PrefixSums buildPrefixSums(int column, int rowCount, boolean precise) {
+        IDataProvider dataProvider = this.parser.dataProvider;
+        boolean primitive = !precise
+                && dataProvider instanceof IPrimitiveDataProvider
+                && ((IPrimitiveDataProvider) dataProvider).isNumericColumn(column);
+
+        PrefixSums sums = new PrefixSums(rowCount, precise, true);
+        for (int row = 0; row < rowCount; row++) {
+            if (primitive) {
+                sums.doubleSums[row + 1] = sums.doubleSums[row] + ((IPrimitiveDataProvider) dataProvider).getDoubleValue(column, row);
+                sums.counts[row + 1] = sums.counts[row] + 1;
+                continue;
+            }
+
+            Object value = this.parser.getUnderlyingDataValue(column, row);
+            if (value == null) {
+                if (precise) {
+                    sums.decimalSums[row + 1] = sums.decimalSums[row];
+                } else {
+                    sums.doubleSums[row + 1] = sums.doubleSums[row];
+                }
+                sums.counts[row + 1] = sums.counts[row];
+            } else if (isAggregatable(value)) {
+                if (precise) {
+                    sums.decimalSums[row + 1] = sums.decimalSums[row].add(toBigDecimal((Number) value));
+                } else {
+                    sums.doubleSums[row + 1] = sums.doubleSums[row] + ((Number) value).doubleValue();
+                }
+                sums.counts[row + 1] = sums.counts[row] + 1;
+            } else {
+                // formulas and strings need to be evaluated per cell
+                return new PrefixSums(rowCount, precise, false);
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Removes all prefix sums.
+     */
+    synchronized void clear() {
+        this.prefixSums.clear();
+        this.sumRequests.clear();
+    }
+
+    private static boolean isAggregatable(Object value) {
+        if (value instanceof Double) {
+            return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        } else if (value instanceof Float) {
+            return !((Float) value).isNaN() && !((Float) value).isInfinite();
+        }
+        return value instanceof Number;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(value.longValue());
+        } else if (value instanceof Float) {
+            return new BigDecimal(value.toString());
+        }
+        return BigDecimal.valueOf(value.doubleValue());
+    }
+
+    /**
+     * Accumulates the sum or the product of values.
+     */
+    private static final class Accumulator {
+
+        final boolean sum;
+        final boolean precise;
+
+        double doubleValue;
+        BigDecimal decimalValue;
+        int count;
+
+        Accumulator(Aggregation aggregation, boolean precise) {
+            this.sum = aggregation == Aggregation.SUM;
+            this.precise = precise;
+            this.doubleValue = this.sum ? 0 : 1;
+            this.decimalValue = this.sum ? BigDecimal.ZERO : BigDecimal.ONE;
+        }
+
+        void add(double value) {
+            if (this.precise) {
+                add(BigDecimal.valueOf(value));
+            } else {
+                this.doubleValue = this.sum ? this.doubleValue + value : this.doubleValue * value;
+                this.count++;
+            }
+        }
+
+        void add(Number value) {
+            if (this.precise) {
+                add(toBigDecimal(value));
+            } else {
+                add(value.doubleValue());
+            }
+        }
+
+        void add(BigDecimal value) {
+            this.decimalValue = this.sum ? this.decimalValue.add(value) : this.decimalValue.multiply(value);
+            this.count++;
+        }
+
+        void addSum(double value, int valueCount) {
+            this.doubleValue += value;
+            this.count += valueCount;
+        }
+
+        void addSum(BigDecimal value, int valueCount) {
+            this.decimalValue = this.decimalValue.add(value);
+            this.count += valueCount;
+        }
+
+        AggregatedFunctionValue toFunctionValue() {
+            return new AggregatedFunctionValue(
+                    this.precise ? this.decimalValue : BigDecimal.valueOf(this.doubleValue),
+                    this.count);
+        }
+    }
+
+    /**
+     * The prefix sums of a column. The sum of the rows <code>0</code> to
+     * <code>n - 1</code> is stored at index <code>n</code>.
+     */
+    private static final class PrefixSums {
+
+        final int rowCount;
+        final boolean precise;
+        final boolean cacheable;
+
+        final double[] doubleSums;
+        final BigDecimal[] decimalSums;
+        final int[] counts;
+
+        PrefixSums(int rowCount, boolean precise, boolean cacheable) {
+            this.rowCount = rowCount;
+            this.precise = precise;
+            this.cacheable = cacheable;
+            if (cacheable) {
+                this.counts = new int[rowCount + 1];
+                if (precise) {
+                    this.doubleSums = null;
+                    this.decimalSums = new BigDecimal[rowCount + 1];
+                    this.decimalSums[0] = BigDecimal.ZERO;
+                } else {
+                    this.doubleSums = new double[rowCount + 1];
+                    this.decimalSums = null;
+                }
+            } else {
+                this.counts = null;
+                this.doubleSums = null;
+                this.decimalSums = null;
+            }
+        }
+
+        void addTo(Accumulator accumulator, int fromRow, int toRow) {
+            int count = this.counts[toRow + 1] - this.counts[fromRow];
+            if (this.precise) {
+                accumulator.addSum(this.decimalSums[toRow + 1].subtract(this.decimalSums[fromRow]), count);
+            } else {
+                accumulator.addSum(this.doubleSums[toRow + 1] - this.doubleSums[fromRow], count);
+            }
+        }
+    }
+}
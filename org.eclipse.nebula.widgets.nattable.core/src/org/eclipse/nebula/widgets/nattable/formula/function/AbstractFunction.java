@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,6 +13,7 @@
 package org.eclipse.nebula.widgets.nattable.formula.function;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -47,6 +48,24 @@ public void addFunctionValue(FunctionValue value) {
         }
     }
 
+    /**
+     * Adds a value to this function without validation. Used by the
+     * {@link org.eclipse.nebula.widgets.nattable.formula.FormulaParser} to
+     * build the structure of a compiled formula, whose references are not
+     * resolved yet and can therefore not be validated. Should not be used for
+     * processing values.
+     *
+     * @param value
+     *            The unresolved value to add.
+     *
+     * @since 2.0
+     */
+    public final void addUnresolvedFunctionValue(FunctionValue value) {
+        if (value != null) {
+            this.values.add(value);
+        }
+    }
+
     /**
      *
      * @return <code>true</code> if no values to process are added to this
@@ -55,4 +74,14 @@ public void addFunctionValue(FunctionValue value) {
     public boolean isEmpty() {
         return this.values.isEmpty();
     }
+
+    /**
+     *
+     * @return The values that are added to this function for processing.
+     *
+     * @since 2.0
+     */
+    public List<FunctionValue> getFunctionValues() {
+        return Collections.unmodifiableList(this.values);
+    }
 }
@@ -0,0 +1,49 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula.function;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link BigDecimalFunctionValue} that represents the aggregation of multiple
+ * values of a cell range, e.g. their sum. Additionally carries the number of
+ * aggregated values, which is needed for example to calculate an average.
+ *
+ * @see RangeAggregationFunction
+ *
+ * @since 2.0
+ */
+public class AggregatedFunctionValue extends BigDecimalFunctionValue {
+
+    private final int count;
+
+    /**
+     *
+     * @param value
+     *            The aggregated value.
+     * @param count
+     *            The number of values that are aggregated.
+     */
+    public AggregatedFunctionValue(BigDecimal value, int count) {
+        super(value);
+        this.count = count;
+    }
+
+    /**
+     *
+     * @return The number of values that are aggregated.
+     */
+    public int getCount() {
+        return this.count;
+    }
+}
@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015, 2018 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -35,11 +35,15 @@ public AverageFunction(List<FunctionValue> values) {
     public BigDecimal getValue() {
         BigDecimal sum = super.getValue();
         if (!this.values.isEmpty()) {
+            int count = 0;
+            for (FunctionValue value : this.values) {
+                count += (value instanceof AggregatedFunctionValue) ? ((AggregatedFunctionValue) value).getCount() : 1;
+            }
             try {
-                return sum.divide(new BigDecimal(this.values.size()));
+                return sum.divide(new BigDecimal(count));
             } catch (ArithmeticException e) {
                 if (e.getMessage().startsWith("Non-terminating")) { //$NON-NLS-1$
-                    return sum.divide(new BigDecimal(this.values.size()), 9, RoundingMode.HALF_UP);
+                    return sum.divide(new BigDecimal(count), 9, RoundingMode.HALF_UP);
                 } else {
                     throw e;
                 }
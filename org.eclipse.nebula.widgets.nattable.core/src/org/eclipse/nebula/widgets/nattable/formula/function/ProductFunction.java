@@ -1,5 +1,5 @@
 /*****************************************************************************
- * Copyright (c) 2015 CEA LIST.
+ * Copyright (c) 2015, 2020 CEA LIST.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -21,7 +21,7 @@
  *
  * @since 1.4
  */
-public class ProductFunction extends AbstractMathFunction {
+public class ProductFunction extends AbstractMathFunction implements RangeAggregationFunction {
 
     public ProductFunction() {
         super();
@@ -49,6 +49,14 @@ public BigDecimal getValue() {
         return result;
     }
 
+    /**
+     * @since 2.0
+     */
+    @Override
+    public Aggregation getRangeAggregation() {
+        return Aggregation.PRODUCT;
+    }
+
     @Override
     public String toString() {
         if (isEmpty()) {
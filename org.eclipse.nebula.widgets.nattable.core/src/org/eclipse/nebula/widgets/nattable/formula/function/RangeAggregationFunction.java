@@ -0,0 +1,45 @@
+/*****************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *      Original authors and others - initial API and implementation
+ *
+ *****************************************************************************/
+package org.eclipse.nebula.widgets.nattable.formula.function;
+
+/**
+ * Function whose result only depends on the sum or the product of its values,
+ * so the values of a cell range can be aggregated directly out of the data
+ * model instead of adding a {@link FunctionValue} per cell. The aggregated
+ * values are added as {@link AggregatedFunctionValue}.
+ *
+ * @since 2.0
+ */
+public interface RangeAggregationFunction {
+
+    /**
+     * The aggregation that is applied to the values of a cell range.
+     */
+    enum Aggregation {
+        /**
+         * The values of a range are summed up.
+         */
+        SUM,
+        /**
+         * The values of a range are multiplied.
+         */
+        PRODUCT
+    }
+
+    /**
+     *
+     * @return The aggregation that should be applied to the values of a cell
+     *         range that is added to this function.
+     */
+    Aggregation getRangeAggregation();
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.hideshow;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
+
+/**
+ * Position cache of the range based hide/show layers. Stores the underlying
+ * positions of the hidden indexes as sorted ranges together with the number of
+ * hidden positions before every range. This way the position transformations
+ * can be performed via binary search over the hidden ranges without a mapping
+ * per position.
+ *
+ * @see RangeRowHideShowLayer
+ * @see RangeColumnHideShowLayer
+ */
+final class HiddenPositionRanges {
+
+    /**
+     * The underlying start positions of the hidden ranges, inclusive.
+     */
+    private final int[] starts;
+    /**
+     * The underlying end positions of the hidden ranges, exclusive.
+     */
+    private final int[] ends;
+    /**
+     * The number of local (visible) positions before every hidden range.
+     */
+    private final int[] visibleBefore;
+    private final int rangeCount;
+    private final int hiddenCount;
+
+    /**
+     * The sum of the pixel sizes of all hidden ranges before a range. Lazily
+     * calculated as the sizes can change without a structural change.
+     */
+    private int[] hiddenSizeBefore;
+
+    /**
+     * Creates the position ranges for the given hidden indexes.
+     *
+     * @param hiddenIndexes
+     *            The hidden indexes.
+     * @param indexToPosition
+     *            The function to convert an index to the underlying position.
+     *            Returns a negative value if an index is not visible in the
+     *            underlying layer.
+     */
+    HiddenPositionRanges(RangeSet hiddenIndexes, IntUnaryOperator indexToPosition) {
+        int[] positions = new int[hiddenIndexes.size()];
+        int count = 0;
+        boolean sorted = true;
+        for (int r = 0; r < hiddenIndexes.getRangeCount(); r++) {
+            for (int index = hiddenIndexes.getRangeStart(r); index < hiddenIndexes.getRangeEnd(r); index++) {
+                int position = indexToPosition.applyAsInt(index);
+                // if the position is negative, the index is hidden in the
+                // underlying layer, so there is nothing to do for us
+                if (position >= 0) {
+                    if (count > 0 && position < positions[count - 1]) {
+                        sorted = false;
+                    }
+                    positions[count++] = position;
+                }
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(positions, 0, count);
+        }
+
+        int[] rangeStarts = new int[Math.min(count, hiddenIndexes.getRangeCount() * 2 + 1)];
+        int[] rangeEnds = new int[rangeStarts.length];
+        int ranges = 0;
+        for (int i = 0; i < count; i++) {
+            int position = positions[i];
+            if (ranges > 0 && rangeEnds[ranges - 1] == position) {
+                rangeEnds[ranges - 1]++;
+            } else {
+                if (ranges == rangeStarts.length) {
+                    rangeStarts = Arrays.copyOf(rangeStarts, ranges * 2);
+                    rangeEnds = Arrays.copyOf(rangeEnds, ranges * 2);
+                }
+                rangeStarts[ranges] = position;
+                rangeEnds[ranges++] = position + 1;
+            }
+        }
+
+        this.starts = rangeStarts;
+        this.ends = rangeEnds;
+        this.rangeCount = ranges;
+        this.hiddenCount = count;
+        this.visibleBefore = new int[ranges];
+        int hidden = 0;
+        for (int r = 0; r < ranges; r++) {
+            this.visibleBefore[r] = this.starts[r] - hidden;
+            hidden += this.ends[r] - this.starts[r];
+        }
+    }
+
+    /**
+     * @return The number of underlying positions that are hidden.
+     */
+    int getHiddenCount() {
+        return this.hiddenCount;
+    }
+
+    /**
+     * Converts a local position to the underlying position.
+     *
+     * @param localPosition
+     *            The local position, needs to be &gt;= 0.
+     * @return The underlying position.
+     */
+    int localToUnderlying(int localPosition) {
+        int r = findLast(this.visibleBefore, localPosition);
+        if (r < 0) {
+            return localPosition;
+        }
+        return this.ends[r] + (localPosition - this.visibleBefore[r]);
+    }
+
+    /**
+     * Converts an underlying position to the local position. For a hidden
+     * underlying position the number of visible positions before it is
+     * returned, which is the local position of the next visible position.
+     *
+     * @param underlyingPosition
+     *            The underlying position.
+     * @return The local position.
+     */
+    int underlyingToLocal(int underlyingPosition) {
+        int r = findLast(this.starts, underlyingPosition);
+        if (r < 0) {
+            return underlyingPosition;
+        }
+        if (underlyingPosition < this.ends[r]) {
+            return this.visibleBefore[r];
+        }
+        return this.visibleBefore[r] + (underlyingPosition - this.ends[r]);
+    }
+
+    /**
+     * Returns the sum of the pixel sizes of all hidden positions before the
+     * given visible underlying position.
+     *
+     * @param underlyingPosition
+     *            The visible underlying position.
+     * @param startOfPosition
+     *            The function to get the start pixel of an underlying position.
+     * @param sizeOfPosition
+     *            The function to get the pixel size of an underlying position.
+     * @return The size of all hidden positions before the given position.
+     */
+    int getHiddenSizeBefore(int underlyingPosition, IntUnaryOperator startOfPosition, IntUnaryOperator sizeOfPosition) {
+        int r = findLast(this.starts, underlyingPosition);
+        if (r < 0) {
+            return 0;
+        }
+
+        int[] sizes = this.hiddenSizeBefore;
+        if (sizes == null) {
+            sizes = new int[this.rangeCount + 1];
+            for (int i = 0; i < this.rangeCount; i++) {
+                int last = this.ends[i] - 1;
+                int size = startOfPosition.applyAsInt(last)
+                        + sizeOfPosition.applyAsInt(last)
+                        - startOfPosition.applyAsInt(this.starts[i]);
+                sizes[i + 1] = sizes[i] + size;
+            }
+            this.hiddenSizeBefore = sizes;
+        }
+        return sizes[r + 1];
+    }
+
+    /**
+     * Resets the lazily calculated pixel sizes of the hidden ranges.
+     */
+    void clearSizes() {
+        this.hiddenSizeBefore = null;
+    }
+
+    private int findLast(int[] values, int value) {
+        int low = 0;
+        int high = this.rangeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,416 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.hideshow;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.StringTokenizer;
+
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.ColumnHideCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.ColumnShowCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.MultiColumnHideCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.MultiColumnShowCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.ShowAllColumnsCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.event.HideColumnPositionsEvent;
+import org.eclipse.nebula.widgets.nattable.hideshow.event.ShowColumnPositionsEvent;
+import org.eclipse.nebula.widgets.nattable.hideshow.indicator.HideIndicatorConstants;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralChangeEventHelper;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.VisualRefreshEvent;
+import org.eclipse.nebula.widgets.nattable.persistence.IPersistable;
+import org.eclipse.nebula.widgets.nattable.util.ArrayUtil;
+
+/**
+ * Variant of the {@link ColumnHideShowLayer} that stores the hidden column indexes
+ * as sorted ranges in a {@link RangeSet} instead of a set of single indexes.
+ * The position transformations are performed via binary search over the
+ * hidden ranges, so there are no mappings per column that need to be rebuild
+ * after every hide/show operation.
+ * <p>
+ * This layer is intended for big data sets where a huge number of columns in
+ * consecutive blocks is hidden, e.g. for hiding big column groups. The memory
+ * consumption and the time to rebuild the internal caches then only depend on
+ * the number of hidden columns, not on the number of all columns.
+ * </p>
+ * <p>
+ * The layer supports the same commands and the same persistence format as the
+ * {@link ColumnHideShowLayer}, so it can be used as a replacement.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class RangeColumnHideShowLayer extends AbstractColumnHideShowLayer implements IColumnHideShowLayer {
+
+    private RangeSet hiddenColumnIndexes = new RangeSet();
+
+    private HiddenPositionRanges hiddenColumnPositions;
+
+    /**
+     * Create a new {@link RangeColumnHideShowLayer}.
+     *
+     * @param underlyingLayer
+     *            The underlying layer.
+     */
+    public RangeColumnHideShowLayer(IUniqueIndexLayer underlyingLayer) {
+        super(underlyingLayer);
+
+        registerCommandHandler(new MultiColumnHideCommandHandler(this));
+        registerCommandHandler(new ColumnHideCommandHandler(this));
+        registerCommandHandler(new ShowAllColumnsCommandHandler(this));
+        registerCommandHandler(new MultiColumnShowCommandHandler(this));
+        registerCommandHandler(new ColumnShowCommandHandler(this));
+    }
+
+    @Override
+    public void handleLayerEvent(ILayerEvent event) {
+        if (event instanceof IStructuralChangeEvent) {
+            IStructuralChangeEvent structuralChangeEvent = (IStructuralChangeEvent) event;
+            if (structuralChangeEvent.isHorizontalStructureChanged()) {
+                Collection<StructuralDiff> columnDiffs = structuralChangeEvent.getColumnDiffs();
+                if (columnDiffs != null && !columnDiffs.isEmpty()
+                        && !StructuralChangeEventHelper.isReorder(columnDiffs)) {
+                    StructuralChangeEventHelper.handleColumnDelete(
+                            columnDiffs,
+                            this.underlyingLayer,
+                            this.hiddenColumnIndexes);
+                    StructuralChangeEventHelper.handleColumnInsert(
+                            columnDiffs,
+                            this.underlyingLayer,
+                            this.hiddenColumnIndexes);
+                }
+            }
+        } else if (event instanceof VisualRefreshEvent) {
+            HiddenPositionRanges positions = this.hiddenColumnPositions;
+            if (positions != null) {
+                positions.clearSizes();
+            }
+        }
+        super.handleLayerEvent(event);
+    }
+
+    // Persistence
+
+    @Override
+    public void saveState(String prefix, Properties properties) {
+        if (!this.hiddenColumnIndexes.isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            for (int index : this.hiddenColumnIndexes.toArray()) {
+                if (builder.length() > 0) {
+                    builder.append(IPersistable.VALUE_SEPARATOR);
+                }
+                builder.append(index);
+            }
+            properties.setProperty(
+                    prefix + ColumnHideShowLayer.PERSISTENCE_KEY_HIDDEN_COLUMN_INDEXES,
+                    builder.toString());
+        } else {
+            properties.remove(prefix + ColumnHideShowLayer.PERSISTENCE_KEY_HIDDEN_COLUMN_INDEXES);
+        }
+
+        super.saveState(prefix, properties);
+    }
+
+    @Override
+    public void loadState(String prefix, Properties properties) {
+        // always clear the state of the hidden columns, whether there is a
+        // state saved or not
+        this.hiddenColumnIndexes = new RangeSet();
+        String property = properties.getProperty(prefix + ColumnHideShowLayer.PERSISTENCE_KEY_HIDDEN_COLUMN_INDEXES);
+        if (property != null) {
+            StringTokenizer tok = new StringTokenizer(property, IPersistable.VALUE_SEPARATOR);
+            while (tok.hasMoreTokens()) {
+                String index = tok.nextToken();
+                this.hiddenColumnIndexes.add(Integer.parseInt(index));
+            }
+        }
+
+        super.loadState(prefix, properties);
+    }
+
+    @Override
+    public LabelStack getConfigLabelsByPosition(int columnPosition, int rowPosition) {
+        LabelStack configLabels = super.getConfigLabelsByPosition(columnPosition, rowPosition);
+
+        // we need to check the hidden state of an adjacent position via the
+        // underlying layer as in the hide layer the position might be
+        // hidden
+        int underlyingPosition = localToUnderlyingColumnPosition(columnPosition);
+        int leftColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition - 1);
+        if (isColumnIndexHidden(leftColumnIndex)) {
+            configLabels.addLabel(HideIndicatorConstants.COLUMN_LEFT_HIDDEN);
+        }
+
+        int rightColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition + 1);
+        if (isColumnIndexHidden(rightColumnIndex)) {
+            configLabels.addLabel(HideIndicatorConstants.COLUMN_RIGHT_HIDDEN);
+        }
+
+        return configLabels;
+    }
+
+    // Horizontal features
+
+    // Columns
+
+    @Override
+    public int getColumnCount() {
+        if (!hasHiddenColumns()) {
+            return super.getColumnCount();
+        }
+        return this.underlyingLayer.getColumnCount() - getHiddenColumnPositions().getHiddenCount();
+    }
+
+    @Override
+    public int getColumnIndexByPosition(int columnPosition) {
+        if (columnPosition < 0 || columnPosition >= getColumnCount()) {
+            return -1;
+        }
+
+        if (!hasHiddenColumns()) {
+            return super.getColumnIndexByPosition(columnPosition);
+        }
+
+        return this.underlyingLayer.getColumnIndexByPosition(
+                getHiddenColumnPositions().localToUnderlying(columnPosition));
+    }
+
+    @Override
+    public int getColumnPositionByIndex(int columnIndex) {
+        if (!hasHiddenColumns()) {
+            return getUnderlyingLayer().getColumnPositionByIndex(columnIndex);
+        }
+
+        if (isColumnIndexHidden(columnIndex)) {
+            return -1;
+        }
+
+        int underlyingPosition = getUnderlyingLayer().getColumnPositionByIndex(columnIndex);
+        if (underlyingPosition < 0) {
+            return -1;
+        }
+        return getHiddenColumnPositions().underlyingToLocal(underlyingPosition);
+    }
+
+    @Override
+    public int localToUnderlyingColumnPosition(int localColumnPosition) {
+        if (localColumnPosition < 0 || localColumnPosition >= getColumnCount()) {
+            return -1;
+        }
+
+        if (!hasHiddenColumns()) {
+            return localColumnPosition;
+        }
+
+        return getHiddenColumnPositions().localToUnderlying(localColumnPosition);
+    }
+
+    @Override
+    public int underlyingToLocalColumnPosition(ILayer sourceUnderlyingLayer, int underlyingColumnPosition) {
+        if (!hasHiddenColumns()) {
+            return underlyingColumnPosition;
+        }
+
+        if (underlyingColumnPosition < 0 || underlyingColumnPosition >= this.underlyingLayer.getColumnCount()) {
+            return -1;
+        }
+        return getHiddenColumnPositions().underlyingToLocal(underlyingColumnPosition);
+    }
+
+    @Override
+    public int getStartXOfColumnPosition(int localColumnPosition) {
+        int underlyingPosition = localToUnderlyingColumnPosition(localColumnPosition);
+        if (underlyingPosition < 0) {
+            return -1;
+        }
+        int underlyingStartX = this.underlyingLayer.getStartXOfColumnPosition(underlyingPosition);
+        if (underlyingStartX < 0 || !hasHiddenColumns()) {
+            return underlyingStartX;
+        }
+
+        return underlyingStartX - getHiddenColumnPositions().getHiddenSizeBefore(
+                underlyingPosition,
+                this.underlyingLayer::getStartXOfColumnPosition,
+                this.underlyingLayer::getColumnWidthByPosition);
+    }
+
+    // Hide/show
+
+    @Override
+    public boolean isColumnIndexHidden(int columnIndex) {
+        return columnIndex >= 0 && this.hiddenColumnIndexes.contains(columnIndex);
+    }
+
+    @Override
+    public Collection<Integer> getHiddenColumnIndexes() {
+        return ArrayUtil.asIntegerList(this.hiddenColumnIndexes.toArray());
+    }
+
+    @Override
+    public int[] getHiddenColumnIndexesArray() {
+        return this.hiddenColumnIndexes.toArray();
+    }
+
+    /**
+     * Returns the hidden column indexes as ranges. In contrast to
+     * {@link #getHiddenColumnIndexesArray()} this method does not create an
+     * object per hidden column.
+     *
+     * @return A copy of the hidden column indexes.
+     */
+    public RangeSet getHiddenColumnIndexRanges() {
+        RangeSet result = new RangeSet();
+        result.addAll(this.hiddenColumnIndexes);
+        return result;
+    }
+
+    @Override
+    public boolean hasHiddenColumns() {
+        return !this.hiddenColumnIndexes.isEmpty();
+    }
+
+    @Override
+    public void hideColumnPositions(int... columnPositions) {
+        int[] columnIndexes = Arrays.stream(columnPositions)
+                .map(this::getColumnIndexByPosition)
+                .filter(index -> index >= 0)
+                .sorted()
+                .toArray();
+        this.hiddenColumnIndexes.addAll(Arrays.stream(columnIndexes).filter(index -> index >= 0).toArray());
+        invalidateCache();
+        fireLayerEvent(new HideColumnPositionsEvent(this, columnPositions, columnIndexes));
+    }
+
+    @Override
+    public void hideColumnPositions(Collection<Integer> columnPositions) {
+        hideColumnPositions(columnPositions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void hideColumnIndexes(int... columnIndexes) {
+        int[] columnPositions = Arrays.stream(columnIndexes)
+                .map(this::getColumnPositionByIndex)
+                .sorted()
+                .toArray();
+        this.hiddenColumnIndexes.addAll(Arrays.stream(columnIndexes).filter(index -> index >= 0).toArray());
+        invalidateCache();
+        fireLayerEvent(new HideColumnPositionsEvent(this, columnPositions, columnIndexes));
+    }
+
+    @Override
+    public void hideColumnIndexes(Collection<Integer> columnIndexes) {
+        hideColumnIndexes(columnIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void showColumnIndexes(int... columnIndexes) {
+        // only handle column indexes that are hidden
+        int[] toProcess = Arrays.stream(columnIndexes)
+                .filter(this::isColumnIndexHidden)
+                .toArray();
+
+        this.hiddenColumnIndexes.removeAll(toProcess);
+        invalidateCache();
+        int[] positions = getColumnPositionsByIndexes(toProcess);
+        fireLayerEvent(new ShowColumnPositionsEvent(this, positions));
+    }
+
+    @Override
+    public void showColumnIndexes(Collection<Integer> columnIndexes) {
+        showColumnIndexes(columnIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void showColumnPosition(int columnPosition, boolean showToLeft, boolean showAll) {
+        MutableIntSet columnIndexes = IntSets.mutable.empty();
+        int underlyingPosition = localToUnderlyingColumnPosition(columnPosition);
+        if (showToLeft) {
+            int leftColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition - 1);
+            if (showAll) {
+                int move = 1;
+                while (isColumnIndexHidden(leftColumnIndex)) {
+                    columnIndexes.add(leftColumnIndex);
+                    move++;
+                    leftColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition - move);
+                }
+            } else if (isColumnIndexHidden(leftColumnIndex)) {
+                columnIndexes.add(leftColumnIndex);
+            }
+        } else {
+            int rightColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition + 1);
+            if (showAll) {
+                int move = 1;
+                while (isColumnIndexHidden(rightColumnIndex)) {
+                    columnIndexes.add(rightColumnIndex);
+                    move++;
+                    rightColumnIndex = this.underlyingLayer.getColumnIndexByPosition(underlyingPosition + move);
+                }
+            } else if (isColumnIndexHidden(rightColumnIndex)) {
+                columnIndexes.add(rightColumnIndex);
+            }
+        }
+
+        if (!columnIndexes.isEmpty()) {
+            showColumnIndexes(columnIndexes.toArray());
+        }
+    }
+
+    @Override
+    public void showAllColumns() {
+        int[] hidden = this.hiddenColumnIndexes.toArray();
+        this.hiddenColumnIndexes = new RangeSet();
+        invalidateCache();
+        fireLayerEvent(new ShowColumnPositionsEvent(this, getColumnPositionsByIndexes(hidden)));
+    }
+
+    @Override
+    public Collection<String> getProvidedLabels() {
+        Collection<String> result = super.getProvidedLabels();
+        result.add(HideIndicatorConstants.COLUMN_LEFT_HIDDEN);
+        result.add(HideIndicatorConstants.COLUMN_RIGHT_HIDDEN);
+        return result;
+    }
+
+    // Cache
+
+    @Override
+    protected synchronized void invalidateCache() {
+        super.invalidateCache();
+        this.hiddenColumnPositions = null;
+    }
+
+    private synchronized HiddenPositionRanges getHiddenColumnPositions() {
+        if (this.hiddenColumnPositions == null) {
+            cacheVisibleColumnIndexes();
+        }
+        return this.hiddenColumnPositions;
+    }
+
+    /**
+     * Build up the hidden column position ranges. In contrast to the super
+     * implementation no mappings per column are created.
+     */
+    @Override
+    protected synchronized void cacheVisibleColumnIndexes() {
+        this.hiddenColumnPositions = new HiddenPositionRanges(
+                this.hiddenColumnIndexes,
+                getUnderlyingLayer()::getColumnPositionByIndex);
+    }
+
+}
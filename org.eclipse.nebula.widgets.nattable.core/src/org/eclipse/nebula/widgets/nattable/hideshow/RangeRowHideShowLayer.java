@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.hideshow;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.StringTokenizer;
+
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.MultiRowHideCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.MultiRowShowCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.RowHideCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.RowPositionHideCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.RowShowCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.command.ShowAllRowsCommandHandler;
+import org.eclipse.nebula.widgets.nattable.hideshow.event.HideRowPositionsEvent;
+import org.eclipse.nebula.widgets.nattable.hideshow.event.ShowRowPositionsEvent;
+import org.eclipse.nebula.widgets.nattable.hideshow.indicator.HideIndicatorConstants;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralChangeEventHelper;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.VisualRefreshEvent;
+import org.eclipse.nebula.widgets.nattable.persistence.IPersistable;
+import org.eclipse.nebula.widgets.nattable.util.ArrayUtil;
+
+/**
+ * Variant of the {@link RowHideShowLayer} that stores the hidden row indexes
+ * as sorted ranges in a {@link RangeSet} instead of a set of single indexes.
+ * The position transformations are performed via binary search over the
+ * hidden ranges, so there are no mappings per row that need to be rebuild
+ * after every hide/show operation.
+ * <p>
+ * This layer is intended for big data sets where a huge number of rows in
+ * consecutive blocks is hidden, e.g. for collapsing all rows. The memory
+ * consumption and the time to rebuild the internal caches then only depend on
+ * the number of hidden rows, not on the number of all rows.
+ * </p>
+ * <p>
+ * The layer supports the same commands and the same persistence format as the
+ * {@link RowHideShowLayer}, so it can be used as a replacement.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class RangeRowHideShowLayer extends AbstractRowHideShowLayer implements IRowHideShowLayer {
+
+    private RangeSet hiddenRowIndexes = new RangeSet();
+
+    private HiddenPositionRanges hiddenRowPositions;
+
+    /**
+     * Create a new {@link RangeRowHideShowLayer}.
+     *
+     * @param underlyingLayer
+     *            The underlying layer.
+     */
+    public RangeRowHideShowLayer(IUniqueIndexLayer underlyingLayer) {
+        super(underlyingLayer);
+
+        registerCommandHandler(new MultiRowHideCommandHandler(this));
+        registerCommandHandler(new RowHideCommandHandler(this));
+        registerCommandHandler(new ShowAllRowsCommandHandler(this));
+        registerCommandHandler(new MultiRowShowCommandHandler(this));
+        registerCommandHandler(new RowPositionHideCommandHandler(this));
+        registerCommandHandler(new RowShowCommandHandler(this));
+    }
+
+    @Override
+    public void handleLayerEvent(ILayerEvent event) {
+        if (event instanceof IStructuralChangeEvent) {
+            IStructuralChangeEvent structuralChangeEvent = (IStructuralChangeEvent) event;
+            if (structuralChangeEvent.isVerticalStructureChanged()) {
+                Collection<StructuralDiff> rowDiffs = structuralChangeEvent.getRowDiffs();
+                if (rowDiffs != null && !rowDiffs.isEmpty()
+                        && !StructuralChangeEventHelper.isReorder(rowDiffs)) {
+                    StructuralChangeEventHelper.handleRowDelete(
+                            rowDiffs,
+                            this.underlyingLayer,
+                            this.hiddenRowIndexes);
+                    StructuralChangeEventHelper.handleRowInsert(
+                            rowDiffs,
+                            this.underlyingLayer,
+                            this.hiddenRowIndexes);
+                }
+            }
+        } else if (event instanceof VisualRefreshEvent) {
+            HiddenPositionRanges positions = this.hiddenRowPositions;
+            if (positions != null) {
+                positions.clearSizes();
+            }
+        }
+        super.handleLayerEvent(event);
+    }
+
+    // Persistence
+
+    @Override
+    public void saveState(String prefix, Properties properties) {
+        if (!this.hiddenRowIndexes.isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            for (int index : this.hiddenRowIndexes.toArray()) {
+                if (builder.length() > 0) {
+                    builder.append(IPersistable.VALUE_SEPARATOR);
+                }
+                builder.append(index);
+            }
+            properties.setProperty(
+                    prefix + RowHideShowLayer.PERSISTENCE_KEY_HIDDEN_ROW_INDEXES,
+                    builder.toString());
+        }
+
+        super.saveState(prefix, properties);
+    }
+
+    @Override
+    public void loadState(String prefix, Properties properties) {
+        this.hiddenRowIndexes = new RangeSet();
+        String property = properties.getProperty(prefix + RowHideShowLayer.PERSISTENCE_KEY_HIDDEN_ROW_INDEXES);
+        if (property != null) {
+            StringTokenizer tok = new StringTokenizer(property, IPersistable.VALUE_SEPARATOR);
+            while (tok.hasMoreTokens()) {
+                String index = tok.nextToken();
+                this.hiddenRowIndexes.add(Integer.parseInt(index));
+            }
+        }
+
+        super.loadState(prefix, properties);
+    }
+
+    @Override
+    public LabelStack getConfigLabelsByPosition(int columnPosition, int rowPosition) {
+        LabelStack configLabels = super.getConfigLabelsByPosition(columnPosition, rowPosition);
+
+        // we need to check the hidden state of an adjacent position via the
+        // underlying layer as in the hide layer the position might be
+        // hidden
+        int underlyingPosition = localToUnderlyingRowPosition(rowPosition);
+        int upRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition - 1);
+        if (isRowIndexHidden(upRowIndex)) {
+            configLabels.addLabel(HideIndicatorConstants.ROW_TOP_HIDDEN);
+        }
+
+        int downRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition + 1);
+        if (isRowIndexHidden(downRowIndex)) {
+            configLabels.addLabel(HideIndicatorConstants.ROW_BOTTOM_HIDDEN);
+        }
+
+        return configLabels;
+    }
+
+    // Vertical features
+
+    // Rows
+
+    @Override
+    public int getRowCount() {
+        if (!hasHiddenRows()) {
+            return super.getRowCount();
+        }
+        return this.underlyingLayer.getRowCount() - getHiddenRowPositions().getHiddenCount();
+    }
+
+    @Override
+    public int getRowIndexByPosition(int rowPosition) {
+        if (rowPosition < 0 || rowPosition >= getRowCount()) {
+            return -1;
+        }
+
+        if (!hasHiddenRows()) {
+            return super.getRowIndexByPosition(rowPosition);
+        }
+
+        return this.underlyingLayer.getRowIndexByPosition(
+                getHiddenRowPositions().localToUnderlying(rowPosition));
+    }
+
+    @Override
+    public int getRowPositionByIndex(int rowIndex) {
+        if (!hasHiddenRows()) {
+            return getUnderlyingLayer().getRowPositionByIndex(rowIndex);
+        }
+
+        if (isRowIndexHidden(rowIndex)) {
+            return -1;
+        }
+
+        int underlyingPosition = getUnderlyingLayer().getRowPositionByIndex(rowIndex);
+        if (underlyingPosition < 0) {
+            return -1;
+        }
+        return getHiddenRowPositions().underlyingToLocal(underlyingPosition);
+    }
+
+    @Override
+    public int localToUnderlyingRowPosition(int localRowPosition) {
+        if (localRowPosition < 0 || localRowPosition >= getRowCount()) {
+            return -1;
+        }
+
+        if (!hasHiddenRows()) {
+            return localRowPosition;
+        }
+
+        return getHiddenRowPositions().localToUnderlying(localRowPosition);
+    }
+
+    @Override
+    public int underlyingToLocalRowPosition(ILayer sourceUnderlyingLayer, int underlyingRowPosition) {
+        if (!hasHiddenRows()) {
+            return underlyingRowPosition;
+        }
+
+        if (underlyingRowPosition < 0 || underlyingRowPosition >= this.underlyingLayer.getRowCount()) {
+            return -1;
+        }
+        return getHiddenRowPositions().underlyingToLocal(underlyingRowPosition);
+    }
+
+    @Override
+    public int getStartYOfRowPosition(int localRowPosition) {
+        int underlyingPosition = localToUnderlyingRowPosition(localRowPosition);
+        if (underlyingPosition < 0) {
+            return -1;
+        }
+        int underlyingStartY = this.underlyingLayer.getStartYOfRowPosition(underlyingPosition);
+        if (underlyingStartY < 0 || !hasHiddenRows()) {
+            return underlyingStartY;
+        }
+
+        return underlyingStartY - getHiddenRowPositions().getHiddenSizeBefore(
+                underlyingPosition,
+                this.underlyingLayer::getStartYOfRowPosition,
+                this.underlyingLayer::getRowHeightByPosition);
+    }
+
+    // Hide/show
+
+    @Override
+    public boolean isRowIndexHidden(int rowIndex) {
+        return rowIndex >= 0 && this.hiddenRowIndexes.contains(rowIndex);
+    }
+
+    @Override
+    public Collection<Integer> getHiddenRowIndexes() {
+        return ArrayUtil.asIntegerList(this.hiddenRowIndexes.toArray());
+    }
+
+    @Override
+    public int[] getHiddenRowIndexesArray() {
+        return this.hiddenRowIndexes.toArray();
+    }
+
+    /**
+     * Returns the hidden row indexes as ranges. In contrast to
+     * {@link #getHiddenRowIndexesArray()} this method does not create an
+     * object per hidden row.
+     *
+     * @return A copy of the hidden row indexes.
+     */
+    public RangeSet getHiddenRowIndexRanges() {
+        RangeSet result = new RangeSet();
+        result.addAll(this.hiddenRowIndexes);
+        return result;
+    }
+
+    @Override
+    public boolean hasHiddenRows() {
+        return !this.hiddenRowIndexes.isEmpty();
+    }
+
+    @Override
+    public void hideRowPositions(int... rowPositions) {
+        int[] rowIndexes = Arrays.stream(rowPositions)
+                .map(this::getRowIndexByPosition)
+                .filter(index -> index >= 0)
+                .sorted()
+                .toArray();
+        this.hiddenRowIndexes.addAll(Arrays.stream(rowIndexes).filter(index -> index >= 0).toArray());
+        invalidateCache();
+        fireLayerEvent(new HideRowPositionsEvent(this, rowPositions, rowIndexes));
+    }
+
+    @Override
+    public void hideRowPositions(Collection<Integer> rowPositions) {
+        hideRowPositions(rowPositions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void hideRowIndexes(int... rowIndexes) {
+        int[] rowPositions = Arrays.stream(rowIndexes)
+                .map(this::getRowPositionByIndex)
+                .sorted()
+                .toArray();
+        this.hiddenRowIndexes.addAll(Arrays.stream(rowIndexes).filter(index -> index >= 0).toArray());
+        invalidateCache();
+        fireLayerEvent(new HideRowPositionsEvent(this, rowPositions, rowIndexes));
+    }
+
+    @Override
+    public void hideRowIndexes(Collection<Integer> rowIndexes) {
+        hideRowIndexes(rowIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void showRowIndexes(int... rowIndexes) {
+        // only handle row indexes that are hidden
+        int[] toProcess = Arrays.stream(rowIndexes)
+                .filter(this::isRowIndexHidden)
+                .toArray();
+
+        this.hiddenRowIndexes.removeAll(toProcess);
+        invalidateCache();
+        int[] positions = getRowPositionsByIndexes(toProcess);
+        fireLayerEvent(new ShowRowPositionsEvent(this, positions));
+    }
+
+    @Override
+    public void showRowIndexes(Collection<Integer> rowIndexes) {
+        showRowIndexes(rowIndexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public void showRowPosition(int rowPosition, boolean showToTop, boolean showAll) {
+        MutableIntSet rowIndexes = IntSets.mutable.empty();
+        int underlyingPosition = localToUnderlyingRowPosition(rowPosition);
+        if (showToTop) {
+            int topRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition - 1);
+            if (showAll) {
+                int move = 1;
+                while (isRowIndexHidden(topRowIndex)) {
+                    rowIndexes.add(topRowIndex);
+                    move++;
+                    topRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition - move);
+                }
+            } else if (isRowIndexHidden(topRowIndex)) {
+                rowIndexes.add(topRowIndex);
+            }
+        } else {
+            int bottomRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition + 1);
+            if (showAll) {
+                int move = 1;
+                while (isRowIndexHidden(bottomRowIndex)) {
+                    rowIndexes.add(bottomRowIndex);
+                    move++;
+                    bottomRowIndex = this.underlyingLayer.getRowIndexByPosition(underlyingPosition + move);
+                }
+            } else if (isRowIndexHidden(bottomRowIndex)) {
+                rowIndexes.add(bottomRowIndex);
+            }
+        }
+
+        if (!rowIndexes.isEmpty()) {
+            showRowIndexes(rowIndexes.toArray());
+        }
+    }
+
+    @Override
+    public void showAllRows() {
+        int[] hidden = this.hiddenRowIndexes.toArray();
+        this.hiddenRowIndexes = new RangeSet();
+        invalidateCache();
+        fireLayerEvent(new ShowRowPositionsEvent(this, getRowPositionsByIndexes(hidden)));
+    }
+
+    @Override
+    public Collection<String> getProvidedLabels() {
+        Collection<String> result = super.getProvidedLabels();
+        result.add(HideIndicatorConstants.ROW_TOP_HIDDEN);
+        result.add(HideIndicatorConstants.ROW_BOTTOM_HIDDEN);
+        return result;
+    }
+
+    // Cache
+
+    @Override
+    protected synchronized void invalidateCache() {
+        super.invalidateCache();
+        this.hiddenRowPositions = null;
+    }
+
+    private synchronized HiddenPositionRanges getHiddenRowPositions() {
+        if (this.hiddenRowPositions == null) {
+            cacheVisibleRowIndexes();
+        }
+        return this.hiddenRowPositions;
+    }
+
+    /**
+     * Build up the hidden row position ranges. In contrast to the super
+     * implementation no mappings per row are created.
+     */
+    @Override
+    protected synchronized void cacheVisibleRowIndexes() {
+        this.hiddenRowPositions = new HiddenPositionRanges(
+                this.hiddenRowIndexes,
+                getUnderlyingLayer()::getRowPositionByIndex);
+    }
+
+}
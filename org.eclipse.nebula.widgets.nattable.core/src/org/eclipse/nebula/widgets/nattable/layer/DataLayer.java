@@ -492,11 +492,23 @@ public void setDataValueByPosition(int columnPosition, int rowPosition, Object n
 
     @Override
     public int getColumnPositionByX(int x) {
+        if (this.columnWidthConfig.isPrefixSumMode()) {
+            if (x < 0 || x >= getWidth()) {
+                return -1;
+            }
+            return this.columnWidthConfig.getPositionByAggregateSize(x);
+        }
         return LayerUtil.getColumnPositionByX(this, x);
     }
 
     @Override
     public int getRowPositionByY(int y) {
+        if (this.rowHeightConfig.isPrefixSumMode()) {
+            if (y < 0 || y >= getHeight()) {
+                return -1;
+            }
+            return this.rowHeightConfig.getPositionByAggregateSize(y);
+        }
         return LayerUtil.getRowPositionByY(this, y);
     }
 
@@ -1303,4 +1315,63 @@ public void setFixRowPercentageValuesOnResize(boolean enabled) {
         this.rowHeightConfig.setFixPercentageValuesOnResize(enabled);
     }
 
+    /**
+     * Enable or disable the prefix sum mode for the column widths. In prefix
+     * sum mode the aggregated column widths and the column position for a x
+     * coordinate are calculated in O(log n), and resizing a single column
+     * does not invalidate the aggregated size cache.
+     *
+     * @param enabled
+     *            <code>true</code> to enable the prefix sum mode for column
+     *            widths, <code>false</code> to disable it.
+     * @see SizeConfig#setPrefixSumMode(boolean)
+     *
+     * @since 2.0
+     */
+    public void setColumnWidthPrefixSumMode(boolean enabled) {
+        this.columnWidthConfig.setPrefixSumMode(enabled);
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the prefix sum mode is enabled for column
+     *         widths, <code>false</code> if not.
+     * @see SizeConfig#isPrefixSumMode()
+     *
+     * @since 2.0
+     */
+    public boolean isColumnWidthPrefixSumMode() {
+        return this.columnWidthConfig.isPrefixSumMode();
+    }
+
+    /**
+     * Enable or disable the prefix sum mode for the row heights. In prefix sum
+     * mode the aggregated row heights and the row position for a y coordinate
+     * are calculated in O(log n), and resizing a single row does not
+     * invalidate the aggregated size cache. This is recommended for tables
+     * with a huge number of rows and variable row heights.
+     *
+     * @param enabled
+     *            <code>true</code> to enable the prefix sum mode for row
+     *            heights, <code>false</code> to disable it.
+     * @see SizeConfig#setPrefixSumMode(boolean)
+     *
+     * @since 2.0
+     */
+    public void setRowHeightPrefixSumMode(boolean enabled) {
+        this.rowHeightConfig.setPrefixSumMode(enabled);
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the prefix sum mode is enabled for row
+     *         heights, <code>false</code> if not.
+     * @see SizeConfig#isPrefixSumMode()
+     *
+     * @since 2.0
+     */
+    public boolean isRowHeightPrefixSumMode() {
+        return this.rowHeightConfig.isPrefixSumMode();
+    }
+
 }
\ No newline at end of file
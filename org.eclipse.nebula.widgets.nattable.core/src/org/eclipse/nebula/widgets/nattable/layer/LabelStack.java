@@ -10,18 +10,32 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.layer;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
  * Collection of labels applied to a cell. Used for conditional styling and
  * behavior.
+ * <p>
+ * A {@link LabelStack} is created for every cell that is painted, therefore it
+ * is backed by an array instead of linked nodes to reduce the number of
+ * allocations. The methods to access the first and last label that were
+ * inherited from {@link java.util.LinkedList} in previous versions are still
+ * available. The other {@link java.util.Deque} methods are kept for
+ * compatibility but are deprecated. Note that a {@link LabelStack} is not a
+ * {@link java.util.Deque} anymore, and that instances serialized by previous
+ * versions can not be deserialized.
+ * </p>
  */
-public class LabelStack extends LinkedList<String> {
+public class LabelStack extends ArrayList<String> {
 
-    private static final long serialVersionUID = -2942954228158176792L;
+    // changed with the superclass, as the serialized form of previous
+    // versions that extended LinkedList is not compatible
+    private static final long serialVersionUID = 7880282327907767329L;
 
     /**
      * Creates a {@link LabelStack} initialized with the given labels.
@@ -31,7 +45,10 @@ public class LabelStack extends LinkedList<String> {
      *            {@link LabelStack}.
      */
     public LabelStack(String... labels) {
-        super(Arrays.asList(labels));
+        super(Math.max(labels.length, 4));
+        for (String label : labels) {
+            add(label);
+        }
     }
 
     /**
@@ -111,4 +128,281 @@ public boolean removeLabel(String label) {
         return remove(label);
     }
 
+    /**
+     * Adds a label to the top of the label stack. In contrast to
+     * {@link #addLabelOnTop(String)} it is not checked if the label is already
+     * contained.
+     *
+     * @param label
+     *            The label to add.
+     * @since 2.0
+     */
+    public void addFirst(String label) {
+        add(0, label);
+    }
+
+    /**
+     * Adds a label to the bottom of the label stack. In contrast to
+     * {@link #addLabel(String)} it is not checked if the label is already
+     * contained.
+     *
+     * @param label
+     *            The label to add.
+     * @since 2.0
+     */
+    public void addLast(String label) {
+        add(label);
+    }
+
+    /**
+     * @return The label on top of the label stack.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @since 2.0
+     */
+    public String getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    /**
+     * @return The label at the bottom of the label stack.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @since 2.0
+     */
+    public String getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    /**
+     * Removes the label on top of the label stack.
+     *
+     * @return The removed label.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @since 2.0
+     */
+    public String removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(0);
+    }
+
+    /**
+     * Removes the label at the bottom of the label stack.
+     *
+     * @return The removed label.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @since 2.0
+     */
+    public String removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(size() - 1);
+    }
+
+    /**
+     * @param label
+     *            The label to add.
+     * @deprecated Use {@link #addFirst(String)} instead.
+     */
+    @Deprecated
+    public void push(String label) {
+        addFirst(label);
+    }
+
+    /**
+     * @return The removed label.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @deprecated Use {@link #removeFirst()} instead.
+     */
+    @Deprecated
+    public String pop() {
+        return removeFirst();
+    }
+
+    /**
+     * @return The removed label.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @deprecated Use {@link #removeFirst()} instead.
+     */
+    @Deprecated
+    public String remove() {
+        return removeFirst();
+    }
+
+    /**
+     * @return The label on top of the label stack.
+     * @throws NoSuchElementException
+     *             if the label stack is empty.
+     * @deprecated Use {@link #getFirst()} instead.
+     */
+    @Deprecated
+    public String element() {
+        return getFirst();
+    }
+
+    /**
+     * @return The label on top of the label stack or <code>null</code> if the
+     *         label stack is empty.
+     * @deprecated Use {@link #getFirst()} instead.
+     */
+    @Deprecated
+    public String peek() {
+        return peekFirst();
+    }
+
+    /**
+     * @return The label on top of the label stack or <code>null</code> if the
+     *         label stack is empty.
+     * @deprecated Use {@link #getFirst()} instead.
+     */
+    @Deprecated
+    public String peekFirst() {
+        return isEmpty() ? null : get(0);
+    }
+
+    /**
+     * @return The label at the bottom of the label stack or <code>null</code>
+     *         if the label stack is empty.
+     * @deprecated Use {@link #getLast()} instead.
+     */
+    @Deprecated
+    public String peekLast() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+
+    /**
+     * @return The removed label on top of the label stack or
+     *         <code>null</code> if the label stack is empty.
+     * @deprecated Use {@link #removeFirst()} instead.
+     */
+    @Deprecated
+    public String poll() {
+        return pollFirst();
+    }
+
+    /**
+     * @return The removed label on top of the label stack or
+     *         <code>null</code> if the label stack is empty.
+     * @deprecated Use {@link #removeFirst()} instead.
+     */
+    @Deprecated
+    public String pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    /**
+     * @return The removed label at the bottom of the label stack or
+     *         <code>null</code> if the label stack is empty.
+     * @deprecated Use {@link #removeLast()} instead.
+     */
+    @Deprecated
+    public String pollLast() {
+        return isEmpty() ? null : remove(size() - 1);
+    }
+
+    /**
+     * @param label
+     *            The label to add.
+     * @return <code>true</code>
+     * @deprecated Use {@link #addLast(String)} instead.
+     */
+    @Deprecated
+    public boolean offer(String label) {
+        return add(label);
+    }
+
+    /**
+     * @param label
+     *            The label to add.
+     * @return <code>true</code>
+     * @deprecated Use {@link #addFirst(String)} instead.
+     */
+    @Deprecated
+    public boolean offerFirst(String label) {
+        addFirst(label);
+        return true;
+    }
+
+    /**
+     * @param label
+     *            The label to add.
+     * @return <code>true</code>
+     * @deprecated Use {@link #addLast(String)} instead.
+     */
+    @Deprecated
+    public boolean offerLast(String label) {
+        return add(label);
+    }
+
+    /**
+     * @param label
+     *            The label to remove.
+     * @return <code>true</code> if the label was removed, <code>false</code> if
+     *         not.
+     * @deprecated Use {@link #removeLabel(String)} instead.
+     */
+    @Deprecated
+    public boolean removeFirstOccurrence(Object label) {
+        return remove(label);
+    }
+
+    /**
+     * @param label
+     *            The label to remove.
+     * @return <code>true</code> if the label was removed, <code>false</code> if
+     *         not.
+     * @deprecated Use {@link #lastIndexOf(Object)} and {@link #remove(int)}
+     *             instead.
+     */
+    @Deprecated
+    public boolean removeLastOccurrence(Object label) {
+        int index = lastIndexOf(label);
+        if (index >= 0) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return An {@link Iterator} over the labels from the bottom to the top
+     *         of the label stack.
+     * @deprecated Use {@link #listIterator(int)} with {@link #size()} and
+     *             iterate backwards instead.
+     */
+    @Deprecated
+    public Iterator<String> descendingIterator() {
+        final ListIterator<String> iterator = listIterator(size());
+        return new Iterator<String>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasPrevious();
+            }
+
+            @Override
+            public String next() {
+                return iterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
 }
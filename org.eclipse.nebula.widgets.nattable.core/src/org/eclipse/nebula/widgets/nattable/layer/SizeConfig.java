@@ -29,6 +29,7 @@
 import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
 import org.eclipse.nebula.widgets.nattable.persistence.IPersistable;
+import org.eclipse.nebula.widgets.nattable.util.PrefixSumTree;
 
 /**
  * This class stores the size configuration of rows/columns within the NatTable.
@@ -171,6 +172,21 @@ public class SizeConfig implements IPersistable {
      * @since 1.6
      */
     private boolean fixPercentageValuesOnResize = true;
+    /**
+     * {@link PrefixSumTree} that contains the difference of the configured
+     * pixel sizes to the default size per position. Only used if the prefix
+     * sum mode is enabled, <code>null</code> otherwise.
+     *
+     * @since 2.0
+     */
+    protected PrefixSumTree prefixSumTree;
+    /**
+     * Flag that indicates if the {@link #prefixSumTree} is valid or if it needs
+     * to get rebuilt.
+     *
+     * @since 2.0
+     */
+    protected boolean isPrefixSumTreeValid = false;
 
     /**
      * Create a new {@link SizeConfig} with the given default size.
@@ -274,6 +290,7 @@ public void loadState(String prefix, Properties properties) {
         this.percentageSizing = false;
         this.distributeRemainingSpace = false;
         this.isAggregatedSizeCacheValid = false;
+        this.isPrefixSumTreeValid = false;
         this.defaultMinSize = 0;
 
         String persistedDefaultSize = properties.getProperty(prefix + PERSISTENCE_KEY_DEFAULT_SIZE);
@@ -372,6 +389,7 @@ public void setDefaultSize(int size) {
         }
         this.defaultSize = size;
         this.isAggregatedSizeCacheValid = false;
+        this.isPrefixSumTreeValid = false;
     }
 
     /**
@@ -386,8 +404,10 @@ public void setDefaultSize(int position, int size) {
         if (size < 0) {
             throw new IllegalArgumentException("size < 0"); //$NON-NLS-1$
         }
+        int oldSize = getPixelSize(position);
         this.defaultSizeMap.put(position, size);
         this.isAggregatedSizeCacheValid = false;
+        updatePrefixSumTree(position, oldSize);
     }
 
     private int getDefaultSize(int position) {
@@ -411,6 +431,8 @@ public int getAggregateSize(int position) {
             // as percentage values and not as pixel values, therefore another
             // value needs to be considered
             return position * upScale(this.defaultSize);
+        } else if (isPrefixSumTreeUsed()) {
+            return position * upScale(this.defaultSize) + this.prefixSumTree.sum(position);
         } else {
             // See if the cache is valid, if not clear it.
             if (!this.isAggregatedSizeCacheValid) {
@@ -570,7 +592,9 @@ public void setSize(int position, int size) {
             if (!isPercentageSizing(position)) {
                 int oldValue = this.sizeMap.getIfAbsent(position, -1);
                 int diff = (oldValue != -1) ? size - oldValue : size - getDefaultSize(position);
+                int oldSize = getPixelSize(position);
                 this.sizeMap.put(position, size);
+                updatePrefixSumTree(position, oldSize);
 
                 // if percentage sizing is enabled and percentage values should
                 // be fixed on resize, we recalculate percentages to the left
@@ -898,6 +922,7 @@ public boolean isPercentageSizing() {
     public void setPercentageSizing(boolean percentageSizing) {
         this.percentageSizing = percentageSizing;
         this.isAggregatedSizeCacheValid = false;
+        this.isPrefixSumTreeValid = false;
     }
 
     /**
@@ -929,6 +954,7 @@ public boolean isPercentageSizing(int position) {
     public void setPercentageSizing(int position, boolean percentageSizing) {
         this.percentageSizingMap.put(position, percentageSizing);
         this.isAggregatedSizeCacheValid = false;
+        this.isPrefixSumTreeValid = false;
     }
 
     /**
@@ -1279,6 +1305,158 @@ protected int[] correctPercentageValues(double sum, int positionCount) {
         return null;
     }
 
+    // Prefix sum mode
+
+    /**
+     * Enable or disable the prefix sum mode. In prefix sum mode the configured
+     * pixel sizes are additionally stored in a {@link PrefixSumTree}, so
+     * calculating the aggregated size of a position, searching the position
+     * for a pixel value via {@link #getPositionByAggregateSize(int)} and
+     * updating the size of a single position are O(log n) operations. This is
+     * useful for tables with a huge number of positions and a lot of
+     * positions with custom sizes, e.g. because of automatic row height
+     * calculation, where invalidating and recalculating the aggregated size
+     * cache on every resize would be too expensive.
+     * <p>
+     * <b>Note:</b> The prefix sum mode needs memory proportional to the
+     * highest position with a custom size configuration. It is not used if
+     * percentage sizing is enabled, as in that case the sizes are recalculated
+     * anyway on every change.
+     * </p>
+     *
+     * @param enabled
+     *            <code>true</code> to enable the prefix sum mode,
+     *            <code>false</code> to disable it.
+     *
+     * @since 2.0
+     */
+    public void setPrefixSumMode(boolean enabled) {
+        if (enabled && this.prefixSumTree == null) {
+            this.prefixSumTree = new PrefixSumTree();
+            this.isPrefixSumTreeValid = false;
+        } else if (!enabled) {
+            this.prefixSumTree = null;
+            this.isPrefixSumTreeValid = false;
+            this.isAggregatedSizeCacheValid = false;
+        }
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the prefix sum mode is enabled,
+     *         <code>false</code> if not.
+     * @see #setPrefixSumMode(boolean)
+     *
+     * @since 2.0
+     */
+    public boolean isPrefixSumMode() {
+        return this.prefixSumTree != null;
+    }
+
+    /**
+     * Returns the position that contains the given pixel value, which is the
+     * highest position whose aggregated size is lower or equal to the given
+     * value. In prefix sum mode this is an O(log n) operation, otherwise a
+     * binary search over the aggregated sizes is performed.
+     * <p>
+     * As the {@link SizeConfig} does not know the number of positions, the
+     * caller needs to ensure that the given value is lower than the aggregated
+     * size of all positions.
+     * </p>
+     *
+     * @param aggregateSize
+     *            The pixel value for which the position is requested.
+     * @return The position that contains the given pixel value or -1 if the
+     *         given value is negative.
+     *
+     * @since 2.0
+     */
+    public int getPositionByAggregateSize(int aggregateSize) {
+        if (aggregateSize < 0) {
+            return -1;
+        }
+
+        int scaledDefaultSize = upScale(this.defaultSize);
+        if (isAllPositionsSameSize() && !isPercentageSizing() && scaledDefaultSize > 0) {
+            return aggregateSize / scaledDefaultSize;
+        } else if (isPrefixSumTreeUsed()) {
+            return this.prefixSumTree.findIndex(aggregateSize, scaledDefaultSize);
+        }
+
+        // exponential search for the upper bound followed by a binary search
+        int low = 0;
+        int high = 1;
+        while (getAggregateSize(high) <= aggregateSize) {
+            low = high;
+            high <<= 1;
+            if (high < 0) {
+                high = Integer.MAX_VALUE;
+                break;
+            }
+        }
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (getAggregateSize(mid) <= aggregateSize) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks if the prefix sum mode is enabled and usable for the current
+     * configuration, and rebuilds the {@link PrefixSumTree} if it is not
+     * valid.
+     *
+     * @return <code>true</code> if the {@link PrefixSumTree} can be used for
+     *         aggregated size calculations.
+     */
+    private boolean isPrefixSumTreeUsed() {
+        if (this.prefixSumTree == null || isPercentageSizing()) {
+            return false;
+        }
+        if (!this.isPrefixSumTreeValid) {
+            this.prefixSumTree.clear();
+            int scaledDefaultSize = upScale(this.defaultSize);
+            this.defaultSizeMap.forEachKeyValue((position, size) -> {
+                if (!this.sizeMap.containsKey(position)) {
+                    this.prefixSumTree.add(position, upScale(size) - scaledDefaultSize);
+                }
+            });
+            this.sizeMap.forEachKeyValue((position, size) -> this.prefixSumTree.add(position, upScale(size) - scaledDefaultSize));
+            this.isPrefixSumTreeValid = true;
+        }
+        return true;
+    }
+
+    /**
+     * Applies the change of the pixel size of the given position to the
+     * {@link PrefixSumTree} if the prefix sum mode is enabled.
+     *
+     * @param position
+     *            The position whose size has changed.
+     * @param oldSize
+     *            The unscaled pixel size of the position before the change.
+     */
+    private void updatePrefixSumTree(int position, int oldSize) {
+        if (this.prefixSumTree != null && this.isPrefixSumTreeValid) {
+            this.prefixSumTree.add(position, upScale(getPixelSize(position)) - upScale(oldSize));
+        }
+    }
+
+    /**
+     * @param position
+     *            The position whose size is requested.
+     * @return The unscaled pixel size of the given position without taking
+     *         percentage sizing into account.
+     */
+    private int getPixelSize(int position) {
+        int size = this.sizeMap.getIfAbsent(position, -1);
+        return (size != -1) ? size : getDefaultSize(position);
+    }
+
     private int calculateAggregatedSize(int position) {
         int resizeAggregate = 0;
         int resizedColumns = 0;
@@ -1406,6 +1584,7 @@ public int downScale(int value) {
     public void setDpiConverter(IDpiConverter dpiConverter) {
         this.dpiConverter = dpiConverter;
         this.isAggregatedSizeCacheValid = false;
+        this.isPrefixSumTreeValid = false;
     }
 
     /**
@@ -1422,6 +1601,7 @@ public void reset() {
         this.realSizeMap.clear();
         this.aggregatedSizeCacheMap.clear();
         this.minSizeMap.clear();
+        this.isPrefixSumTreeValid = false;
     }
 
     /**
@@ -1434,7 +1614,9 @@ public void reset() {
      * @since 1.6
      */
     public void resetConfiguredSize(int position) {
+        int oldSize = getPixelSize(position);
         this.sizeMap.remove(position);
+        updatePrefixSumTree(position, oldSize);
         this.percentageSizeMap.remove(position);
         this.isAggregatedSizeCacheValid = false;
         calculatePercentages(this.availableSpace, this.realSizeMap.size());
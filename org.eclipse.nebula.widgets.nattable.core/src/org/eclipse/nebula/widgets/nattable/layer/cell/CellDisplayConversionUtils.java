@@ -10,13 +10,29 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.layer.cell;
 
+import java.util.function.Supplier;
+
 import org.eclipse.nebula.widgets.nattable.config.CellConfigAttributes;
 import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
 import org.eclipse.nebula.widgets.nattable.data.convert.IDisplayConverter;
+import org.eclipse.nebula.widgets.nattable.painter.layer.CellPaintCache;
 
 public class CellDisplayConversionUtils {
 
-    public static String convertDataType(ILayerCell cell, IConfigRegistry configRegistry) {
+    public static String convertDataType(final ILayerCell cell, final IConfigRegistry configRegistry) {
+        CellPaintCache cache = CellPaintCache.getCurrent();
+        if (cache != null) {
+            return cache.getDisplayValue(cell, configRegistry, new Supplier<String>() {
+                @Override
+                public String get() {
+                    return convert(cell, configRegistry);
+                }
+            });
+        }
+        return convert(cell, configRegistry);
+    }
+
+    private static String convert(ILayerCell cell, IConfigRegistry configRegistry) {
         Object canonicalValue = cell.getDataValue();
         Object displayValue;
 
@@ -17,6 +17,7 @@
 import org.eclipse.collections.api.list.primitive.MutableIntList;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
 import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
 import org.eclipse.nebula.widgets.nattable.layer.ILayer;
 import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
 
@@ -270,6 +271,76 @@ public static void handleRowInsert(
         }
     }
 
+    /**
+     * Will check for events that indicate that rows has been deleted and
+     * updates the given {@link RangeSet} of cached indexes accordingly. The
+     * deleted indexes are removed and all indexes after a deleted range are
+     * decreased by the number of deleted indexes. E.g. Row with index 3 is
+     * hidden in the given layer, deleting row at index 1 will cause the
+     * row at index 3 to be moved at index 2.
+     *
+     * @param rowDiffs
+     *            The collection of {@link StructuralDiff}s to handle
+     * @param underlyingLayer
+     *            The underlying layer of the layer who caches the indexes.
+     * @param cachedRowIndexes
+     *            The {@link RangeSet} of indexes that is cached by the layer
+     *            that needs transformation
+     * @since 2.0
+     */
+    public static void handleRowDelete(
+            Collection<StructuralDiff> rowDiffs, ILayer underlyingLayer,
+            RangeSet cachedRowIndexes) {
+
+        RangeSet toRemove = new RangeSet();
+        for (StructuralDiff rowDiff : rowDiffs) {
+            if (rowDiff.getDiffType() != null
+                    && rowDiff.getDiffType().equals(DiffTypeEnum.DELETE)) {
+                toRemove.add(rowDiff.getBeforePositionRange());
+            }
+        }
+
+        // process the deleted ranges from the end, so the values of the
+        // remaining deleted ranges are not modified
+        for (int i = toRemove.getRangeCount() - 1; i >= 0; i--) {
+            cachedRowIndexes.delete(toRemove.getRangeStart(i), toRemove.getRangeEnd(i));
+        }
+    }
+
+    /**
+     * Will check for events that indicate that rows are added and updates
+     * the given {@link RangeSet} of cached indexes accordingly. All indexes
+     * starting at the index of an added row are increased by one. E.g.
+     * Row with index 3 is hidden in the given layer, adding a row at index
+     * 1 will cause the row at index 3 to be moved to index 4.
+     *
+     * @param rowDiffs
+     *            The collection of {@link StructuralDiff}s to handle
+     * @param underlyingLayer
+     *            The underlying layer of the layer who caches the indexes.
+     *            Needed to translate the transported row positions to
+     *            indexes.
+     * @param cachedRowIndexes
+     *            The {@link RangeSet} of indexes that is cached by the layer
+     *            that needs transformation
+     * @since 2.0
+     */
+    public static void handleRowInsert(
+            Collection<StructuralDiff> rowDiffs, ILayer underlyingLayer,
+            RangeSet cachedRowIndexes) {
+
+        for (StructuralDiff rowDiff : rowDiffs) {
+            if (rowDiff.getDiffType() != null
+                    && rowDiff.getDiffType().equals(DiffTypeEnum.ADD)) {
+                Range beforePositionRange = rowDiff.getBeforePositionRange();
+                int beforeIndex = underlyingLayer.getRowIndexByPosition(beforePositionRange.start);
+                if (beforeIndex >= 0) {
+                    cachedRowIndexes.insert(beforeIndex, 1);
+                }
+            }
+        }
+    }
+
     /**
      * Will check for events that indicate that columns has been deleted. In
      * that case the given cached indexes for the given layer need to be updated
@@ -513,6 +584,76 @@ public static void handleColumnInsert(
         }
     }
 
+    /**
+     * Will check for events that indicate that columns has been deleted and
+     * updates the given {@link RangeSet} of cached indexes accordingly. The
+     * deleted indexes are removed and all indexes after a deleted range are
+     * decreased by the number of deleted indexes. E.g. Column with index 3 is
+     * hidden in the given layer, deleting column at index 1 will cause the
+     * column at index 3 to be moved at index 2.
+     *
+     * @param columnDiffs
+     *            The collection of {@link StructuralDiff}s to handle
+     * @param underlyingLayer
+     *            The underlying layer of the layer who caches the indexes.
+     * @param cachedColumnIndexes
+     *            The {@link RangeSet} of indexes that is cached by the layer
+     *            that needs transformation
+     * @since 2.0
+     */
+    public static void handleColumnDelete(
+            Collection<StructuralDiff> columnDiffs, ILayer underlyingLayer,
+            RangeSet cachedColumnIndexes) {
+
+        RangeSet toRemove = new RangeSet();
+        for (StructuralDiff columnDiff : columnDiffs) {
+            if (columnDiff.getDiffType() != null
+                    && columnDiff.getDiffType().equals(DiffTypeEnum.DELETE)) {
+                toRemove.add(columnDiff.getBeforePositionRange());
+            }
+        }
+
+        // process the deleted ranges from the end, so the values of the
+        // remaining deleted ranges are not modified
+        for (int i = toRemove.getRangeCount() - 1; i >= 0; i--) {
+            cachedColumnIndexes.delete(toRemove.getRangeStart(i), toRemove.getRangeEnd(i));
+        }
+    }
+
+    /**
+     * Will check for events that indicate that columns are added and updates
+     * the given {@link RangeSet} of cached indexes accordingly. All indexes
+     * starting at the index of an added column are increased by one. E.g.
+     * Column with index 3 is hidden in the given layer, adding a column at index
+     * 1 will cause the column at index 3 to be moved to index 4.
+     *
+     * @param columnDiffs
+     *            The collection of {@link StructuralDiff}s to handle
+     * @param underlyingLayer
+     *            The underlying layer of the layer who caches the indexes.
+     *            Needed to translate the transported column positions to
+     *            indexes.
+     * @param cachedColumnIndexes
+     *            The {@link RangeSet} of indexes that is cached by the layer
+     *            that needs transformation
+     * @since 2.0
+     */
+    public static void handleColumnInsert(
+            Collection<StructuralDiff> columnDiffs, ILayer underlyingLayer,
+            RangeSet cachedColumnIndexes) {
+
+        for (StructuralDiff columnDiff : columnDiffs) {
+            if (columnDiff.getDiffType() != null
+                    && columnDiff.getDiffType().equals(DiffTypeEnum.ADD)) {
+                Range beforePositionRange = columnDiff.getBeforePositionRange();
+                int beforeIndex = underlyingLayer.getColumnIndexByPosition(beforePositionRange.start);
+                if (beforeIndex >= 0) {
+                    cachedColumnIndexes.insert(beforeIndex, 1);
+                }
+            }
+        }
+    }
+
     /**
      * Method to indicate if the collection of StructuralDiffs marks a reorder
      * event. This is necessary because reordering itself contains out of two
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.swt.graphics.Rectangle;
+
+/**
+ * Collects the pixel areas that need to be repainted within a frame and
+ * coalesces them into a small set of regions. Used by the NatTable to turn a
+ * high number of single cell updates into a few redraw requests per frame.
+ * <p>
+ * On coalescing, duplicates are removed and rectangles that combine to a
+ * rectangle without painting additional pixels are merged, e.g. neighbour
+ * cells in the same row. This is done by sorting the rectangles by rows and
+ * by columns and sweeping once over each order, so coalescing scales with the
+ * number of collected areas. If there are still more than the configured
+ * maximum number of regions, the regions whose merge paints the least
+ * additional pixels are merged, or the bounding box is returned if too many
+ * regions remain for that.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class DirtyRegionAccumulator {
+
+    /** Default maximum number of regions returned by {@link #drain()}. */
+    public static final int DEFAULT_MAX_REGIONS = 16;
+
+    /**
+     * Number of regions left after merging neighbours above which the
+     * bounding box is returned instead of searching the cheapest merges, as
+     * that search compares all pairs of regions.
+     */
+    private static final int MAX_COST_MERGE_REGIONS = 32;
+
+    private static final Comparator<Rectangle> ROW_ORDER = new Comparator<Rectangle>() {
+        @Override
+        public int compare(Rectangle r1, Rectangle r2) {
+            int result = Integer.compare(r1.y, r2.y);
+            if (result == 0) {
+                result = Integer.compare(r1.height, r2.height);
+            }
+            return result != 0 ? result : Integer.compare(r1.x, r2.x);
+        }
+    };
+
+    private static final Comparator<Rectangle> COLUMN_ORDER = new Comparator<Rectangle>() {
+        @Override
+        public int compare(Rectangle r1, Rectangle r2) {
+            int result = Integer.compare(r1.x, r2.x);
+            if (result == 0) {
+                result = Integer.compare(r1.width, r2.width);
+            }
+            return result != 0 ? result : Integer.compare(r1.y, r2.y);
+        }
+    };
+
+    private final int maxRegions;
+
+    private Set<Rectangle> dirty = new LinkedHashSet<Rectangle>();
+
+    /**
+     * Creates a {@link DirtyRegionAccumulator} that returns at most
+     * {@link #DEFAULT_MAX_REGIONS} regions.
+     */
+    public DirtyRegionAccumulator() {
+        this(DEFAULT_MAX_REGIONS);
+    }
+
+    /**
+     *
+     * @param maxRegions
+     *            The maximum number of regions returned by {@link #drain()}.
+     */
+    public DirtyRegionAccumulator(int maxRegions) {
+        if (maxRegions <= 0) {
+            throw new IllegalArgumentException("maxRegions must be greater than 0"); //$NON-NLS-1$
+        }
+        this.maxRegions = maxRegions;
+    }
+
+    /**
+     * Adds an area that needs to be repainted. Empty areas are ignored.
+     *
+     * @param x
+     *            The x coordinate of the area.
+     * @param y
+     *            The y coordinate of the area.
+     * @param width
+     *            The width of the area.
+     * @param height
+     *            The height of the area.
+     * @return <code>true</code> if this is the first area added since the
+     *         last {@link #drain()}, which means that the caller needs to
+     *         schedule draining the regions.
+     */
+    public synchronized boolean add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        boolean first = this.dirty.isEmpty();
+        this.dirty.add(new Rectangle(x, y, width, height));
+        return first;
+    }
+
+    /**
+     *
+     * @return <code>true</code> if no area was added since the last
+     *         {@link #drain()}.
+     */
+    public synchronized boolean isEmpty() {
+        return this.dirty.isEmpty();
+    }
+
+    /**
+     * Removes all collected areas without coalescing them.
+     */
+    public synchronized void clear() {
+        this.dirty.clear();
+    }
+
+    /**
+     * Returns the coalesced regions of all areas added since the last call
+     * and clears the collected areas.
+     *
+     * @return The regions to repaint, at most the configured maximum number
+     *         of regions. Never <code>null</code>.
+     */
+    public List<Rectangle> drain() {
+        Set<Rectangle> areas;
+        synchronized (this) {
+            if (this.dirty.isEmpty()) {
+                return Collections.emptyList();
+            }
+            areas = this.dirty;
+            this.dirty = new LinkedHashSet<Rectangle>();
+        }
+        return coalesce(areas);
+    }
+
+    private List<Rectangle> coalesce(Set<Rectangle> areas) {
+        List<Rectangle> regions = new ArrayList<Rectangle>(areas);
+        // merge all regions that combine without painting additional pixels,
+        // e.g. neighbour cells in a row and rows of the same width
+        regions = mergeAdjacent(regions, ROW_ORDER);
+        regions = mergeAdjacent(regions, COLUMN_ORDER);
+
+        if (regions.size() > this.maxRegions && regions.size() > MAX_COST_MERGE_REGIONS) {
+            Rectangle bounds = regions.get(0);
+            for (Rectangle region : regions) {
+                bounds = bounds.union(region);
+            }
+            return Collections.singletonList(bounds);
+        }
+
+        // reduce to the maximum number of regions
+        while (regions.size() > this.maxRegions) {
+            int first = 0;
+            int second = 1;
+            long minCost = Long.MAX_VALUE;
+            for (int i = 0; i < regions.size(); i++) {
+                for (int j = i + 1; j < regions.size(); j++) {
+                    long cost = getMergeCost(regions.get(i), regions.get(j));
+                    if (cost < minCost) {
+                        minCost = cost;
+                        first = i;
+                        second = j;
+                    }
+                }
+            }
+            regions.set(first, regions.get(first).union(regions.get(second)));
+            regions.remove(second);
+        }
+        return regions;
+    }
+
+    /**
+     * Sorts the rectangles in the given order and merges each rectangle with
+     * the preceding merged region if their union does not paint additional
+     * pixels. As a merged region can make the previous region mergeable too,
+     * the merged regions are handled as a stack.
+     */
+    private static List<Rectangle> mergeAdjacent(List<Rectangle> regions, Comparator<Rectangle> order) {
+        Collections.sort(regions, order);
+        List<Rectangle> result = new ArrayList<Rectangle>(regions.size());
+        for (Rectangle region : regions) {
+            Rectangle current = region;
+            while (!result.isEmpty() && getMergeCost(result.get(result.size() - 1), current) <= 0) {
+                current = result.remove(result.size() - 1).union(current);
+            }
+            result.add(current);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of pixels that are painted additionally if the two
+     *         rectangles are replaced by their union.
+     */
+    private static long getMergeCost(Rectangle r1, Rectangle r2) {
+        Rectangle intersection = r1.intersection(r2);
+        long covered = area(r1) + area(r2) - area(intersection);
+        return area(r1.union(r2)) - covered;
+    }
+
+    private static long area(Rectangle rectangle) {
+        return rectangle.isEmpty() ? 0 : (long) rectangle.width * rectangle.height;
+    }
+}
@@ -0,0 +1,485 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter.cell;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * Cache for the width of texts rendered with a {@link Font}. Measuring a text
+ * via {@link GC#textExtent(String)} is expensive, so the measured widths are
+ * kept in a LRU cache per font with a maximum number of entries. The caches
+ * are keyed by the {@link FontData} name, height and style and the DPI of the
+ * device, so fonts that are created again with the same data share the cache
+ * and disposed fonts are not referenced.
+ * <p>
+ * For texts that only consist of digits and number separators, and for
+ * monospaced fonts, the width is calculated from the width of the single
+ * characters without caching, so values like prices or ids do not fill up
+ * the cache. This is only done if it was verified for the font with several
+ * probe texts, including typical kerning pairs, that the width of a text is
+ * the sum of the widths of its characters.
+ * </p>
+ * <p>
+ * The cache is thread safe.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class TextExtentCache {
+
+    /** Default maximum number of cached texts per font. */
+    public static final int DEFAULT_MAX_ENTRIES_PER_FONT = 4096;
+
+    /** Characters that are supported by the numeric fast path. */
+    private static final String NUMERIC_CHARS = "0123456789.,-+"; //$NON-NLS-1$
+
+    /**
+     * Texts that are measured to verify that the width of numeric texts is the
+     * sum of the widths of its characters.
+     */
+    private static final String[] NUMERIC_PROBES = {
+            NUMERIC_CHARS, "11", "1.1", "7.4", "-1", "1,0", "+7", "10.00" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+
+    /** Characters that are checked to detect a monospaced font. */
+    private static final String MONOSPACE_PROBE = "iWm.0 "; //$NON-NLS-1$
+
+    /**
+     * Texts that are measured to verify that the width of a text in a
+     * monospaced font is the number of characters multiplied with the
+     * character width.
+     */
+    private static final String[] MONOSPACE_PROBES = {
+            MONOSPACE_PROBE, "AV", "To", "fi", "ff", "Wa", "il1", "--" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+
+    private final int maxEntriesPerFont;
+
+    /** The caches per font key, guarded by itself. */
+    private final Map<Object, FontCache> fontCaches = new HashMap<Object, FontCache>();
+
+    /** Number of recently used font caches that are checked by identity. */
+    private static final int RECENT_FONTS = 4;
+
+    /**
+     * The caches of the recently used fonts, as typically many texts are
+     * measured with a few fonts. Avoids creating the font key for every text.
+     * Not guarded, a stale entry only results in creating the font key again.
+     */
+    private final FontCache[] recentFontCaches = new FontCache[RECENT_FONTS];
+    private int nextRecentFontCache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong calculated = new AtomicLong();
+
+    /**
+     * Creates a {@link TextExtentCache} with
+     * {@link #DEFAULT_MAX_ENTRIES_PER_FONT}.
+     */
+    public TextExtentCache() {
+        this(DEFAULT_MAX_ENTRIES_PER_FONT);
+    }
+
+    /**
+     *
+     * @param maxEntriesPerFont
+     *            The maximum number of cached texts per font.
+     */
+    public TextExtentCache(int maxEntriesPerFont) {
+        if (maxEntriesPerFont <= 0) {
+            throw new IllegalArgumentException("maxEntriesPerFont must be greater than 0"); //$NON-NLS-1$
+        }
+        this.maxEntriesPerFont = maxEntriesPerFont;
+    }
+
+    /**
+     * Returns the width of the given text rendered with the current font of
+     * the given {@link GC}.
+     *
+     * @param gc
+     *            The {@link GC} to measure the text.
+     * @param text
+     *            The text to measure.
+     * @return The width of the text in pixels.
+     */
+    public int getTextExtent(final GC gc, String text) {
+        Font font = gc.getFont();
+        if (font == null) {
+            return gc.textExtent(text).x;
+        }
+
+        FontCache cache = getRecentFontCache(font);
+        if (cache == null) {
+            FontData[] fontData = font.getFontData();
+            if (fontData.length == 0) {
+                return gc.textExtent(text).x;
+            }
+            FontKey key = new FontKey(fontData[0], font.getDevice().getDPI());
+            cache = getFontCache(key);
+            if (cache == null) {
+                cache = createFontCache(key, new ToIntFunction<String>() {
+                    @Override
+                    public int applyAsInt(String value) {
+                        return gc.textExtent(value).x;
+                    }
+                });
+            }
+            addRecentFontCache(font, cache);
+        }
+
+        int width = getCachedTextExtent(cache, text);
+        if (width < 0) {
+            width = gc.textExtent(text).x;
+            putTextExtent(cache, text, width);
+        }
+        return width;
+    }
+
+    /**
+     * Returns the width of the given text from the cache of the given font,
+     * or measures and caches it.
+     *
+     * @param font
+     *            The font the text is rendered with.
+     * @param text
+     *            The text to measure.
+     * @param measure
+     *            The function that measures a text with the font.
+     * @return The width of the text in pixels.
+     */
+    int getTextExtent(Object font, String text, ToIntFunction<String> measure) {
+        FontCache cache = getRecentFontCache(font);
+        if (cache == null) {
+            cache = getFontCache(font);
+            if (cache == null) {
+                cache = createFontCache(font, measure);
+            }
+            addRecentFontCache(font, cache);
+        }
+
+        int width = getCachedTextExtent(cache, text);
+        if (width < 0) {
+            width = measure.applyAsInt(text);
+            putTextExtent(cache, text, width);
+        }
+        return width;
+    }
+
+    /**
+     * Returns the width of the given text calculated from its characters or
+     * from the cache.
+     *
+     * @return The width of the text or -1 if the text needs to be measured.
+     */
+    private int getCachedTextExtent(FontCache cache, String text) {
+        int width = cache.calculate(text);
+        if (width >= 0) {
+            this.calculated.incrementAndGet();
+            return width;
+        }
+
+        synchronized (cache) {
+            Integer cached = cache.widths.get(text);
+            if (cached != null) {
+                this.hits.incrementAndGet();
+                return cached.intValue();
+            }
+        }
+
+        this.misses.incrementAndGet();
+        return -1;
+    }
+
+    private void putTextExtent(FontCache cache, String text, int width) {
+        synchronized (cache) {
+            cache.widths.put(text, width);
+        }
+    }
+
+    /**
+     * @return The cache of the given font if it was used recently, or
+     *         <code>null</code>.
+     */
+    private FontCache getRecentFontCache(Object font) {
+        for (FontCache cache : this.recentFontCaches) {
+            if (cache != null && cache.font.get() == font) {
+                return cache;
+            }
+        }
+        return null;
+    }
+
+    private void addRecentFontCache(Object font, FontCache cache) {
+        cache.font = new WeakReference<Object>(font);
+        this.recentFontCaches[this.nextRecentFontCache] = cache;
+        this.nextRecentFontCache = (this.nextRecentFontCache + 1) % RECENT_FONTS;
+    }
+
+    /**
+     * @return The cache for the given font key, or <code>null</code> if there
+     *         is no cache for the key yet.
+     */
+    private FontCache getFontCache(Object key) {
+        synchronized (this.fontCaches) {
+            return this.fontCaches.get(key);
+        }
+    }
+
+    /**
+     * Creates the cache for the given font key if it does not exist yet.
+     *
+     * @param key
+     *            The key of the font cache.
+     * @param measure
+     *            The function that measures a text with the font. Used to
+     *            verify the calculation from single characters.
+     * @return The cache for the given key.
+     */
+    private FontCache createFontCache(Object key, ToIntFunction<String> measure) {
+        FontCache cache = new FontCache(this.maxEntriesPerFont, measure);
+        synchronized (this.fontCaches) {
+            FontCache existing = this.fontCaches.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            this.fontCaches.put(key, cache);
+        }
+        return cache;
+    }
+
+    /**
+     *
+     * @return The number of texts whose width was returned from the cache.
+     */
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     *
+     * @return The number of texts that needed to be measured.
+     */
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     *
+     * @return The number of texts whose width was calculated from the widths
+     *         of its characters.
+     */
+    public long getCalculatedCount() {
+        return this.calculated.get();
+    }
+
+    /**
+     *
+     * @return The number of cached texts over all fonts.
+     */
+    public int size() {
+        int size = 0;
+        synchronized (this.fontCaches) {
+            for (FontCache cache : this.fontCaches.values()) {
+                synchronized (cache) {
+                    size += cache.widths.size();
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached widths and resets the statistics.
+     */
+    public void clear() {
+        synchronized (this.fontCaches) {
+            this.fontCaches.clear();
+        }
+        for (int i = 0; i < RECENT_FONTS; i++) {
+            this.recentFontCaches[i] = null;
+        }
+        this.hits.set(0);
+        this.misses.set(0);
+        this.calculated.set(0);
+    }
+
+    /**
+     * The key of a font cache. Fonts with the same name, height and style
+     * render texts with the same width on devices with the same DPI.
+     */
+    private static final class FontKey {
+
+        private final String name;
+        private final int height;
+        private final int style;
+        private final int dpiX;
+        private final int dpiY;
+
+        FontKey(FontData fontData, Point dpi) {
+            this.name = fontData.getName();
+            this.height = fontData.getHeight();
+            this.style = fontData.getStyle();
+            this.dpiX = dpi.x;
+            this.dpiY = dpi.y;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 + this.name.hashCode();
+            result = 31 * result + this.height;
+            result = 31 * result + this.style;
+            result = 31 * result + this.dpiX;
+            return 31 * result + this.dpiY;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey) obj;
+            return this.name.equals(other.name)
+                    && this.height == other.height
+                    && this.style == other.style
+                    && this.dpiX == other.dpiX
+                    && this.dpiY == other.dpiY;
+        }
+    }
+
+    /**
+     * The cached widths of a single font.
+     */
+    private static final class FontCache {
+
+        /**
+         * The font that was last used with this cache, only used for the
+         * identity check of the last used font cache. Referenced weakly, so
+         * disposed fonts can be garbage collected.
+         */
+        private volatile WeakReference<Object> font = new WeakReference<Object>(null);
+
+        /** Measured widths in access order, guarded by this. */
+        private final Map<String, Integer> widths;
+
+        /**
+         * The widths of the {@link TextExtentCache#NUMERIC_CHARS} or
+         * <code>null</code> if the width of numeric texts can not be
+         * calculated from the single characters.
+         */
+        private final int[] numericWidths;
+
+        /**
+         * The width of all ASCII characters if the font is monospaced, -1
+         * otherwise.
+         */
+        private final int monospaceWidth;
+
+        FontCache(final int maxEntries, ToIntFunction<String> measure) {
+            this.widths = new LinkedHashMap<String, Integer>(64, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+
+            int[] charWidths = new int[NUMERIC_CHARS.length()];
+            for (int i = 0; i < charWidths.length; i++) {
+                charWidths[i] = measure.applyAsInt(String.valueOf(NUMERIC_CHARS.charAt(i)));
+            }
+            // kerning or other text layout would result in a different width
+            boolean additive = true;
+            for (String probe : NUMERIC_PROBES) {
+                if (measure.applyAsInt(probe) != sumWidths(charWidths, probe)) {
+                    additive = false;
+                    break;
+                }
+            }
+            this.numericWidths = additive ? charWidths : null;
+
+            int width = measure.applyAsInt(String.valueOf(MONOSPACE_PROBE.charAt(0)));
+            for (int i = 1; i < MONOSPACE_PROBE.length() && width > 0; i++) {
+                if (measure.applyAsInt(String.valueOf(MONOSPACE_PROBE.charAt(i))) != width) {
+                    width = -1;
+                }
+            }
+            for (int i = 0; i < MONOSPACE_PROBES.length && width > 0; i++) {
+                if (measure.applyAsInt(MONOSPACE_PROBES[i]) != width * MONOSPACE_PROBES[i].length()) {
+                    width = -1;
+                }
+            }
+            this.monospaceWidth = width > 0 ? width : -1;
+        }
+
+        /**
+         * @return The sum of the widths of the characters of the given numeric
+         *         text.
+         */
+        private static int sumWidths(int[] charWidths, String text) {
+            int width = 0;
+            for (int i = 0; i < text.length(); i++) {
+                width += charWidths[NUMERIC_CHARS.indexOf(text.charAt(i))];
+            }
+            return width;
+        }
+
+        /**
+         * @return The width of the text calculated from its characters or -1
+         *         if the width can not be calculated.
+         */
+        int calculate(String text) {
+            if (text.isEmpty()) {
+                return -1;
+            }
+
+            if (this.monospaceWidth > 0) {
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c < 0x20 || c > 0x7E) {
+                        return -1;
+                    }
+                }
+                return text.length() * this.monospaceWidth;
+            }
+
+            if (this.numericWidths != null) {
+                int width = 0;
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c >= '0' && c <= '9') {
+                        width += this.numericWidths[c - '0'];
+                    } else {
+                        int index = NUMERIC_CHARS.indexOf(c, 10);
+                        if (index < 0) {
+                            return -1;
+                        }
+                        width += this.numericWidths[index];
+                    }
+                }
+                return width;
+            }
+            return -1;
+        }
+    }
+}
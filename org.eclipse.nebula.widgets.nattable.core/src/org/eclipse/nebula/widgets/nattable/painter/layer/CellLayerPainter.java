@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -196,7 +196,10 @@ protected void paintCell(ILayerCell cell, GC gc, IConfigRegistry configRegistry)
         ILayer layer = cell.getLayer();
         int columnPosition = cell.getColumnPosition();
         int rowPosition = cell.getRowPosition();
-        ICellPainter cellPainter = layer.getCellPainter(columnPosition, rowPosition, cell, configRegistry);
+        CellPaintCache cache = CellPaintCache.getCurrent();
+        ICellPainter cellPainter = (cache != null)
+                ? cache.getCellPainter(cell, configRegistry)
+                : layer.getCellPainter(columnPosition, rowPosition, cell, configRegistry);
         Rectangle adjustedCellBounds = layer
                 .getLayerPainter()
                 .adjustCellBounds(columnPosition, rowPosition, cell.getBounds());
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.painter.layer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.layer.ILayer;
+import org.eclipse.nebula.widgets.nattable.layer.LabelStack;
+import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.eclipse.nebula.widgets.nattable.painter.cell.ICellPainter;
+import org.eclipse.nebula.widgets.nattable.style.CellStyleProxy;
+import org.eclipse.nebula.widgets.nattable.style.ConfigAttribute;
+import org.eclipse.nebula.widgets.nattable.style.IStyle;
+
+/**
+ * Cache for the information that is resolved for a cell while painting, like
+ * the config labels, the cell style, the cell painter and the converted
+ * display value. In one paint pass the same cell is typically processed by
+ * several painters, e.g. the background painter, the text painter, decorators
+ * and border painters, which would otherwise resolve the same information
+ * multiple times.
+ * <p>
+ * The cache is only active within a frame, which is started and finished by
+ * the {@link NatLayerPainter}, and is bound to the painting thread. Outside a
+ * frame {@link #getCurrent()} returns <code>null</code> and the information
+ * is resolved as usual. This way the cache is transparent for existing
+ * painters, as it is used by
+ * {@link org.eclipse.nebula.widgets.nattable.style.CellStyleUtil#getCellStyle(ILayerCell, IConfigRegistry)},
+ * {@link org.eclipse.nebula.widgets.nattable.layer.cell.CellDisplayConversionUtils#convertDataType(ILayerCell, IConfigRegistry)}
+ * and the {@link CellLayerPainter}.
+ * </p>
+ * <p>
+ * Cells are identified by their layer, origin position and display mode. If a
+ * different cell instance with the same identity is processed, e.g. a cell
+ * created by another layer painter, the cached information is only reused if
+ * the config labels and the data value are equal.
+ * </p>
+ *
+ * @since 2.0
+ */
+public final class CellPaintCache {
+
+    private static final ThreadLocal<CellPaintCache> CURRENT = new ThreadLocal<CellPaintCache>();
+
+    private final Map<CellKey, CellContext> contexts = new HashMap<CellKey, CellContext>();
+
+    /** The number of nested frames, a frame is only finished by the outermost call. */
+    private int depth;
+
+    private CellPaintCache() {
+        // only created via beginFrame()
+    }
+
+    /**
+     * Starts a frame on the current thread. Needs to be followed by
+     * {@link #endFrame()} in a finally block. Nested calls are supported, the
+     * cache is cleared when the outermost frame is finished.
+     */
+    public static void beginFrame() {
+        CellPaintCache cache = CURRENT.get();
+        if (cache == null) {
+            cache = new CellPaintCache();
+            CURRENT.set(cache);
+        }
+        cache.depth++;
+    }
+
+    /**
+     * Finishes a frame on the current thread and clears the cache if it is the
+     * outermost frame.
+     */
+    public static void endFrame() {
+        CellPaintCache cache = CURRENT.get();
+        if (cache != null && --cache.depth <= 0) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     *
+     * @return The cache of the current frame or <code>null</code> if the
+     *         current thread is not painting.
+     */
+    public static CellPaintCache getCurrent() {
+        return CURRENT.get();
+    }
+
+    /**
+     *
+     * @param cell
+     *            The cell for which the labels are requested.
+     * @return The config labels of the cell.
+     */
+    public LabelStack getConfigLabels(ILayerCell cell) {
+        return getContext(cell).labels;
+    }
+
+    /**
+     *
+     * @param cell
+     *            The cell for which the style is requested.
+     * @param configRegistry
+     *            The {@link IConfigRegistry} to resolve the style attributes.
+     * @return The style of the cell that caches the resolved attribute values.
+     */
+    public IStyle getCellStyle(ILayerCell cell, IConfigRegistry configRegistry) {
+        CellContext context = getContext(cell);
+        if (context.style == null || context.style.getConfigRegistry() != configRegistry) {
+            context.style = new CachingCellStyleProxy(configRegistry, cell.getDisplayMode(), context.labels);
+        }
+        return context.style;
+    }
+
+    /**
+     *
+     * @param cell
+     *            The cell for which the painter is requested.
+     * @param configRegistry
+     *            The {@link IConfigRegistry} to resolve the painter.
+     * @return The {@link ICellPainter} of the cell as returned by
+     *         {@link ILayer#getCellPainter(int, int, ILayerCell, IConfigRegistry)}.
+     */
+    public ICellPainter getCellPainter(ILayerCell cell, IConfigRegistry configRegistry) {
+        CellContext context = getContext(cell);
+        if (!context.painterResolved || context.painterConfigRegistry != configRegistry) {
+            context.painter = cell.getLayer().getCellPainter(
+                    cell.getColumnPosition(), cell.getRowPosition(), cell, configRegistry);
+            context.painterConfigRegistry = configRegistry;
+            context.painterResolved = true;
+        }
+        return context.painter;
+    }
+
+    /**
+     *
+     * @param cell
+     *            The cell for which the display value is requested.
+     * @param configRegistry
+     *            The {@link IConfigRegistry} used for the conversion.
+     * @param conversion
+     *            The conversion that is performed if the display value is not
+     *            cached yet.
+     * @return The display value of the cell.
+     */
+    public String getDisplayValue(ILayerCell cell, IConfigRegistry configRegistry, Supplier<String> conversion) {
+        CellContext context = getContext(cell);
+        if (context.displayValue == null || context.displayValueConfigRegistry != configRegistry) {
+            context.displayValue = conversion.get();
+            context.displayValueConfigRegistry = configRegistry;
+        }
+        return context.displayValue;
+    }
+
+    /**
+     *
+     * @return The number of cells in the cache.
+     */
+    int size() {
+        return this.contexts.size();
+    }
+
+    private CellContext getContext(ILayerCell cell) {
+        CellKey key = new CellKey(cell);
+        CellContext context = this.contexts.get(key);
+        if (context != null && context.cell != cell) {
+            // another instance for the same cell, only reuse if the
+            // information the cached values are based on are equal
+            if (context.labels.equals(cell.getConfigLabels())
+                    && Objects.equals(context.dataValue, cell.getDataValue())) {
+                context.cell = cell;
+            } else {
+                context = null;
+            }
+        }
+        if (context == null) {
+            context = new CellContext(cell);
+            this.contexts.put(key, context);
+        }
+        return context;
+    }
+
+    /**
+     * Identity of a cell within a frame.
+     */
+    private static final class CellKey {
+
+        private final ILayer layer;
+        private final int columnPosition;
+        private final int rowPosition;
+        private final String displayMode;
+        private final int hash;
+
+        CellKey(ILayerCell cell) {
+            this.layer = cell.getLayer();
+            this.columnPosition = cell.getOriginColumnPosition();
+            this.rowPosition = cell.getOriginRowPosition();
+            this.displayMode = cell.getDisplayMode();
+
+            int result = System.identityHashCode(this.layer);
+            result = 31 * result + this.columnPosition;
+            result = 31 * result + this.rowPosition;
+            result = 31 * result + (this.displayMode != null ? this.displayMode.hashCode() : 0);
+            this.hash = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) obj;
+            return this.layer == other.layer
+                    && this.columnPosition == other.columnPosition
+                    && this.rowPosition == other.rowPosition
+                    && Objects.equals(this.displayMode, other.displayMode);
+        }
+    }
+
+    /**
+     * The resolved information of a cell.
+     */
+    private static final class CellContext {
+
+        ILayerCell cell;
+        final LabelStack labels;
+        final Object dataValue;
+
+        CachingCellStyleProxy style;
+
+        ICellPainter painter;
+        IConfigRegistry painterConfigRegistry;
+        boolean painterResolved;
+
+        String displayValue;
+        IConfigRegistry displayValueConfigRegistry;
+
+        CellContext(ILayerCell cell) {
+            this.cell = cell;
+            this.labels = cell.getConfigLabels();
+            this.dataValue = cell.getDataValue();
+        }
+    }
+
+    /**
+     * {@link CellStyleProxy} that caches the resolved attribute values.
+     */
+    private static final class CachingCellStyleProxy extends CellStyleProxy {
+
+        private static final Object NULL = new Object();
+
+        private final Map<ConfigAttribute<?>, Object> values = new HashMap<ConfigAttribute<?>, Object>();
+        private final Map<ConfigAttribute<?>, Object> unmodifiedValues = new HashMap<ConfigAttribute<?>, Object>();
+
+        CachingCellStyleProxy(IConfigRegistry configRegistry, String targetDisplayMode, List<String> configLabels) {
+            super(configRegistry, targetDisplayMode, configLabels);
+        }
+
+        IConfigRegistry getConfigRegistry() {
+            return this.configRegistry;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T getAttributeValue(ConfigAttribute<T> styleAttribute, boolean noModification) {
+            Map<ConfigAttribute<?>, Object> cache = noModification ? this.unmodifiedValues : this.values;
+            Object value = cache.get(styleAttribute);
+            if (value == null) {
+                value = super.getAttributeValue(styleAttribute, noModification);
+                cache.put(styleAttribute, value != null ? value : NULL);
+            }
+            return (value != NULL) ? (T) value : null;
+        }
+    }
+}
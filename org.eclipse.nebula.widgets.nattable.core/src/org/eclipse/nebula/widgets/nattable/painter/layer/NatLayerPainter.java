@@ -10,6 +10,8 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.painter.layer;
 
+import java.util.Collection;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.eclipse.nebula.widgets.nattable.NatTable;
@@ -19,6 +21,7 @@
 import org.eclipse.nebula.widgets.nattable.painter.IOverlayPainter2;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.Region;
 
 /**
  * ILayerPainter implementation that is rendering the background of the space
@@ -50,6 +53,8 @@ public void paintLayer(
             int xOffset, int yOffset, Rectangle rectangle,
             IConfigRegistry configRegistry) {
 
+        // resolved cell information is shared by all painters within a frame
+        CellPaintCache.beginFrame();
         try {
             paintBackground(natLayer, gc, xOffset, yOffset, rectangle, configRegistry);
 
@@ -61,6 +66,59 @@ public void paintLayer(
             paintOverlays(natLayer, gc, xOffset, yOffset, rectangle, configRegistry);
         } catch (Exception e) {
             LOG.error("Error while painting table", e); //$NON-NLS-1$
+        } finally {
+            CellPaintCache.endFrame();
+        }
+    }
+
+    /**
+     * Paints only the given regions of the NatTable, e.g. the coalesced areas
+     * of collected repaints. The background and the layers are painted once
+     * per region with the clipping of the GC set to the region. The overlays
+     * are painted once for the bounds of all regions.
+     *
+     * @param natLayer
+     *            The NatTable to paint.
+     * @param gc
+     *            The GC to paint on.
+     * @param xOffset
+     *            The x offset.
+     * @param yOffset
+     *            The y offset.
+     * @param regions
+     *            The regions to paint.
+     * @param bounds
+     *            The bounds that contain all regions.
+     * @param configRegistry
+     *            The IConfigRegistry of the NatTable.
+     * @since 2.0
+     */
+    public void paintRegions(
+            ILayer natLayer, GC gc,
+            int xOffset, int yOffset, Collection<Rectangle> regions, Rectangle bounds,
+            IConfigRegistry configRegistry) {
+
+        CellPaintCache.beginFrame();
+        Region clipping = new Region(gc.getDevice());
+        try {
+            gc.getClipping(clipping);
+
+            ILayerPainter layerPainter = this.natTable.getLayer().getLayerPainter();
+            for (Rectangle region : regions) {
+                gc.setClipping(region);
+                paintBackground(natLayer, gc, xOffset, yOffset, region, configRegistry);
+
+                gc.setForeground(this.natTable.getForeground());
+                layerPainter.paintLayer(natLayer, gc, xOffset, yOffset, region, configRegistry);
+            }
+
+            gc.setClipping(clipping);
+            paintOverlays(natLayer, gc, xOffset, yOffset, bounds, configRegistry);
+        } catch (Exception e) {
+            LOG.error("Error while painting table", e); //$NON-NLS-1$
+        } finally {
+            clipping.dispose();
+            CellPaintCache.endFrame();
         }
     }
 
@@ -25,6 +25,7 @@
 import org.eclipse.nebula.widgets.nattable.command.ILayerCommand;
 import org.eclipse.nebula.widgets.nattable.coordinate.PositionUtil;
 import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
 import org.eclipse.nebula.widgets.nattable.layer.AbstractLayerTransform;
 import org.eclipse.nebula.widgets.nattable.layer.ILayer;
 import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
@@ -33,8 +34,8 @@
 import org.eclipse.nebula.widgets.nattable.layer.event.ColumnStructuralRefreshEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
-import org.eclipse.nebula.widgets.nattable.layer.event.StructuralChangeEventHelper;
 import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
 import org.eclipse.nebula.widgets.nattable.persistence.IPersistable;
 import org.eclipse.nebula.widgets.nattable.reorder.action.ColumnReorderDragMode;
 import org.eclipse.nebula.widgets.nattable.reorder.command.ColumnReorderCommandHandler;
@@ -60,12 +61,33 @@ public class ColumnReorderLayer extends AbstractLayerTransform implements IUniqu
 
     private final IUniqueIndexLayer underlyingLayer;
 
+    /**
+     * The column index order stored as runs of consecutive indexes. Used to
+     * handle structural changes and to calculate the start x positions per run
+     * instead of per column.
+     */
+    private final PiecewiseIndexOrder columnIndexRuns = new PiecewiseIndexOrder();
+
+    /**
+     * Lazily materialized views of the {@link #columnIndexRuns} for the deprecated
+     * {@link #columnIndexOrder} and {@link #indexPositionMapping}.
+     */
+    private final IndexOrderViews indexOrderViews = new IndexOrderViews(this.columnIndexRuns);
+
     /**
      * The internal cache of the column index order. Used to track the
      * reordering performed by this layer. Position X in the List contains the
      * index of column at position X.
+     *
+     * @deprecated The order is tracked internally as runs of consecutive
+     *             indexes. This list is a view that is only materialized if
+     *             it is accessed, and will be removed in a future version. Use
+     *             {@link #getColumnIndexOrderArray()} to access the order.
+     *             Subclasses that modify this list need to call
+     *             {@link #refreshIndexPositionMapping()} afterwards.
      */
-    protected final MutableIntList columnIndexOrder = IntLists.mutable.empty();
+    @Deprecated
+    protected final MutableIntList columnIndexOrder = this.indexOrderViews.indexOrderView;
 
     /**
      * The internal mapping of index to position values. Used for performance
@@ -73,11 +95,23 @@ public class ColumnReorderLayer extends AbstractLayerTransform implements IUniqu
      * {@link List#indexOf(Object)} doesn't scale well.
      *
      * @since 1.5
+     * @deprecated A view that is only materialized if it is accessed. Will
+     *             be removed in a future version. Use
+     *             {@link #getColumnPositionByIndex(int)} instead.
      */
-    protected final MutableIntIntMap indexPositionMapping = IntIntMaps.mutable.empty();
+    @Deprecated
+    protected final MutableIntIntMap indexPositionMapping = this.indexOrderViews.indexPositionMappingView;
 
     private final MutableIntIntMap startXCache = IntIntMaps.mutable.empty();
 
+    /**
+     * Caching of the starting x positions of the runs in the
+     * {@link #columnIndexRuns}. Lazily filled up to
+     * {@link #runStartXCacheSize}.
+     */
+    private int[] runStartXCache;
+    private int runStartXCacheSize;
+
     private int reorderFromColumnPosition;
 
     /**
@@ -126,12 +160,9 @@ public void handleLayerEvent(ILayerEvent event) {
                     populateIndexOrder();
                 } else {
                     // only react on ADD or DELETE and not on CHANGE
-                    StructuralChangeEventHelper.handleColumnDelete(
-                            structuralDiffs, this.underlyingLayer, this.columnIndexOrder, true);
-                    StructuralChangeEventHelper.handleColumnInsert(
-                            structuralDiffs, this.underlyingLayer, this.columnIndexOrder, true);
-                    // update index-position mapping
-                    refreshIndexPositionMapping();
+                    handleColumnDelete(structuralDiffs);
+                    handleColumnInsert(structuralDiffs);
+                    this.indexOrderViews.invalidate();
                 }
                 invalidateCache();
             }
@@ -165,10 +196,10 @@ protected void registerCommandHandlers() {
     @Override
     public void saveState(String prefix, Properties properties) {
         super.saveState(prefix, properties);
-        if (this.columnIndexOrder.size() > 0) {
+        if (this.columnIndexRuns.size() > 0) {
             properties.setProperty(
                     prefix + PERSISTENCE_KEY_COLUMN_INDEX_ORDER,
-                    this.columnIndexOrder.makeString(IPersistable.VALUE_SEPARATOR));
+                    IntLists.mutable.with(this.columnIndexRuns.toArray()).makeString(IPersistable.VALUE_SEPARATOR));
         }
     }
 
@@ -185,11 +216,10 @@ public void loadState(String prefix, Properties properties) {
                 newColumnIndexOrder.add(Integer.parseInt(index));
             }
 
-            if (isRestoredStateValid(newColumnIndexOrder.toArray())) {
-                this.columnIndexOrder.clear();
-                this.columnIndexOrder.addAll(newColumnIndexOrder);
-                // refresh index-position mapping
-                refreshIndexPositionMapping();
+            int[] newOrder = newColumnIndexOrder.toArray();
+            if (isRestoredStateValid(newOrder)) {
+                this.columnIndexRuns.setAll(newOrder);
+                this.indexOrderViews.invalidate();
             }
 
         }
@@ -214,7 +244,7 @@ protected boolean isRestoredStateValid(int[] newColumnIndexOrder) {
         }
 
         for (int index : newColumnIndexOrder) {
-            if (!this.indexPositionMapping.containsKey(index)) {
+            if (this.columnIndexRuns.getPosition(index) < 0) {
                 LOG.error("Column index: " + index + " being restored, is not a available in the data soure.\n" + //$NON-NLS-1$ //$NON-NLS-2$
                         "Skipping restore of column ordering"); //$NON-NLS-1$
                 return false;
@@ -230,7 +260,7 @@ protected boolean isRestoredStateValid(int[] newColumnIndexOrder) {
      * @return the internal kept ordering of column indexes.
      */
     public List<Integer> getColumnIndexOrder() {
-        return ArrayUtil.asIntegerList(this.columnIndexOrder.toArray());
+        return ArrayUtil.asIntegerList(this.columnIndexRuns.toArray());
     }
 
     /**
@@ -239,21 +269,17 @@ public List<Integer> getColumnIndexOrder() {
      * @since 2.0
      */
     public int[] getColumnIndexOrderArray() {
-        return this.columnIndexOrder.toArray();
+        return this.columnIndexRuns.toArray();
     }
 
     @Override
     public int getColumnIndexByPosition(int columnPosition) {
-        if (columnPosition >= 0 && columnPosition < this.columnIndexOrder.size()) {
-            return this.columnIndexOrder.get(columnPosition);
-        } else {
-            return -1;
-        }
+        return this.columnIndexRuns.getIndex(columnPosition);
     }
 
     @Override
     public int getColumnPositionByIndex(int columnIndex) {
-        return this.indexPositionMapping.getIfAbsent(columnIndex, -1);
+        return this.columnIndexRuns.getPosition(columnIndex);
     }
 
     @Override
@@ -295,13 +321,75 @@ public int getStartXOfColumnPosition(int targetColumnPosition) {
             return cachedStartX;
         }
 
-        int aggregateWidth = 0;
-        for (int columnPosition = 0; columnPosition < targetColumnPosition; columnPosition++) {
-            aggregateWidth += this.underlyingLayer.getColumnWidthByPosition(localToUnderlyingColumnPosition(columnPosition));
+        if (targetColumnPosition < 0) {
+            return -1;
+        }
+
+        int run = targetColumnPosition >= this.columnIndexRuns.size()
+                ? this.columnIndexRuns.getRunCount()
+                : this.columnIndexRuns.findRunByPosition(targetColumnPosition);
+        int startX = getStartXOfRun(run);
+        if (run < this.columnIndexRuns.getRunCount()) {
+            startX += getRunWidth(run, targetColumnPosition - this.columnIndexRuns.getRunPosition(run));
         }
 
-        this.startXCache.put(targetColumnPosition, aggregateWidth);
-        return aggregateWidth;
+        this.startXCache.put(targetColumnPosition, startX);
+        return startX;
+    }
+
+    /**
+     * Returns the start x of the given run in the {@link #columnIndexRuns}.
+     * Fills the run start x cache up to the requested run if necessary.
+     *
+     * @param run
+     *            The run, can be the run count to get the width of all runs.
+     * @return The start x of the given run.
+     */
+    private int getStartXOfRun(int run) {
+        if (this.runStartXCache == null) {
+            this.runStartXCache = new int[this.columnIndexRuns.getRunCount() + 1];
+            this.runStartXCacheSize = 1;
+        }
+        while (this.runStartXCacheSize <= run) {
+            int previous = this.runStartXCacheSize - 1;
+            this.runStartXCache[this.runStartXCacheSize++] = this.runStartXCache[previous]
+                    + getRunWidth(previous, this.columnIndexRuns.getRunLength(previous));
+        }
+        return this.runStartXCache[run];
+    }
+
+    /**
+     * Calculates the width of the first columns of the given run. As a run
+     * contains consecutive indexes, the columns are typically also placed at
+     * consecutive positions in the underlying layer. In that case the width is
+     * calculated via the start x of the underlying positions, otherwise the
+     * widths of the columns are summed up.
+     *
+     * @param run
+     *            The run in the {@link #columnIndexRuns}.
+     * @param columnCount
+     *            The number of columns of the run to take into account.
+     * @return The width of the first columns of the given run.
+     */
+    private int getRunWidth(int run, int columnCount) {
+        if (columnCount <= 0) {
+            return 0;
+        }
+        int firstIndex = this.columnIndexRuns.getRunIndex(run);
+        int first = this.underlyingLayer.getColumnPositionByIndex(firstIndex);
+        int last = this.underlyingLayer.getColumnPositionByIndex(firstIndex + columnCount - 1);
+        if (first >= 0 && last - first == columnCount - 1) {
+            return this.underlyingLayer.getStartXOfColumnPosition(last)
+                    + this.underlyingLayer.getColumnWidthByPosition(last)
+                    - this.underlyingLayer.getStartXOfColumnPosition(first);
+        }
+
+        int width = 0;
+        for (int i = 0; i < columnCount; i++) {
+            width += this.underlyingLayer.getColumnWidthByPosition(
+                    this.underlyingLayer.getColumnPositionByIndex(firstIndex + i));
+        }
+        return width;
     }
 
     /**
@@ -311,26 +399,77 @@ public int getStartXOfColumnPosition(int targetColumnPosition) {
      * @since 1.6
      */
     protected void populateIndexOrder() {
-        this.columnIndexOrder.clear();
+        this.columnIndexRuns.clear();
+        this.indexOrderViews.invalidate();
         ILayer underlyingLayer = getUnderlyingLayer();
         for (int columnPosition = 0; columnPosition < underlyingLayer.getColumnCount(); columnPosition++) {
             int index = underlyingLayer.getColumnIndexByPosition(columnPosition);
-            this.columnIndexOrder.add(index);
-            this.indexPositionMapping.put(index, columnPosition);
+            this.columnIndexRuns.add(index);
         }
     }
 
     /**
      * Initializes the internal index-position-mapping to reflect the internal
-     * column-index-order.
+     * column-index-order. Also rebuilds the internal runs from the
+     * {@link #columnIndexOrder}, so modifications of subclasses to that list
+     * are taken into account.
      *
      * @since 1.6
+     * @deprecated The index-position-mapping is kept in sync by this layer.
+     *             Only needed by subclasses that modify the deprecated
+     *             {@link #columnIndexOrder} directly.
      */
+    @Deprecated
     protected void refreshIndexPositionMapping() {
-        this.indexPositionMapping.clear();
-        for (int position = 0; position < this.columnIndexOrder.size(); position++) {
-            int index = this.columnIndexOrder.get(position);
-            this.indexPositionMapping.put(index, position);
+        this.indexOrderViews.apply();
+        invalidateCache();
+    }
+
+    /**
+     * Updates the {@link #columnIndexRuns} for deleted columns. The columns
+     * in the delete ranges are removed and the indexes of the following
+     * columns are decreased.
+     *
+     * @param columnDiffs
+     *            The column diffs of the structural change event.
+     */
+    private void handleColumnDelete(Collection<StructuralDiff> columnDiffs) {
+        RangeSet toRemove = new RangeSet();
+        for (StructuralDiff columnDiff : columnDiffs) {
+            if (columnDiff.getDiffType() == DiffTypeEnum.DELETE) {
+                toRemove.add(columnDiff.getBeforePositionRange());
+            }
+        }
+        // process the deleted ranges from the end, so the indexes of the
+        // remaining deleted ranges are not modified
+        for (int i = toRemove.getRangeCount() - 1; i >= 0; i--) {
+            this.columnIndexRuns.deleteIndexes(
+                    toRemove.getRangeStart(i),
+                    toRemove.getRangeEnd(i) - toRemove.getRangeStart(i));
+        }
+    }
+
+    /**
+     * Updates the {@link #columnIndexRuns} for inserted columns. The indexes
+     * of the columns after the inserted columns are increased and the inserted
+     * columns are added at the position that matches their index. All columns
+     * of a multi column insert are added, in the order of their indexes.
+     *
+     * @param columnDiffs
+     *            The column diffs of the structural change event.
+     */
+    private void handleColumnInsert(Collection<StructuralDiff> columnDiffs) {
+        for (StructuralDiff columnDiff : columnDiffs) {
+            if (columnDiff.getDiffType() == DiffTypeEnum.ADD) {
+                Range afterPositionRange = columnDiff.getAfterPositionRange();
+                int beforeIndex = this.underlyingLayer.getColumnIndexByPosition(afterPositionRange.start);
+                if (beforeIndex >= 0) {
+                    this.columnIndexRuns.insertIndexes(
+                            beforeIndex,
+                            beforeIndex,
+                            Math.max(1, afterPositionRange.size()));
+                }
+            }
         }
     }
 
@@ -361,12 +500,8 @@ private void moveColumn(int fromColumnPosition, int toColumnPosition, boolean re
             toColumnPosition++;
         }
 
-        int fromColumnIndex = this.columnIndexOrder.get(fromColumnPosition);
-        this.columnIndexOrder.addAtIndex(toColumnPosition, fromColumnIndex);
-        this.columnIndexOrder.removeAtIndex(fromColumnPosition + (fromColumnPosition > toColumnPosition ? 1 : 0));
-
-        // update index-position mapping
-        refreshIndexPositionMapping();
+        this.columnIndexRuns.move(fromColumnPosition, toColumnPosition);
+        this.indexOrderViews.invalidate();
 
         invalidateCache();
     }
@@ -572,6 +707,7 @@ public void reorderMultipleColumnIndexes(int[] fromColumnIndexes, int toColumnPo
      */
     protected void invalidateCache() {
         this.startXCache.clear();
+        this.runStartXCache = null;
     }
 
     /**
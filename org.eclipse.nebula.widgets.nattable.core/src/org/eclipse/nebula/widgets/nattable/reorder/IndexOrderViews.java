@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.reorder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+
+/**
+ * Lazily materialized views of a {@link PiecewiseIndexOrder} for the
+ * deprecated index order list and index position mapping of the reorder
+ * layers. The list and the map are only created when they are accessed, which
+ * typically only happens in subclasses that were implemented against the
+ * previous API. Modifications of the {@link PiecewiseIndexOrder} invalidate
+ * the views, so they are created again from the runs on the next access.
+ */
+final class IndexOrderViews {
+
+    private final PiecewiseIndexOrder order;
+
+    private MutableIntList indexOrder;
+    private MutableIntIntMap indexPositionMapping;
+
+    /**
+     * The view of the index order. Every access materializes the index order
+     * if necessary.
+     */
+    final MutableIntList indexOrderView;
+
+    /**
+     * The view of the index position mapping. Every access materializes the
+     * mapping if necessary.
+     */
+    final MutableIntIntMap indexPositionMappingView;
+
+    IndexOrderViews(PiecewiseIndexOrder order) {
+        this.order = order;
+        this.indexOrderView = createView(MutableIntList.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return delegate(getIndexOrder(), method, args);
+            }
+        });
+        this.indexPositionMappingView = createView(MutableIntIntMap.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return delegate(getIndexPositionMapping(), method, args);
+            }
+        });
+    }
+
+    /**
+     * Drops the materialized views after the {@link PiecewiseIndexOrder} was
+     * modified.
+     */
+    void invalidate() {
+        this.indexOrder = null;
+        this.indexPositionMapping = null;
+    }
+
+    /**
+     * Applies modifications that were performed on the index order view to
+     * the {@link PiecewiseIndexOrder}. Does nothing if the index order view
+     * was not accessed since the last modification of the runs.
+     *
+     * @return <code>true</code> if the {@link PiecewiseIndexOrder} was
+     *         updated.
+     */
+    boolean apply() {
+        if (this.indexOrder == null) {
+            return false;
+        }
+        this.order.setAll(this.indexOrder.toArray());
+        this.indexPositionMapping = null;
+        return true;
+    }
+
+    private MutableIntList getIndexOrder() {
+        if (this.indexOrder == null) {
+            this.indexOrder = IntLists.mutable.with(this.order.toArray());
+        }
+        return this.indexOrder;
+    }
+
+    private MutableIntIntMap getIndexPositionMapping() {
+        if (this.indexPositionMapping == null) {
+            MutableIntIntMap mapping = IntIntMaps.mutable.empty();
+            for (int run = 0; run < this.order.getRunCount(); run++) {
+                int index = this.order.getRunIndex(run);
+                int position = this.order.getRunPosition(run);
+                for (int i = 0; i < this.order.getRunLength(run); i++) {
+                    mapping.put(index + i, position + i);
+                }
+            }
+            this.indexPositionMapping = mapping;
+        }
+        return this.indexPositionMapping;
+    }
+
+    private static <T> T createView(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,529 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.reorder;
+
+import java.util.Arrays;
+
+/**
+ * Model for the index order of a reorder layer. Instead of storing the index
+ * for every position, the order is stored as a sequence of runs, where every
+ * run is a range of consecutive indexes that is placed at consecutive
+ * positions. Without any reordering the order consists of a single run, every
+ * move operation adds at most three runs.
+ * <p>
+ * This way the memory consumption is proportional to the number of reorder
+ * operations and not to the number of rows/columns. Position and index
+ * lookups are performed via binary search over the runs in
+ * <i>O(log runs)</i>, modifications are <i>O(runs)</i>.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class PiecewiseIndexOrder {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The first index of every run, in position order.
+     */
+    private int[] runIndexes = new int[INITIAL_CAPACITY];
+    /**
+     * The length of every run, in position order.
+     */
+    private int[] runLengths = new int[INITIAL_CAPACITY];
+    /**
+     * The first position of every run.
+     */
+    private int[] runPositions = new int[INITIAL_CAPACITY];
+    private int runCount;
+    private int size;
+
+    /**
+     * The run numbers sorted by their first index. Lazily calculated for the
+     * index to position lookup.
+     */
+    private int[] runsByIndex;
+
+    /**
+     * @return The number of positions in this order.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return <code>true</code> if this order does not contain any position.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The number of runs that are needed to represent this order.
+     */
+    public int getRunCount() {
+        return this.runCount;
+    }
+
+    /**
+     * Removes all positions from this order.
+     */
+    public void clear() {
+        this.runIndexes = new int[INITIAL_CAPACITY];
+        this.runLengths = new int[INITIAL_CAPACITY];
+        this.runPositions = new int[INITIAL_CAPACITY];
+        this.runCount = 0;
+        this.size = 0;
+        this.runsByIndex = null;
+    }
+
+    /**
+     * Resets this order to the identity of the given size, which means the
+     * index of every position is the position itself.
+     *
+     * @param count
+     *            The number of positions.
+     */
+    public void reset(int count) {
+        clear();
+        add(0, count);
+    }
+
+    /**
+     * Sets this order to the given index order.
+     *
+     * @param indexOrder
+     *            The index for every position.
+     */
+    public void setAll(int[] indexOrder) {
+        clear();
+        for (int index : indexOrder) {
+            add(index);
+        }
+    }
+
+    /**
+     * Adds the given index at the end of this order.
+     *
+     * @param index
+     *            The index to add.
+     */
+    public void add(int index) {
+        add(index, 1);
+    }
+
+    /**
+     * Adds the given range of consecutive indexes at the end of this order.
+     *
+     * @param firstIndex
+     *            The first index to add.
+     * @param count
+     *            The number of consecutive indexes to add.
+     */
+    public void add(int firstIndex, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int last = this.runCount - 1;
+        if (last >= 0 && this.runIndexes[last] + this.runLengths[last] == firstIndex) {
+            this.runLengths[last] += count;
+        } else {
+            ensureCapacity(this.runCount + 1);
+            this.runIndexes[this.runCount] = firstIndex;
+            this.runLengths[this.runCount] = count;
+            this.runPositions[this.runCount] = this.size;
+            this.runCount++;
+        }
+        this.size += count;
+        this.runsByIndex = null;
+    }
+
+    /**
+     * Returns the index at the given position.
+     *
+     * @param position
+     *            The position.
+     * @return The index at the given position or -1 if the position is not
+     *         valid.
+     */
+    public int getIndex(int position) {
+        if (position < 0 || position >= this.size) {
+            return -1;
+        }
+        int run = findRunByPosition(position);
+        return this.runIndexes[run] + (position - this.runPositions[run]);
+    }
+
+    /**
+     * Returns the position of the given index.
+     *
+     * @param index
+     *            The index.
+     * @return The position of the given index or -1 if the index is not
+     *         contained.
+     */
+    public int getPosition(int index) {
+        int[] byIndex = getRunsByIndex();
+        int low = 0;
+        int high = this.runCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.runIndexes[byIndex[mid]] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        int run = byIndex[high];
+        int offset = index - this.runIndexes[run];
+        return offset < this.runLengths[run] ? this.runPositions[run] + offset : -1;
+    }
+
+    /**
+     * Returns the number of the run that contains the given position.
+     *
+     * @param position
+     *            The position, needs to be valid.
+     * @return The run that contains the given position.
+     */
+    public int findRunByPosition(int position) {
+        int low = 0;
+        int high = this.runCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.runPositions[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * @param run
+     *            The run number.
+     * @return The first index of the given run.
+     */
+    public int getRunIndex(int run) {
+        return this.runIndexes[run];
+    }
+
+    /**
+     * @param run
+     *            The run number.
+     * @return The first position of the given run.
+     */
+    public int getRunPosition(int run) {
+        return this.runPositions[run];
+    }
+
+    /**
+     * @param run
+     *            The run number.
+     * @return The number of positions in the given run.
+     */
+    public int getRunLength(int run) {
+        return this.runLengths[run];
+    }
+
+    /**
+     * @return The index for every position. Materializes the whole order, so
+     *         it should only be used if the whole order is needed, e.g. for
+     *         persistence.
+     */
+    public int[] toArray() {
+        int[] result = new int[this.size];
+        for (int run = 0; run < this.runCount; run++) {
+            int index = this.runIndexes[run];
+            int position = this.runPositions[run];
+            for (int i = 0; i < this.runLengths[run]; i++) {
+                result[position + i] = index + i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves the index at the given from position so it is placed before the
+     * index that is currently at the given to position. Same as inserting the
+     * index at the to position and removing it from the from position
+     * afterwards in a list.
+     *
+     * @param fromPosition
+     *            The position of the index to move.
+     * @param toPosition
+     *            The position before which the index should be placed. Use
+     *            {@link #size()} to move the index to the end.
+     */
+    public void move(int fromPosition, int toPosition) {
+        int index = getIndex(fromPosition);
+        if (index < 0 || toPosition < 0 || toPosition > this.size) {
+            return;
+        }
+        removeRange(fromPosition, 1);
+        insert(toPosition > fromPosition ? toPosition - 1 : toPosition, index, 1);
+    }
+
+    /**
+     * Inserts the given consecutive indexes at the given position.
+     *
+     * @param position
+     *            The position at which the indexes should be inserted.
+     * @param firstIndex
+     *            The first index to insert.
+     * @param count
+     *            The number of consecutive indexes to insert.
+     */
+    public void insert(int position, int firstIndex, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int run = split(Math.max(0, Math.min(position, this.size)));
+        ensureCapacity(this.runCount + 1);
+        shiftRuns(run, 1);
+        this.runIndexes[run] = firstIndex;
+        this.runLengths[run] = count;
+        this.runCount++;
+        this.size += count;
+        mergeAround(run);
+        updatePositions();
+    }
+
+    /**
+     * Removes the given number of positions starting at the given position.
+     *
+     * @param position
+     *            The first position to remove.
+     * @param count
+     *            The number of positions to remove.
+     */
+    public void removeRange(int position, int count) {
+        if (count <= 0 || position < 0 || position >= this.size) {
+            return;
+        }
+        int end = Math.min(this.size, position + count);
+        int first = split(position);
+        int last = split(end);
+        shiftRuns(last, first - last);
+        this.runCount -= last - first;
+        this.size -= end - position;
+        mergeAround(first);
+        updatePositions();
+    }
+
+    /**
+     * Updates this order for indexes that are inserted in the underlying data.
+     * All indexes that are greater or equal to the given index are increased
+     * by the given count and the new indexes are inserted at the given
+     * position.
+     *
+     * @param position
+     *            The position at which the new indexes should be placed.
+     * @param firstIndex
+     *            The first new index.
+     * @param count
+     *            The number of new indexes.
+     */
+    public void insertIndexes(int position, int firstIndex, int count) {
+        if (count <= 0) {
+            return;
+        }
+        // split runs that contain the first index so the shift can be
+        // performed per run
+        for (int run = 0; run < this.runCount; run++) {
+            int offset = firstIndex - this.runIndexes[run];
+            if (offset > 0 && offset < this.runLengths[run]) {
+                split(this.runPositions[run] + offset);
+            }
+        }
+        for (int run = 0; run < this.runCount; run++) {
+            if (this.runIndexes[run] >= firstIndex) {
+                this.runIndexes[run] += count;
+            }
+        }
+        this.runsByIndex = null;
+        insert(position, firstIndex, count);
+    }
+
+    /**
+     * Updates this order for indexes that are deleted in the underlying data.
+     * The positions of the deleted indexes are removed and all indexes that are
+     * greater than the deleted indexes are decreased by the number of deleted
+     * indexes.
+     *
+     * @param firstIndex
+     *            The first deleted index.
+     * @param count
+     *            The number of deleted indexes.
+     */
+    public void deleteIndexes(int firstIndex, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int endIndex = firstIndex + count;
+        int[] newIndexes = new int[this.runCount + 1];
+        int[] newLengths = new int[this.runCount + 1];
+        int newCount = 0;
+        int newSize = 0;
+        for (int run = 0; run < this.runCount; run++) {
+            int start = this.runIndexes[run];
+            int end = start + this.runLengths[run];
+            // the part before the deleted indexes
+            int beforeEnd = Math.min(end, firstIndex);
+            // the part after the deleted indexes
+            int afterStart = Math.max(start, endIndex);
+            int[][] parts = {
+                    { start, beforeEnd },
+                    { afterStart, end } };
+            for (int[] part : parts) {
+                if (part[0] < part[1]) {
+                    int index = part[0] >= endIndex ? part[0] - count : part[0];
+                    int length = part[1] - part[0];
+                    if (newCount > 0 && newIndexes[newCount - 1] + newLengths[newCount - 1] == index) {
+                        newLengths[newCount - 1] += length;
+                    } else {
+                        if (newCount == newIndexes.length) {
+                            newIndexes = Arrays.copyOf(newIndexes, newCount * 2);
+                            newLengths = Arrays.copyOf(newLengths, newCount * 2);
+                        }
+                        newIndexes[newCount] = index;
+                        newLengths[newCount++] = length;
+                    }
+                    newSize += length;
+                }
+            }
+        }
+
+        this.runIndexes = newIndexes;
+        this.runLengths = newLengths;
+        this.runPositions = new int[newIndexes.length];
+        this.runCount = newCount;
+        this.size = newSize;
+        updatePositions();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PiecewiseIndexOrder ["); //$NON-NLS-1$
+        for (int run = 0; run < this.runCount; run++) {
+            if (run > 0) {
+                builder.append(", "); //$NON-NLS-1$
+            }
+            builder.append(this.runIndexes[run]).append('-')
+                    .append(this.runIndexes[run] + this.runLengths[run] - 1);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Ensures that a run starts at the given position.
+     *
+     * @param position
+     *            The position, &lt;= size.
+     * @return The number of the run that starts at the given position, or the
+     *         run count if the position is the size.
+     */
+    private int split(int position) {
+        if (position >= this.size) {
+            return this.runCount;
+        }
+        int run = findRunByPosition(position);
+        int offset = position - this.runPositions[run];
+        if (offset == 0) {
+            return run;
+        }
+        ensureCapacity(this.runCount + 1);
+        shiftRuns(run + 1, 1);
+        this.runIndexes[run + 1] = this.runIndexes[run] + offset;
+        this.runLengths[run + 1] = this.runLengths[run] - offset;
+        this.runPositions[run + 1] = position;
+        this.runLengths[run] = offset;
+        this.runCount++;
+        this.runsByIndex = null;
+        return run + 1;
+    }
+
+    /**
+     * Moves the runs starting at the given run by the given distance in the
+     * run arrays. Does not modify the run count.
+     */
+    private void shiftRuns(int fromRun, int distance) {
+        int length = this.runCount - fromRun;
+        if (length > 0 && distance != 0) {
+            System.arraycopy(this.runIndexes, fromRun, this.runIndexes, fromRun + distance, length);
+            System.arraycopy(this.runLengths, fromRun, this.runLengths, fromRun + distance, length);
+            System.arraycopy(this.runPositions, fromRun, this.runPositions, fromRun + distance, length);
+        }
+    }
+
+    /**
+     * Merges the given run with its neighbours if the indexes are consecutive.
+     */
+    private void mergeAround(int run) {
+        if (run + 1 < this.runCount && run >= 0 && isConsecutive(run, run + 1)) {
+            mergeWithNext(run);
+        }
+        if (run - 1 >= 0 && run < this.runCount && isConsecutive(run - 1, run)) {
+            mergeWithNext(run - 1);
+        }
+    }
+
+    private boolean isConsecutive(int run, int next) {
+        return this.runIndexes[run] + this.runLengths[run] == this.runIndexes[next];
+    }
+
+    private void mergeWithNext(int run) {
+        this.runLengths[run] += this.runLengths[run + 1];
+        shiftRuns(run + 2, -1);
+        this.runCount--;
+    }
+
+    private void updatePositions() {
+        int position = 0;
+        for (int run = 0; run < this.runCount; run++) {
+            this.runPositions[run] = position;
+            position += this.runLengths[run];
+        }
+        this.runsByIndex = null;
+    }
+
+    private int[] getRunsByIndex() {
+        if (this.runsByIndex == null) {
+            long[] sortable = new long[this.runCount];
+            for (int run = 0; run < this.runCount; run++) {
+                sortable[run] = ((long) this.runIndexes[run] << 32) | run;
+            }
+            Arrays.sort(sortable);
+            int[] byIndex = new int[this.runCount];
+            for (int i = 0; i < this.runCount; i++) {
+                byIndex[i] = (int) sortable[i];
+            }
+            this.runsByIndex = byIndex;
+        }
+        return this.runsByIndex;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.runIndexes.length) {
+            int newCapacity = Math.max(capacity, this.runIndexes.length * 2);
+            this.runIndexes = Arrays.copyOf(this.runIndexes, newCapacity);
+            this.runLengths = Arrays.copyOf(this.runLengths, newCapacity);
+            this.runPositions = Arrays.copyOf(this.runPositions, newCapacity);
+        }
+    }
+}
@@ -25,6 +25,7 @@
 import org.eclipse.nebula.widgets.nattable.command.ILayerCommand;
 import org.eclipse.nebula.widgets.nattable.coordinate.PositionUtil;
 import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
 import org.eclipse.nebula.widgets.nattable.layer.AbstractLayerTransform;
 import org.eclipse.nebula.widgets.nattable.layer.ILayer;
 import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
@@ -33,8 +34,8 @@
 import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.RowStructuralRefreshEvent;
-import org.eclipse.nebula.widgets.nattable.layer.event.StructuralChangeEventHelper;
 import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
 import org.eclipse.nebula.widgets.nattable.persistence.IPersistable;
 import org.eclipse.nebula.widgets.nattable.reorder.command.MultiRowReorderCommandHandler;
 import org.eclipse.nebula.widgets.nattable.reorder.command.ResetRowReorderCommandHandler;
@@ -58,21 +59,46 @@ public class RowReorderLayer extends AbstractLayerTransform implements IUniqueIn
 
     private final IUniqueIndexLayer underlyingLayer;
 
+    /**
+     * The row index order stored as runs of consecutive indexes. Used to
+     * handle structural changes and to calculate the start y positions per run
+     * instead of per row.
+     */
+    private final PiecewiseIndexOrder rowIndexRuns = new PiecewiseIndexOrder();
+
+    /**
+     * Lazily materialized views of the {@link #rowIndexRuns} for the deprecated
+     * {@link #rowIndexOrder} and {@link #indexPositionMapping}.
+     */
+    private final IndexOrderViews indexOrderViews = new IndexOrderViews(this.rowIndexRuns);
+
     /**
      * The local cache of the row index order. Used to track the reordering
      * performed by this layer. Position Y in the List contains the index of row
      * at position Y.
+     *
+     * @deprecated The order is tracked internally as runs of consecutive
+     *             indexes. This list is a view that is only materialized if
+     *             it is accessed, and will be removed in a future version. Use
+     *             {@link #getRowIndexOrderArray()} to access the order.
+     *             Subclasses that modify this list need to call
+     *             {@link #refreshIndexPositionMapping()} afterwards.
      */
-    protected final MutableIntList rowIndexOrder = IntLists.mutable.empty();
+    @Deprecated
+    protected final MutableIntList rowIndexOrder = this.indexOrderViews.indexOrderView;
 
     /**
      * The internal mapping of index to position values. Used for performance
-     * reasons in {@link #getColumnPositionByIndex(int)} because
+     * reasons in {@link #getRowPositionByIndex(int)} because
      * {@link List#indexOf(Object)} doesn't scale well.
      *
      * @since 1.5
+     * @deprecated A view that is only materialized if it is accessed. Will
+     *             be removed in a future version. Use
+     *             {@link #getRowPositionByIndex(int)} instead.
      */
-    protected final MutableIntIntMap indexPositionMapping = IntIntMaps.mutable.empty();
+    @Deprecated
+    protected final MutableIntIntMap indexPositionMapping = this.indexOrderViews.indexPositionMappingView;
 
     /**
      * Caching of the starting y positions of the rows. Used to reduce
@@ -80,6 +106,14 @@ public class RowReorderLayer extends AbstractLayerTransform implements IUniqueIn
      */
     private final MutableIntIntMap startYCache = IntIntMaps.mutable.empty();
 
+    /**
+     * Caching of the starting y positions of the runs in the
+     * {@link #rowIndexRuns}. Lazily filled up to
+     * {@link #runStartYCacheSize}.
+     */
+    private int[] runStartYCache;
+    private int runStartYCacheSize;
+
     /**
      * Local cached position of the row that is currently reordered.
      */
@@ -131,12 +165,9 @@ public void handleLayerEvent(ILayerEvent event) {
                     populateIndexOrder();
                 } else {
                     // only react on ADD or DELETE and not on CHANGE
-                    StructuralChangeEventHelper.handleRowDelete(
-                            structuralDiffs, this.underlyingLayer, this.rowIndexOrder, true);
-                    StructuralChangeEventHelper.handleRowInsert(
-                            structuralDiffs, this.underlyingLayer, this.rowIndexOrder, true);
-                    // update index-position mapping
-                    refreshIndexPositionMapping();
+                    handleRowDelete(structuralDiffs);
+                    handleRowInsert(structuralDiffs);
+                    this.indexOrderViews.invalidate();
                 }
                 invalidateCache();
             }
@@ -170,10 +201,10 @@ protected void registerCommandHandlers() {
     @Override
     public void saveState(String prefix, Properties properties) {
         super.saveState(prefix, properties);
-        if (this.rowIndexOrder.size() > 0) {
+        if (this.rowIndexRuns.size() > 0) {
             properties.setProperty(
                     prefix + PERSISTENCE_KEY_ROW_INDEX_ORDER,
-                    this.rowIndexOrder.makeString(IPersistable.VALUE_SEPARATOR));
+                    IntLists.mutable.with(this.rowIndexRuns.toArray()).makeString(IPersistable.VALUE_SEPARATOR));
         }
     }
 
@@ -190,11 +221,10 @@ public void loadState(String prefix, Properties properties) {
                 newRowIndexOrder.add(Integer.parseInt(index));
             }
 
-            if (isRestoredStateValid(newRowIndexOrder.toArray())) {
-                this.rowIndexOrder.clear();
-                this.rowIndexOrder.addAll(newRowIndexOrder);
-                // refresh index-position mapping
-                refreshIndexPositionMapping();
+            int[] newOrder = newRowIndexOrder.toArray();
+            if (isRestoredStateValid(newOrder)) {
+                this.rowIndexRuns.setAll(newOrder);
+                this.indexOrderViews.invalidate();
             }
 
         }
@@ -219,7 +249,7 @@ protected boolean isRestoredStateValid(int[] newRowIndexOrder) {
         }
 
         for (int index : newRowIndexOrder) {
-            if (!this.indexPositionMapping.containsKey(index)) {
+            if (this.rowIndexRuns.getPosition(index) < 0) {
                 LOG.error("Row index: " + index + " being restored, is not a available in the data soure.\n" + //$NON-NLS-1$ //$NON-NLS-2$
                         "Skipping restore of row ordering"); //$NON-NLS-1$
                 return false;
@@ -249,13 +279,75 @@ public int getStartYOfRowPosition(int targetRowPosition) {
             return cachedStartY;
         }
 
-        int aggregateWidth = 0;
-        for (int rowPosition = 0; rowPosition < targetRowPosition; rowPosition++) {
-            aggregateWidth += this.underlyingLayer.getRowHeightByPosition(localToUnderlyingRowPosition(rowPosition));
+        if (targetRowPosition < 0) {
+            return -1;
+        }
+
+        int run = targetRowPosition >= this.rowIndexRuns.size()
+                ? this.rowIndexRuns.getRunCount()
+                : this.rowIndexRuns.findRunByPosition(targetRowPosition);
+        int startY = getStartYOfRun(run);
+        if (run < this.rowIndexRuns.getRunCount()) {
+            startY += getRunHeight(run, targetRowPosition - this.rowIndexRuns.getRunPosition(run));
         }
 
-        this.startYCache.put(targetRowPosition, aggregateWidth);
-        return aggregateWidth;
+        this.startYCache.put(targetRowPosition, startY);
+        return startY;
+    }
+
+    /**
+     * Returns the start y of the given run in the {@link #rowIndexRuns}.
+     * Fills the run start y cache up to the requested run if necessary.
+     *
+     * @param run
+     *            The run, can be the run count to get the height of all runs.
+     * @return The start y of the given run.
+     */
+    private int getStartYOfRun(int run) {
+        if (this.runStartYCache == null) {
+            this.runStartYCache = new int[this.rowIndexRuns.getRunCount() + 1];
+            this.runStartYCacheSize = 1;
+        }
+        while (this.runStartYCacheSize <= run) {
+            int previous = this.runStartYCacheSize - 1;
+            this.runStartYCache[this.runStartYCacheSize++] = this.runStartYCache[previous]
+                    + getRunHeight(previous, this.rowIndexRuns.getRunLength(previous));
+        }
+        return this.runStartYCache[run];
+    }
+
+    /**
+     * Calculates the height of the first rows of the given run. As a run
+     * contains consecutive indexes, the rows are typically also placed at
+     * consecutive positions in the underlying layer. In that case the height is
+     * calculated via the start y of the underlying positions, otherwise the
+     * heights of the rows are summed up.
+     *
+     * @param run
+     *            The run in the {@link #rowIndexRuns}.
+     * @param rowCount
+     *            The number of rows of the run to take into account.
+     * @return The height of the first rows of the given run.
+     */
+    private int getRunHeight(int run, int rowCount) {
+        if (rowCount <= 0) {
+            return 0;
+        }
+        int firstIndex = this.rowIndexRuns.getRunIndex(run);
+        int first = this.underlyingLayer.getRowPositionByIndex(firstIndex);
+        int last = this.underlyingLayer.getRowPositionByIndex(firstIndex + rowCount - 1);
+        if (first >= 0 && last - first == rowCount - 1) {
+            return this.underlyingLayer.getStartYOfRowPosition(last)
+                    + this.underlyingLayer.getRowHeightByPosition(last)
+                    - this.underlyingLayer.getStartYOfRowPosition(first);
+        }
+
+        int height = 0;
+        for (int i = 0; i < rowCount; i++) {
+            height += this.underlyingLayer.getRowHeightByPosition(
+                    this.underlyingLayer.getRowPositionByIndex(firstIndex + i));
+        }
+        return height;
     }
 
     /**
@@ -264,26 +356,77 @@ public int getStartYOfRowPosition(int targetRowPosition) {
      * @since 1.6
      */
     protected void populateIndexOrder() {
-        this.rowIndexOrder.clear();
+        this.rowIndexRuns.clear();
+        this.indexOrderViews.invalidate();
         ILayer underlyingLayer = getUnderlyingLayer();
         for (int rowPosition = 0; rowPosition < underlyingLayer.getRowCount(); rowPosition++) {
             int index = underlyingLayer.getRowIndexByPosition(rowPosition);
-            this.rowIndexOrder.add(index);
-            this.indexPositionMapping.put(index, rowPosition);
+            this.rowIndexRuns.add(index);
         }
     }
 
     /**
      * Initializes the internal index-position-mapping to reflect the internal
-     * row-index-order.
+     * row-index-order. Also rebuilds the internal runs from the
+     * {@link #rowIndexOrder}, so modifications of subclasses to that list are
+     * taken into account.
      *
      * @since 1.6
+     * @deprecated The index-position-mapping is kept in sync by this layer.
+     *             Only needed by subclasses that modify the deprecated
+     *             {@link #rowIndexOrder} directly.
      */
+    @Deprecated
     protected void refreshIndexPositionMapping() {
-        this.indexPositionMapping.clear();
-        for (int position = 0; position < this.rowIndexOrder.size(); position++) {
-            int index = this.rowIndexOrder.get(position);
-            this.indexPositionMapping.put(index, position);
+        this.indexOrderViews.apply();
+        invalidateCache();
+    }
+
+    /**
+     * Updates the {@link #rowIndexRuns} for deleted rows. The rows in the
+     * delete ranges are removed and the indexes of the following rows are
+     * decreased.
+     *
+     * @param rowDiffs
+     *            The row diffs of the structural change event.
+     */
+    private void handleRowDelete(Collection<StructuralDiff> rowDiffs) {
+        RangeSet toRemove = new RangeSet();
+        for (StructuralDiff rowDiff : rowDiffs) {
+            if (rowDiff.getDiffType() == DiffTypeEnum.DELETE) {
+                toRemove.add(rowDiff.getBeforePositionRange());
+            }
+        }
+        // process the deleted ranges from the end, so the indexes of the
+        // remaining deleted ranges are not modified
+        for (int i = toRemove.getRangeCount() - 1; i >= 0; i--) {
+            this.rowIndexRuns.deleteIndexes(
+                    toRemove.getRangeStart(i),
+                    toRemove.getRangeEnd(i) - toRemove.getRangeStart(i));
+        }
+    }
+
+    /**
+     * Updates the {@link #rowIndexRuns} for inserted rows. The indexes of the
+     * rows after the inserted rows are increased and the inserted rows are
+     * added at the position that matches their index. All rows of a multi row
+     * insert are added, in the order of their indexes.
+     *
+     * @param rowDiffs
+     *            The row diffs of the structural change event.
+     */
+    private void handleRowInsert(Collection<StructuralDiff> rowDiffs) {
+        for (StructuralDiff rowDiff : rowDiffs) {
+            if (rowDiff.getDiffType() == DiffTypeEnum.ADD) {
+                Range afterPositionRange = rowDiff.getAfterPositionRange();
+                int beforeIndex = this.underlyingLayer.getRowIndexByPosition(afterPositionRange.start);
+                if (beforeIndex >= 0) {
+                    this.rowIndexRuns.insertIndexes(
+                            beforeIndex,
+                            beforeIndex,
+                            Math.max(1, afterPositionRange.size()));
+                }
+            }
         }
     }
 
@@ -294,7 +437,7 @@ protected void refreshIndexPositionMapping() {
      * @return The local cache of the row index order.
      */
     public List<Integer> getRowIndexOrder() {
-        return ArrayUtil.asIntegerList(this.rowIndexOrder.toArray());
+        return ArrayUtil.asIntegerList(this.rowIndexRuns.toArray());
     }
 
     /**
@@ -302,21 +445,17 @@ public List<Integer> getRowIndexOrder() {
      * @since 2.0
      */
     public int[] getRowIndexOrderArray() {
-        return this.rowIndexOrder.toArray();
+        return this.rowIndexRuns.toArray();
     }
 
     @Override
     public int getRowIndexByPosition(int rowPosition) {
-        if (rowPosition >= 0 && rowPosition < this.rowIndexOrder.size()) {
-            return this.rowIndexOrder.get(rowPosition);
-        } else {
-            return -1;
-        }
+        return this.rowIndexRuns.getIndex(rowPosition);
     }
 
     @Override
     public int getRowPositionByIndex(int rowIndex) {
-        return this.indexPositionMapping.getIfAbsent(rowIndex, -1);
+        return this.rowIndexRuns.getPosition(rowIndex);
     }
 
     @Override
@@ -362,12 +501,8 @@ private void moveRow(int fromRowPosition, int toRowPosition, boolean reorderToTo
             toRowPosition++;
         }
 
-        int fromRowIndex = this.rowIndexOrder.get(fromRowPosition);
-        this.rowIndexOrder.addAtIndex(toRowPosition, fromRowIndex);
-        this.rowIndexOrder.removeAtIndex(fromRowPosition + (fromRowPosition > toRowPosition ? 1 : 0));
-
-        // update index-position mapping
-        refreshIndexPositionMapping();
+        this.rowIndexRuns.move(fromRowPosition, toRowPosition);
+        this.indexOrderViews.invalidate();
 
         invalidateCache();
     }
@@ -571,6 +706,7 @@ public void reorderMultipleRowIndexes(int[] fromRowIndexes, int toRowPosition, b
      */
     protected void invalidateCache() {
         this.startYCache.clear();
+        this.runStartYCache = null;
     }
 
     /**
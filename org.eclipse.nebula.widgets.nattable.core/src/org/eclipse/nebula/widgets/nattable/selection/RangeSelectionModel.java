@@ -0,0 +1,780 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.coordinate.RangeSet;
+import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
+import org.eclipse.swt.graphics.Rectangle;
+
+/**
+ * {@link ISelectionModel} that stores the selected cells as row bands. Every
+ * band is a range of rows that share the same set of selected columns, which
+ * is stored as a {@link RangeSet}. Selections are merged on insert, so
+ * adjacent rows with the same selected columns are stored in one band and
+ * selecting all cells results in a single band with a single column range.
+ * <p>
+ * Checking if a cell, row or column is selected is performed via binary search
+ * over the bands and the column ranges, which means the performance depends
+ * on the logarithm of the number of bands instead of the number of selection
+ * rectangles like in {@link SelectionModel}. This makes this model suitable for
+ * huge selections that are created for example by selecting thousands of rows
+ * via ctrl-click.
+ * </p>
+ * <p>
+ * In contrast to {@link SelectionModel} the rectangles returned by
+ * {@link #getSelections()} are not the rectangles that were added, but the
+ * normalized non-overlapping rectangles that cover the selected cells.
+ * </p>
+ * <p>
+ * Coordinates are in <i>Selection Layer positions</i>
+ * </p>
+ *
+ * @see SelectionLayer
+ * @since 2.0
+ */
+public class RangeSelectionModel implements ISelectionModel {
+
+    protected final SelectionLayer selectionLayer;
+    private boolean multipleSelectionAllowed;
+
+    /**
+     * The sorted, non-overlapping row bands. Adjacent bands never have the
+     * same selected columns and bands never contain an empty column set.
+     */
+    private final List<Band> bands = new ArrayList<Band>();
+    private final ReadWriteLock selectionsLock = new ReentrantReadWriteLock();
+
+    /**
+     * Union of the selected columns of all bands. Lazily calculated under the
+     * read lock and reset on every modification. Volatile as concurrent
+     * readers publish the calculated value, which is only assigned after it
+     * is completely built.
+     */
+    private volatile RangeSet selectedColumns;
+
+    /**
+     * The selected rows per column, used to check for fully selected columns.
+     * Lazily calculated and reset like {@link #selectedColumns}.
+     */
+    private volatile ColumnCoverage columnCoverage;
+
+    private boolean clearSelectionOnChange = true;
+
+    public RangeSelectionModel(SelectionLayer selectionLayer) {
+        this(selectionLayer, true);
+    }
+
+    public RangeSelectionModel(SelectionLayer selectionLayer, boolean multipleSelectionAllowed) {
+        this.selectionLayer = selectionLayer;
+        this.multipleSelectionAllowed = multipleSelectionAllowed;
+    }
+
+    @Override
+    public boolean isMultipleSelectionAllowed() {
+        return this.multipleSelectionAllowed;
+    }
+
+    @Override
+    public void setMultipleSelectionAllowed(boolean multipleSelectionAllowed) {
+        this.multipleSelectionAllowed = multipleSelectionAllowed;
+    }
+
+    @Override
+    public void addSelection(int columnPosition, int rowPosition) {
+        addSelection(new Rectangle(columnPosition, rowPosition, 1, 1));
+    }
+
+    @Override
+    public void addSelection(final Rectangle range) {
+        if (range == null) {
+            return;
+        }
+
+        this.selectionsLock.writeLock().lock();
+        try {
+            if (this.multipleSelectionAllowed) {
+                modify(range.x, range.y, range.width, range.height, true);
+            } else {
+                // as no multiple selection is allowed, ensure that only one
+                // column and one row will be selected
+                this.bands.clear();
+                modify(range.x, range.y, 1, 1, true);
+            }
+        } finally {
+            this.selectionsLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clearSelection() {
+        this.selectionsLock.writeLock().lock();
+        try {
+            this.bands.clear();
+            this.selectedColumns = null;
+            this.columnCoverage = null;
+        } finally {
+            this.selectionsLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clearSelection(int columnPosition, int rowPosition) {
+        clearSelection(new Rectangle(columnPosition, rowPosition, 1, 1));
+    }
+
+    @Override
+    public void clearSelection(Rectangle removedSelection) {
+        this.selectionsLock.writeLock().lock();
+        try {
+            modify(removedSelection.x, removedSelection.y, removedSelection.width, removedSelection.height, false);
+        } finally {
+            this.selectionsLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        this.selectionsLock.readLock().lock();
+        try {
+            return this.bands.isEmpty();
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Rectangle> getSelections() {
+        this.selectionsLock.readLock().lock();
+        try {
+            List<Rectangle> selections = new ArrayList<Rectangle>();
+            for (Band band : this.bands) {
+                for (int i = 0; i < band.columns.getRangeCount(); i++) {
+                    int start = band.columns.getRangeStart(i);
+                    selections.add(new Rectangle(
+                            start,
+                            band.start,
+                            band.columns.getRangeEnd(i) - start,
+                            band.end - band.start));
+                }
+            }
+            return selections;
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    // Cell features
+
+    @Override
+    public boolean isCellPositionSelected(int columnPosition, int rowPosition) {
+        this.selectionsLock.readLock().lock();
+        try {
+            if (this.bands.isEmpty()) {
+                return false;
+            }
+
+            ILayerCell cell = this.selectionLayer.getCellByPosition(columnPosition, rowPosition);
+            if (cell != null) {
+                int startColumn = cell.getOriginColumnPosition();
+                int endColumn = startColumn + cell.getColumnSpan();
+                int endRow = cell.getOriginRowPosition() + cell.getRowSpan();
+                for (int row = cell.getOriginRowPosition(); row < endRow; row++) {
+                    Band band = getBand(row);
+                    if (band != null && band.columns.intersects(startColumn, endColumn)) {
+                        return true;
+                    }
+                }
+            }
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+
+        return false;
+    }
+
+    // Column features
+
+    @Override
+    public int[] getSelectedColumnPositions() {
+        this.selectionsLock.readLock().lock();
+        try {
+            RangeSet columns = getSelectedColumns();
+            int columnCount = this.selectionLayer.getColumnCount();
+            if (columns.isEmpty() || columns.getRangeEnd(columns.getRangeCount() - 1) <= columnCount) {
+                return columns.toArray();
+            }
+            RangeSet clipped = new RangeSet(columns);
+            clipped.remove(columnCount, Integer.MAX_VALUE);
+            return clipped.toArray();
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isColumnPositionSelected(int columnPosition) {
+        this.selectionsLock.readLock().lock();
+        try {
+            return columnPosition < this.selectionLayer.getColumnCount()
+                    && getSelectedColumns().contains(columnPosition);
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getFullySelectedColumnPositions(int columnHeight) {
+        this.selectionsLock.readLock().lock();
+        try {
+            ColumnCoverage coverage = getColumnCoverage();
+            RangeSet fullySelected = new RangeSet();
+            for (int segment = 0; segment < coverage.rowStarts.length; segment++) {
+                if (coverage.isFullySelected(segment, columnHeight)) {
+                    fullySelected.add(coverage.bounds[segment], coverage.bounds[segment + 1]);
+                }
+            }
+            fullySelected.remove(this.selectionLayer.getColumnCount(), Integer.MAX_VALUE);
+            return fullySelected.toArray();
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the bands that contain the given column form one
+     * contiguous range of rows that covers at least the given height.
+     */
+    @Override
+    public boolean isColumnPositionFullySelected(int columnPosition, int columnHeight) {
+        this.selectionsLock.readLock().lock();
+        try {
+            ColumnCoverage coverage = getColumnCoverage();
+            return coverage.isFullySelected(coverage.findSegment(columnPosition), columnHeight);
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    // Row features
+
+    @Override
+    public int getSelectedRowCount() {
+        int count = 0;
+        for (Range range : getSelectedRowPositions()) {
+            count += range.end - range.start;
+        }
+        return count;
+    }
+
+    @Override
+    public Set<Range> getSelectedRowPositions() {
+        List<Range> selectedRows = new ArrayList<Range>();
+
+        this.selectionsLock.readLock().lock();
+        try {
+            int rowCount = this.selectionLayer.getRowCount();
+            Range current = null;
+            for (Band band : this.bands) {
+                if (band.start >= rowCount) {
+                    break;
+                }
+                int end = Math.min(band.end, rowCount);
+                if (current != null && current.end == band.start) {
+                    current.end = end;
+                } else {
+                    current = new Range(band.start, end);
+                    selectedRows.add(current);
+                }
+            }
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+
+        return new HashSet<Range>(selectedRows);
+    }
+
+    @Override
+    public boolean isRowPositionSelected(int rowPosition) {
+        this.selectionsLock.readLock().lock();
+        try {
+            return rowPosition < this.selectionLayer.getRowCount()
+                    && getBand(rowPosition) != null;
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getFullySelectedRowPositions(int rowWidth) {
+        this.selectionsLock.readLock().lock();
+        try {
+            int rowCount = this.selectionLayer.getRowCount();
+            RangeSet fullySelected = new RangeSet();
+            for (Band band : this.bands) {
+                if (band.start >= rowCount) {
+                    break;
+                }
+                if (isFullySelected(band, rowWidth)) {
+                    fullySelected.add(band.start, Math.min(band.end, rowCount));
+                }
+            }
+            return fullySelected.toArray();
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isRowPositionFullySelected(int rowPosition, int rowWidth) {
+        this.selectionsLock.readLock().lock();
+        try {
+            Band band = getBand(rowPosition);
+            return band != null && isFullySelected(band, rowWidth);
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * As adjacent column ranges are merged, the columns of a band are
+     * contiguous only if there is a single range.
+     */
+    private boolean isFullySelected(Band band, int rowWidth) {
+        return band.columns.getRangeCount() == 1
+                && band.columns.getRangeEnd(0) - band.columns.getRangeStart(0) >= rowWidth;
+    }
+
+    // Band handling
+
+    /**
+     * Returns the band that contains the given row.
+     *
+     * @param rowPosition
+     *            The row position.
+     * @return The band that contains the given row or <code>null</code> if no
+     *         cell in the row is selected.
+     */
+    private Band getBand(int rowPosition) {
+        int index = findBand(rowPosition);
+        if (index >= 0) {
+            Band band = this.bands.get(index);
+            if (rowPosition < band.end) {
+                return band;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches for the last band whose start is lower or equal to the given
+     * row.
+     *
+     * @param rowPosition
+     *            The row position.
+     * @return The index of the band, or -1 if all bands start after the given
+     *         row.
+     */
+    private int findBand(int rowPosition) {
+        int low = 0;
+        int high = this.bands.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.bands.get(mid).start <= rowPosition) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Splits the band that contains the given row, so a band starts at the
+     * given row.
+     *
+     * @param rowPosition
+     *            The row at which a band should start.
+     */
+    private void split(int rowPosition) {
+        int index = findBand(rowPosition);
+        if (index >= 0) {
+            Band band = this.bands.get(index);
+            if (band.start < rowPosition && rowPosition < band.end) {
+                this.bands.add(index + 1, new Band(rowPosition, band.end, new RangeSet(band.columns)));
+                band.end = rowPosition;
+            }
+        }
+    }
+
+    /**
+     * Adds or removes the given rectangle to or from the selection.
+     *
+     * @param x
+     *            The column position of the rectangle.
+     * @param y
+     *            The row position of the rectangle.
+     * @param width
+     *            The number of columns of the rectangle.
+     * @param height
+     *            The number of rows of the rectangle.
+     * @param add
+     *            <code>true</code> to add the rectangle, <code>false</code> to
+     *            remove it.
+     */
+    private void modify(int x, int y, int width, int height, boolean add) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        this.selectedColumns = null;
+        this.columnCoverage = null;
+
+        int end = y + height;
+        split(y);
+        split(end);
+
+        int index = findBand(y);
+        if (index < 0 || this.bands.get(index).end <= y) {
+            index++;
+        }
+        int first = index;
+        int row = y;
+        while (row < end) {
+            Band band = index < this.bands.size() ? this.bands.get(index) : null;
+            if (band == null || band.start >= end) {
+                // gap until the end of the modified rows
+                if (add) {
+                    this.bands.add(index++, new Band(row, end, columns(x, width)));
+                }
+                row = end;
+            } else if (band.start > row) {
+                // gap before the next band
+                if (add) {
+                    this.bands.add(index++, new Band(row, band.start, columns(x, width)));
+                }
+                row = band.start;
+            } else {
+                if (add) {
+                    band.columns.add(x, x + width);
+                    index++;
+                } else {
+                    band.columns.remove(x, x + width);
+                    if (band.columns.isEmpty()) {
+                        this.bands.remove(index);
+                    } else {
+                        index++;
+                    }
+                }
+                row = band.end;
+            }
+        }
+
+        // merge adjacent bands with the same columns, including the
+        // neighbours of the modified rows
+        int from = Math.max(first - 1, 0);
+        int to = Math.min(index, this.bands.size() - 1);
+        for (int i = to; i > from; i--) {
+            Band previous = this.bands.get(i - 1);
+            Band current = this.bands.get(i);
+            if (previous.end == current.start && previous.columns.equals(current.columns)) {
+                previous.end = current.end;
+                this.bands.remove(i);
+            }
+        }
+    }
+
+    private static RangeSet columns(int x, int width) {
+        RangeSet columns = new RangeSet();
+        columns.add(x, x + width);
+        return columns;
+    }
+
+    /**
+     * @return The union of the selected columns of all bands.
+     */
+    private RangeSet getSelectedColumns() {
+        RangeSet columns = this.selectedColumns;
+        if (columns == null) {
+            columns = new RangeSet();
+            for (Band band : this.bands) {
+                columns.addAll(band.columns);
+            }
+            this.selectedColumns = columns;
+        }
+        return columns;
+    }
+
+    /**
+     * @return The selected rows per column of all bands.
+     */
+    private ColumnCoverage getColumnCoverage() {
+        ColumnCoverage coverage = this.columnCoverage;
+        if (coverage == null) {
+            coverage = new ColumnCoverage(this.bands);
+            this.columnCoverage = coverage;
+        }
+        return coverage;
+    }
+
+    // Object methods
+
+    @Override
+    public String toString() {
+        this.selectionsLock.readLock().lock();
+        try {
+            return this.bands.toString();
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void handleLayerEvent(IStructuralChangeEvent event) {
+        if (this.clearSelectionOnChange) {
+            if (event.isHorizontalStructureChanged()) {
+                if (event.getColumnDiffs() == null) {
+                    Collection<Rectangle> rectangles = event.getChangedPositionRectangles();
+                    for (Rectangle rectangle : rectangles) {
+                        Range changedRange = new Range(rectangle.y, rectangle.y + rectangle.height);
+                        if (selectedColumnModified(changedRange)) {
+                            this.selectionLayer.clear();
+                            break;
+                        }
+                    }
+                } else {
+                    for (StructuralDiff diff : event.getColumnDiffs()) {
+                        // DiffTypeEnum.CHANGE is used for resizing and
+                        // shouldn't result in clearing the selection
+                        if (diff.getDiffType() != DiffTypeEnum.CHANGE) {
+                            if (selectedColumnModified(diff.getBeforePositionRange())) {
+                                this.selectionLayer.clear();
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (event.isVerticalStructureChanged()) {
+                // if there are no row diffs, it seems to be a complete refresh
+                if (event.getRowDiffs() == null) {
+                    Collection<Rectangle> rectangles = event.getChangedPositionRectangles();
+                    for (Rectangle rectangle : rectangles) {
+                        Range changedRange = new Range(rectangle.y, rectangle.y + rectangle.height);
+                        if (selectedRowModified(changedRange)) {
+                            this.selectionLayer.clear();
+                            break;
+                        }
+                    }
+                } else {
+                    for (StructuralDiff diff : event.getRowDiffs()) {
+                        // DiffTypeEnum.CHANGE is used for resizing and
+                        // shouldn't result in clearing the selection
+                        if (diff.getDiffType() != DiffTypeEnum.CHANGE) {
+                            if (selectedRowModified(diff.getBeforePositionRange())) {
+                                this.selectionLayer.clear();
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        } else {
+            // keep the selection as is in case of changes, but remove the
+            // selection of cells that do not exist anymore
+            int columnCount = this.selectionLayer.getColumnCount();
+            int rowCount = this.selectionLayer.getRowCount();
+            this.selectionsLock.writeLock().lock();
+            try {
+                modify(columnCount, 0, Integer.MAX_VALUE - columnCount, Integer.MAX_VALUE, false);
+                modify(0, rowCount, Integer.MAX_VALUE, Integer.MAX_VALUE - rowCount, false);
+            } finally {
+                this.selectionsLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private boolean selectedRowModified(Range changedRange) {
+        Set<Range> selectedRows = this.selectionLayer.getSelectedRowPositions();
+        for (Range rowRange : selectedRows) {
+            if (rowRange.overlap(changedRange)) {
+                return true;
+            }
+        }
+
+        // if the selection layer is empty, we should clear the selection also
+        if (this.selectionLayer.getRowCount() == 0 && !this.isEmpty()) {
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean selectedColumnModified(Range changedRange) {
+        this.selectionsLock.readLock().lock();
+        try {
+            return getSelectedColumns().intersects(
+                    changedRange.start,
+                    Math.min(changedRange.end + 1, this.selectionLayer.getColumnCount()));
+        } finally {
+            this.selectionsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * @param clearSelectionOnChange
+     *            <code>true</code> to simply clear the selection on structural
+     *            changes, <code>false</code> to keep the valid selection
+     *            (selection of cells that still exist)
+     */
+    public void setClearSelectionOnChange(boolean clearSelectionOnChange) {
+        this.clearSelectionOnChange = clearSelectionOnChange;
+    }
+
+    @Override
+    public Class<IStructuralChangeEvent> getLayerEventClass() {
+        return IStructuralChangeEvent.class;
+    }
+
+    /**
+     * The selected rows of the columns. The columns are split into segments
+     * at the start and end of every column range of the bands, so all columns
+     * of a segment are selected in the same rows. For every segment only the
+     * first contiguous range of selected rows is stored, as a column with
+     * non-contiguous selected rows is never fully selected.
+     */
+    private static final class ColumnCoverage {
+
+        private static final int NOT_SELECTED = -1;
+        private static final int NOT_CONTIGUOUS = -2;
+
+        /**
+         * The sorted segment boundaries. Segment i contains the columns from
+         * bounds[i] inclusive to bounds[i + 1] exclusive.
+         */
+        final int[] bounds;
+        /**
+         * The first selected row per segment, {@link #NOT_SELECTED} or
+         * {@link #NOT_CONTIGUOUS}.
+         */
+        final int[] rowStarts;
+        /**
+         * The end of the selected rows per segment, exclusive.
+         */
+        final int[] rowEnds;
+
+        ColumnCoverage(List<Band> bands) {
+            int count = 0;
+            for (Band band : bands) {
+                count += band.columns.getRangeCount() * 2;
+            }
+            int[] values = new int[count];
+            int i = 0;
+            for (Band band : bands) {
+                for (int r = 0; r < band.columns.getRangeCount(); r++) {
+                    values[i++] = band.columns.getRangeStart(r);
+                    values[i++] = band.columns.getRangeEnd(r);
+                }
+            }
+            Arrays.sort(values);
+            int size = 0;
+            for (int value : values) {
+                if (size == 0 || values[size - 1] != value) {
+                    values[size++] = value;
+                }
+            }
+            this.bounds = Arrays.copyOf(values, size);
+
+            this.rowStarts = new int[Math.max(size - 1, 0)];
+            this.rowEnds = new int[this.rowStarts.length];
+            Arrays.fill(this.rowStarts, NOT_SELECTED);
+            for (Band band : bands) {
+                for (int r = 0; r < band.columns.getRangeCount(); r++) {
+                    int end = band.columns.getRangeEnd(r);
+                    for (int segment = Arrays.binarySearch(this.bounds, band.columns.getRangeStart(r)); this.bounds[segment] < end; segment++) {
+                        if (this.rowStarts[segment] == NOT_SELECTED) {
+                            this.rowStarts[segment] = band.start;
+                            this.rowEnds[segment] = band.end;
+                        } else if (this.rowStarts[segment] != NOT_CONTIGUOUS
+                                && this.rowEnds[segment] == band.start) {
+                            this.rowEnds[segment] = band.end;
+                        } else {
+                            this.rowStarts[segment] = NOT_CONTIGUOUS;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param columnPosition
+         *            The column position.
+         * @return The segment that contains the given column, or -1 if the
+         *         column is outside of all segments.
+         */
+        int findSegment(int columnPosition) {
+            int index = Arrays.binarySearch(this.bounds, columnPosition);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < this.rowStarts.length ? index : -1;
+        }
+
+        /**
+         * @param segment
+         *            The segment to check, can be -1.
+         * @param height
+         *            The number of rows that need to be selected.
+         * @return <code>true</code> if the columns of the given segment are
+         *         selected in one contiguous range of rows that covers at
+         *         least the given height.
+         */
+        boolean isFullySelected(int segment, int height) {
+            return segment >= 0
+                    && this.rowStarts[segment] >= 0
+                    && this.rowEnds[segment] - this.rowStarts[segment] >= height;
+        }
+    }
+
+    /**
+     * A range of rows that share the same selected columns.
+     */
+    private static final class Band {
+
+        int start;
+        int end;
+        final RangeSet columns;
+
+        Band(int start, int end, RangeSet columns) {
+            this.start = start;
+            this.end = end;
+            this.columns = columns;
+        }
+
+        @Override
+        public String toString() {
+            return "Band [" + this.start + "-" + this.end + ", " + this.columns + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        }
+    }
+}
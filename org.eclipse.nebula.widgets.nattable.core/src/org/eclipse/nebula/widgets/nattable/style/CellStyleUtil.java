@@ -17,6 +17,7 @@
 import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
 import org.eclipse.nebula.widgets.nattable.config.NatTableConfigAttributes;
 import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.eclipse.nebula.widgets.nattable.painter.layer.CellPaintCache;
 import org.eclipse.nebula.widgets.nattable.util.GUIHelper;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
@@ -44,6 +45,10 @@ private CellStyleUtil() {
      * @return The transitive style information for the given cell.
      */
     public static IStyle getCellStyle(ILayerCell cell, IConfigRegistry configRegistry) {
+        CellPaintCache cache = CellPaintCache.getCurrent();
+        if (cache != null) {
+            return cache.getCellStyle(cell, configRegistry);
+        }
         return new CellStyleProxy(configRegistry, cell.getDisplayMode(), cell.getConfigLabels());
     }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Dirk Fauth.
+ * Copyright (c) 2014, 2020 Dirk Fauth.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -94,6 +94,13 @@ public class FixedSummaryRowLayer extends SummaryRowLayer {
      */
     protected ILayer horizontalLayerDependency;
 
+    /**
+     * Flag that is set while an event of the horizontal dependency is
+     * processed. The data changes are already received via the underlying
+     * layer, so the incremental summary providers must not be updated twice.
+     */
+    private boolean processingDependencyEvent = false;
+
     /**
      * Flag to tell whether the horizontal dependency is a composite or not. For
      * example, if the horizontal dependency is a {@link GridLayer} it contains
@@ -231,7 +238,12 @@ public void handleLayerEvent(ILayerEvent event) {
                     // them upwards, otherwise we only clear the cache like the
                     // SummaryRowLayer does without further processing upwards
                     if (event.convertToLocal(FixedSummaryRowLayer.this)) {
-                        FixedSummaryRowLayer.this.handleLayerEvent(event.cloneEvent());
+                        FixedSummaryRowLayer.this.processingDependencyEvent = true;
+                        try {
+                            FixedSummaryRowLayer.this.handleLayerEvent(event.cloneEvent());
+                        } finally {
+                            FixedSummaryRowLayer.this.processingDependencyEvent = false;
+                        }
                     } else if (event instanceof IVisualChangeEvent) {
                         clearCache();
                     }
@@ -252,6 +264,13 @@ public boolean doCommand(ILayerCommand command) {
         return super.doCommand(command);
     }
 
+    @Override
+    protected void updateIncrementalSummaryProviders(ILayerEvent event) {
+        if (!this.processingDependencyEvent) {
+            super.updateIncrementalSummaryProviders(event);
+        }
+    }
+
     @Override
     public Object getDataValueByPosition(int columnPosition, int rowPosition) {
         if (!isBodyColumn(columnPosition)) {
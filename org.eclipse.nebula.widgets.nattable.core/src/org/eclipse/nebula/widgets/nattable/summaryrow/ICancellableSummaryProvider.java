@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * {@link ISummaryProvider} whose long running calculations can be cancelled.
+ * The {@link SummaryRowLayer} cancels the running calculations when the
+ * summary values get invalid, e.g. because of a structural refresh, so a
+ * calculation on outdated data does not delay the calculation on the current
+ * data.
+ *
+ * @since 2.0
+ */
+public interface ICancellableSummaryProvider extends ISummaryProvider {
+
+    /**
+     * Cancels all calculations that are running at the time of the call. A
+     * cancelled {@link #summarize(int)} call throws a
+     * {@link CancellationException}. Calculations that are started after this
+     * call are not affected.
+     */
+    void cancel();
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import java.util.Collection;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+
+/**
+ * {@link ISummaryProvider} that maintains its summary values incrementally.
+ * Instead of summarizing all values of a column on every change, the
+ * {@link SummaryRowLayer} informs the provider about the rows that were
+ * inserted, deleted or updated, so the summary values can be updated with the
+ * changed rows only. A full recalculation is only necessary after
+ * {@link #reset()}, which is called by the {@link SummaryRowLayer} on
+ * structural refreshes where the changed rows are unknown.
+ * <p>
+ * The row indexes passed to the methods are the indexes in the underlying
+ * data. The methods are called in the UI thread, while
+ * {@link #summarize(int)} might be called in a background thread, so
+ * implementations need to be thread safe.
+ * </p>
+ *
+ * @since 2.0
+ */
+public interface IIncrementalSummaryProvider extends ISummaryProvider {
+
+    /**
+     * Informs about rows that were inserted.
+     *
+     * @param rowIndexRanges
+     *            The ranges of the inserted rows, using the row indexes after
+     *            the insertion.
+     */
+    void rowsInserted(Collection<Range> rowIndexRanges);
+
+    /**
+     * Informs about rows that were deleted.
+     *
+     * @param rowIndexRanges
+     *            The ranges of the deleted rows, using the row indexes before
+     *            the deletion.
+     */
+    void rowsDeleted(Collection<Range> rowIndexRanges);
+
+    /**
+     * Informs about rows whose values might have changed in any column.
+     *
+     * @param rowIndexRanges
+     *            The ranges of the updated rows.
+     */
+    void rowsUpdated(Collection<Range> rowIndexRanges);
+
+    /**
+     * Informs about a single cell whose value might have changed.
+     *
+     * @param columnIndex
+     *            The column index of the updated cell.
+     * @param rowIndex
+     *            The row index of the updated cell.
+     */
+    void cellUpdated(int columnIndex, int rowIndex);
+
+    /**
+     * Informs about a row object whose properties have changed, e.g. via
+     * {@link org.eclipse.nebula.widgets.nattable.layer.event.PropertyUpdateEvent}.
+     *
+     * @param rowObject
+     *            The updated row object.
+     */
+    void rowObjectUpdated(Object rowObject);
+
+    /**
+     * Discards the incrementally maintained state, so the next call to
+     * {@link #summarize(int)} performs a full calculation.
+     */
+    void reset();
+}
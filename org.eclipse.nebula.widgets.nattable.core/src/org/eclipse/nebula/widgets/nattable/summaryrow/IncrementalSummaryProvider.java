@@ -0,0 +1,588 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.IPrimitiveDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.IRowDataProvider;
+
+/**
+ * {@link IIncrementalSummaryProvider} that maintains the sum, the count, the
+ * minimum, the maximum and the average of the Number values in a column.
+ * <p>
+ * On the first request for a column all values are read once and a snapshot
+ * of the numeric values is kept. Afterwards updated rows are applied as the
+ * difference to the snapshot value, so the sum and the count are updated in
+ * constant time per changed value. Inserted and deleted rows are applied the
+ * same way. The sum is maintained with compensated summation and is
+ * recalculated from the snapshot after a number of changes that corresponds
+ * to the row count, so rounding errors of the incremental updates do not
+ * accumulate.
+ * </p>
+ * <p>
+ * The sorted values that are needed to update the minimum and the maximum in
+ * logarithmic time are only maintained if the provider is created for
+ * {@link SummaryType#MIN} or {@link SummaryType#MAX}. For the other types a
+ * minimum or maximum requested via {@link #summarize(int, SummaryType)} is
+ * calculated from the snapshot.
+ * </p>
+ * <p>
+ * If a column contains values that are not of type Number, the provider
+ * returns {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} in strict mode,
+ * otherwise those values are ignored, like in the
+ * {@link SummationSummaryProvider}.
+ * </p>
+ * <p>
+ * Row objects reported via {@link #rowObjectUpdated(Object)} are located via
+ * an index of the row objects by identity, that is built on the first update
+ * of a row object and rebuilt after rows were inserted, deleted or replaced.
+ * </p>
+ * <p>
+ * As a safety net the state of a column is recalculated if the row count of
+ * the {@link IDataProvider} does not match the number of rows in the
+ * snapshot, e.g. because a change was not reported via an event.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class IncrementalSummaryProvider implements IIncrementalSummaryProvider {
+
+    /**
+     * The summary value returned by {@link IncrementalSummaryProvider#summarize(int)}.
+     */
+    public enum SummaryType {
+        /** The sum of the values as Double. */
+        SUM,
+        /** The number of values as Integer. */
+        COUNT,
+        /**
+         * The minimum value as Double or <code>null</code> if there are no
+         * values.
+         */
+        MIN,
+        /**
+         * The maximum value as Double or <code>null</code> if there are no
+         * values.
+         */
+        MAX,
+        /**
+         * The average of the values as Double or <code>null</code> if there
+         * are no values.
+         */
+        AVERAGE
+    }
+
+    private final IDataProvider dataProvider;
+    private final SummaryType summaryType;
+    private final boolean strict;
+
+    /** The state per column index, guarded by this. */
+    private final Map<Integer, ColumnSummary> columns = new HashMap<Integer, ColumnSummary>();
+
+    /**
+     * The row indexes of the row objects by identity, guarded by this.
+     * <code>null</code> if it needs to be built on the next update of a row
+     * object. Row objects that are contained more than once are mapped to -1.
+     */
+    private Map<Object, Integer> rowObjectIndexes;
+    /** The row count for which the {@link #rowObjectIndexes} were built. */
+    private int rowObjectIndexesRowCount;
+
+    /**
+     * Create a new {@link IncrementalSummaryProvider} in strict mode.
+     *
+     * @param dataProvider
+     *            The {@link IDataProvider} that should be used to calculate the
+     *            summary values.
+     * @param summaryType
+     *            The summary value that should be returned by
+     *            {@link #summarize(int)}.
+     */
+    public IncrementalSummaryProvider(IDataProvider dataProvider, SummaryType summaryType) {
+        this(dataProvider, summaryType, true);
+    }
+
+    /**
+     *
+     * @param dataProvider
+     *            The {@link IDataProvider} that should be used to calculate the
+     *            summary values.
+     * @param summaryType
+     *            The summary value that should be returned by
+     *            {@link #summarize(int)}.
+     * @param strict
+     *            If strict is set to <code>true</code> and one or more of the
+     *            values in the column is not of type Number,
+     *            {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} will be
+     *            returned. If strict is set to <code>false</code>, the non
+     *            Number values are ignored.
+     */
+    public IncrementalSummaryProvider(IDataProvider dataProvider, SummaryType summaryType, boolean strict) {
+        if (dataProvider == null || summaryType == null) {
+            throw new IllegalArgumentException("dataProvider and summaryType must not be null"); //$NON-NLS-1$
+        }
+        this.dataProvider = dataProvider;
+        this.summaryType = summaryType;
+        this.strict = strict;
+    }
+
+    @Override
+    public Object summarize(int columnIndex) {
+        return summarize(columnIndex, this.summaryType);
+    }
+
+    /**
+     * Returns the requested summary value of the given column. As all summary
+     * values are maintained together, this can be used to retrieve the other
+     * summary values without additional calculation.
+     *
+     * @param columnIndex
+     *            The column index of the column for which the summary is
+     *            requested.
+     * @param type
+     *            The requested summary value.
+     * @return The summary value or
+     *         {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} if the column
+     *         contains non Number values and this provider is strict.
+     */
+    public synchronized Object summarize(int columnIndex, SummaryType type) {
+        ColumnSummary summary = getColumnSummary(columnIndex);
+        if (this.strict && summary.invalid > 0) {
+            return DEFAULT_SUMMARY_VALUE;
+        }
+        switch (type) {
+            case SUM:
+                return summary.getSum();
+            case COUNT:
+                return summary.count;
+            case MIN:
+                return summary.count > 0 ? summary.getExtremum(false) : null;
+            case MAX:
+                return summary.count > 0 ? summary.getExtremum(true) : null;
+            default:
+                return summary.count > 0 ? summary.getSum() / summary.count : null;
+        }
+    }
+
+    @Override
+    public synchronized void rowsInserted(Collection<Range> rowIndexRanges) {
+        this.rowObjectIndexes = null;
+        List<Range> ranges = sort(rowIndexRanges, true);
+        int rowCount = this.dataProvider.getRowCount();
+        for (Iterator<Map.Entry<Integer, ColumnSummary>> it = this.columns.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, ColumnSummary> entry = it.next();
+            int columnIndex = entry.getKey();
+            ColumnSummary summary = entry.getValue();
+            for (Range range : ranges) {
+                if (range.start > summary.size || range.end > rowCount) {
+                    // the reported change does not fit the snapshot
+                    it.remove();
+                    break;
+                }
+                summary.insert(range.start, range.size());
+                for (int rowIndex = range.start; rowIndex < range.end; rowIndex++) {
+                    setValue(summary, columnIndex, rowIndex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void rowsDeleted(Collection<Range> rowIndexRanges) {
+        this.rowObjectIndexes = null;
+        // delete from the end so the indexes of the remaining ranges are
+        // still valid
+        List<Range> ranges = sort(rowIndexRanges, false);
+        for (Iterator<ColumnSummary> it = this.columns.values().iterator(); it.hasNext();) {
+            ColumnSummary summary = it.next();
+            for (Range range : ranges) {
+                if (range.end > summary.size) {
+                    it.remove();
+                    break;
+                }
+                summary.delete(range.start, range.end);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void rowsUpdated(Collection<Range> rowIndexRanges) {
+        // the row objects might have been replaced
+        this.rowObjectIndexes = null;
+        for (Iterator<Map.Entry<Integer, ColumnSummary>> it = this.columns.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, ColumnSummary> entry = it.next();
+            if (!update(entry.getKey(), entry.getValue(), rowIndexRanges)) {
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void cellUpdated(int columnIndex, int rowIndex) {
+        ColumnSummary summary = this.columns.get(columnIndex);
+        if (summary != null
+                && !update(columnIndex, summary, Collections.singleton(new Range(rowIndex, rowIndex + 1)))) {
+            this.columns.remove(columnIndex);
+        }
+    }
+
+    /**
+     * Updates the row of the given row object if the {@link IDataProvider} is
+     * an {@link IRowDataProvider}. Otherwise the state is reset, as the row
+     * index of the object can not be determined. The row object is located by
+     * identity, so other row objects that are equal to the given one are not
+     * affected.
+     */
+    @Override
+    public synchronized void rowObjectUpdated(Object rowObject) {
+        int rowIndex = -1;
+        if (this.dataProvider instanceof IRowDataProvider && !this.columns.isEmpty()) {
+            rowIndex = getRowIndex(rowObject);
+        }
+        if (rowIndex >= 0) {
+            for (Iterator<Map.Entry<Integer, ColumnSummary>> it = this.columns.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<Integer, ColumnSummary> entry = it.next();
+                if (!update(entry.getKey(), entry.getValue(), Collections.singleton(new Range(rowIndex, rowIndex + 1)))) {
+                    it.remove();
+                }
+            }
+        } else {
+            reset();
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        this.columns.clear();
+        this.rowObjectIndexes = null;
+    }
+
+    /**
+     * Returns the row index of the given row object via the
+     * {@link #rowObjectIndexes}. The index is built if necessary and rebuilt
+     * if it does not match the {@link IRowDataProvider}, e.g. because a
+     * change was not reported.
+     *
+     * @return The row index of the given row object or -1 if it is not
+     *         contained or contained more than once.
+     */
+    @SuppressWarnings("unchecked")
+    private int getRowIndex(Object rowObject) {
+        IRowDataProvider<Object> rowDataProvider = (IRowDataProvider<Object>) this.dataProvider;
+        int rowCount = rowDataProvider.getRowCount();
+        if (this.rowObjectIndexes == null || this.rowObjectIndexesRowCount != rowCount) {
+            buildRowObjectIndexes(rowDataProvider, rowCount);
+        }
+        Integer rowIndex = this.rowObjectIndexes.get(rowObject);
+        if (rowIndex != null && rowIndex >= 0 && rowDataProvider.getRowObject(rowIndex) != rowObject) {
+            buildRowObjectIndexes(rowDataProvider, rowCount);
+            rowIndex = this.rowObjectIndexes.get(rowObject);
+        }
+        return (rowIndex != null) ? rowIndex : -1;
+    }
+
+    private void buildRowObjectIndexes(IRowDataProvider<Object> rowDataProvider, int rowCount) {
+        this.rowObjectIndexes = new IdentityHashMap<Object, Integer>(rowCount);
+        this.rowObjectIndexesRowCount = rowCount;
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            Object rowObject = rowDataProvider.getRowObject(rowIndex);
+            if (this.rowObjectIndexes.put(rowObject, rowIndex) != null) {
+                this.rowObjectIndexes.put(rowObject, -1);
+            }
+        }
+    }
+
+    private boolean update(int columnIndex, ColumnSummary summary, Collection<Range> rowIndexRanges) {
+        int rowCount = this.dataProvider.getRowCount();
+        for (Range range : rowIndexRanges) {
+            if (range.start < 0 || range.end > summary.size || range.end > rowCount) {
+                return false;
+            }
+            for (int rowIndex = range.start; rowIndex < range.end; rowIndex++) {
+                setValue(summary, columnIndex, rowIndex);
+            }
+        }
+        return true;
+    }
+
+    private ColumnSummary getColumnSummary(int columnIndex) {
+        int rowCount = this.dataProvider.getRowCount();
+        ColumnSummary summary = this.columns.get(columnIndex);
+        if (summary == null || summary.size != rowCount) {
+            summary = new ColumnSummary(rowCount,
+                    this.summaryType == SummaryType.MIN || this.summaryType == SummaryType.MAX);
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                setValue(summary, columnIndex, rowIndex);
+            }
+            this.columns.put(columnIndex, summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Reads the value of the given cell into the snapshot of the column.
+     */
+    private void setValue(ColumnSummary summary, int columnIndex, int rowIndex) {
+        if (this.dataProvider instanceof IPrimitiveDataProvider) {
+            IPrimitiveDataProvider primitiveDataProvider = (IPrimitiveDataProvider) this.dataProvider;
+            if (primitiveDataProvider.isNumericColumn(columnIndex)) {
+                summary.set(rowIndex, true, primitiveDataProvider.getDoubleValue(columnIndex, rowIndex));
+                return;
+            }
+        }
+        Object dataValue = this.dataProvider.getDataValue(columnIndex, rowIndex);
+        if (dataValue instanceof Number) {
+            summary.set(rowIndex, true, ((Number) dataValue).doubleValue());
+        } else {
+            summary.set(rowIndex, false, 0);
+        }
+    }
+
+    private static List<Range> sort(Collection<Range> ranges, final boolean ascending) {
+        List<Range> result = new ArrayList<Range>(ranges);
+        Collections.sort(result, new Comparator<Range>() {
+            @Override
+            public int compare(Range r1, Range r2) {
+                return ascending
+                        ? Integer.compare(r1.start, r2.start)
+                        : Integer.compare(r2.start, r1.start);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The incrementally maintained state of a column.
+     */
+    private static final class ColumnSummary {
+
+        /**
+         * The minimum number of changes after which the sum is recalculated
+         * from the snapshot.
+         */
+        private static final int MIN_CHANGES_BEFORE_REBASE = 1024;
+
+        /** The snapshot of the row values, 0 for non Number values. */
+        private double[] rows;
+        /** <code>true</code> for the rows whose value is not a Number. */
+        private boolean[] invalidRows;
+        private int size;
+
+        /** The sum of the finite values. */
+        private double sum;
+        /** The compensation of the rounding errors of {@link #sum}. */
+        private double compensation;
+        /** The number of values added or removed since the last rebase. */
+        private int changes;
+
+        private int count;
+        private int invalid;
+        private int nanValues;
+        private int positiveInfinities;
+        private int negativeInfinities;
+
+        /**
+         * The Number values with their number of occurrences, only maintained
+         * if the minimum or the maximum is the summary value.
+         */
+        private final TreeMap<Double, Integer> values;
+
+        ColumnSummary(int rowCount, boolean sorted) {
+            this.rows = new double[Math.max(16, rowCount)];
+            this.invalidRows = new boolean[this.rows.length];
+            this.size = rowCount;
+            this.values = sorted ? new TreeMap<Double, Integer>() : null;
+            // start with all rows being invalid, they are set by the caller
+            Arrays.fill(this.invalidRows, 0, rowCount, true);
+            this.invalid = rowCount;
+        }
+
+        void set(int rowIndex, boolean valid, double value) {
+            remove(rowIndex);
+            this.rows[rowIndex] = valid ? value : 0;
+            this.invalidRows[rowIndex] = !valid;
+            add(rowIndex);
+            checkRebase();
+        }
+
+        /**
+         * Opens a gap of invalid rows at the given index.
+         */
+        void insert(int rowIndex, int length) {
+            if (this.size + length > this.rows.length) {
+                int capacity = Math.max(this.size + length, this.rows.length * 2);
+                this.rows = Arrays.copyOf(this.rows, capacity);
+                this.invalidRows = Arrays.copyOf(this.invalidRows, capacity);
+            }
+            System.arraycopy(this.rows, rowIndex, this.rows, rowIndex + length, this.size - rowIndex);
+            System.arraycopy(this.invalidRows, rowIndex, this.invalidRows, rowIndex + length, this.size - rowIndex);
+            Arrays.fill(this.rows, rowIndex, rowIndex + length, 0);
+            Arrays.fill(this.invalidRows, rowIndex, rowIndex + length, true);
+            this.size += length;
+            this.invalid += length;
+        }
+
+        void delete(int start, int end) {
+            for (int rowIndex = start; rowIndex < end; rowIndex++) {
+                remove(rowIndex);
+            }
+            System.arraycopy(this.rows, end, this.rows, start, this.size - end);
+            System.arraycopy(this.invalidRows, end, this.invalidRows, start, this.size - end);
+            this.size -= end - start;
+            checkRebase();
+        }
+
+        /**
+         * @return The sum of all values, with the same handling of NaN and
+         *         infinite values as a sequential summation.
+         */
+        double getSum() {
+            if (this.nanValues > 0 || (this.positiveInfinities > 0 && this.negativeInfinities > 0)) {
+                return Double.NaN;
+            } else if (this.positiveInfinities > 0) {
+                return Double.POSITIVE_INFINITY;
+            } else if (this.negativeInfinities > 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return this.sum + this.compensation;
+        }
+
+        /**
+         * @param max
+         *            <code>true</code> for the maximum, <code>false</code> for
+         *            the minimum.
+         * @return The minimum or the maximum of the values in the order of
+         *         {@link Double#compare(double, double)}. Only called if
+         *         there is at least one value.
+         */
+        Double getExtremum(boolean max) {
+            if (this.values != null) {
+                return max ? this.values.lastKey() : this.values.firstKey();
+            }
+            double result = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            for (int rowIndex = 0; rowIndex < this.size; rowIndex++) {
+                if (!this.invalidRows[rowIndex]) {
+                    int compare = Double.compare(this.rows[rowIndex], result);
+                    if (max ? compare > 0 : compare < 0) {
+                        result = this.rows[rowIndex];
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void add(int rowIndex) {
+            if (this.invalidRows[rowIndex]) {
+                this.invalid++;
+                return;
+            }
+            double value = this.rows[rowIndex];
+            this.count++;
+            addToSum(value, 1);
+            if (this.values != null) {
+                Integer occurrences = this.values.get(value);
+                this.values.put(value, occurrences == null ? 1 : occurrences + 1);
+            }
+        }
+
+        private void remove(int rowIndex) {
+            if (this.invalidRows[rowIndex]) {
+                this.invalid--;
+                return;
+            }
+            double value = this.rows[rowIndex];
+            this.count--;
+            addToSum(value, -1);
+            if (this.values != null) {
+                Integer occurrences = this.values.get(value);
+                if (occurrences != null) {
+                    if (occurrences > 1) {
+                        this.values.put(value, occurrences - 1);
+                    } else {
+                        this.values.remove(value);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds or subtracts the given value. Non finite values are counted
+         * separately, finite values are summed with Neumaier's compensated
+         * summation.
+         */
+        private void addToSum(double value, int sign) {
+            if (Double.isNaN(value)) {
+                this.nanValues += sign;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                this.positiveInfinities += sign;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                this.negativeInfinities += sign;
+            } else if (this.count == 0) {
+                // avoid accumulated rounding errors if there are no values
+                // left
+                this.sum = 0;
+                this.compensation = 0;
+                this.changes = 0;
+            } else {
+                accumulate(sign * value);
+                this.changes++;
+            }
+        }
+
+        private void accumulate(double summand) {
+            double total = this.sum + summand;
+            if (Math.abs(this.sum) >= Math.abs(summand)) {
+                this.compensation += (this.sum - total) + summand;
+            } else {
+                this.compensation += (summand - total) + this.sum;
+            }
+            this.sum = total;
+        }
+
+        /**
+         * Recalculates the sum from the snapshot if enough changes were
+         * applied. Only called if the snapshot is consistent with the sum.
+         */
+        private void checkRebase() {
+            if (this.changes > Math.max(MIN_CHANGES_BEFORE_REBASE, this.size)) {
+                rebase();
+            }
+        }
+
+        /**
+         * Recalculates the sum of the finite values from the snapshot.
+         */
+        private void rebase() {
+            this.sum = 0;
+            this.compensation = 0;
+            this.changes = 0;
+            for (int rowIndex = 0; rowIndex < this.size; rowIndex++) {
+                double value = this.rows[rowIndex];
+                if (!this.invalidRows[rowIndex] && !Double.isNaN(value) && !Double.isInfinite(value)) {
+                    accumulate(value);
+                }
+            }
+        }
+    }
+}
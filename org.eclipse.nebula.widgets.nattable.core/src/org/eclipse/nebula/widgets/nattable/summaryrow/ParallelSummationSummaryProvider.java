@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.summaryrow;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.IPrimitiveDataProvider;
+
+/**
+ * {@link SummationSummaryProvider} that summarizes large columns in parallel.
+ * The rows are split into chunks that are summed on a {@link ForkJoinPool}
+ * and the partial sums are combined afterwards. Columns with less rows than
+ * two chunks are summarized sequentially.
+ * <p>
+ * Running calculations are cancelled via {@link #cancel()}, which is called
+ * by the {@link SummaryRowLayer} if the summary values get invalid. The
+ * chunks check for cancellation regularly, so the thread of the
+ * {@link SummaryRowLayer} is quickly available for the next calculation.
+ * </p>
+ * <p>
+ * Note that the {@link IDataProvider} is accessed concurrently by multiple
+ * threads and therefore needs to support concurrent reads. As the partial
+ * sums are combined in a different order, the result can differ from the
+ * sequential summation in the last digits.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class ParallelSummationSummaryProvider extends SummationSummaryProvider implements ICancellableSummaryProvider {
+
+    /** Default number of rows that are summed in one task. */
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+    /** Number of rows after which a task checks for cancellation. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final IDataProvider dataProvider;
+    private final boolean strict;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /** Incremented on {@link #cancel()}, running calculations compare it with their start value. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Create a new {@link ParallelSummationSummaryProvider} in strict mode
+     * that uses the common {@link ForkJoinPool}.
+     *
+     * @param dataProvider
+     *            The {@link IDataProvider} that should be used to calculate the
+     *            sum.
+     */
+    public ParallelSummationSummaryProvider(IDataProvider dataProvider) {
+        this(dataProvider, true);
+    }
+
+    /**
+     * Create a new {@link ParallelSummationSummaryProvider} that uses the
+     * common {@link ForkJoinPool}.
+     *
+     * @param dataProvider
+     *            The {@link IDataProvider} that should be used to calculate the
+     *            sum.
+     * @param strict
+     *            If strict is set to <code>true</code> and one or more of the
+     *            values in the column is not of type Number, then
+     *            {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} will be
+     *            returned. If strict is set to <code>false</code>, the non
+     *            Number values are ignored.
+     */
+    public ParallelSummationSummaryProvider(IDataProvider dataProvider, boolean strict) {
+        this(dataProvider, strict, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     *
+     * @param dataProvider
+     *            The {@link IDataProvider} that should be used to calculate the
+     *            sum.
+     * @param strict
+     *            If strict is set to <code>true</code> and one or more of the
+     *            values in the column is not of type Number, then
+     *            {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} will be
+     *            returned. If strict is set to <code>false</code>, the non
+     *            Number values are ignored.
+     * @param pool
+     *            The {@link ForkJoinPool} that should be used to execute the
+     *            chunks.
+     * @param chunkSize
+     *            The number of rows that are summed in one task.
+     */
+    public ParallelSummationSummaryProvider(IDataProvider dataProvider, boolean strict, ForkJoinPool pool, int chunkSize) {
+        super(dataProvider, strict);
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null"); //$NON-NLS-1$
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0"); //$NON-NLS-1$
+        }
+        this.dataProvider = dataProvider;
+        this.strict = strict;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Calculates the sum of the values in the column.
+     *
+     * @return The sum of all Number values in the column as Double or
+     *         {@link ISummaryProvider#DEFAULT_SUMMARY_VALUE} if the column
+     *         contains non Number values and this provider is configured to
+     *         be strict.
+     * @throws CancellationException
+     *             if the calculation was cancelled via {@link #cancel()}.
+     */
+    @Override
+    public Object summarize(int columnIndex) {
+        int rowCount = this.dataProvider.getRowCount();
+        if (rowCount < 2 * this.chunkSize) {
+            return super.summarize(columnIndex);
+        }
+
+        boolean primitive = this.dataProvider instanceof IPrimitiveDataProvider
+                && ((IPrimitiveDataProvider) this.dataProvider).isNumericColumn(columnIndex);
+        Calculation calculation = new Calculation(columnIndex, primitive, this.generation.get());
+        double sum = this.pool.invoke(new SumTask(calculation, 0, rowCount));
+
+        if (calculation.isCancelled()) {
+            throw new CancellationException("Summary calculation of column " + columnIndex + " was cancelled"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (calculation.invalid) {
+            return DEFAULT_SUMMARY_VALUE;
+        }
+        return sum;
+    }
+
+    @Override
+    public void cancel() {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * The state of a single summarize call that is shared by its tasks.
+     */
+    private final class Calculation {
+
+        final int columnIndex;
+        final boolean primitive;
+        final long generation;
+
+        /** Set if a non Number value was found in strict mode. */
+        volatile boolean invalid;
+
+        Calculation(int columnIndex, boolean primitive, long generation) {
+            this.columnIndex = columnIndex;
+            this.primitive = primitive;
+            this.generation = generation;
+        }
+
+        boolean isCancelled() {
+            return this.generation != ParallelSummationSummaryProvider.this.generation.get();
+        }
+
+        boolean isAborted() {
+            return this.invalid || isCancelled();
+        }
+    }
+
+    /**
+     * Sums the values of a row range, splits the range if it is larger than
+     * the chunk size.
+     */
+    private final class SumTask extends RecursiveTask<Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Calculation calculation;
+        private final int start;
+        private final int end;
+
+        SumTask(Calculation calculation, int start, int end) {
+            this.calculation = calculation;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Double compute() {
+            if (this.calculation.isAborted()) {
+                return 0d;
+            }
+            if (this.end - this.start > ParallelSummationSummaryProvider.this.chunkSize) {
+                int middle = (this.start + this.end) >>> 1;
+                SumTask left = new SumTask(this.calculation, this.start, middle);
+                left.fork();
+                double right = new SumTask(this.calculation, middle, this.end).compute();
+                return left.join() + right;
+            }
+            return sum();
+        }
+
+        private double sum() {
+            IDataProvider provider = ParallelSummationSummaryProvider.this.dataProvider;
+            int columnIndex = this.calculation.columnIndex;
+            double sum = 0;
+            for (int rowIndex = this.start; rowIndex < this.end; rowIndex++) {
+                if ((rowIndex - this.start) % CANCEL_CHECK_INTERVAL == 0 && this.calculation.isAborted()) {
+                    return 0;
+                }
+                if (this.calculation.primitive) {
+                    sum += ((IPrimitiveDataProvider) provider).getDoubleValue(columnIndex, rowIndex);
+                } else {
+                    Object dataValue = provider.getDataValue(columnIndex, rowIndex);
+                    if (dataValue instanceof Number) {
+                        sum += ((Number) dataValue).doubleValue();
+                    } else if (ParallelSummationSummaryProvider.this.strict) {
+                        this.calculation.invalid = true;
+                        return 0;
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+}
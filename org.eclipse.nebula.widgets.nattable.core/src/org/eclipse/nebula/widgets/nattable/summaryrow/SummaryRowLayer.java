@@ -11,11 +11,17 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.summaryrow;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.nebula.widgets.nattable.command.DisposeResourcesCommand;
 import org.eclipse.nebula.widgets.nattable.command.ILayerCommand;
 import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
 import org.eclipse.nebula.widgets.nattable.layer.AbstractLayerTransform;
 import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
 import org.eclipse.nebula.widgets.nattable.layer.IDpiConverter;
@@ -26,11 +32,18 @@
 import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
 import org.eclipse.nebula.widgets.nattable.layer.cell.LayerCell;
 import org.eclipse.nebula.widgets.nattable.layer.command.ConfigureScalingCommand;
+import org.eclipse.nebula.widgets.nattable.layer.event.CellVisualChangeEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.IVisualChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.PropertyUpdateEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.RowVisualChangeEvent;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff;
+import org.eclipse.nebula.widgets.nattable.layer.event.StructuralDiff.DiffTypeEnum;
 import org.eclipse.nebula.widgets.nattable.resize.command.MultiRowResizeCommand;
 import org.eclipse.nebula.widgets.nattable.resize.command.RowResizeCommand;
 import org.eclipse.nebula.widgets.nattable.resize.event.RowResizeEvent;
+import org.eclipse.nebula.widgets.nattable.selection.event.ISelectionEvent;
 import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
 import org.eclipse.nebula.widgets.nattable.summaryrow.command.CalculateSummaryRowValuesCommand;
 import org.eclipse.nebula.widgets.nattable.util.ArrayUtil;
@@ -103,6 +116,21 @@ public class SummaryRowLayer extends AbstractLayerTransform implements IUniqueIn
      */
     private boolean standalone = false;
 
+    /**
+     * The {@link IIncrementalSummaryProvider}s that were used to calculate
+     * summary values and therefore need to be informed about data changes.
+     */
+    private final Set<IIncrementalSummaryProvider> incrementalSummaryProviders =
+            Collections.newSetFromMap(new ConcurrentHashMap<IIncrementalSummaryProvider, Boolean>());
+
+    /**
+     * The {@link ICancellableSummaryProvider}s that were used to calculate
+     * summary values and therefore need to be cancelled if the values get
+     * invalid.
+     */
+    private final Set<ICancellableSummaryProvider> cancellableSummaryProviders =
+            Collections.newSetFromMap(new ConcurrentHashMap<ICancellableSummaryProvider, Boolean>());
+
     /**
      * Creates a SummaryRowLayer on top of the given underlying layer. It uses
      * smooth value updates as default.
@@ -256,6 +284,13 @@ public Object executeCalculation() {
                             return null;
                         }
 
+                        if (summaryProvider instanceof IIncrementalSummaryProvider) {
+                            SummaryRowLayer.this.incrementalSummaryProviders.add((IIncrementalSummaryProvider) summaryProvider);
+                        }
+                        if (summaryProvider instanceof ICancellableSummaryProvider) {
+                            SummaryRowLayer.this.cancellableSummaryProviders.add((ICancellableSummaryProvider) summaryProvider);
+                        }
+
                         return summaryProvider.summarize(columnPosition);
                     }
                 });
@@ -330,11 +365,110 @@ public boolean doCommand(ILayerCommand command) {
     @Override
     public void handleLayerEvent(ILayerEvent event) {
         if (event instanceof IVisualChangeEvent) {
+            if (!this.incrementalSummaryProviders.isEmpty()) {
+                updateIncrementalSummaryProviders(event);
+            }
+            if (event instanceof IStructuralChangeEvent) {
+                // only a structural change makes a running calculation
+                // outdated, selection and data updates would otherwise
+                // cancel long running calculations over and over
+                cancelSummaryCalculations();
+            }
             clearCache();
         }
         super.handleLayerEvent(event);
     }
 
+    /**
+     * Informs the {@link IIncrementalSummaryProvider}s about the data change
+     * that is described by the given event. Inserted, deleted and updated rows
+     * are passed as deltas, events that do not describe which rows are
+     * affected, like structural refreshes, reset the providers so the next
+     * calculation is a full recalculation. Selection events do not change
+     * data and are ignored.
+     * <p>
+     * The row positions of the events are used as row indexes, as the
+     * SummaryRowLayer is expected to be created on top of the data layer.
+     * </p>
+     *
+     * @param event
+     *            The event received from the underlying layer.
+     * @since 2.0
+     */
+    protected void updateIncrementalSummaryProviders(ILayerEvent event) {
+        if (event instanceof ISelectionEvent) {
+            return;
+        }
+
+        if (event instanceof IStructuralChangeEvent) {
+            IStructuralChangeEvent structuralEvent = (IStructuralChangeEvent) event;
+            Collection<StructuralDiff> columnDiffs = structuralEvent.getColumnDiffs();
+            Collection<StructuralDiff> rowDiffs = structuralEvent.getRowDiffs();
+            if ((structuralEvent.isHorizontalStructureChanged() && (columnDiffs == null || !columnDiffs.isEmpty()))
+                    || (structuralEvent.isVerticalStructureChanged() && rowDiffs == null)) {
+                resetIncrementalSummaryProviders();
+                return;
+            }
+            if (structuralEvent.isVerticalStructureChanged() && !rowDiffs.isEmpty()) {
+                List<Range> inserted = new ArrayList<Range>();
+                List<Range> deleted = new ArrayList<Range>();
+                for (StructuralDiff diff : rowDiffs) {
+                    if (diff.getDiffType() == DiffTypeEnum.ADD) {
+                        inserted.add(diff.getAfterPositionRange());
+                    } else if (diff.getDiffType() == DiffTypeEnum.DELETE) {
+                        deleted.add(diff.getBeforePositionRange());
+                    } else {
+                        // rows were moved or changed in an unknown way
+                        resetIncrementalSummaryProviders();
+                        return;
+                    }
+                }
+                if (!inserted.isEmpty() && !deleted.isEmpty()) {
+                    // the ranges are based on different states
+                    resetIncrementalSummaryProviders();
+                    return;
+                }
+                for (IIncrementalSummaryProvider provider : this.incrementalSummaryProviders) {
+                    if (!deleted.isEmpty()) {
+                        provider.rowsDeleted(deleted);
+                    } else {
+                        provider.rowsInserted(inserted);
+                    }
+                }
+            }
+        } else if (event instanceof CellVisualChangeEvent) {
+            CellVisualChangeEvent cellEvent = (CellVisualChangeEvent) event;
+            for (IIncrementalSummaryProvider provider : this.incrementalSummaryProviders) {
+                provider.cellUpdated(cellEvent.getColumnPosition(), cellEvent.getRowPosition());
+            }
+        } else if (event instanceof RowVisualChangeEvent) {
+            Collection<Range> rowRanges = ((RowVisualChangeEvent) event).getRowPositionRanges();
+            for (IIncrementalSummaryProvider provider : this.incrementalSummaryProviders) {
+                provider.rowsUpdated(rowRanges);
+            }
+        } else if (event instanceof PropertyUpdateEvent) {
+            Object rowObject = ((PropertyUpdateEvent<?>) event).getSourceBean();
+            for (IIncrementalSummaryProvider provider : this.incrementalSummaryProviders) {
+                provider.rowObjectUpdated(rowObject);
+            }
+        } else {
+            resetIncrementalSummaryProviders();
+        }
+    }
+
+    /**
+     * Resets all {@link IIncrementalSummaryProvider}s that were used to
+     * calculate summary values, so their next calculation is a full
+     * recalculation.
+     *
+     * @since 2.0
+     */
+    protected void resetIncrementalSummaryProviders() {
+        for (IIncrementalSummaryProvider provider : this.incrementalSummaryProviders) {
+            provider.reset();
+        }
+    }
+
     /**
      * Clear the internal cache to trigger new calculations.
      * <p>
@@ -356,13 +490,32 @@ public void clearCache() {
      * Usually it is not necessary to call this method manually. But for certain
      * use cases it might be useful, e.g. changing the summary provider
      * implementation at runtime.
+     * <p>
+     * Running calculations of {@link ICancellableSummaryProvider}s are
+     * cancelled, as their result would be outdated.
+     * </p>
      *
      * @see CalculatedValueCache#killCache()
      */
     public void killCache() {
+        cancelSummaryCalculations();
         this.valueCache.killCache();
     }
 
+    /**
+     * Cancels the running calculations of all
+     * {@link ICancellableSummaryProvider}s that were used to calculate summary
+     * values. Needs to be called before the cache is cleared, so a calculation
+     * that finishes concurrently does not leave an outdated value in the
+     * cache. Only called on structural changes and on {@link #killCache()}, as
+     * a cancelled calculation is started again on the next request.
+     */
+    private void cancelSummaryCalculations() {
+        for (ICancellableSummaryProvider provider : this.cancellableSummaryProviders) {
+            provider.cancel();
+        }
+    }
+
     /**
      * This method is a wrapper for calling
      * {@link #getConfigLabelsByPosition(int, int)}. It is needed because
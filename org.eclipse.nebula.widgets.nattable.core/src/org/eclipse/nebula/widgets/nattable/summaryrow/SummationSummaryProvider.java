@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.eclipse.nebula.widgets.nattable.summaryrow;
 
 import org.eclipse.nebula.widgets.nattable.data.IDataProvider;
+import org.eclipse.nebula.widgets.nattable.data.IPrimitiveDataProvider;
 
 /**
  * Implementation of ISummaryProvider that summarizes all values in a column if
@@ -22,6 +23,9 @@
  * not possible this way. You are able to change that behaviour by creating the
  * SummationSummaryProvider with the parameter strict set to <code>false</code>.
  * In that case the non Number values will be ignored.
+ * <p>
+ * If the {@link IDataProvider} is an {@link IPrimitiveDataProvider}, numeric
+ * columns are summarized via the primitive accessors without boxing.
  */
 public class SummationSummaryProvider implements ISummaryProvider {
 
@@ -81,6 +85,16 @@ public Object summarize(int columnIndex) {
         int rowCount = this.dataProvider.getRowCount();
         double summaryValue = 0;
 
+        if (this.dataProvider instanceof IPrimitiveDataProvider) {
+            IPrimitiveDataProvider primitiveDataProvider = (IPrimitiveDataProvider) this.dataProvider;
+            if (primitiveDataProvider.isNumericColumn(columnIndex)) {
+                for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                    summaryValue += primitiveDataProvider.getDoubleValue(columnIndex, rowIndex);
+                }
+                return summaryValue;
+            }
+        }
+
         for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
             Object dataValue = this.dataProvider.getDataValue(columnIndex, rowIndex);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 Dirk Fauth and others.
+ * Copyright (c) 2014, 2020 Dirk Fauth and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
 package org.eclipse.nebula.widgets.nattable.util;
 
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -209,7 +210,15 @@ public Object getCalculatedValue(final int columnPosition, final int rowPosition
                 this.executor.execute(new Runnable() {
                     @Override
                     public void run() {
-                        Object summaryValue = calculator.executeCalculation();
+                        Object summaryValue;
+                        try {
+                            summaryValue = calculator.executeCalculation();
+                        } catch (CancellationException e) {
+                            // the calculation was cancelled because the value
+                            // got invalid, keep the cache untouched so the
+                            // next request triggers a new calculation
+                            return;
+                        }
                         addToCache(key, summaryValue);
 
                         // only fire an update event if the new calculated value
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Dirk Fauth and others.
+ * Copyright (c) 2013, 2020 Dirk Fauth and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,11 @@ public interface ICalculator {
 
     /**
      * Will execute the calculation of a value.
+     * <p>
+     * A calculation in a background process can be aborted by throwing a
+     * {@link java.util.concurrent.CancellationException}. In that case no
+     * value is added to the cache.
+     * </p>
      *
      * @return The value that is calculated in a background process.
      */
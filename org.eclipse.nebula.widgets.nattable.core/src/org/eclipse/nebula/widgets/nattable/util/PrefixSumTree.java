@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary indexed tree (Fenwick tree) that stores int values per index and
+ * supports updating a single value and calculating the sum of all values
+ * before an index in O(log n).
+ * <p>
+ * The tree grows automatically if a value for an index is added that is
+ * outside the current capacity. The capacity is always a power of two, which
+ * makes it possible to grow the tree without rebuilding it, and to search for
+ * an index by accumulated value via binary lifting.
+ * </p>
+ * <p>
+ * Used by the {@link org.eclipse.nebula.widgets.nattable.layer.SizeConfig} to
+ * store the difference of configured sizes to the default size, so aggregated
+ * sizes and position lookups by pixel do not need to iterate over all
+ * configured sizes.
+ * </p>
+ *
+ * @since 2.0
+ */
+public class PrefixSumTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The tree nodes. Index 0 is not used, node <i>i</i> contains the sum of
+     * the values in the range <i>(i - lowestOneBit(i), i]</i>.
+     */
+    private int[] tree;
+
+    /**
+     * Creates an empty {@link PrefixSumTree}.
+     */
+    public PrefixSumTree() {
+        this.tree = new int[INITIAL_CAPACITY + 1];
+    }
+
+    /**
+     * @return The number of indexes that are currently covered by this tree
+     *         without growing.
+     */
+    public int getCapacity() {
+        return this.tree.length - 1;
+    }
+
+    /**
+     * Adds the given delta to the value at the given index.
+     *
+     * @param index
+     *            The index whose value should be changed. Needs to be &gt;= 0.
+     * @param delta
+     *            The value to add.
+     */
+    public void add(int index, int delta) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index < 0"); //$NON-NLS-1$
+        }
+        if (delta == 0) {
+            return;
+        }
+        ensureCapacity(index + 1);
+        for (int i = index + 1; i < this.tree.length; i += Integer.lowestOneBit(i)) {
+            this.tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the sum of the values of all indexes lower than the given index.
+     *
+     * @param index
+     *            The exclusive upper bound.
+     * @return The sum of the values in the range <i>[0, index)</i>.
+     */
+    public int sum(int index) {
+        int sum = 0;
+        for (int i = Math.min(index, getCapacity()); i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the value that is stored for the given index.
+     *
+     * @param index
+     *            The index whose value is requested.
+     * @return The value stored for the given index.
+     */
+    public int get(int index) {
+        return sum(index + 1) - sum(index);
+    }
+
+    /**
+     * Searches for the index that contains the given offset, where every index
+     * contributes <code>base + value(index)</code> to the accumulated offset.
+     * This way the tree can be used to store only the difference to a common
+     * base value. The result is only reliable if every contribution is
+     * non-negative.
+     *
+     * @param offset
+     *            The accumulated offset to search for, needs to be &gt;= 0.
+     * @param base
+     *            The base value every index contributes.
+     * @return The highest index whose accumulated start offset is lower or
+     *         equal to the given offset.
+     */
+    public int findIndex(int offset, int base) {
+        int index = 0;
+        int accumulated = 0;
+        for (int step = Integer.highestOneBit(getCapacity()); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= getCapacity()) {
+                int candidate = accumulated + this.tree[next] + step * base;
+                if (candidate <= offset) {
+                    index = next;
+                    accumulated = candidate;
+                }
+            }
+        }
+
+        if (index == getCapacity() && base > 0) {
+            // all indexes covered by the tree start before the given offset,
+            // the indexes behind the tree only contribute the base value
+            index += (offset - accumulated) / base;
+        }
+        return index;
+    }
+
+    /**
+     * Removes all values from this tree.
+     */
+    public void clear() {
+        this.tree = new int[INITIAL_CAPACITY + 1];
+    }
+
+    private void ensureCapacity(int capacity) {
+        int oldCapacity = getCapacity();
+        if (capacity > oldCapacity) {
+            int newCapacity = oldCapacity;
+            while (newCapacity < capacity) {
+                newCapacity <<= 1;
+            }
+            int total = sum(oldCapacity);
+            this.tree = Arrays.copyOf(this.tree, newCapacity + 1);
+            // with a power of two capacity the nodes of the old tree stay
+            // valid, only the nodes that cover the whole new range need to
+            // carry the total of the old tree
+            for (int i = oldCapacity << 1; i <= newCapacity; i <<= 1) {
+                this.tree[i] = total;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.viewport;
+
+/**
+ * Listener that is informed by a {@link ViewportLayer} about the cells that
+ * are about to be painted and the cells that are likely to become visible
+ * next. Can be used by data providers or caches to load or calculate the
+ * values of the next screen in advance, e.g. to hide the latency of a remote
+ * backend while scrolling.
+ * <p>
+ * The listener is called in the UI thread right before the viewport is
+ * painted, and only if the visible area changed since the last call.
+ * Implementations should therefore return quickly and schedule expensive
+ * operations in the background.
+ * </p>
+ *
+ * @see ViewportLayer#addPrefetchListener(IViewportPrefetchListener)
+ * @since 2.0
+ */
+public interface IViewportPrefetchListener {
+
+    /**
+     *
+     * @param hint
+     *            The information about the visible area of the viewport and
+     *            the scroll movement.
+     */
+    void handlePrefetchHint(ViewportPrefetchHint hint);
+}
@@ -11,8 +11,12 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.viewport;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.eclipse.nebula.widgets.nattable.NatTable;
 import org.eclipse.nebula.widgets.nattable.command.ILayerCommand;
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
 import org.eclipse.nebula.widgets.nattable.coordinate.PixelCoordinate;
 import org.eclipse.nebula.widgets.nattable.coordinate.Range;
 import org.eclipse.nebula.widgets.nattable.grid.command.ClientAreaResizeCommand;
@@ -24,6 +28,7 @@
 import org.eclipse.nebula.widgets.nattable.layer.command.ConfigureScalingCommand;
 import org.eclipse.nebula.widgets.nattable.layer.event.ILayerEvent;
 import org.eclipse.nebula.widgets.nattable.layer.event.IStructuralChangeEvent;
+import org.eclipse.nebula.widgets.nattable.painter.layer.ILayerPainter;
 import org.eclipse.nebula.widgets.nattable.print.command.PrintEntireGridCommand;
 import org.eclipse.nebula.widgets.nattable.print.command.TurnViewportOffCommand;
 import org.eclipse.nebula.widgets.nattable.print.command.TurnViewportOnCommand;
@@ -46,6 +51,7 @@
 import org.eclipse.nebula.widgets.nattable.viewport.command.ViewportSelectRowCommandHandler;
 import org.eclipse.nebula.widgets.nattable.viewport.event.ScrollEvent;
 import org.eclipse.nebula.widgets.nattable.viewport.event.ViewportEventHandler;
+import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.ScrollBar;
@@ -122,6 +128,15 @@ public class ViewportLayer extends AbstractLayerTransform implements IUniqueInde
 
     private MoveViewportRunnable edgeHoverRunnable;
 
+    // Prefetch hints
+
+    private final List<IViewportPrefetchListener> prefetchListeners = new CopyOnWriteArrayList<IViewportPrefetchListener>();
+    private ILayerPainter prefetchLayerPainter;
+    private PixelCoordinate lastHintOrigin;
+    private Range lastHintColumns;
+    private Range lastHintRows;
+    private long lastHintTime;
+
     public ViewportLayer(IUniqueIndexLayer underlyingLayer) {
         super(underlyingLayer);
         this.scrollableLayer = underlyingLayer;
@@ -429,9 +444,10 @@ public void setOriginX(int newOriginX) {
         newOriginX = boundsCheckOriginX(adjustOriginX(newOriginX));
 
         if (newOriginX != this.origin.getX()) {
+            int deltaX = newOriginX - this.origin.getX();
             invalidateHorizontalStructure();
             this.origin = new PixelCoordinate(newOriginX, this.origin.getY());
-            fireScrollEvent();
+            fireScrollEvent(deltaX, 0);
         }
     }
 
@@ -446,9 +462,10 @@ public void setOriginY(int newOriginY) {
         newOriginY = boundsCheckOriginY(adjustOriginY(newOriginY));
 
         if (newOriginY != this.origin.getY()) {
+            int deltaY = newOriginY - this.origin.getY();
             invalidateVerticalStructure();
             this.origin = new PixelCoordinate(this.origin.getX(), newOriginY);
-            fireScrollEvent();
+            fireScrollEvent(0, deltaY);
         }
     }
 
@@ -1014,6 +1031,20 @@ protected void fireScrollEvent() {
         fireLayerEvent(new ScrollEvent(this));
     }
 
+    /**
+     * Fires a {@link ScrollEvent} that carries the pixel distance the origin
+     * was moved.
+     *
+     * @param deltaX
+     *            The number of pixels the origin was moved horizontally.
+     * @param deltaY
+     *            The number of pixels the origin was moved vertically.
+     * @since 2.0
+     */
+    protected void fireScrollEvent(int deltaX, int deltaY) {
+        fireLayerEvent(new ScrollEvent(this, deltaX, deltaY));
+    }
+
     boolean processingClientAreaResizeCommand = false;
 
     @Override
@@ -1569,6 +1600,108 @@ public String toString() {
         return "Viewport Layer"; //$NON-NLS-1$
     }
 
+    // Prefetch hints
+
+    /**
+     * Adds a listener that is informed about the visible area before the
+     * viewport is painted. Can be used to load or calculate the data of the
+     * visible and the next screen in advance.
+     *
+     * @param listener
+     *            The listener to add.
+     * @since 2.0
+     */
+    public void addPrefetchListener(IViewportPrefetchListener listener) {
+        this.prefetchListeners.add(listener);
+    }
+
+    /**
+     *
+     * @param listener
+     *            The listener to remove.
+     * @since 2.0
+     */
+    public void removePrefetchListener(IViewportPrefetchListener listener) {
+        this.prefetchListeners.remove(listener);
+    }
+
+    /**
+     * Returns the layer painter of the underlying layer. If
+     * {@link IViewportPrefetchListener}s are registered, the painter is
+     * wrapped so the listeners are informed before the viewport is painted.
+     */
+    @Override
+    public ILayerPainter getLayerPainter() {
+        if (this.prefetchListeners.isEmpty()) {
+            return super.getLayerPainter();
+        }
+        if (this.prefetchLayerPainter == null) {
+            this.prefetchLayerPainter = new ILayerPainter() {
+
+                @Override
+                public void paintLayer(ILayer natLayer, GC gc, int xOffset, int yOffset, Rectangle rectangle, IConfigRegistry configuration) {
+                    firePrefetchHint();
+                    ViewportLayer.super.getLayerPainter().paintLayer(natLayer, gc, xOffset, yOffset, rectangle, configuration);
+                }
+
+                @Override
+                public Rectangle adjustCellBounds(int columnPosition, int rowPosition, Rectangle cellBounds) {
+                    return ViewportLayer.super.getLayerPainter().adjustCellBounds(columnPosition, rowPosition, cellBounds);
+                }
+            };
+        }
+        return this.prefetchLayerPainter;
+    }
+
+    /**
+     * Informs the registered {@link IViewportPrefetchListener}s about the
+     * currently visible area if it changed since the last call.
+     *
+     * @since 2.0
+     */
+    protected void firePrefetchHint() {
+        if (this.prefetchListeners.isEmpty()) {
+            return;
+        }
+
+        Range columns = getVisiblePositions(localToUnderlyingColumnPosition(0), getColumnCount());
+        Range rows = getVisiblePositions(localToUnderlyingRowPosition(0), getRowCount());
+        PixelCoordinate currentOrigin = getOrigin();
+        if (columns.equals(this.lastHintColumns)
+                && rows.equals(this.lastHintRows)
+                && this.lastHintOrigin != null
+                && currentOrigin.getX() == this.lastHintOrigin.getX()
+                && currentOrigin.getY() == this.lastHintOrigin.getY()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int deltaX = 0;
+        int deltaY = 0;
+        long elapsed = 0;
+        if (this.lastHintOrigin != null) {
+            deltaX = currentOrigin.getX() - this.lastHintOrigin.getX();
+            deltaY = currentOrigin.getY() - this.lastHintOrigin.getY();
+            elapsed = now - this.lastHintTime;
+        }
+        this.lastHintOrigin = currentOrigin;
+        this.lastHintColumns = columns;
+        this.lastHintRows = rows;
+        this.lastHintTime = now;
+
+        ViewportPrefetchHint hint = new ViewportPrefetchHint(this, columns, rows, deltaX, deltaY, elapsed);
+        for (IViewportPrefetchListener listener : this.prefetchListeners) {
+            listener.handlePrefetchHint(hint);
+        }
+    }
+
+    private static Range getVisiblePositions(int start, int count) {
+        if (start < 0 || count <= 0) {
+            return new Range(0, 0);
+        }
+        return new Range(start, start + count);
+    }
+
     // Edge hover scrolling
 
     /**
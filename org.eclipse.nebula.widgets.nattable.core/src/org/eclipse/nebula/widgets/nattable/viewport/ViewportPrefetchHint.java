@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.viewport;
+
+import org.eclipse.nebula.widgets.nattable.coordinate.Range;
+import org.eclipse.nebula.widgets.nattable.layer.IUniqueIndexLayer;
+import org.eclipse.nebula.widgets.nattable.selection.SelectionLayer.MoveDirectionEnum;
+
+/**
+ * Information about the visible area of a {@link ViewportLayer} that is passed
+ * to {@link IViewportPrefetchListener}s. Contains the visible column and row
+ * positions of the scrollable layer, the movement since the last hint and the
+ * area that is expected to become visible next.
+ * <p>
+ * Positions are related to the scrollable layer of the viewport. The
+ * corresponding indexes, which are typically needed to access a data
+ * provider, can be retrieved via the index methods.
+ * </p>
+ *
+ * @since 2.0
+ */
+public final class ViewportPrefetchHint {
+
+    private final ViewportLayer viewportLayer;
+    private final Range visibleColumnPositions;
+    private final Range visibleRowPositions;
+    private final int deltaX;
+    private final int deltaY;
+    private final long elapsedMillis;
+
+    /**
+     *
+     * @param viewportLayer
+     *            The viewport that published the hint.
+     * @param visibleColumnPositions
+     *            The visible column positions of the scrollable layer.
+     * @param visibleRowPositions
+     *            The visible row positions of the scrollable layer.
+     * @param deltaX
+     *            The number of pixels the viewport moved horizontally since
+     *            the last hint.
+     * @param deltaY
+     *            The number of pixels the viewport moved vertically since the
+     *            last hint.
+     * @param elapsedMillis
+     *            The number of milliseconds since the last hint.
+     */
+    public ViewportPrefetchHint(ViewportLayer viewportLayer,
+            Range visibleColumnPositions, Range visibleRowPositions,
+            int deltaX, int deltaY, long elapsedMillis) {
+        this.viewportLayer = viewportLayer;
+        this.visibleColumnPositions = visibleColumnPositions;
+        this.visibleRowPositions = visibleRowPositions;
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     *
+     * @return The viewport that published the hint.
+     */
+    public ViewportLayer getViewportLayer() {
+        return this.viewportLayer;
+    }
+
+    /**
+     *
+     * @return The visible column positions of the scrollable layer.
+     */
+    public Range getVisibleColumnPositions() {
+        return this.visibleColumnPositions;
+    }
+
+    /**
+     *
+     * @return The visible row positions of the scrollable layer.
+     */
+    public Range getVisibleRowPositions() {
+        return this.visibleRowPositions;
+    }
+
+    /**
+     *
+     * @return The column indexes of the visible columns.
+     */
+    public int[] getVisibleColumnIndexes() {
+        return getColumnIndexes(this.visibleColumnPositions);
+    }
+
+    /**
+     *
+     * @return The row indexes of the visible rows.
+     */
+    public int[] getVisibleRowIndexes() {
+        return getRowIndexes(this.visibleRowPositions);
+    }
+
+    /**
+     *
+     * @return The number of pixels the viewport moved horizontally since the
+     *         last hint.
+     */
+    public int getDeltaX() {
+        return this.deltaX;
+    }
+
+    /**
+     *
+     * @return The number of pixels the viewport moved vertically since the
+     *         last hint.
+     */
+    public int getDeltaY() {
+        return this.deltaY;
+    }
+
+    /**
+     *
+     * @return {@link MoveDirectionEnum#LEFT}, {@link MoveDirectionEnum#RIGHT}
+     *         or {@link MoveDirectionEnum#NONE}
+     */
+    public MoveDirectionEnum getHorizontalDirection() {
+        if (this.deltaX == 0) {
+            return MoveDirectionEnum.NONE;
+        }
+        return this.deltaX > 0 ? MoveDirectionEnum.RIGHT : MoveDirectionEnum.LEFT;
+    }
+
+    /**
+     *
+     * @return {@link MoveDirectionEnum#UP}, {@link MoveDirectionEnum#DOWN} or
+     *         {@link MoveDirectionEnum#NONE}
+     */
+    public MoveDirectionEnum getVerticalDirection() {
+        if (this.deltaY == 0) {
+            return MoveDirectionEnum.NONE;
+        }
+        return this.deltaY > 0 ? MoveDirectionEnum.DOWN : MoveDirectionEnum.UP;
+    }
+
+    /**
+     *
+     * @return The horizontal scroll speed in pixels per second.
+     */
+    public double getHorizontalVelocity() {
+        return getVelocity(this.deltaX);
+    }
+
+    /**
+     *
+     * @return The vertical scroll speed in pixels per second.
+     */
+    public double getVerticalVelocity() {
+        return getVelocity(this.deltaY);
+    }
+
+    private double getVelocity(int delta) {
+        if (delta == 0) {
+            return 0;
+        }
+        return Math.abs(delta) * 1000d / Math.max(1, this.elapsedMillis);
+    }
+
+    /**
+     * Returns the column positions that are expected to become visible next,
+     * which are the positions of the next screen in the current horizontal
+     * scroll direction. If the viewport was not scrolled horizontally, the
+     * screen to the right is returned.
+     *
+     * @return The column positions of the scrollable layer that are expected
+     *         to become visible next.
+     */
+    public Range getNextColumnPositions() {
+        return getNextPositions(this.visibleColumnPositions,
+                getHorizontalDirection() == MoveDirectionEnum.LEFT,
+                getScrollableLayer().getColumnCount());
+    }
+
+    /**
+     * Returns the row positions that are expected to become visible next,
+     * which are the positions of the next screen in the current vertical
+     * scroll direction. If the viewport was not scrolled vertically, the
+     * screen below is returned.
+     *
+     * @return The row positions of the scrollable layer that are expected to
+     *         become visible next.
+     */
+    public Range getNextRowPositions() {
+        return getNextPositions(this.visibleRowPositions,
+                getVerticalDirection() == MoveDirectionEnum.UP,
+                getScrollableLayer().getRowCount());
+    }
+
+    /**
+     *
+     * @return The column indexes of the columns that are expected to become
+     *         visible next.
+     * @see #getNextColumnPositions()
+     */
+    public int[] getNextColumnIndexes() {
+        return getColumnIndexes(getNextColumnPositions());
+    }
+
+    /**
+     *
+     * @return The row indexes of the rows that are expected to become visible
+     *         next.
+     * @see #getNextRowPositions()
+     */
+    public int[] getNextRowIndexes() {
+        return getRowIndexes(getNextRowPositions());
+    }
+
+    private static Range getNextPositions(Range visible, boolean backward, int count) {
+        int size = visible.size();
+        if (backward) {
+            return new Range(Math.max(0, visible.start - size), visible.start);
+        }
+        return new Range(visible.end, Math.max(visible.end, Math.min(count, visible.end + size)));
+    }
+
+    private IUniqueIndexLayer getScrollableLayer() {
+        return this.viewportLayer.getScrollableLayer();
+    }
+
+    private int[] getColumnIndexes(Range positions) {
+        IUniqueIndexLayer layer = getScrollableLayer();
+        int[] indexes = new int[positions.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = layer.getColumnIndexByPosition(positions.start + i);
+        }
+        return indexes;
+    }
+
+    private int[] getRowIndexes(Range positions) {
+        IUniqueIndexLayer layer = getScrollableLayer();
+        int[] indexes = new int[positions.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = layer.getRowIndexByPosition(positions.start + i);
+        }
+        return indexes;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+                + "[columns=" + this.visibleColumnPositions //$NON-NLS-1$
+                + ", rows=" + this.visibleRowPositions //$NON-NLS-1$
+                + ", deltaX=" + this.deltaX //$NON-NLS-1$
+                + ", deltaY=" + this.deltaY + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
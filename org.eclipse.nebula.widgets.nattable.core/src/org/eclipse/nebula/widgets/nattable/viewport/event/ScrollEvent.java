@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,12 +18,65 @@
 
 public class ScrollEvent extends StructuralRefreshEvent {
 
+    private final ViewportLayer viewportLayer;
+    private final int deltaX;
+    private final int deltaY;
+
     public ScrollEvent(ViewportLayer viewportLayer) {
+        this(viewportLayer, 0, 0);
+    }
+
+    /**
+     * Creates a {@link ScrollEvent} that carries the pixel distance the
+     * viewport origin was moved. The distance can be used to reuse the already
+     * painted pixels on scrolling.
+     *
+     * @param viewportLayer
+     *            The {@link ViewportLayer} that was scrolled.
+     * @param deltaX
+     *            The number of pixels the origin was moved horizontally.
+     * @param deltaY
+     *            The number of pixels the origin was moved vertically.
+     * @since 2.0
+     */
+    public ScrollEvent(ViewportLayer viewportLayer, int deltaX, int deltaY) {
         super(viewportLayer);
+        this.viewportLayer = viewportLayer;
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
     }
 
     protected ScrollEvent(ScrollEvent event) {
         super(event);
+        this.viewportLayer = event.viewportLayer;
+        this.deltaX = event.deltaX;
+        this.deltaY = event.deltaY;
+    }
+
+    /**
+     * @return The {@link ViewportLayer} that was scrolled.
+     * @since 2.0
+     */
+    public ViewportLayer getViewportLayer() {
+        return this.viewportLayer;
+    }
+
+    /**
+     * @return The number of pixels the origin was moved horizontally. A
+     *         positive value means the content moved to the left.
+     * @since 2.0
+     */
+    public int getDeltaX() {
+        return this.deltaX;
+    }
+
+    /**
+     * @return The number of pixels the origin was moved vertically. A positive
+     *         value means the content moved up.
+     * @since 2.0
+     */
+    public int getDeltaY() {
+        return this.deltaY;
     }
 
     @Override
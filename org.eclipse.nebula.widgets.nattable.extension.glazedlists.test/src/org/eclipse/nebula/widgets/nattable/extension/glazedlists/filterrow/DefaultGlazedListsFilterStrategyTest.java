@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Dirk Fauth.
+ * Copyright (c) 2018, 2020 Dirk Fauth.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,8 @@
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.nebula.widgets.nattable.config.ConfigRegistry;
 import org.eclipse.nebula.widgets.nattable.config.DefaultNatTableStyleConfiguration;
 import org.eclipse.nebula.widgets.nattable.data.IColumnPropertyAccessor;
@@ -209,4 +211,44 @@ public void shouldReEvaluateWithChange() {
         assertEquals(8, persons.size());
     }
 
+    @Test
+    public void shouldOnlyTestVisibleRowsOnRefinement() {
+        final AtomicInteger accessCount = new AtomicInteger();
+        FilterList<Person> persons = new FilterList<>(GlazedLists.eventList(PersonService.getFixedPersons()));
+        DataLayerFixture columnHeaderLayer = new DataLayerFixture(5, 2, 100, 50);
+        FilterRowDataProvider<Person> dataProvider = new FilterRowDataProvider<>(
+                new DefaultGlazedListsFilterStrategy<>(
+                        persons,
+                        new ReflectiveColumnPropertyAccessor<Person>(personPropertyNames) {
+                            @Override
+                            public Object getDataValue(Person rowObj, int columnIndex) {
+                                accessCount.incrementAndGet();
+                                return super.getDataValue(rowObj, columnIndex);
+                            }
+                        },
+                        configRegistry),
+                columnHeaderLayer,
+                columnHeaderLayer.getDataProvider(), configRegistry);
+
+        dataProvider.setDataValue(1, 1, "Sim");
+        assertEquals(10, persons.size());
+
+        // constrained, only the visible rows are tested
+        accessCount.set(0);
+        dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(10, persons.size());
+        assertEquals(10, accessCount.get());
+
+        // relaxed, only the filtered rows are tested
+        accessCount.set(0);
+        dataProvider.setDataValue(1, 1, "Simps");
+        assertEquals(10, persons.size());
+        assertEquals(8, accessCount.get());
+
+        // changed, all rows are tested
+        accessCount.set(0);
+        dataProvider.setDataValue(1, 1, "Flanders");
+        assertEquals(8, persons.size());
+        assertEquals(18, accessCount.get());
+    }
 }
@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.extension.glazedlists.filterrow;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+
+import org.eclipse.nebula.widgets.nattable.config.ConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.config.DefaultNatTableStyleConfiguration;
+import org.eclipse.nebula.widgets.nattable.data.ReflectiveColumnPropertyAccessor;
+import org.eclipse.nebula.widgets.nattable.dataset.person.Person;
+import org.eclipse.nebula.widgets.nattable.dataset.person.Person.Gender;
+import org.eclipse.nebula.widgets.nattable.dataset.person.PersonService;
+import org.eclipse.nebula.widgets.nattable.extension.glazedlists.fixture.DataLayerFixture;
+import org.eclipse.nebula.widgets.nattable.filterrow.FilterRowDataLayer;
+import org.eclipse.nebula.widgets.nattable.filterrow.FilterRowDataProvider;
+import org.eclipse.nebula.widgets.nattable.filterrow.TextMatchingMode;
+import org.eclipse.nebula.widgets.nattable.filterrow.config.DefaultFilterRowConfiguration;
+import org.eclipse.nebula.widgets.nattable.filterrow.config.FilterRowConfigAttributes;
+import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
+import org.junit.Before;
+import org.junit.Test;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.SortedList;
+
+public class IndexedGlazedListsFilterStrategyTest {
+
+    private EventList<Person> baseList;
+    private FilterList<Person> filterList;
+
+    private ConfigRegistry configRegistry;
+    private FilterRowDataProvider<Person> dataProvider;
+
+    private static String[] personPropertyNames = {
+            "firstName",
+            "lastName",
+            "gender",
+            "married",
+            "birthday" };
+
+    @Before
+    public void setup() {
+        this.baseList = GlazedLists.eventList(PersonService.getFixedPersons());
+        for (int i = 1; i < 100; i++) {
+            this.baseList.addAll(PersonService.getFixedPersons());
+        }
+        createDataProvider(this.baseList);
+    }
+
+    private void createDataProvider(EventList<Person> base) {
+        this.filterList = new FilterList<>(base);
+        this.configRegistry = new ConfigRegistry();
+
+        new DefaultNatTableStyleConfiguration().configureRegistry(this.configRegistry);
+        new DefaultFilterRowConfiguration().configureRegistry(this.configRegistry);
+
+        DataLayerFixture columnHeaderLayer = new DataLayerFixture(5, 2, 100, 50);
+        this.dataProvider = new FilterRowDataProvider<>(
+                new IndexedGlazedListsFilterStrategy<>(
+                        this.filterList,
+                        base,
+                        new ReflectiveColumnPropertyAccessor<Person>(personPropertyNames),
+                        this.configRegistry),
+                columnHeaderLayer,
+                columnHeaderLayer.getDataProvider(), this.configRegistry);
+    }
+
+    @Test
+    public void shouldFilterForSimpsons() {
+        assertEquals(1800, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+
+        assertEquals(1000, this.filterList.size());
+    }
+
+    @Test
+    public void shouldFilterCaseInsensitive() {
+        this.dataProvider.setDataValue(1, 1, "sIMPs");
+        assertEquals(1000, this.filterList.size());
+
+        // less than three characters are not served by the n-gram index
+        this.dataProvider.setDataValue(1, 1, "fl");
+        assertEquals(800, this.filterList.size());
+    }
+
+    @Test
+    public void shouldFilterForMultipleCriteria() {
+        // filter: contains m
+        // per fixed we have 3 Homer, 2 Marge, 2 Maude
+        this.dataProvider.setDataValue(0, 1, "m");
+        assertEquals(700, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Flanders");
+        assertEquals(200, this.filterList.size());
+
+        this.dataProvider.setDataValue(0, 1, null);
+        assertEquals(800, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, null);
+        assertEquals(1800, this.filterList.size());
+    }
+
+    @Test
+    public void shouldFilterExact() {
+        this.configRegistry.registerConfigAttribute(
+                FilterRowConfigAttributes.TEXT_MATCHING_MODE,
+                TextMatchingMode.EXACT,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + 0);
+
+        this.dataProvider.setDataValue(0, 1, "Hom");
+        assertEquals(0, this.filterList.size());
+
+        this.dataProvider.setDataValue(0, 1, "Homer");
+        assertEquals(300, this.filterList.size());
+    }
+
+    @Test
+    public void shouldFilterThreshold() {
+        this.configRegistry.registerConfigAttribute(
+                FilterRowConfigAttributes.TEXT_MATCHING_MODE,
+                TextMatchingMode.REGULAR_EXPRESSION,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + 1);
+
+        this.dataProvider.setDataValue(1, 1, ">G");
+        assertEquals(1000, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "<>Simpson");
+        assertEquals(800, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "<=Flanders");
+        assertEquals(800, this.filterList.size());
+    }
+
+    @Test
+    public void shouldFilterCollection() {
+        this.dataProvider.setDataValue(0, 1, Arrays.asList("Homer", "Marge"));
+        assertEquals(500, this.filterList.size());
+
+        this.dataProvider.setDataValue(0, 1, new ArrayList<String>());
+        assertEquals(0, this.filterList.size());
+    }
+
+    @Test
+    public void shouldRefineAndRelaxFilter() {
+        // constrained
+        this.dataProvider.setDataValue(0, 1, "Ma");
+        assertEquals(400, this.filterList.size());
+        this.dataProvider.setDataValue(0, 1, "Mar");
+        assertEquals(200, this.filterList.size());
+        this.dataProvider.setDataValue(0, 1, "Marge");
+        assertEquals(200, this.filterList.size());
+
+        // relaxed
+        this.dataProvider.setDataValue(0, 1, "M");
+        assertEquals(700, this.filterList.size());
+
+        // changed
+        this.dataProvider.setDataValue(0, 1, "Rod");
+        assertEquals(200, this.filterList.size());
+    }
+
+    @Test
+    public void shouldUpdateIndexOnListChanges() {
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(1000, this.filterList.size());
+
+        // inserted rows are matched directly
+        this.baseList.add(new Person(19, "Maggie", "Simpson", Gender.FEMALE, false, new Date()));
+        this.baseList.add(new Person(20, "Edna", "Krabappel", Gender.FEMALE, false, new Date()));
+        assertEquals(1001, this.filterList.size());
+
+        // updated and removed rows are updated in the index
+        Person person = this.baseList.get(0);
+        person.setLastName("Flanders");
+        this.baseList.set(0, person);
+        this.baseList.remove(1);
+        assertEquals(999, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Flanders");
+        assertEquals(801, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(999, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Krabappel");
+        assertEquals(1, this.filterList.size());
+    }
+
+    @Test
+    public void shouldReEvaluateWithChange() {
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(1000, this.filterList.size());
+
+        // modified without list event
+        this.filterList.get(0).setLastName("Flanders");
+        assertEquals(1000, this.filterList.size());
+
+        // trigger again, the index is rebuilt
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(999, this.filterList.size());
+    }
+
+    @Test
+    public void shouldTrackReplacedRowsByListIndex() {
+        this.dataProvider.setDataValue(1, 1, "Simpson");
+        assertEquals(1000, this.filterList.size());
+
+        // replace a Simpson by a new row object and remove a Flanders
+        this.baseList.set(0, new Person(21, "Ned", "Flanders", Gender.MALE, true, new Date()));
+        this.baseList.remove(10);
+        assertEquals(999, this.filterList.size());
+
+        // replace the new row object at the same index again
+        this.baseList.set(0, new Person(22, "Lisa", "Simpson", Gender.FEMALE, false, new Date()));
+        assertEquals(1000, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "Flanders");
+        assertEquals(799, this.filterList.size());
+    }
+
+    @Test
+    public void shouldTrackReorderedRows() {
+        SortedList<Person> sortedList = new SortedList<>(this.baseList, null);
+        createDataProvider(sortedList);
+        this.configRegistry.registerConfigAttribute(
+                FilterRowConfigAttributes.TEXT_MATCHING_MODE,
+                TextMatchingMode.REGULAR_EXPRESSION,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + 1);
+
+        this.dataProvider.setDataValue(1, 1, ">G");
+        assertEquals(1000, this.filterList.size());
+
+        sortedList.setComparator(new Comparator<Person>() {
+            @Override
+            public int compare(Person o1, Person o2) {
+                return o1.getLastName().compareTo(o2.getLastName());
+            }
+        });
+
+        // after sorting the first row is a Flanders, the update needs to be
+        // applied to that row in the threshold index
+        Person person = sortedList.get(0);
+        person.setLastName("Wiggum");
+        sortedList.set(0, person);
+        assertEquals(1001, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, "<G");
+        assertEquals(799, this.filterList.size());
+
+        this.dataProvider.setDataValue(1, 1, ">G");
+        assertEquals(1001, this.filterList.size());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,17 @@
  ******************************************************************************/
 package org.eclipse.nebula.widgets.nattable.extension.glazedlists.filterrow;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.WeakHashMap;
 import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.logging.Log;
@@ -69,6 +75,15 @@
         }
     };
 
+    /**
+     * The column index and the filter value of the text and threshold
+     * {@link MatcherEditor}s created by this strategy. Needed to update the
+     * filter value of an applied {@link MatcherEditor} in place. Weak keys as
+     * the {@link MatcherEditor}s are removed from the
+     * {@link CompositeMatcherEditor} without notification.
+     */
+    private final Map<MatcherEditor<T>, FilterValue> filterValues = new WeakHashMap<MatcherEditor<T>, FilterValue>();
+
     /**
      * Create a new DefaultGlazedListsFilterStrategy on top of the given
      * FilterList.
@@ -159,6 +174,7 @@ public void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
 
         try {
             EventList<MatcherEditor<T>> matcherEditors = new BasicEventList<MatcherEditor<T>>();
+            Map<MatcherEditor<T>, FilterValue> newFilterValues = new IdentityHashMap<MatcherEditor<T>, FilterValue>();
 
             for (Entry<Integer, Object> mapEntry : filterIndexToObjectMap.entrySet()) {
                 Integer columnIndex = mapEntry.getKey();
@@ -186,20 +202,24 @@ public void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
                     try {
                         MatchType matchOperation = parseResult.getMatchOperation();
                         if (matchOperation == MatchType.NONE) {
-                            stringMatcherEditors.add(getTextMatcherEditor(
+                            TextMatcherEditor<T> textMatcherEditor = getTextMatcherEditor(
                                     columnIndex,
                                     textMatchingMode,
                                     displayConverter,
-                                    parseResult.getValueToMatch()));
+                                    parseResult.getValueToMatch());
+                            stringMatcherEditors.add(textMatcherEditor);
+                            newFilterValues.put(textMatcherEditor, new FilterValue(columnIndex, parseResult.getValueToMatch()));
                         } else {
                             Object threshold =
                                     displayConverter.displayToCanonicalValue(parseResult.getValueToMatch());
-                            matcherEditors.add(getThresholdMatcherEditor(
+                            ThresholdMatcherEditor<T, Object> thresholdMatcherEditor = getThresholdMatcherEditor(
                                     columnIndex,
                                     threshold,
                                     comparator,
                                     columnValueProvider,
-                                    matchOperation));
+                                    matchOperation);
+                            matcherEditors.add(thresholdMatcherEditor);
+                            newFilterValues.put(thresholdMatcherEditor, new FilterValue(columnIndex, threshold));
                         }
                     } catch (PatternSyntaxException e) {
                         LOG.warn("Error on applying a filter: " + e.getLocalizedMessage()); //$NON-NLS-1$
@@ -218,15 +238,23 @@ public void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
             try {
                 this.filterLock.writeLock().lock();
 
-                boolean changed = false;
+                this.filterValues.putAll(newFilterValues);
+
+                // Update the filter value of existing matchers in place if
+                // only the value changed, so GlazedLists only re-tests the
+                // visible rows for a constrained filter and the filtered rows
+                // for a relaxed filter
+                boolean changed = updateFilterValues(matcherEditors);
 
                 // Remove the existing matchers that are removed from
                 // 'filterIndexToObjectMap'
+                Collection<MatcherEditor<T>> staticMatcherEditors = getStaticMatcherEditors();
                 final Iterator<MatcherEditor<T>> existingMatcherEditors =
                         this.matcherEditor.getMatcherEditors().iterator();
                 while (existingMatcherEditors.hasNext()) {
                     final MatcherEditor<T> existingMatcherEditor = existingMatcherEditors.next();
-                    if (!containsMatcherEditor(matcherEditors, existingMatcherEditor)) {
+                    if (!staticMatcherEditors.contains(existingMatcherEditor)
+                            && !containsMatcherEditor(matcherEditors, existingMatcherEditor)) {
                         existingMatcherEditors.remove();
                         changed = true;
                     }
@@ -259,6 +287,122 @@ public void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
         }
     }
 
+    /**
+     * Replaces the {@link MatcherEditor}s in the given list with the applied
+     * {@link MatcherEditor}s of the same column and type, by updating the
+     * filter value of the applied {@link MatcherEditor}s. The applied
+     * {@link TextMatcherEditor} or {@link ThresholdMatcherEditor} then informs
+     * the FilterList whether the new filter value constrains or relaxes the
+     * filter. So if the new filter value is a refinement of the previous one,
+     * e.g. <i>abc</i> to <i>abcd</i> or <i>&gt;10</i> to <i>&gt;20</i>, only
+     * the currently visible rows are tested again instead of all rows of the
+     * base list.
+     *
+     * @param newMatcherEditors
+     *            The {@link MatcherEditor}s created for the new filter.
+     *            Entries are replaced with the updated applied
+     *            {@link MatcherEditor}s.
+     * @return <code>true</code> if the filter value of an applied
+     *         {@link MatcherEditor} was updated.
+     *
+     * @since 2.0
+     */
+    protected boolean updateFilterValues(List<MatcherEditor<T>> newMatcherEditors) {
+        List<MatcherEditor<T>> existing = this.matcherEditor.getMatcherEditors();
+        List<MatcherEditor<T>> obsolete = new ArrayList<MatcherEditor<T>>();
+        for (MatcherEditor<T> existingMatcherEditor : existing) {
+            if (!containsMatcherEditor(newMatcherEditors, existingMatcherEditor)) {
+                obsolete.add(existingMatcherEditor);
+            }
+        }
+
+        boolean updated = false;
+        for (ListIterator<MatcherEditor<T>> it = newMatcherEditors.listIterator(); it.hasNext() && !obsolete.isEmpty();) {
+            MatcherEditor<T> newMatcherEditor = it.next();
+            if (containsMatcherEditor(existing, newMatcherEditor)) {
+                continue;
+            }
+
+            for (Iterator<MatcherEditor<T>> obsoleteIt = obsolete.iterator(); obsoleteIt.hasNext();) {
+                MatcherEditor<T> obsoleteMatcherEditor = obsoleteIt.next();
+                if (updateFilterValue(obsoleteMatcherEditor, newMatcherEditor)) {
+                    it.set(obsoleteMatcherEditor);
+                    obsoleteIt.remove();
+                    updated = true;
+                    break;
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Updates the filter value of the given applied {@link MatcherEditor} to
+     * the filter value of the given new {@link MatcherEditor}, if both filter
+     * the same column in the same way.
+     *
+     * @param applied
+     *            The {@link MatcherEditor} that is applied to the FilterList.
+     * @param newMatcherEditor
+     *            The {@link MatcherEditor} created for the new filter.
+     * @return <code>true</code> if the filter value of the applied
+     *         {@link MatcherEditor} was updated.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean updateFilterValue(MatcherEditor<T> applied, MatcherEditor<T> newMatcherEditor) {
+        if (applied instanceof CompositeMatcherEditor && newMatcherEditor instanceof CompositeMatcherEditor) {
+            // the text matchers of a column are combined in a composite,
+            // only a single text filter per column is updated in place
+            List<MatcherEditor<T>> appliedChildren = ((CompositeMatcherEditor<T>) applied).getMatcherEditors();
+            List<MatcherEditor<T>> newChildren = ((CompositeMatcherEditor<T>) newMatcherEditor).getMatcherEditors();
+            return appliedChildren.size() == 1
+                    && newChildren.size() == 1
+                    && updateFilterValue(appliedChildren.get(0), newChildren.get(0));
+        }
+
+        FilterValue appliedValue = this.filterValues.get(applied);
+        FilterValue newValue = this.filterValues.get(newMatcherEditor);
+        if (appliedValue == null || newValue == null || appliedValue.columnIndex != newValue.columnIndex) {
+            return false;
+        }
+
+        if (applied instanceof TextMatcherEditor && newMatcherEditor instanceof TextMatcherEditor) {
+            TextMatcherEditor<T> appliedText = (TextMatcherEditor<T>) applied;
+            TextMatcherEditor<T> newText = (TextMatcherEditor<T>) newMatcherEditor;
+            if (appliedText.getMode() == newText.getMode()
+                    && appliedText.getFilterator().equals(newText.getFilterator())
+                    && appliedText.getStrategy().equals(newText.getStrategy())) {
+                appliedText.setFilterText(new String[] { (String) newValue.value });
+                this.filterValues.put(applied, newValue);
+                return true;
+            }
+        } else if (applied instanceof ThresholdMatcherEditor && newMatcherEditor instanceof ThresholdMatcherEditor) {
+            ThresholdMatcherEditor<T, Object> appliedThreshold = (ThresholdMatcherEditor<T, Object>) applied;
+            ThresholdMatcherEditor<T, Object> newThreshold = (ThresholdMatcherEditor<T, Object>) newMatcherEditor;
+            if (appliedThreshold.getMatchOperation() == newThreshold.getMatchOperation()
+                    && appliedThreshold.getComparator().equals(newThreshold.getComparator())) {
+                appliedThreshold.setThreshold(newValue.value);
+                this.filterValues.put(applied, newValue);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the {@link MatcherEditor}s that are added to the
+     * {@link CompositeMatcherEditor} additionally to the filter row and
+     * therefore should not be removed on applying a filter.
+     *
+     * @return The {@link MatcherEditor}s that are not created by the filter
+     *         row. By default an empty collection.
+     *
+     * @since 2.0
+     */
+    protected Collection<MatcherEditor<T>> getStaticMatcherEditors() {
+        return Collections.emptyList();
+    }
+
     /**
      * Retrieves the {@link IDisplayConverter} that should be used for
      * converting the body content to string for text match filter operations.
@@ -598,4 +742,18 @@ private DefaultGlazedListsFilterStrategy<T> getOuterType() {
         }
     }
 
+    /**
+     * The column index and the filter value of a text or threshold
+     * {@link MatcherEditor}.
+     */
+    private static final class FilterValue {
+
+        final int columnIndex;
+        final Object value;
+
+        FilterValue(int columnIndex, Object value) {
+            this.columnIndex = columnIndex;
+            this.value = value;
+        }
+    }
 }
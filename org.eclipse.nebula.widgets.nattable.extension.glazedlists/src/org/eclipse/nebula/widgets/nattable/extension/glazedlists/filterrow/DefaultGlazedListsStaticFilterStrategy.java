@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2019 Original authors and others.
+ * Copyright (c) 2012, 2020 Original authors and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
@@ -95,12 +96,29 @@ public void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
         super.applyFilter(filterIndexToObjectMap);
         this.filterLock.writeLock().lock();
         try {
-            this.getMatcherEditor().getMatcherEditors().addAll(this.staticMatcherEditor.values());
+            // the static matchers are only removed if the filter is cleared
+            List<MatcherEditor<T>> matcherEditors = this.getMatcherEditor().getMatcherEditors();
+            for (MatcherEditor<T> matcherEditor : this.staticMatcherEditor.values()) {
+                if (!matcherEditors.contains(matcherEditor)) {
+                    matcherEditors.add(matcherEditor);
+                }
+            }
         } finally {
             this.filterLock.writeLock().unlock();
         }
     }
 
+    /**
+     * {@inheritDoc} Returns the static matchers, so they are not removed and
+     * added again on every filter change.
+     *
+     * @since 2.0
+     */
+    @Override
+    protected Collection<MatcherEditor<T>> getStaticMatcherEditors() {
+        return this.staticMatcherEditor.values();
+    }
+
     /**
      * Add a static filter to this filter strategy which will always be applied
      * additionally to any other filter.
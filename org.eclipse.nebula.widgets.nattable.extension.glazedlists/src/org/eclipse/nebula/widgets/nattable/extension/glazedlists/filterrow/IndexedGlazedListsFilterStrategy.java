@@ -0,0 +1,1060 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.extension.glazedlists.filterrow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.eclipse.nebula.widgets.nattable.config.IConfigRegistry;
+import org.eclipse.nebula.widgets.nattable.data.IColumnAccessor;
+import org.eclipse.nebula.widgets.nattable.data.convert.IDisplayConverter;
+import org.eclipse.nebula.widgets.nattable.edit.EditConstants;
+import org.eclipse.nebula.widgets.nattable.filterrow.FilterRowDataLayer;
+import org.eclipse.nebula.widgets.nattable.filterrow.IFilterStrategy;
+import org.eclipse.nebula.widgets.nattable.filterrow.ParseResult;
+import org.eclipse.nebula.widgets.nattable.filterrow.ParseResult.MatchType;
+import org.eclipse.nebula.widgets.nattable.filterrow.TextMatchingMode;
+import org.eclipse.nebula.widgets.nattable.filterrow.config.FilterRowConfigAttributes;
+import org.eclipse.nebula.widgets.nattable.style.DisplayMode;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.FilterList;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.matchers.AbstractMatcherEditor;
+import ca.odell.glazedlists.matchers.Matcher;
+
+/**
+ * {@link IFilterStrategy} that uses per column value indexes to calculate the
+ * rows that match the filter row, instead of testing every row against every
+ * column filter.
+ * <p>
+ * The following indexes are built lazily per column on the first filter that
+ * needs them, and are updated incrementally from the list changes of the base
+ * list afterwards:
+ * </p>
+ * <ul>
+ * <li>a hash index on the display value for {@link TextMatchingMode#EXACT}
+ * filters and for collections of values as used by the combo box filter
+ * row</li>
+ * <li>a sorted index on the column value for threshold filters like
+ * <code>&gt;20</code></li>
+ * <li>a trigram index on the display value for {@link TextMatchingMode#CONTAINS}
+ * and {@link TextMatchingMode#STARTS_WITH} filters with at least three
+ * characters</li>
+ * </ul>
+ * <p>
+ * The indexes deliver a set of candidate rows per column filter. Candidates of
+ * text filters are verified with the same GlazedLists matchers that are used
+ * by the {@link DefaultGlazedListsFilterStrategy}, so the filter result is the
+ * same for both strategies. Filters that can not be answered by an index, e.g.
+ * regular expressions, are evaluated by testing the rows that are still
+ * visible according to the other column filters. The results of the columns
+ * are intersected as bitmaps, and the FilterList is updated by a single
+ * matcher that looks up the visible state of a row.
+ * </p>
+ * <p>
+ * If the new result is a subset of the previous result, e.g. because the user
+ * keeps typing, the FilterList is informed about a constrained filter and
+ * only tests the currently visible rows. If it is a superset, only the
+ * currently filtered rows are tested.
+ * </p>
+ * <p>
+ * Note: The indexes are only updated via list events of the base list. If
+ * row objects are modified without firing an update event, applying the
+ * same filter again forces a rebuild of the indexes, which is the same
+ * re-evaluation behavior as with the {@link DefaultGlazedListsFilterStrategy}.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the objects shown within the NatTable
+ *
+ * @since 2.0
+ */
+public class IndexedGlazedListsFilterStrategy<T> extends DefaultGlazedListsFilterStrategy<T> {
+
+    private static final Log LOG = LogFactory.getLog(IndexedGlazedListsFilterStrategy.class);
+
+    /**
+     * The number of characters of an n-gram in the text index.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * The minimum number of outdated index entries before the indexes of a
+     * column are dropped and rebuilt.
+     */
+    private static final int MIN_STALE_ENTRIES = 1024;
+
+    private final EventList<T> baseList;
+    private final IndexMatcherEditor indexMatcherEditor = new IndexMatcherEditor();
+
+    private final ListEventListener<T> listChangeListener = new ListEventListener<T>() {
+        @Override
+        public void listChanged(ListEvent<T> listChanges) {
+            handleListChange(listChanges);
+        }
+    };
+
+    /**
+     * The id of every row object in the base list. The id is used as index in
+     * the per row arrays and bitmaps. Row objects that are contained multiple
+     * times in the base list share the same id.
+     */
+    private final Map<T, Integer> rowIds = new IdentityHashMap<T, Integer>();
+    private Object[] rows = new Object[16];
+    private int[] rowReferences = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeIdCount;
+    private int nextId;
+    private final BitSet liveRows = new BitSet();
+
+    /**
+     * The row id per index in the base list. Needed to know which row object
+     * is deleted or replaced by a list change.
+     */
+    private int[] listIds = new int[16];
+    private int listSize;
+
+    /**
+     * <code>true</code> if the row ids need to be rebuilt from the base list,
+     * either initially or because a list change could not be processed
+     * incrementally.
+     */
+    private boolean invalid = true;
+
+    private final Map<Integer, ColumnIndex> columnIndexes = new HashMap<Integer, ColumnIndex>();
+
+    private Map<Integer, Object> lastFilter = Collections.emptyMap();
+
+    /**
+     * The ids of the rows that matched the last applied filter, or
+     * <code>null</code> if the rows changed since then.
+     */
+    private BitSet appliedRows;
+
+    /**
+     * Create a new IndexedGlazedListsFilterStrategy on top of the given
+     * FilterList.
+     *
+     * @param filterList
+     *            The FilterList that is used within the GlazedLists based
+     *            NatTable for filtering.
+     * @param baseList
+     *            The EventList the FilterList is based on. Needed to index
+     *            the rows that are currently filtered.
+     * @param columnAccessor
+     *            The IColumnAccessor necessary to access the column data of the
+     *            row objects in the FilterList.
+     * @param configRegistry
+     *            The IConfigRegistry necessary to retrieve filter specific
+     *            configurations.
+     */
+    public IndexedGlazedListsFilterStrategy(
+            FilterList<T> filterList,
+            EventList<T> baseList,
+            IColumnAccessor<T> columnAccessor,
+            IConfigRegistry configRegistry) {
+
+        super(filterList, columnAccessor, configRegistry);
+        this.baseList = baseList;
+
+        this.filterLock.writeLock().lock();
+        try {
+            this.baseList.addListEventListener(this.listChangeListener);
+            getMatcherEditor().getMatcherEditors().add(this.indexMatcherEditor);
+        } finally {
+            this.filterLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Calculates the visible rows via the column indexes and applies them to
+     * the FilterList.
+     */
+    @Override
+    public synchronized void applyFilter(Map<Integer, Object> filterIndexToObjectMap) {
+        try {
+            this.filterLock.writeLock().lock();
+            try {
+                if (filterIndexToObjectMap.isEmpty()) {
+                    this.indexMatcherEditor.matchAll();
+                    this.appliedRows = this.invalid ? null : (BitSet) this.liveRows.clone();
+                } else {
+                    if (filterIndexToObjectMap.equals(this.lastFilter)) {
+                        // re-evaluation of the same filter was requested, the
+                        // row objects might have been modified without events
+                        this.invalid = true;
+                    }
+                    if (this.invalid) {
+                        rebuild();
+                    }
+                    BitSet previousRows = this.lastFilter.isEmpty() ? this.liveRows : this.appliedRows;
+
+                    List<Matcher<T>> columnMatchers = new ArrayList<Matcher<T>>();
+                    BitSet visibleRows = (BitSet) this.liveRows.clone();
+                    for (Entry<Integer, Object> mapEntry : filterIndexToObjectMap.entrySet()) {
+                        Matcher<T> columnMatcher = filterColumn(mapEntry.getKey(), mapEntry.getValue(), visibleRows);
+                        if (columnMatcher != null) {
+                            columnMatchers.add(columnMatcher);
+                        }
+                    }
+
+                    this.indexMatcherEditor.apply(new IndexMatcher(new CompositeMatcher<T>(columnMatchers, true), visibleRows), previousRows);
+                    this.appliedRows = visibleRows;
+                }
+            } finally {
+                this.filterLock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            LOG.error("Error on applying a filter", e); //$NON-NLS-1$
+        }
+
+        this.lastFilter = new HashMap<Integer, Object>(filterIndexToObjectMap);
+    }
+
+    /**
+     * Removes all rows from the given visible rows that do not match the
+     * filter of the given column.
+     *
+     * @param columnIndex
+     *            The column index of the filter.
+     * @param filterObject
+     *            The value of the filter cell.
+     * @param visibleRows
+     *            The ids of the rows that match the filters of the already
+     *            processed columns. Updated to the rows that also match the
+     *            filter of the given column.
+     * @return The {@link Matcher} that represents the filter of the column, or
+     *         <code>null</code> if the column is not filtered.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Matcher<T> filterColumn(int columnIndex, Object filterObject, BitSet visibleRows) {
+        if (EditConstants.SELECT_ALL_ITEMS_VALUE.equals(filterObject)) {
+            return null;
+        }
+
+        IDisplayConverter displayConverter = getFilterContentDisplayConverter(columnIndex);
+        Comparator comparator = this.configRegistry.getConfigAttribute(
+                FilterRowConfigAttributes.FILTER_COMPARATOR,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + columnIndex);
+        ColumnIndex index = getColumnIndex(columnIndex, displayConverter, comparator);
+
+        if (filterObject instanceof Collection) {
+            return filterCollection(index, (Collection) filterObject, displayConverter, visibleRows);
+        }
+
+        String filterText = getStringFromColumnObject(columnIndex, filterObject);
+        String textDelimiter = this.configRegistry.getConfigAttribute(
+                FilterRowConfigAttributes.TEXT_DELIMITER,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + columnIndex);
+        TextMatchingMode textMatchingMode = this.configRegistry.getConfigAttribute(
+                FilterRowConfigAttributes.TEXT_MATCHING_MODE,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + columnIndex);
+
+        List<Matcher<T>> matchers = new ArrayList<Matcher<T>>();
+        List<Matcher<T>> textMatchers = new ArrayList<Matcher<T>>();
+        BitSet textCandidates = new BitSet();
+        boolean scanText = false;
+
+        for (ParseResult parseResult : FilterRowUtils.parse(filterText, textDelimiter, textMatchingMode)) {
+            try {
+                MatchType matchOperation = parseResult.getMatchOperation();
+                if (matchOperation == MatchType.NONE) {
+                    textMatchers.add(getTextMatcherEditor(
+                            columnIndex,
+                            textMatchingMode,
+                            displayConverter,
+                            parseResult.getValueToMatch()).getMatcher());
+
+                    BitSet candidates = index.getTextCandidates(textMatchingMode, parseResult.getValueToMatch());
+                    if (candidates != null) {
+                        textCandidates.or(candidates);
+                    } else {
+                        scanText = true;
+                    }
+                } else {
+                    Object threshold = displayConverter.displayToCanonicalValue(parseResult.getValueToMatch());
+                    Matcher<T> thresholdMatcher = getThresholdMatcherEditor(
+                            columnIndex,
+                            threshold,
+                            comparator,
+                            getColumnValueProvider(columnIndex),
+                            matchOperation).getMatcher();
+                    matchers.add(thresholdMatcher);
+
+                    BitSet matches = index.getThresholdMatches(matchOperation, threshold);
+                    if (matches != null) {
+                        visibleRows.and(matches);
+                    } else {
+                        verify(visibleRows, thresholdMatcher);
+                    }
+                }
+            } catch (PatternSyntaxException e) {
+                LOG.warn("Error on applying a filter: " + e.getLocalizedMessage()); //$NON-NLS-1$
+            }
+        }
+
+        if (!textMatchers.isEmpty()) {
+            Matcher<T> textMatcher = new CompositeMatcher<T>(textMatchers, false);
+            matchers.add(textMatcher);
+
+            if (!scanText) {
+                visibleRows.and(textCandidates);
+            }
+            verify(visibleRows, textMatcher);
+        }
+
+        return matchers.isEmpty() ? null : new CompositeMatcher<T>(matchers, true);
+    }
+
+    /**
+     * Removes all rows from the given visible rows whose display value is not
+     * contained in the given collection of filter values.
+     *
+     * @param index
+     *            The index of the filtered column.
+     * @param filterCollection
+     *            The values selected in the filter cell.
+     * @param displayConverter
+     *            The converter for the cell values of the column.
+     * @param visibleRows
+     *            The ids of the rows that match the filters of the already
+     *            processed columns.
+     * @return The {@link Matcher} that represents the filter of the column.
+     */
+    @SuppressWarnings("rawtypes")
+    private Matcher<T> filterCollection(ColumnIndex index, Collection filterCollection,
+            IDisplayConverter displayConverter, BitSet visibleRows) {
+
+        if (filterCollection.isEmpty()) {
+            visibleRows.clear();
+            return new CompositeMatcher<T>(Collections.<Matcher<T>> emptyList(), false);
+        }
+
+        IDisplayConverter filterConverter = this.configRegistry.getConfigAttribute(
+                FilterRowConfigAttributes.FILTER_DISPLAY_CONVERTER,
+                DisplayMode.NORMAL,
+                FilterRowDataLayer.FILTER_ROW_COLUMN_LABEL_PREFIX + index.columnIndex);
+
+        // build the same regular expression as the
+        // ComboBoxGlazedListsFilterStrategy for verification
+        StringBuilder regex = new StringBuilder();
+        BitSet candidates = new BitSet();
+        for (Object value : filterCollection) {
+            Object converted = filterConverter.canonicalToDisplayValue(value);
+            String displayValue = (converted != null) ? converted.toString() : ""; //$NON-NLS-1$
+
+            if (regex.length() > 0) {
+                regex.append("|"); //$NON-NLS-1$
+            }
+            regex.append(displayValue.isEmpty() ? "^$" : Pattern.quote(displayValue)); //$NON-NLS-1$
+
+            candidates.or(index.getEqualMatches(fold(displayValue)));
+        }
+
+        Matcher<T> matcher = getTextMatcherEditor(
+                index.columnIndex,
+                TextMatchingMode.REGULAR_EXPRESSION,
+                displayConverter,
+                "(" + regex + ")").getMatcher(); //$NON-NLS-1$ //$NON-NLS-2$
+
+        visibleRows.and(candidates);
+        verify(visibleRows, matcher);
+        return matcher;
+    }
+
+    /**
+     * Removes all rows from the given row ids that do not match the given
+     * matcher.
+     */
+    @SuppressWarnings("unchecked")
+    private void verify(BitSet rowIds, Matcher<T> matcher) {
+        for (int id = rowIds.nextSetBit(0); id >= 0; id = rowIds.nextSetBit(id + 1)) {
+            if (!matcher.matches((T) this.rows[id])) {
+                rowIds.clear(id);
+            }
+        }
+    }
+
+    private ColumnIndex getColumnIndex(int columnIndex, IDisplayConverter displayConverter, Comparator<?> comparator) {
+        ColumnIndex index = this.columnIndexes.get(columnIndex);
+        if (index == null || index.displayConverter != displayConverter || index.comparator != comparator) {
+            // the configuration changed, so the index needs to be rebuilt
+            index = new ColumnIndex(columnIndex, displayConverter, comparator);
+            this.columnIndexes.put(columnIndex, index);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuilds the row ids from the base list and drops all column indexes.
+     */
+    private void rebuild() {
+        this.rowIds.clear();
+        this.rows = new Object[Math.max(16, this.baseList.size())];
+        this.rowReferences = new int[this.rows.length];
+        this.freeIdCount = 0;
+        this.nextId = 0;
+        this.liveRows.clear();
+        this.columnIndexes.clear();
+        this.appliedRows = null;
+
+        this.listIds = new int[this.rows.length];
+        this.listSize = 0;
+        for (T row : this.baseList) {
+            this.listIds[this.listSize++] = addRow(row);
+        }
+        this.invalid = false;
+    }
+
+    /**
+     * Updates the row ids and the column indexes for the given list changes
+     * of the base list. The row that is deleted or replaced at a list index
+     * is taken from the row ids per list index, as the old value of a list
+     * change is not reliably provided by GlazedLists.
+     *
+     * @param listChanges
+     *            The list changes of the base list.
+     */
+    private void handleListChange(ListEvent<T> listChanges) {
+        if (this.invalid) {
+            return;
+        }
+
+        if (listChanges.isReordering()) {
+            // reordering does not change the row objects, only their position
+            int[] reorderMap = listChanges.getReorderMap();
+            if (reorderMap.length != this.listSize) {
+                this.invalid = true;
+                return;
+            }
+            int[] reordered = new int[this.listIds.length];
+            for (int i = 0; i < reorderMap.length; i++) {
+                reordered[i] = this.listIds[reorderMap[i]];
+            }
+            this.listIds = reordered;
+            return;
+        }
+        this.appliedRows = null;
+
+        EventList<T> sourceList = listChanges.getSourceList();
+        while (listChanges.next()) {
+            int type = listChanges.getType();
+            int listIndex = listChanges.getIndex();
+            if (listIndex > this.listSize || (type != ListEvent.INSERT && listIndex == this.listSize)) {
+                // the row ids are out of sync with the base list
+                this.invalid = true;
+                return;
+            }
+
+            if (type == ListEvent.INSERT) {
+                insertListId(listIndex, addRow(sourceList.get(listIndex)));
+            } else if (type == ListEvent.DELETE) {
+                removeRow(removeListId(listIndex));
+            } else {
+                int oldId = this.listIds[listIndex];
+                T newValue = sourceList.get(listIndex);
+                if (this.rows[oldId] == newValue) {
+                    updateRow(oldId, newValue);
+                } else {
+                    removeRow(oldId);
+                    this.listIds[listIndex] = addRow(newValue);
+                }
+            }
+        }
+    }
+
+    private void insertListId(int listIndex, int id) {
+        if (this.listSize == this.listIds.length) {
+            this.listIds = Arrays.copyOf(this.listIds, this.listIds.length * 2);
+        }
+        System.arraycopy(this.listIds, listIndex, this.listIds, listIndex + 1, this.listSize - listIndex);
+        this.listIds[listIndex] = id;
+        this.listSize++;
+    }
+
+    private int removeListId(int listIndex) {
+        int id = this.listIds[listIndex];
+        System.arraycopy(this.listIds, listIndex + 1, this.listIds, listIndex, this.listSize - listIndex - 1);
+        this.listSize--;
+        return id;
+    }
+
+    private int addRow(T row) {
+        Integer existing = this.rowIds.get(row);
+        if (existing != null) {
+            this.rowReferences[existing]++;
+            return existing;
+        }
+
+        int id;
+        if (this.freeIdCount > 0) {
+            id = this.freeIds[--this.freeIdCount];
+        } else {
+            id = this.nextId++;
+            if (id >= this.rows.length) {
+                int capacity = this.rows.length * 2;
+                this.rows = Arrays.copyOf(this.rows, capacity);
+                this.rowReferences = Arrays.copyOf(this.rowReferences, capacity);
+            }
+        }
+
+        this.rows[id] = row;
+        this.rowReferences[id] = 1;
+        this.rowIds.put(row, id);
+        this.liveRows.set(id);
+
+        for (ColumnIndex index : this.columnIndexes.values()) {
+            index.add(id, row);
+        }
+        return id;
+    }
+
+    private void removeRow(int id) {
+        if (--this.rowReferences[id] > 0) {
+            return;
+        }
+
+        this.rowIds.remove(this.rows[id]);
+        this.rows[id] = null;
+        this.liveRows.clear(id);
+
+        if (this.freeIdCount == this.freeIds.length) {
+            this.freeIds = Arrays.copyOf(this.freeIds, this.freeIds.length * 2);
+        }
+        this.freeIds[this.freeIdCount++] = id;
+
+        for (ColumnIndex index : this.columnIndexes.values()) {
+            index.remove(id);
+        }
+    }
+
+    private void updateRow(int id, T row) {
+        for (ColumnIndex index : this.columnIndexes.values()) {
+            index.update(id, row);
+        }
+    }
+
+    /**
+     * Removes the list listener from the base list. Needs to be called if the
+     * strategy is not used anymore but the base list is still in use.
+     */
+    public void dispose() {
+        this.filterLock.writeLock().lock();
+        try {
+            this.baseList.removeListEventListener(this.listChangeListener);
+            this.invalid = true;
+            this.columnIndexes.clear();
+        } finally {
+            this.filterLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes the case of the given text the same way for the index and
+     * the filter values, so a case insensitive match of the GlazedLists
+     * TextMatcherEditor is always a match in the index.
+     *
+     * @param text
+     *            The text to normalize.
+     * @return The normalized text with the same length as the given text.
+     */
+    static String fold(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Collects the distinct n-grams of the given normalized text.
+     */
+    static Set<Long> getGrams(String text) {
+        Set<Long> grams = new HashSet<Long>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * The value indexes of a single column. The hash, sorted and n-gram
+     * indexes are only created on the first filter that needs them. Index
+     * entries are never removed on row changes, instead outdated entries are
+     * skipped on lookup by checking the current value of the row. If the
+     * number of outdated entries exceeds the number of rows, the indexes are
+     * dropped and rebuilt on the next lookup.
+     */
+    private final class ColumnIndex {
+
+        final int columnIndex;
+        final IDisplayConverter displayConverter;
+        @SuppressWarnings("rawtypes")
+        final Comparator comparator;
+
+        /** The column value per row id. */
+        Object[] values;
+        /** The normalized display value per row id. */
+        String[] texts;
+        /** The key in the sorted index per row id. */
+        Object[] sortedKeys;
+
+        Map<String, PostingList> hashIndex;
+        TreeMap<Object, PostingList> sortedIndex;
+        Map<Long, PostingList> gramIndex;
+
+        int staleEntries;
+
+        ColumnIndex(int columnIndex, IDisplayConverter displayConverter, Comparator<?> comparator) {
+            this.columnIndex = columnIndex;
+            this.displayConverter = displayConverter;
+            this.comparator = comparator;
+
+            int capacity = IndexedGlazedListsFilterStrategy.this.rows.length;
+            this.values = new Object[capacity];
+            this.texts = new String[capacity];
+            BitSet live = IndexedGlazedListsFilterStrategy.this.liveRows;
+            for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                setValue(id, IndexedGlazedListsFilterStrategy.this.rows[id]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void setValue(int id, Object row) {
+            if (id >= this.values.length) {
+                int capacity = IndexedGlazedListsFilterStrategy.this.rows.length;
+                this.values = Arrays.copyOf(this.values, capacity);
+                this.texts = Arrays.copyOf(this.texts, capacity);
+                if (this.sortedKeys != null) {
+                    this.sortedKeys = Arrays.copyOf(this.sortedKeys, capacity);
+                }
+            }
+
+            Object value = IndexedGlazedListsFilterStrategy.this.columnAccessor.getDataValue((T) row, this.columnIndex);
+            Object displayValue = this.displayConverter.canonicalToDisplayValue(value);
+            this.values[id] = value;
+            this.texts[id] = fold(displayValue != null ? displayValue.toString() : ""); //$NON-NLS-1$
+        }
+
+        void add(int id, Object row) {
+            setValue(id, row);
+            addEntries(id);
+        }
+
+        void update(int id, Object row) {
+            Object oldValue = this.values[id];
+            String oldText = this.texts[id];
+            setValue(id, row);
+
+            boolean sameValue = (oldValue == null) ? this.values[id] == null : oldValue.equals(this.values[id]);
+            if (!sameValue || !oldText.equals(this.texts[id])) {
+                this.staleEntries++;
+                addEntries(id);
+            }
+        }
+
+        void remove(int id) {
+            this.values[id] = null;
+            this.texts[id] = null;
+            if (this.sortedKeys != null) {
+                this.sortedKeys[id] = null;
+            }
+            this.staleEntries++;
+        }
+
+        private void addEntries(int id) {
+            if (this.hashIndex != null) {
+                addHashEntry(id);
+            }
+            if (this.sortedIndex != null) {
+                try {
+                    addSortedEntry(id);
+                } catch (RuntimeException e) {
+                    // the new value can not be compared with the existing
+                    // values, the threshold filters are evaluated per row
+                    this.sortedIndex = null;
+                    this.sortedKeys = null;
+                }
+            }
+            if (this.gramIndex != null) {
+                addGramEntries(id);
+            }
+        }
+
+        private void addHashEntry(int id) {
+            PostingList postings = this.hashIndex.get(this.texts[id]);
+            if (postings == null) {
+                postings = new PostingList();
+                this.hashIndex.put(this.texts[id], postings);
+            }
+            postings.add(id);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void addSortedEntry(int id) {
+            Object value = this.values[id];
+            Entry<Object, PostingList> entry = this.sortedIndex.ceilingEntry(value);
+            if (entry != null && this.comparator.compare(entry.getKey(), value) == 0) {
+                entry.getValue().add(id);
+                this.sortedKeys[id] = entry.getKey();
+            } else {
+                PostingList postings = new PostingList();
+                postings.add(id);
+                this.sortedIndex.put(value, postings);
+                this.sortedKeys[id] = value;
+            }
+        }
+
+        private void addGramEntries(int id) {
+            for (Long gram : getGrams(this.texts[id])) {
+                PostingList postings = this.gramIndex.get(gram);
+                if (postings == null) {
+                    postings = new PostingList();
+                    this.gramIndex.put(gram, postings);
+                }
+                postings.add(id);
+            }
+        }
+
+        /**
+         * Drops all indexes if they contain more outdated than current
+         * entries.
+         */
+        private void checkStaleEntries() {
+            if (this.staleEntries > Math.max(MIN_STALE_ENTRIES, IndexedGlazedListsFilterStrategy.this.rowIds.size())) {
+                this.hashIndex = null;
+                this.sortedIndex = null;
+                this.sortedKeys = null;
+                this.gramIndex = null;
+                this.staleEntries = 0;
+            }
+        }
+
+        /**
+         *
+         * @param foldedText
+         *            The normalized display value to search.
+         * @return The ids of the rows whose normalized display value is equal
+         *         to the given value.
+         */
+        BitSet getEqualMatches(String foldedText) {
+            checkStaleEntries();
+            if (this.hashIndex == null) {
+                this.hashIndex = new HashMap<String, PostingList>();
+                BitSet live = IndexedGlazedListsFilterStrategy.this.liveRows;
+                for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                    addHashEntry(id);
+                }
+            }
+
+            BitSet result = new BitSet();
+            PostingList postings = this.hashIndex.get(foldedText);
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    int id = postings.ids[i];
+                    if (foldedText.equals(this.texts[id])) {
+                        result.set(id);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         *
+         * @param textMatchingMode
+         *            The text matching mode of the column.
+         * @param filterText
+         *            The text of the filter.
+         * @return The ids of all rows that might match the text filter, or
+         *         <code>null</code> if the text filter can not be answered by
+         *         an index.
+         */
+        BitSet getTextCandidates(TextMatchingMode textMatchingMode, String filterText) {
+            if (filterText == null) {
+                return null;
+            }
+
+            String foldedText = fold(filterText);
+            switch (textMatchingMode) {
+                case EXACT:
+                    return getEqualMatches(foldedText);
+                case REGULAR_EXPRESSION:
+                    return null;
+                default:
+                    // the n-grams of a prefix are contained in the text too,
+                    // so the n-gram index serves STARTS_WITH as well
+                    return foldedText.length() < GRAM_LENGTH ? null : getGramCandidates(foldedText);
+            }
+        }
+
+        private BitSet getGramCandidates(String foldedText) {
+            checkStaleEntries();
+            if (this.gramIndex == null) {
+                this.gramIndex = new HashMap<Long, PostingList>();
+                BitSet live = IndexedGlazedListsFilterStrategy.this.liveRows;
+                for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                    addGramEntries(id);
+                }
+            }
+
+            // start with the most selective n-gram
+            List<PostingList> postingLists = new ArrayList<PostingList>();
+            for (Long gram : getGrams(foldedText)) {
+                PostingList postings = this.gramIndex.get(gram);
+                if (postings == null) {
+                    return new BitSet();
+                }
+                postingLists.add(postings);
+            }
+            Collections.sort(postingLists, new Comparator<PostingList>() {
+                @Override
+                public int compare(PostingList o1, PostingList o2) {
+                    return Integer.compare(o1.size, o2.size);
+                }
+            });
+
+            BitSet result = null;
+            for (PostingList postings : postingLists) {
+                BitSet ids = new BitSet();
+                for (int i = 0; i < postings.size; i++) {
+                    ids.set(postings.ids[i]);
+                }
+                if (result == null) {
+                    result = ids;
+                } else {
+                    result.and(ids);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            // outdated entries of removed rows are filtered out here, the
+            // entries of changed rows are filtered out on verification
+            result.and(IndexedGlazedListsFilterStrategy.this.liveRows);
+            return result;
+        }
+
+        /**
+         *
+         * @param matchOperation
+         *            The threshold operation.
+         * @param threshold
+         *            The threshold value.
+         * @return The ids of all rows that match the threshold filter, or
+         *         <code>null</code> if the threshold filter can not be
+         *         answered by the sorted index.
+         */
+        @SuppressWarnings("unchecked")
+        BitSet getThresholdMatches(MatchType matchOperation, Object threshold) {
+            if (this.comparator == null) {
+                return null;
+            }
+
+            try {
+                checkStaleEntries();
+                if (this.sortedIndex == null) {
+                    this.sortedIndex = new TreeMap<Object, PostingList>(this.comparator);
+                    this.sortedKeys = new Object[this.values.length];
+                    BitSet live = IndexedGlazedListsFilterStrategy.this.liveRows;
+                    for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                        addSortedEntry(id);
+                    }
+                }
+
+                NavigableMap<Object, PostingList> range;
+                switch (matchOperation) {
+                    case GREATER_THAN:
+                        range = this.sortedIndex.tailMap(threshold, false);
+                        break;
+                    case GREATER_THAN_OR_EQUAL:
+                        range = this.sortedIndex.tailMap(threshold, true);
+                        break;
+                    case LESS_THAN:
+                        range = this.sortedIndex.headMap(threshold, false);
+                        break;
+                    case LESS_THAN_OR_EQUAL:
+                        range = this.sortedIndex.headMap(threshold, true);
+                        break;
+                    default:
+                        range = this.sortedIndex.subMap(threshold, true, threshold, true);
+                }
+
+                BitSet result = new BitSet();
+                for (Entry<Object, PostingList> entry : range.entrySet()) {
+                    PostingList postings = entry.getValue();
+                    for (int i = 0; i < postings.size; i++) {
+                        int id = postings.ids[i];
+                        if (this.sortedKeys[id] == entry.getKey()) {
+                            result.set(id);
+                        }
+                    }
+                }
+                // removed rows can not be detected via the key for null values
+                result.and(IndexedGlazedListsFilterStrategy.this.liveRows);
+
+                if (matchOperation == MatchType.NOT_EQUAL) {
+                    BitSet equal = result;
+                    result = (BitSet) IndexedGlazedListsFilterStrategy.this.liveRows.clone();
+                    result.andNot(equal);
+                }
+                return result;
+            } catch (RuntimeException e) {
+                // the values of the column can not be sorted with the
+                // configured comparator, e.g. because of mixed types
+                this.sortedIndex = null;
+                this.sortedKeys = null;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Growable list of row ids.
+     */
+    private static final class PostingList {
+
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            this.ids[this.size++] = id;
+        }
+    }
+
+    /**
+     * {@link Matcher} that combines multiple matchers via AND or OR.
+     */
+    private static final class CompositeMatcher<E> implements Matcher<E> {
+
+        private final List<Matcher<E>> matchers;
+        private final boolean and;
+
+        CompositeMatcher(List<Matcher<E>> matchers, boolean and) {
+            this.matchers = matchers;
+            this.and = and;
+        }
+
+        @Override
+        public boolean matches(E item) {
+            for (Matcher<E> matcher : this.matchers) {
+                if (matcher.matches(item) != this.and) {
+                    return !this.and;
+                }
+            }
+            return this.and;
+        }
+    }
+
+    /**
+     * {@link Matcher} that looks up the calculated visible state of a row
+     * while the FilterList is re-filtered because of a filter change. Rows
+     * that are added or changed later are tested against the column matchers
+     * directly.
+     */
+    private final class IndexMatcher implements Matcher<T> {
+
+        private final Matcher<T> matcher;
+        private BitSet visibleRows;
+
+        IndexMatcher(Matcher<T> matcher, BitSet visibleRows) {
+            this.matcher = matcher;
+            this.visibleRows = visibleRows;
+        }
+
+        @Override
+        public boolean matches(T item) {
+            BitSet visible = this.visibleRows;
+            if (visible != null) {
+                Integer id = IndexedGlazedListsFilterStrategy.this.rowIds.get(item);
+                if (id != null) {
+                    return visible.get(id);
+                }
+            }
+            return this.matcher.matches(item);
+        }
+    }
+
+    /**
+     * The MatcherEditor that is added to the CompositeMatcherEditor of the
+     * FilterList to apply the calculated filter result.
+     */
+    private final class IndexMatcherEditor extends AbstractMatcherEditor<T> {
+
+        /**
+         * Applies the given matcher and informs the FilterList if the filter
+         * was constrained or relaxed compared to the previous result, so only
+         * the affected rows are tested.
+         *
+         * @param matcher
+         *            The matcher to apply.
+         * @param previousRows
+         *            The ids of the rows that matched the previous filter, or
+         *            <code>null</code> if unknown.
+         */
+        void apply(IndexMatcher matcher, BitSet previousRows) {
+            try {
+                if (previousRows == null) {
+                    fireChanged(matcher);
+                    return;
+                }
+
+                BitSet added = (BitSet) matcher.visibleRows.clone();
+                added.andNot(previousRows);
+                if (added.isEmpty()) {
+                    fireConstrained(matcher);
+                    return;
+                }
+
+                BitSet removed = (BitSet) previousRows.clone();
+                removed.andNot(matcher.visibleRows);
+                if (removed.isEmpty()) {
+                    fireRelaxed(matcher);
+                } else {
+                    fireChanged(matcher);
+                }
+            } finally {
+                // the visible rows are only valid for the re-filtering
+                // triggered by the filter change
+                matcher.visibleRows = null;
+            }
+        }
+
+        void matchAll() {
+            fireMatchAll();
+        }
+    }
+}
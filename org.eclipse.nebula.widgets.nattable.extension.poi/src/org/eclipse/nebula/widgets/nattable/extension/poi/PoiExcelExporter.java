@@ -66,6 +66,7 @@ public abstract class PoiExcelExporter implements ILayerExporter {
     private final IOutputStreamProvider outputStreamProvider;
 
     private Map<ExcelCellStyleAttributes, CellStyle> xlCellStyles;
+    private Map<FontKey, Font> xlFonts;
 
     protected Workbook xlWorkbook;
     protected int sheetNumber;
@@ -104,6 +105,7 @@ public OutputStream getOutputStream(Shell shell) {
     @Override
     public void exportBegin(OutputStream outputStream) throws IOException {
         this.xlCellStyles = new HashMap<ExcelCellStyleAttributes, CellStyle>();
+        this.xlFonts = new HashMap<FontKey, Font>();
         this.xlWorkbook = createWorkbook();
         // the hidden column positions are determined by inspection so
         // it needs to be cleared at the beginning
@@ -112,15 +114,35 @@ public void exportBegin(OutputStream outputStream) throws IOException {
 
     @Override
     public void exportEnd(OutputStream outputStream) throws IOException {
-        this.xlWorkbook.write(outputStream);
-
-        this.xlCellStyles = null;
-        this.xlWorkbook = null;
-        this.sheetNumber = 0;
-        this.xlSheet = null;
-        this.xlRow = null;
-        this.drawing = null;
-        this.currentRow = 0;
+        try {
+            this.xlWorkbook.write(outputStream);
+        } finally {
+            disposeWorkbook(this.xlWorkbook);
+
+            this.xlCellStyles = null;
+            this.xlFonts = null;
+            this.xlWorkbook = null;
+            this.sheetNumber = 0;
+            this.xlSheet = null;
+            this.xlRow = null;
+            this.drawing = null;
+            this.helper = null;
+            this.currentRow = 0;
+        }
+    }
+
+    /**
+     * Called at the end of the export after the workbook was written, also if
+     * writing the workbook failed. Subclasses that use a streaming workbook
+     * which buffers flushed rows in temporary files should release those
+     * resources here. The default implementation does nothing.
+     *
+     * @param workbook
+     *            The workbook that was exported.
+     * @since 2.0
+     */
+    protected void disposeWorkbook(Workbook workbook) {
+        // nothing to dispose by default
     }
 
     @Override
@@ -330,8 +352,9 @@ private CellStyle getExcelCellStyle(
             String dataFormat, int hAlign, int vAlign,
             boolean vertical, boolean wrap, boolean border) {
 
-        CellStyle xlCellStyle = this.xlCellStyles.get(
-                new ExcelCellStyleAttributes(fg, bg, fontData, dataFormat, hAlign, vAlign, vertical, wrap, border));
+        ExcelCellStyleAttributes styleAttributes =
+                new ExcelCellStyleAttributes(fg, bg, fontData, dataFormat, hAlign, vAlign, vertical, wrap, border);
+        CellStyle xlCellStyle = this.xlCellStyles.get(styleAttributes);
 
         if (xlCellStyle == null) {
             xlCellStyle = this.xlWorkbook.createCellStyle();
@@ -342,10 +365,17 @@ private CellStyle getExcelCellStyle(
                 xlCellStyle.setFillPattern(CellStyle.SOLID_FOREGROUND);
             }
 
-            Font xlFont = this.xlWorkbook.createFont();
-            setFontColor(xlFont, fg);
-            xlFont.setFontName(fontData.getName());
-            xlFont.setFontHeightInPoints((short) fontData.getHeight());
+            // styles that only differ in colors or alignment share the same
+            // font, as the number of fonts in a workbook is limited
+            FontKey fontKey = new FontKey(fg, fontData);
+            Font xlFont = this.xlFonts.get(fontKey);
+            if (xlFont == null) {
+                xlFont = this.xlWorkbook.createFont();
+                setFontColor(xlFont, fg);
+                xlFont.setFontName(fontData.getName());
+                xlFont.setFontHeightInPoints((short) fontData.getHeight());
+                this.xlFonts.put(fontKey, xlFont);
+            }
             xlCellStyle.setFont(xlFont);
 
             if (vertical)
@@ -389,8 +419,7 @@ private CellStyle getExcelCellStyle(
                 xlCellStyle.setDataFormat(createHelper.createDataFormat().getFormat(dataFormat));
             }
 
-            this.xlCellStyles.put(
-                    new ExcelCellStyleAttributes(fg, bg, fontData, dataFormat, hAlign, vAlign, vertical, wrap, border), xlCellStyle);
+            this.xlCellStyles.put(styleAttributes, xlCellStyle);
         }
         return xlCellStyle;
     }
@@ -658,4 +687,39 @@ private short getPoiRowHeight(int pixel) {
         points *= 21;
         return (short) (points + 32);
     }
+
+    /**
+     * Key for the fonts created in the workbook, consisting of the font
+     * foreground color and the font data.
+     */
+    private static final class FontKey {
+
+        private final Color fg;
+        private final FontData fontData;
+
+        FontKey(Color fg, FontData fontData) {
+            this.fg = fg;
+            this.fontData = fontData;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((this.fg == null) ? 0 : this.fg.hashCode());
+            result = prime * result + ((this.fontData == null) ? 0 : this.fontData.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            FontKey other = (FontKey) obj;
+            return (this.fg == null ? other.fg == null : this.fg.equals(other.fg))
+                    && (this.fontData == null ? other.fontData == null : this.fontData.equals(other.fontData));
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.test.performance.jmh;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executes the JMH benchmarks in this package and writes the results as JSON
+ * report to <code>target/jmh/nattable-&lt;label&gt;.json</code>. The report
+ * of two releases can be compared with any JMH result viewer or plain diff.
+ * <p>
+ * Usage: <code>BenchmarkRunner [label] [benchmark-regex] [rowCount...]</code>
+ * </p>
+ * <ul>
+ * <li>label - the label used for the report file name, typically the NatTable
+ * version that is benchmarked. Default is <i>snapshot</i>.</li>
+ * <li>benchmark-regex - the regular expression to select the benchmarks to
+ * execute. Default is all benchmarks in this package.</li>
+ * <li>rowCount - the row counts to benchmark. Default is the value of the
+ * {@link org.openjdk.jmh.annotations.Param} annotation on the
+ * benchmark.</li>
+ * </ul>
+ * <p>
+ * Note that JMH needs the generated benchmark sources, so the JMH annotation
+ * processor (jmh-generator-annprocess) needs to be enabled for this project.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String label = args.length > 0 ? args[0] : "snapshot"; //$NON-NLS-1$
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*"; //$NON-NLS-1$
+
+        File reportDir = new File("target/jmh"); //$NON-NLS-1$
+        reportDir.mkdirs();
+
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(include)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(reportDir, "nattable-" + label + ".json").getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$
+
+        if (args.length > 2) {
+            String[] rowCounts = new String[args.length - 2];
+            System.arraycopy(args, 2, rowCounts, 0, rowCounts.length);
+            builder.param("rowCount", rowCounts); //$NON-NLS-1$
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Original authors and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Original authors and others - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.nattable.test.performance.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.nebula.widgets.nattable.grid.data.DummyBodyDataProvider;
+import org.eclipse.nebula.widgets.nattable.layer.DataLayer;
+import org.eclipse.nebula.widgets.nattable.layer.cell.ILayerCell;
+import org.eclipse.nebula.widgets.nattable.layer.stack.DefaultBodyLayerStack;
+import org.eclipse.nebula.widgets.nattable.selection.SelectionLayer;
+import org.eclipse.nebula.widgets.nattable.util.IClientAreaProvider;
+import org.eclipse.nebula.widgets.nattable.viewport.ViewportLayer;
+import org.eclipse.swt.graphics.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmark for the {@link DefaultBodyLayerStack}, which is a
+ * {@link DataLayer} wrapped by a ColumnReorderLayer, a ColumnHideShowLayer, a
+ * {@link SelectionLayer} and a {@link ViewportLayer}.
+ * <p>
+ * The benchmark measures the operations that are executed for every cell on
+ * rendering, i.e. cell retrieval, data value retrieval, pixel calculation and
+ * position/index conversion. The accessed positions are calculated upfront
+ * with a fixed seed, so two runs operate on exactly the same positions and the
+ * results of different releases can be compared.
+ * </p>
+ * <p>
+ * Use {@link BenchmarkRunner} to execute the benchmarks and create a report.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BodyLayerStackBenchmark {
+
+    /**
+     * The seed that is used to calculate the positions to access.
+     */
+    static final long SEED = 4711L;
+
+    /**
+     * The number of positions that are calculated upfront.
+     */
+    static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * The number of columns in the benchmark data.
+     */
+    static final int COLUMN_COUNT = 200;
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int rowCount;
+
+    DefaultBodyLayerStack bodyLayerStack;
+    SelectionLayer selectionLayer;
+    ViewportLayer viewportLayer;
+
+    int[] viewportColumnPositions;
+    int[] viewportRowPositions;
+    int[] columnPositions;
+    int[] rowPositions;
+
+    int sampleIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DataLayer bodyDataLayer = new DataLayer(new DummyBodyDataProvider(COLUMN_COUNT, this.rowCount));
+        this.bodyLayerStack = new DefaultBodyLayerStack(bodyDataLayer);
+        this.bodyLayerStack.setClientAreaProvider(new IClientAreaProvider() {
+
+            @Override
+            public Rectangle getClientArea() {
+                return new Rectangle(0, 0, 1800, 800);
+            }
+
+        });
+        this.selectionLayer = this.bodyLayerStack.getSelectionLayer();
+        this.viewportLayer = this.bodyLayerStack.getViewportLayer();
+
+        // scroll to the middle of the table to avoid measuring the special
+        // case of an origin at 0
+        this.viewportLayer.setOriginY(this.selectionLayer.getStartYOfRowPosition(this.rowCount / 2));
+
+        // hide and reorder some columns so the transformations are not no-ops
+        this.bodyLayerStack.getColumnReorderLayer().reorderColumnPosition(5, 15);
+        this.bodyLayerStack.getColumnHideShowLayer().hideColumnPositions(2, 20, 40);
+
+        Random random = new Random(SEED);
+        int visibleColumns = this.viewportLayer.getColumnCount();
+        int visibleRows = this.viewportLayer.getRowCount();
+        int columns = this.selectionLayer.getColumnCount();
+        int rows = this.selectionLayer.getRowCount();
+
+        this.viewportColumnPositions = new int[SAMPLE_SIZE];
+        this.viewportRowPositions = new int[SAMPLE_SIZE];
+        this.columnPositions = new int[SAMPLE_SIZE];
+        this.rowPositions = new int[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            this.viewportColumnPositions[i] = random.nextInt(visibleColumns);
+            this.viewportRowPositions[i] = random.nextInt(visibleRows);
+            this.columnPositions[i] = random.nextInt(columns);
+            this.rowPositions[i] = random.nextInt(rows);
+        }
+    }
+
+    private int next() {
+        this.sampleIndex = (this.sampleIndex + 1) & (SAMPLE_SIZE - 1);
+        return this.sampleIndex;
+    }
+
+    @Benchmark
+    public ILayerCell getCellByPosition() {
+        int i = next();
+        return this.bodyLayerStack.getCellByPosition(this.viewportColumnPositions[i], this.viewportRowPositions[i]);
+    }
+
+    @Benchmark
+    public Object getDataValueByPosition() {
+        int i = next();
+        return this.bodyLayerStack.getDataValueByPosition(this.viewportColumnPositions[i], this.viewportRowPositions[i]);
+    }
+
+    @Benchmark
+    public int getStartXOfColumnPosition() {
+        return this.bodyLayerStack.getStartXOfColumnPosition(this.viewportColumnPositions[next()]);
+    }
+
+    @Benchmark
+    public int getStartYOfRowPosition() {
+        return this.selectionLayer.getStartYOfRowPosition(this.rowPositions[next()]);
+    }
+
+    @Benchmark
+    public int getRowPositionByY() {
+        return this.selectionLayer.getRowPositionByY(this.selectionLayer.getHeight() / SAMPLE_SIZE * next());
+    }
+
+    @Benchmark
+    public void positionToIndex(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(this.selectionLayer.getColumnIndexByPosition(this.columnPositions[i]));
+        blackhole.consume(this.selectionLayer.getRowIndexByPosition(this.rowPositions[i]));
+    }
+
+    @Benchmark
+    public void indexToPosition(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(this.selectionLayer.getColumnPositionByIndex(this.columnPositions[i]));
+        blackhole.consume(this.selectionLayer.getRowPositionByIndex(this.rowPositions[i]));
+    }
+
+    @Benchmark
+    public void viewportToUnderlying(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(this.viewportLayer.localToUnderlyingColumnPosition(this.viewportColumnPositions[i]));
+        blackhole.consume(this.viewportLayer.localToUnderlyingRowPosition(this.viewportRowPositions[i]));
+    }
+
+}